@@ -7,11 +7,19 @@ import java.lang.reflect.Modifier;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,9 +27,16 @@ import org.gk.persistence.MySQLAdaptor;
 import org.gk.util.FileUtilities;
 import org.gk.util.GKApplicationUtilities;
 import org.reactome.release.qa.check.ChecksTwoDatabases;
+import org.reactome.release.qa.common.ConnectionPool;
+import org.reactome.release.qa.common.FusedScanCheck;
+import org.reactome.release.qa.common.FusedSweepCheck;
+import org.reactome.release.qa.common.InstanceEditTimeline;
 import org.reactome.release.qa.common.MySQLAdaptorManager;
 import org.reactome.release.qa.common.QACheck;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaClassScan;
+import org.reactome.release.qa.common.SchemaSweep;
+import org.reactome.release.qa.common.SkipListRegistry;
 import org.reflections.Reflections;
 	 
 /**
@@ -46,6 +61,9 @@ public class Main {
     };
 
     private static final String CHECKS_OPT = "checks";
+
+    /** The number of QA checks to run at the same time. */
+    private static final String THREADS_OPT = "threads";
     
     public static void main(String[] args) throws Exception {
         // Parse command line arguments.
@@ -54,104 +72,293 @@ public class Main {
         // Make the SQL adapter.
         MySQLAdaptorManager manager = MySQLAdaptorManager.getManager(cmdOpts);
         MySQLAdaptor dba = manager.getDBA();
-        MySQLAdaptor altDBA = null;
+        try {
+            // The most recent author of every reported instance is looked up
+            // in a run-wide index rather than instance by instance.
+            InstanceEditTimeline.register(dba);
+            // The skip lists are read once and shared by every check.
+            SkipListRegistry.preload();
         
-        // Get the list of QAs from packages
-        Reflections reflections = new Reflections(
-                "org.reactome.release.qa.check",
-                "org.reactome.release.qa.diagram",
-                "org.reactome.release.qa.graph");
+            // Get the list of QAs from packages
+            Reflections reflections = new Reflections(
+                    "org.reactome.release.qa.check",
+                    "org.reactome.release.qa.diagram",
+                    "org.reactome.release.qa.graph");
 
-        // The QA checks to run must have at least one annotation and
-        // be instantiable. Every runnable QA check must have an annotation
-        // that can be used as an inclusion critieria.
-        Set<Class<? extends QACheck>> allQAClasses = reflections.getSubTypesOf(QACheck.class);
-        Set<Class<? extends QACheck>> instantiable = allQAClasses.stream()
-                .filter(cls -> cls.getAnnotations().length > 0 &&
-                               !Modifier.isAbstract(cls.getModifiers()) &&
-                               !cls.isInterface())
-                .collect(Collectors.toSet());
-        
-        // The optional QA checks to include.
-        final Set<String> includes;
-        // The optional QA checks to exclude.
-        final Set<String> excludes;
-        // The QA checks to run.
-        Set<Class<? extends QACheck>> selected;
-        
-        // If checks were specified on the command line, then filter
-        // for those checks. Otherwise, check the configuration.
-        // The command line checks take precedence over the
-        // configuration.
-       @SuppressWarnings("unchecked")
-        Set<String> cmdIncludes = (Set<String>) cmdOpts.get(CHECKS_OPT);
-        if (cmdIncludes != null && !cmdIncludes.isEmpty()) {
-            selected = instantiable.stream()
-                    .filter(check -> cmdIncludes.contains(check.getSimpleName()))
+            // The QA checks to run must have at least one annotation and
+            // be instantiable. Every runnable QA check must have an annotation
+            // that can be used as an inclusion critieria.
+            Set<Class<? extends QACheck>> allQAClasses = reflections.getSubTypesOf(QACheck.class);
+            Set<Class<? extends QACheck>> instantiable = allQAClasses.stream()
+                    .filter(cls -> cls.getAnnotations().length > 0 &&
+                                   !Modifier.isAbstract(cls.getModifiers()) &&
+                                   !cls.isInterface())
                     .collect(Collectors.toSet());
-        } else {
+        
             // The optional QA checks to include.
-            includes = getIncludedQAs();
+            final Set<String> includes;
             // The optional QA checks to exclude.
-            excludes = getExcludedQAs();
-            // Excludes take precedence.
-            includes.removeAll(excludes);
-            if (!includes.isEmpty()) {
-                logger.info("Included QA check types: " + includes);        
-            }
-            if (!excludes.isEmpty()) {
-                logger.info("Excluded QA check types: " + excludes);        
-            }
-            selected = instantiable.stream()
-                        .filter(check -> isPicked(check, includes, excludes))
-                        .collect(Collectors.toSet());
-        }
+            final Set<String> excludes;
+            // The QA checks to run.
+            Set<Class<? extends QACheck>> selected;
         
-        File summaryFile = new File(output.getAbsolutePath(), SUMMARY_FILE_NM);
-        FileUtilities summary = new FileUtilities();
-        summary.setOutput(summaryFile.getPath());
-        summary.printLine(String.join(SUMMARY_DELIMITER, SUMMARY_HDGS));
-        // Run the QA checks.
-        for (Class<? extends QACheck> cls : selected) {
-            QACheck check;
-            try {
-                check = cls.getDeclaredConstructor().newInstance();
-            } catch (InstantiationException e) {
-                // Instantiation errors are remarkably uninformative.
-                logger.error("Could not instantiate " + cls.getName());
-                throw e;
+            // If checks were specified on the command line, then filter
+            // for those checks. Otherwise, check the configuration.
+            // The command line checks take precedence over the
+            // configuration.
+           @SuppressWarnings("unchecked")
+            Set<String> cmdIncludes = (Set<String>) cmdOpts.get(CHECKS_OPT);
+            if (cmdIncludes != null && !cmdIncludes.isEmpty()) {
+                selected = instantiable.stream()
+                        .filter(check -> cmdIncludes.contains(check.getSimpleName()))
+                        .collect(Collectors.toSet());
+            } else {
+                // The optional QA checks to include.
+                includes = getIncludedQAs();
+                // The optional QA checks to exclude.
+                excludes = getExcludedQAs();
+                // Excludes take precedence.
+                includes.removeAll(excludes);
+                if (!includes.isEmpty()) {
+                    logger.info("Included QA check types: " + includes);        
+                }
+                if (!excludes.isEmpty()) {
+                    logger.info("Excluded QA check types: " + excludes);        
+                }
+                selected = instantiable.stream()
+                            .filter(check -> isPicked(check, includes, excludes))
+                            .collect(Collectors.toSet());
             }
-            logger.info("Perform " + check.getDisplayName() + "...");
-            check.setMySQLAdaptor(dba);
-            // Some checks compare two databases to each other
-            // (usually test_reactome_## and test_reactome_##-1).
-            // These checks require the alternate database authorization
-            // properties.
-            if (check instanceof ChecksTwoDatabases) {
-                if (altDBA == null) {
-                    // If the adaptor throws an exception, it will be passed
-                    // up the call stack to the top level to stop process
-                    // execution.
-                    altDBA = MySQLAdaptorManager.getManager().getAlternateDBA();
+        
+            File summaryFile = new File(output.getAbsolutePath(), SUMMARY_FILE_NM);
+            FileUtilities summary = new FileUtilities();
+            summary.setOutput(summaryFile.getPath());
+            summary.printLine(String.join(SUMMARY_DELIMITER, SUMMARY_HDGS));
+            // Run the checks in a stable order, so that the summary lines
+            // are the same from one run to the next.
+            List<Class<? extends QACheck>> ordered = selected.stream()
+                    .sorted(Comparator.comparing(Class::getSimpleName))
+                    .collect(Collectors.toList());
+            AdaptorSupplier altDBA = () -> {
+                // If the adaptor throws an exception, it will be passed
+                // up the call stack to the top level to stop process
+                // execution.
+                return MySQLAdaptorManager.getManager().getAlternateDBA();
+            };
+            // The checks which scan the same schema classes share one scan.
+            Map<Class<? extends QACheck>, CompletedCheck> fused = runFusedChecks(ordered, dba, altDBA);
+            int threads = getThreadCount(cmdOpts);
+            if (threads > 1 && ordered.size() > 1) {
+                List<Future<CompletedCheck>> futures = new ArrayList<Future<CompletedCheck>>();
+                ExecutorService executor = submitChecks(ordered, fused, cmdOpts, threads, futures);
+                try {
+                    // The reports are written in check order as they become available.
+                    for (Future<CompletedCheck> future : futures) {
+                        writeReport(getCompleted(future), summary, output);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            } else {
+                for (Class<? extends QACheck> cls : ordered) {
+                    CompletedCheck completed = fused.containsKey(cls) ? fused.get(cls) : runCheck(cls, dba, altDBA);
+                    writeReport(completed, summary, output);
                 }
-                ((ChecksTwoDatabases)check).setOtherDBAdaptor(altDBA);
             }
+            summary.close();
+        } finally {
+            // The pooled connections are closed even if a check throws.
+            ConnectionPool.closeAll();
+        }
+    }
 
-            QAReport report = check.executeQACheck();
-            String title = check.getDisplayName().replace('_', ' ');
-            String summaryLine = String.join(SUMMARY_DELIMITER, title,
-                    Integer.toString(report.getReportLines().size()));
-            summary.printLine(summaryLine);
-            if (report.isEmpty()) {
-                logger.info("Nothing to report!");
+    private static void writeReport(CompletedCheck completed, FileUtilities summary, File output)
+            throws IOException {
+        QACheck check = completed.check;
+        QAReport report = completed.report;
+        String title = check.getDisplayName().replace('_', ' ');
+        String summaryLine = String.join(SUMMARY_DELIMITER, title,
+                Integer.toString(report.getReportLines().size()));
+        summary.printLine(summaryLine);
+        if (report.isEmpty()) {
+            logger.info(check.getDisplayName() + ": nothing to report!");
+        } else {
+            String fileName = check.getFileName();
+            report.output(fileName, output.getAbsolutePath());
+            logger.info("Check "+ output.getAbsolutePath() + "/" + fileName + " for report details.");
+        }
+    }
+
+    /**
+     * Submits the given checks to a bounded thread pool. Each worker thread
+     * has its own {@link MySQLAdaptorManager}, and therefore its own
+     * main and alternate {@link MySQLAdaptor}, since an adaptor and its
+     * instance cache cannot be shared between threads.
+     * 
+     * @param checks the checks to run
+     * @param fused the checks which were already run in a fused scan
+     * @param cmdOpts the command line options used to make the adaptors
+     * @param threads the maximum number of checks to run at the same time
+     * @param futures the list to which the check results are added in
+     *   check order
+     * @return the executor, which the caller shuts down
+     */
+    private static ExecutorService submitChecks(List<Class<? extends QACheck>> checks,
+            Map<Class<? extends QACheck>, CompletedCheck> fused, Map<String, Object> cmdOpts,
+            int threads, List<Future<CompletedCheck>> futures) {
+        logger.info("Running " + checks.size() + " QA checks on " + threads + " threads...");
+        ThreadLocal<MySQLAdaptorManager> managers =
+                ThreadLocal.withInitial(() -> MySQLAdaptorManager.getManager(cmdOpts));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (Class<? extends QACheck> cls : checks) {
+            if (fused.containsKey(cls)) {
+                futures.add(CompletableFuture.completedFuture(fused.get(cls)));
                 continue;
-            } else {
-                String fileName = check.getFileName();
-                report.output(fileName, output.getAbsolutePath());
-                logger.info("Check "+ output.getAbsolutePath() + "/" + fileName + " for report details.");
             }
+            futures.add(executor.submit(() -> {
+                MySQLAdaptorManager manager = managers.get();
+                return runCheck(cls, manager.getDBA(), manager::getAlternateDBA);
+            }));
+        }
+        return executor;
+    }
+
+    private static CompletedCheck getCompleted(Future<CompletedCheck> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // Stop the run as a failed sequential check would.
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Instantiates and runs the given check.
+     * 
+     * @param cls the check class
+     * @param dba the database adaptor
+     * @param altDBA the supplier of the alternate database adaptor, called
+     *   only if the check compares two databases
+     * @return the check and its report
+     * @throws Exception if the check could not be run
+     */
+    private static CompletedCheck runCheck(Class<? extends QACheck> cls, MySQLAdaptor dba,
+            AdaptorSupplier altDBA) throws Exception {
+        QACheck check = createCheck(cls, dba, altDBA);
+        QAReport report = check.executeQACheck();
+        return new CompletedCheck(check, report);
+    }
+
+    /**
+     * Runs the selected {@link FusedScanCheck}s together in one
+     * {@link SchemaClassScan}, so that the schema classes they scan are
+     * fetched once rather than once per check, and likewise the selected
+     * {@link FusedSweepCheck}s in one {@link SchemaSweep}. A single check
+     * of either kind is run on its own with the other checks.
+     * 
+     * @param checks the selected checks
+     * @param dba the database adaptor
+     * @param altDBA the supplier of the alternate database adaptor
+     * @return the {check class: completed check} of the fused checks
+     * @throws Exception if a check could not be run
+     */
+    private static Map<Class<? extends QACheck>, CompletedCheck> runFusedChecks(
+            List<Class<? extends QACheck>> checks, MySQLAdaptor dba, AdaptorSupplier altDBA) throws Exception {
+        Map<Class<? extends QACheck>, CompletedCheck> completed = new HashMap<>();
+        runFusedScan(checks, dba, altDBA, completed);
+        runFusedSweep(checks, dba, altDBA, completed);
+        return completed;
+    }
+
+    private static void runFusedScan(List<Class<? extends QACheck>> checks, MySQLAdaptor dba,
+            AdaptorSupplier altDBA, Map<Class<? extends QACheck>, CompletedCheck> completed) throws Exception {
+        List<Class<? extends QACheck>> fusedClasses = checks.stream()
+                .filter(FusedScanCheck.class::isAssignableFrom)
+                .collect(Collectors.toList());
+        if (fusedClasses.size() < 2) {
+            return;
+        }
+        SchemaClassScan scan = new SchemaClassScan(dba);
+        List<FusedScanCheck> fusedChecks = new ArrayList<FusedScanCheck>();
+        for (Class<? extends QACheck> cls : fusedClasses) {
+            FusedScanCheck check = (FusedScanCheck) createCheck(cls, dba, altDBA);
+            check.registerRules(scan);
+            fusedChecks.add(check);
+        }
+        logger.info("Running " + fusedChecks.size() + " QA checks in one scan...");
+        scan.run();
+        for (FusedScanCheck check : fusedChecks) {
+            completed.put(check.getClass(), new CompletedCheck(check, check.getScanReport()));
+        }
+    }
+
+    private static void runFusedSweep(List<Class<? extends QACheck>> checks, MySQLAdaptor dba,
+            AdaptorSupplier altDBA, Map<Class<? extends QACheck>, CompletedCheck> completed) throws Exception {
+        List<Class<? extends QACheck>> fusedClasses = checks.stream()
+                .filter(FusedSweepCheck.class::isAssignableFrom)
+                .collect(Collectors.toList());
+        if (fusedClasses.size() < 2) {
+            return;
+        }
+        SchemaSweep sweep = new SchemaSweep(dba, FusedSweepCheck.COLUMNS);
+        List<FusedSweepCheck> fusedChecks = new ArrayList<FusedSweepCheck>();
+        for (Class<? extends QACheck> cls : fusedClasses) {
+            FusedSweepCheck check = (FusedSweepCheck) createCheck(cls, dba, altDBA);
+            check.registerProbes(sweep);
+            fusedChecks.add(check);
+        }
+        logger.info("Running " + fusedChecks.size() + " QA checks in one sweep...");
+        List<List<long[]>> probeRows = sweep.run();
+        for (FusedSweepCheck check : fusedChecks) {
+            completed.put(check.getClass(), new CompletedCheck(check, check.getSweepReport(probeRows)));
+        }
+    }
+
+    /**
+     * Instantiates the given check and sets its adaptors.
+     * 
+     * @param cls the check class
+     * @param dba the database adaptor
+     * @param altDBA the supplier of the alternate database adaptor, called
+     *   only if the check compares two databases
+     * @return the check
+     * @throws Exception if the check could not be instantiated
+     */
+    private static QACheck createCheck(Class<? extends QACheck> cls, MySQLAdaptor dba,
+            AdaptorSupplier altDBA) throws Exception {
+        QACheck check;
+        try {
+            check = cls.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException e) {
+            // Instantiation errors are remarkably uninformative.
+            logger.error("Could not instantiate " + cls.getName());
+            throw e;
+        }
+        logger.info("Perform " + check.getDisplayName() + "...");
+        check.setMySQLAdaptor(dba);
+        // Some checks compare two databases to each other
+        // (usually test_reactome_## and test_reactome_##-1).
+        // These checks require the alternate database authorization
+        // properties.
+        if (check instanceof ChecksTwoDatabases) {
+            ((ChecksTwoDatabases)check).setOtherDBAdaptor(altDBA.get());
+        }
+        return check;
+    }
+
+    private static int getThreadCount(Map<String, Object> cmdOpts) {
+        Object value = cmdOpts.get(THREADS_OPT);
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.toString()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The --" + THREADS_OPT + " value is not a number: " + value);
         }
-        summary.close();
     }
 
     private static Set<String> getIncludedQAs() throws IOException {
@@ -285,4 +492,25 @@ public class Main {
         return cmdOpts;
     }
   
+    /**
+     * Supplies a database adaptor on demand.
+     */
+    @FunctionalInterface
+    private interface AdaptorSupplier {
+        MySQLAdaptor get() throws Exception;
+    }
+
+    /**
+     * A check which has been run, together with its report.
+     */
+    private static class CompletedCheck {
+        private final QACheck check;
+        private final QAReport report;
+
+        CompletedCheck(QACheck check, QAReport report) {
+            this.check = check;
+            this.report = report;
+        }
+    }
+
 }
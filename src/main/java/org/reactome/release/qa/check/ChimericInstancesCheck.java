@@ -1,10 +1,7 @@
 package org.reactome.release.qa.check;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -13,9 +10,12 @@ import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EntityCompositionIndex;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
 import org.reactome.release.qa.common.SkipList;
+import org.reactome.release.qa.common.SpeciesDictionary;
 
 /**
  * Reports ReactionlikeEvent and Complexes for which one of the following conditions hold:
@@ -73,12 +73,10 @@ public class ChimericInstancesCheck extends AbstractQACheck{
         Collection<GKInstance> rles = dba.fetchInstancesByClass(clsName);
         dba.loadInstanceAttributeValues(rles,
                                         new String[]{ReactomeJavaConstants.isChimeric, 
-                                                     ReactomeJavaConstants.species,
                                                      ReactomeJavaConstants.input,
                                                      ReactomeJavaConstants.output,
                                                      "regulatedBy",
-                                                     ReactomeJavaConstants.catalystActivity,
-                                                     ReactomeJavaConstants.hasComponent});
+                                                     ReactomeJavaConstants.catalystActivity});
         for (GKInstance rle : rles) {
             if (isEscaped(rle)) {
                 continue;
@@ -116,38 +114,24 @@ public class ChimericInstancesCheck extends AbstractQACheck{
         }
     }
     
-    private boolean isParticipantChimeric(GKInstance rle) throws Exception {
-        Set<GKInstance> participants = grepChimericEntities(rle);
-        for (GKInstance participant : participants) {
-            if (QACheckerHelper.isChimeric(participant))
-                return true;
-        }
-        return false;
-    }
-    
-    private Set<GKInstance> grepChimericEntities(GKInstance container) throws Exception {
-        Set<GKInstance> current = new HashSet<>();
-        boolean isForComplex = false;
+    /**
+     * A participant is chimeric if it, or an entity it contains through
+     * hasComponent or hasMember, is chimeric. The entities contained in a
+     * Complex count, but not the Complex itself.
+     */
+    private boolean isParticipantChimeric(GKInstance container) throws Exception {
+        EntityCompositionIndex composition = EntityCompositionIndex.getIndex(dba);
         if (container.getSchemClass().isa(ReactomeJavaConstants.ReactionlikeEvent)) {
             Set<GKInstance> pes = InstanceUtilities.getReactionParticipants(container);
-            current.addAll(pes);
-        }
-        else if (container.getSchemClass().isa(ReactomeJavaConstants.Complex)) {
-            current.add(container);
-            isForComplex = true;
-        }
-        Set<GKInstance> rtn = new HashSet<>();
-        for (GKInstance pe : current) {
-            if (!isForComplex)
-                rtn.add(pe);
-            Set<GKInstance> tmp = InstanceUtilities.getContainedInstances(pe,
-                                                                          ReactomeJavaConstants.hasComponent,
-                                                                          ReactomeJavaConstants.hasMember);
-            rtn.addAll(tmp);
+            for (GKInstance pe : pes) {
+                if (composition.isChimeric(pe.getDBID()) || composition.containsChimeric(pe.getDBID()))
+                    return true;
+            }
+            return false;
         }
-        return rtn.stream()
-                  .filter(inst -> inst.getSchemClass().isValidAttribute(ReactomeJavaConstants.isChimeric))
-                  .collect(Collectors.toSet());
+        if (container.getSchemClass().isa(ReactomeJavaConstants.Complex))
+            return composition.containsChimeric(container.getDBID());
+        return false;
     }
     
     /**
@@ -159,17 +143,12 @@ public class ChimericInstancesCheck extends AbstractQACheck{
     private boolean isNotUsedForInference(GKInstance rle) throws Exception {
         if (!rle.getSchemClass().isa(ReactomeJavaConstants.ReactionlikeEvent))
             return false;
-        Collection<GKInstance> referrers = rle.getReferers(ReactomeJavaConstants.inferredFrom);
-        if (referrers == null || referrers.size() == 0)
-            return true;
-        return false;
+        ReferrerIndex referrers = ReferrerIndex.getIndex(dba, ReactomeJavaConstants.inferredFrom);
+        return !referrers.hasReferrers(rle.getDBID());
     }
     
     private boolean hasMultipleSpecies(GKInstance rle) throws Exception {
-        List<GKInstance> species = rle.getAttributeValuesList(ReactomeJavaConstants.species);
-        if (species.size() > 1)
-            return true;
-        return false;
+        return SpeciesDictionary.getDictionary(dba).getSpeciesCount(rle.getDBID()) > 1;
     }
     
 }
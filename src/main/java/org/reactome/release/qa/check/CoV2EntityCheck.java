@@ -5,6 +5,8 @@ import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -29,9 +31,16 @@ public class CoV2EntityCheck extends AbstractQACheck {
         QAReport report = new QAReport();
 
         // Get all contained events within 'SARS-CoV-2 Infection' Pathway, including 'SARS-CoV-2 Infection'.
-        GKInstance cov2InfectionPathwayInst = dba.fetchInstance(QACheckerHelper.COV_2_INFECTION_PATHWAY_DB_ID);
-        Collection<GKInstance> cov2Events = InstanceUtilities.getContainedEvents(cov2InfectionPathwayInst);
-        cov2Events.add(cov2InfectionPathwayInst);
+        InstanceHydrator hydrator = new InstanceHydrator(dba,
+                ReactomeJavaConstants.species,
+                ReactomeJavaConstants.relatedSpecies);
+        hydrator.add(QACheckerHelper.COV_2_INFECTION_PATHWAY_DB_ID);
+        for (long dbId : EventHierarchyIndex.getIndex(dba)
+                .getContainedEvents(QACheckerHelper.COV_2_INFECTION_PATHWAY_DB_ID)
+                .toDbIds()) {
+            hydrator.add(dbId);
+        }
+        Collection<GKInstance> cov2Events = hydrator.hydrate().values();
 
         for (GKInstance cov2Event : cov2Events) {
             Set<GKInstance> cov2EventAndDirectParticipants = new HashSet<>();
@@ -1,10 +1,11 @@
 package org.reactome.release.qa.check;
 
 import org.gk.model.GKInstance;
-import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -37,10 +38,20 @@ public class CoV2InfectionPathwayEventCheck extends AbstractQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
 
-        GKInstance cov2InfectionPathwayInst = dba.fetchInstance(QACheckerHelper.COV_2_INFECTION_PATHWAY_DB_ID);
-
         // Get all Events contained within 'SARS-CoV-2 Infection' pathway.
-        for (GKInstance cov2Event : InstanceUtilities.getContainedEvents(cov2InfectionPathwayInst)) {
+        long[] cov2EventDbIds = EventHierarchyIndex.getIndex(dba)
+                .getContainedEvents(QACheckerHelper.COV_2_INFECTION_PATHWAY_DB_ID)
+                .toDbIds();
+        InstanceHydrator cov2Events = new InstanceHydrator(dba,
+                ReactomeJavaConstants.summation,
+                ReactomeJavaConstants.literatureReference,
+                ReactomeJavaConstants.inferredFrom);
+        for (long dbId : cov2EventDbIds) {
+            cov2Events.add(dbId);
+        }
+        cov2Events.hydrate();
+        for (long dbId : cov2EventDbIds) {
+            GKInstance cov2Event = cov2Events.get(dbId);
             List<String> issues = new ArrayList<>();
             // If does not have any modified instances, or if created instance predates most recent modified instance.
             if (!hasRecentlyModifiedSummation(cov2Event)) {
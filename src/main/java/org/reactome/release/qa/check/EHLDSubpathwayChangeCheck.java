@@ -6,8 +6,10 @@ import org.gk.persistence.MySQLAdaptor;
 import org.reactome.release.qa.annotations.ReleaseQACheck;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.AttributeDiff;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -46,6 +48,8 @@ public class EHLDSubpathwayChangeCheck extends AbstractQACheck implements Checks
 		);
 
 		List<Long> pathwayIds = new ArrayList<>(getPathwayIDsWithEHLD());
+		// Only a pathway whose events or whose events' classes differ can have different subpathways
+		pathwayIds.retainAll(getPathwayIDsWithChangedEvents());
 		List<EHLDPathway> oldPathways = getEHLDPathways(pathwayIds, getOtherDBAdaptor());
 		List<EHLDPathway> newPathways = getEHLDPathways(pathwayIds, this.dba);
 
@@ -103,6 +107,27 @@ public class EHLDSubpathwayChangeCheck extends AbstractQACheck implements Checks
 		return pathwayIds;
 	}
 
+	private Set<Long> getPathwayIDsWithChangedEvents() throws Exception {
+		Set<Long> pathwayIds = new HashSet<>();
+		new AttributeDiff(this.dba, getOtherDBAdaptor(), ReactomeJavaConstants.Pathway, ReactomeJavaConstants.hasEvent)
+			.forEachDelta(delta -> {
+				if (delta.getChange() != AttributeDiff.Change.ADDED) {
+					pathwayIds.add(delta.getDbId());
+				}
+			});
+		// The same events, but one became or stopped being a subpathway
+		ReferrerIndex parents = ReferrerIndex.getIndex(this.dba, ReactomeJavaConstants.hasEvent);
+		new AttributeDiff(this.dba, getOtherDBAdaptor(), ReactomeJavaConstants.Event)
+			.forEachDelta(delta -> {
+				if (delta.isClassChanged()) {
+					for (long parentId : parents.getReferrerDbIds(delta.getDbId())) {
+						pathwayIds.add(parentId);
+					}
+				}
+			});
+		return pathwayIds;
+	}
+
 	private List<Long> parsePathwayIds(BufferedReader ehldWebSource) throws IOException {
 		List<Long> pathwayIds = new ArrayList<>();
 
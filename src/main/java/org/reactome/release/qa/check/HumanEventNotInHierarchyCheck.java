@@ -1,16 +1,16 @@
 package org.reactome.release.qa.check;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 import org.gk.model.GKInstance;
-import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 /**
  * Check if a human event is in the pathway hierrachy built based on the sole FontPageItem instance.
@@ -23,45 +23,44 @@ import org.reactome.release.qa.common.QAReport;
  * Note: This class was originally on the old 'develop' branch before 'master' was merged into it in December 2020.
  * It was added to 'master', but as it was an old QA test its utility was questionable, and so it was turned off. (JCook 2020)
  */
-public class HumanEventNotInHierarchyCheck extends AbstractQACheck {
+public class HumanEventNotInHierarchyCheck extends AbstractQACheck implements FusedScanCheck {
+
+    private QAReport report;
 
     public HumanEventNotInHierarchyCheck() {
     }
 
     @Override
     public QAReport executeQACheck() throws Exception {
+        return SchemaClassScan.execute(this, dba);
+    }
+
+    @Override
+    public void registerRules(SchemaClassScan scan) throws Exception {
         GKInstance human = QACheckerHelper.getHuman(dba);
-        Collection<GKInstance> events = dba.fetchInstanceByAttribute(ReactomeJavaConstants.Event,
-                ReactomeJavaConstants.species,
-                "=",
-                human);
-        dba.loadInstanceAttributeValues(events, new String[]{ReactomeJavaConstants.hasEvent});
-        // Get the top level events
-        List<GKInstance> frontPageItems = getFrontPageItems();
-        Set<GKInstance> itemsInTree = InstanceUtilities.getContainedEvents(frontPageItems);
-        itemsInTree.addAll(frontPageItems);
-        events.removeAll(itemsInTree);
-        QAReport report = new QAReport();
-        if (events.size() == 0)
-            return report; // Return an empty report
-        for (GKInstance event : events) {
+        // Get the top level events and the events they contain
+        EventHierarchyIndex.EventSet itemsInTree = EventHierarchyIndex.getIndex(dba).getTopLevelHierarchy();
+        if (itemsInTree.isEmpty())
+            throw new IllegalStateException("Cannot find FrontPage instance in " + dba.getDBName() + "@" + dba.getDBHost());
+        report = new QAReport();
+        report.setColumnHeaders("DB_ID", "DisplayName", "LastAuthor");
+        scan.addRule(ReactomeJavaConstants.Event, event -> {
+            List<GKInstance> species = event.getAttributeValuesList(ReactomeJavaConstants.species);
+            boolean isHuman = species.stream().anyMatch(value -> value.getDBID().equals(human.getDBID()));
+            if (!isHuman || itemsInTree.contains(event.getDBID()))
+                return;
             // A chimeric is used for inference, which doesn't need to be in the hierachy
             if (QACheckerHelper.isChimeric(event))
-                continue;
+                return;
             report.addLine(event.getDBID().toString(),
                     event.getDisplayName(),
                     QACheckerHelper.getLastModificationAuthor(event));
-        }
-        report.setColumnHeaders("DB_ID", "DisplayName", "LastAuthor");
-        return report;
+        }, ReactomeJavaConstants.species, ReactomeJavaConstants.isChimeric);
     }
 
-    private List<GKInstance> getFrontPageItems() throws Exception {
-        Collection<GKInstance> c = dba.fetchInstancesByClass(ReactomeJavaConstants.FrontPage);
-        GKInstance frontPage = c.iterator().next();
-        if (frontPage == null)
-            throw new IllegalStateException("Cannot find FrontPage instance in " + dba.getDBName() + "@" + dba.getDBHost());
-        return frontPage.getAttributeValuesList(ReactomeJavaConstants.frontPageItem);
+    @Override
+    public QAReport getScanReport() {
+        return report;
     }
 
     @Override
@@ -4,6 +4,7 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EntityCompositionIndex;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -20,9 +21,13 @@ public class HumanReactionsWithNonHumanComplexesWithHumanComponentsCheck extends
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
 
-        for (GKInstance reaction : QACheckerHelper.findHumanReactionsNotUsedForManualInference(dba, EMPTY_SKIP_LIST)) {
+        Set<GKInstance> reactions = QACheckerHelper.findHumanReactionsNotUsedForManualInference(dba, EMPTY_SKIP_LIST);
+        Map<GKInstance, List<GKInstance>> reactionToPEs = QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(dba,
+                reactions,
+                ReactomeJavaConstants.created);
+        for (GKInstance reaction : reactions) {
             // QA Check is only on PhysicalEntities that are participants of human ReactionlikeEvents that are not manually inferred
-            Map<GKInstance, Set<GKInstance>> nonHumanComplexesWithHumanComponentsMap = findAllNonHumanComplexesWithHumanComponentInReaction(reaction);
+            Map<GKInstance, Set<GKInstance>> nonHumanComplexesWithHumanComponentsMap = findAllNonHumanComplexesWithHumanComponentInReaction(reactionToPEs.get(reaction));
             for (GKInstance complexWithHumanComponent : nonHumanComplexesWithHumanComponentsMap.keySet()) {
                 for (GKInstance componentWithHumanSpecies : nonHumanComplexesWithHumanComponentsMap.get(complexWithHumanComponent)) {
                     report.addLine(getReportLine(reaction, complexWithHumanComponent, componentWithHumanSpecies));
@@ -35,19 +40,25 @@ public class HumanReactionsWithNonHumanComplexesWithHumanComponentsCheck extends
 
     /**
      * Finds any non-human Complexes that have human Components.
-     * @param reaction GKInstance -- ReactionlikeEvent with Human species.
+     * @param reactionPEs List<GKInstance> -- All PhysicalEntities in a ReactionlikeEvent with Human species, including
+     * the entities contained in them.
      * @return Map<GKInstance, Set<GKInstance> -- Key are non-human Complexes, Values are any human components found in that Complex.
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
-    private Map<GKInstance, Set<GKInstance>> findAllNonHumanComplexesWithHumanComponentInReaction(GKInstance reaction) throws Exception {
-        Map<GKInstance, Set<GKInstance>> nonHumanComplexesWithHumanComponentsMap = new HashMap<>();
-        // First find all PhysicalEntities in the Reaction, and then filter that list for any non-human or non-species Complexes.
-        for (GKInstance physicalEntity : QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(reaction)) {
+    private Map<GKInstance, Set<GKInstance>> findAllNonHumanComplexesWithHumanComponentInReaction(List<GKInstance> reactionPEs) throws Exception {
+        Map<GKInstance, Set<GKInstance>> nonHumanComplexesWithHumanComponentsMap = new LinkedHashMap<>();
+        // The components of a Complex are participants of the reaction too.
+        Map<Long, GKInstance> dbIdToPE = new HashMap<>();
+        for (GKInstance physicalEntity : reactionPEs) {
+            dbIdToPE.put(physicalEntity.getDBID(), physicalEntity);
+        }
+        // Filter the PhysicalEntities in the Reaction for any non-human or non-species Complexes.
+        for (GKInstance physicalEntity : reactionPEs) {
             if (!QACheckerHelper.isHumanDatabaseObject(physicalEntity)
                     && physicalEntity.getSchemClass().isa(ReactomeJavaConstants.Complex)) {
 
                 // Find any human Components in the non-human Complex.
-                nonHumanComplexesWithHumanComponentsMap.put(physicalEntity, findAllHumanComponentsInComplex(physicalEntity));
+                nonHumanComplexesWithHumanComponentsMap.put(physicalEntity, findAllHumanComponentsInComplex(physicalEntity, dbIdToPE));
             }
         }
         return nonHumanComplexesWithHumanComponentsMap;
@@ -56,14 +67,16 @@ public class HumanReactionsWithNonHumanComplexesWithHumanComponentsCheck extends
     /**
      * Finds any human Components in the incoming Complex.
      * @param complex GKInstance -- Complex with non-human species or no species.
+     * @param dbIdToPE Map<Long, GKInstance> -- The PhysicalEntities of the reaction by DbId.
      * @return Set<GKInstance> -- Any Components in incoming Complex with human species.
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
-    private Set<GKInstance> findAllHumanComponentsInComplex(GKInstance complex) throws Exception {
-        // Only find GKInstances within incoming Complex. It is recursive, so if Complex-within-Complex, it will return ALL components.
-        Set<GKInstance> humanPEs = new HashSet<>();
-        for (GKInstance physicalEntity : QACheckerHelper.getPhysicalEntityContainedInstances(complex)) {
-            if (QACheckerHelper.isHumanDatabaseObject(physicalEntity)) {
+    private Set<GKInstance> findAllHumanComponentsInComplex(GKInstance complex, Map<Long, GKInstance> dbIdToPE) throws Exception {
+        // Find all instances within incoming Complex, at any depth, so if Complex-within-Complex, it will return ALL components.
+        Set<GKInstance> humanPEs = new LinkedHashSet<>();
+        for (long dbId : EntityCompositionIndex.getIndex(dba).getContainedDbIds(complex.getDBID())) {
+            GKInstance physicalEntity = dbIdToPE.get(dbId);
+            if (physicalEntity != null && QACheckerHelper.isHumanDatabaseObject(physicalEntity)) {
                 humanPEs.add(physicalEntity);
             }
         }
@@ -1,5 +1,9 @@
 package org.reactome.release.qa.check;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.gk.model.GKInstance;
 import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
@@ -25,16 +29,26 @@ public class HumanReactionsWithNonHumanPhysicalEntitiesWithoutDiseaseCheck exten
 
         infectiousDiseasePathway = dba.fetchInstance(infectiousDiseasePathwayDbId);
         // This QA Check is only performed on human ReactionlikeEvents that do not have any inferredFrom referrals.
+        List<GKInstance> reactions = new ArrayList<>();
         for (GKInstance reaction : QACheckerHelper.findHumanReactionsNotUsedForManualInference(dba, EMPTY_SKIP_LIST)) {
             if (InstanceUtilities.isDescendentOf(reaction, infectiousDiseasePathway)) {
-                for (GKInstance reactionPE : QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(reaction)) {
-                    // Valid PhysicalEntities include those that have a non-human species OR have a human species AND have a relatedSpecies,
-                    // and that do not have a populated disease attribute.
-                    if ((QACheckerHelper.hasOnlyNonHumanSpecies(reactionPE) || hasHumanSpeciesWithRelatedSpecies(reactionPE))
-                            && !QACheckerHelper.hasDisease(reactionPE)) {
+                reactions.add(reaction);
+            }
+        }
+        Map<GKInstance, List<GKInstance>> reactionToPEs = QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(dba,
+                reactions,
+                ReactomeJavaConstants.species,
+                ReactomeJavaConstants.relatedSpecies,
+                ReactomeJavaConstants.disease,
+                ReactomeJavaConstants.created);
+        for (GKInstance reaction : reactions) {
+            for (GKInstance reactionPE : reactionToPEs.get(reaction)) {
+                // Valid PhysicalEntities include those that have a non-human species OR have a human species AND have a relatedSpecies,
+                // and that do not have a populated disease attribute.
+                if ((QACheckerHelper.hasOnlyNonHumanSpecies(reactionPE) || hasHumanSpeciesWithRelatedSpecies(reactionPE))
+                        && !QACheckerHelper.hasDisease(reactionPE)) {
 
-                        report.addLine(getReportLine(reactionPE, reaction));
-                    }
+                    report.addLine(getReportLine(reactionPE, reaction));
                 }
             }
         }
@@ -6,6 +6,7 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex.EventSet;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 import org.reactome.release.qa.common.SkipList;
@@ -33,16 +34,25 @@ public class HumanReactionsWithoutDiseaseAndHaveNonHumanPhysicalEntitiesCheck ex
             e.printStackTrace();
         }
 
+        List<Long> skipListDbIds = skipList == null ? Collections.emptyList() : skipList.getSkipListDbIds();
+        EventSet skipListEvents = QACheckerHelper.getSkipListEvents(dba, skipListDbIds);
         Collection<GKInstance> reactions = dba.fetchInstancesByClass(ReactomeJavaConstants.ReactionlikeEvent);
+        List<GKInstance> humanReactions = new ArrayList<>();
         for (GKInstance reaction : reactions) {
             // isHumanDatabaseObject checks that the species attribute only contains a Homo sapiens species instance. Multi-species RlEs are excluded.
-            if (!QACheckerHelper.memberSkipListPathway(reaction, skipList.getSkipListDbIds())
+            if (!QACheckerHelper.memberSkipListPathway(reaction, skipListEvents)
                     && QACheckerHelper.isHumanDatabaseObject(reaction)
                     && !QACheckerHelper.hasDisease(reaction)) {
 
-                for (GKInstance nonHumanPE : findAllNonHumanPhysicalEntitiesInReaction(reaction)) {
-                    report.addLine(getReportLine(nonHumanPE, reaction));
-                }
+                humanReactions.add(reaction);
+            }
+        }
+        Map<GKInstance, List<GKInstance>> reactionToPEs = QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(dba,
+                humanReactions,
+                ReactomeJavaConstants.created);
+        for (GKInstance reaction : humanReactions) {
+            for (GKInstance nonHumanPE : findAllNonHumanPhysicalEntitiesInReaction(reactionToPEs.get(reaction))) {
+                report.addLine(getReportLine(nonHumanPE, reaction));
             }
         }
         report.setColumnHeaders(getColumnHeaders());
@@ -50,14 +60,14 @@ public class HumanReactionsWithoutDiseaseAndHaveNonHumanPhysicalEntitiesCheck ex
     }
 
     /**
-     * Finds all distinct non-human PhysicalEntities that exist in the incoming human ReactionlikeEvent.
-     * @param reaction GKInstance -- ReactionlikeEvent with Homo sapiens species.
+     * Finds all distinct non-human PhysicalEntities that exist in a human ReactionlikeEvent.
+     * @param reactionPEs List<GKInstance> -- All distinct PhysicalEntities in a ReactionlikeEvent with Homo sapiens species.
      * @return Set<GKInstance> -- Any non-human PhysicalEntities that exist in the human ReactionlikeEvent.
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
-    private Set<GKInstance> findAllNonHumanPhysicalEntitiesInReaction(GKInstance reaction) throws Exception {
-        Set<GKInstance> nonHumanPEs = new HashSet<>();
-        for (GKInstance physicalEntity : QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(reaction)) {
+    private Set<GKInstance> findAllNonHumanPhysicalEntitiesInReaction(List<GKInstance> reactionPEs) throws Exception {
+        Set<GKInstance> nonHumanPEs = new LinkedHashSet<>();
+        for (GKInstance physicalEntity : reactionPEs) {
             if (QACheckerHelper.hasOnlyNonHumanSpecies(physicalEntity)) {
                 nonHumanPEs.add(physicalEntity);
             }
@@ -1,18 +1,16 @@
 package org.reactome.release.qa.check;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.schema.GKSchemaClass;
 import org.gk.schema.InvalidAttributeException;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 /**
  * This QA check was requested by Lisa.
@@ -25,34 +23,43 @@ import org.reactome.release.qa.common.QAReport;
  *
  */
 @SliceQACheck
-public class MissingEditorialAttributeCheck extends AbstractQACheck {
+public class MissingEditorialAttributeCheck extends AbstractQACheck implements FusedScanCheck {
 
 	private static final String YES = "YES";
 	private static final String NO = "NO";
-	private static Set<String> reportedEntities = new HashSet<>();
+	private QAReport report;
 
 	@Override
 	public QAReport executeQACheck() throws Exception
 	{
-		GKSchemaClass eventClass = (GKSchemaClass) this.dba.getSchema().getClassByName(ReactomeJavaConstants.Event);
-		QAReport report = new QAReport();
-		report.setColumnHeaders("DB_ID", "Name", "Edited?", "Authored?", "Reviewed?", "Created");
-		// make sure Event is in there with its subclasses.
-		List<GKSchemaClass> classesToCheck = new ArrayList<>((Collection<GKSchemaClass>) eventClass.getSubClasses());
-		classesToCheck.add(eventClass);
-		for (GKSchemaClass schemaClass : classesToCheck)
-		{
-			Collection<GKInstance> eventInstances = (Collection<GKInstance>) this.dba.fetchInstancesByClass(schemaClass);
-			for (GKInstance eventInstance : eventInstances)
+		return SchemaClassScan.execute(this, this.dba);
+	}
+
+	@Override
+	public void registerRules(SchemaClassScan scan) throws Exception
+	{
+		this.report = new QAReport();
+		this.report.setColumnHeaders("DB_ID", "Name", "Edited?", "Authored?", "Reviewed?", "Created");
+		// Event and its subclasses are scanned in one pass, so each instance is visited once.
+		scan.addRule(ReactomeJavaConstants.Event, eventInstance -> {
+			String[] line = getReportLine(eventInstance);
+			if (line.length > 0)
 			{
-				String[] line = getReportLine(eventInstance);
-				if (line.length > 0)
-				{
-					report.addLine(line);
-				}
+				this.report.addLine(line);
 			}
-		}
-		return report;
+		}, ReactomeJavaConstants.stableIdentifier,
+		   ReactomeJavaConstants.stableIdentifier + "." + ReactomeJavaConstants.released,
+		   ReactomeJavaConstants.edited,
+		   ReactomeJavaConstants.authored,
+		   ReactomeJavaConstants.reviewed,
+		   ReactomeJavaConstants.created,
+		   ReactomeJavaConstants.name);
+	}
+
+	@Override
+	public QAReport getScanReport()
+	{
+		return this.report;
 	}
 
 	/**
@@ -75,8 +82,7 @@ public class MissingEditorialAttributeCheck extends AbstractQACheck {
 		GKInstance stableIdentifier = (GKInstance) eventInstance.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
 		Boolean released = (Boolean) stableIdentifier.getAttributeValue(ReactomeJavaConstants.released);
 		String dbId = eventInstance.getDBID().toString();
-		// Check that the instance hasn't already been reported. It _could_ happen, since we're traversing all subclasses of Event.
-		if ((released == null || !released.booleanValue()) && !reportedEntities.contains(dbId))
+		if (released == null || !released.booleanValue())
 		{
 			// We have found an unreleased Event! Now we need to check the editorial attributes.
 			GKInstance edited = (GKInstance) eventInstance.getAttributeValue(ReactomeJavaConstants.edited);
@@ -96,7 +102,6 @@ public class MissingEditorialAttributeCheck extends AbstractQACheck {
 				line.add(authoredIsNull ? NO : YES);
 				line.add(reviewedIsNull ? NO : YES);
 				line.add(creator != null ? creator.getDisplayName() : "Unknown created author");
-				reportedEntities.add(dbId);
 			}
 		}
 		return line.toArray(new String[0]);
@@ -2,19 +2,16 @@ package org.reactome.release.qa.check;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.MySQLAdaptor;
-import org.gk.persistence.MySQLAdaptor.AttributeQueryRequest;
-import org.gk.persistence.MySQLAdaptor.QueryRequestList;
-import org.gk.schema.InvalidAttributeException;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 /** 
  * 
@@ -25,102 +22,62 @@ import org.reactome.release.qa.common.QAReport;
  */
 @SuppressWarnings("unchecked")
 @SliceQACheck
-public class NewEventConsistencyCheck extends AbstractQACheck {
+public class NewEventConsistencyCheck extends AbstractQACheck implements FusedScanCheck {
     
+	private List<GKInstance> summationIsNull;
+
+	private List<GKInstance> noInferredFromAndNoLitRef;
+
 	@Override
     public String getDisplayName() {
         return "New_Event_Inconsistent";
     }
 
-    /**
-	 * Gets new Events that have no value for "inferredFrom" and also have no value for "literatureReference" 
-	 * @param dba
-	 * @param skipList
-	 * @return
-	 */
-	private Collection<GKInstance> getNewEventsWithNoInferredFromAndNoLitRef(MySQLAdaptor dba, List<Long> skipList) throws Exception {
-	    AttributeQueryRequest stIdIsNotNullRequest = dba.new AttributeQueryRequest(ReactomeJavaConstants.ReactionlikeEvent,
-	            "stableIdentifier",
-	            QACheckerHelper.IS_NOT_NULL,
-	            null);
-	    AttributeQueryRequest noInferredFrom = this.dba.new AttributeQueryRequest(ReactomeJavaConstants.ReactionlikeEvent,
-	            "inferredFrom",
-	            QACheckerHelper.IS_NULL,
-	            null);
-	    AttributeQueryRequest noLitRef = this.dba.new AttributeQueryRequest(ReactomeJavaConstants.ReactionlikeEvent, 
-	            "literatureReference",
-	            QACheckerHelper.IS_NULL,
-	            null);
-	    QueryRequestList queryReqestList = this.dba.new QueryRequestList();
-	    queryReqestList.add(stIdIsNotNullRequest);
-	    queryReqestList.add(noLitRef);
-	    queryReqestList.add(noInferredFrom);
+	@Override
+	public QAReport executeQACheck() throws Exception {
+		return SchemaClassScan.execute(this, dba);
+	}
 
-	    Collection<GKInstance> newEvents = dba.fetchInstance(queryReqestList);
-	    List<GKInstance> instances = new ArrayList<GKInstance>();
-	    filterToUnreleasedEvents(instances, newEvents);
-	    return QACheckerHelper.filterBySkipList(skipList, instances);
+	@Override
+	public void registerRules(SchemaClassScan scan) throws Exception {
+		summationIsNull = new ArrayList<>();
+		noInferredFromAndNoLitRef = new ArrayList<>();
+		scan.addRule(ReactomeJavaConstants.ReactionlikeEvent, event -> {
+			if (!isUnreleased(event))
+				return;
+			if (event.getAttributeValue(ReactomeJavaConstants.summation) == null)
+				summationIsNull.add(event);
+			// Gets new Events that have no value for "inferredFrom" and also have no value for "literatureReference"
+			if (event.getAttributeValue(ReactomeJavaConstants.inferredFrom) == null &&
+			    event.getAttributeValue(ReactomeJavaConstants.literatureReference) == null)
+				noInferredFromAndNoLitRef.add(event);
+		}, ReactomeJavaConstants.stableIdentifier,
+		   ReactomeJavaConstants.stableIdentifier + "." + ReactomeJavaConstants.released,
+		   ReactomeJavaConstants.summation,
+		   ReactomeJavaConstants.inferredFrom,
+		   ReactomeJavaConstants.literatureReference);
 	}
 
 	/**
-	 * Gets Events that are unreleased - They have a stableIdentifier and the stableIdentifier's "released" attribute is NULL/false
-	 * @param instances
-	 * @param newEvents
-	 * @throws InvalidAttributeException
+	 * Checks whether an Event is unreleased - it has a stableIdentifier and the stableIdentifier's "released" attribute is NULL/false
+	 * @param event
+	 * @return
 	 * @throws Exception
 	 */
-	private void filterToUnreleasedEvents(List<GKInstance> instances, Collection<GKInstance> newEvents) throws InvalidAttributeException, Exception
+	private boolean isUnreleased(GKInstance event) throws Exception
 	{
-		for (GKInstance inst : newEvents)
-		{
-			GKInstance stableIdentifier = (GKInstance) inst.getAttributeValue("stableIdentifier");
-			Boolean released = (Boolean) stableIdentifier.getAttributeValue("released");
-			if (released==null || released.booleanValue()==false)
-			{
-				instances.add(inst);
-			}
-			
-		}
-	}
-	
-	/**
-	 * Gets new Events, based on whether a certain attribute is null or not.
-	 * @param dba - the database adaptor.
-	 * @param schemaClass - the class that the events will be.
-	 * @param attribute - the attribute to check.
-	 * @param operator - should be "IS NULL" or "IS NOT NULL" //TODO: change this to an enum. 
-	 * @param skipList - a skiplist to filter out results, if you want.
-	 * @return
-	 */
-	private Collection<GKInstance> getNewEventInstances(MySQLAdaptor dba,
-	                                              String schemaClass,
-	                                              String attribute, 
-	                                              String operator, 
-	                                              List<Long> skipList) throws Exception {
-	    AttributeQueryRequest stIdIsNotNullRequest = dba.new AttributeQueryRequest(schemaClass, ReactomeJavaConstants.stableIdentifier, QACheckerHelper.IS_NOT_NULL, null);
-	    AttributeQueryRequest queryRequest = dba.new AttributeQueryRequest(schemaClass, attribute, operator, null);
-
-	    QueryRequestList queryReqestList = dba.new QueryRequestList();
-	    queryReqestList.add(stIdIsNotNullRequest);
-	    queryReqestList.add(queryRequest);
-
-	    Collection<GKInstance> newEvents = dba.fetchInstance(queryReqestList);
-	    List<GKInstance> instances = new ArrayList<>();
-	    filterToUnreleasedEvents(instances, newEvents);
-	    // filter by skip list
-	    return QACheckerHelper.filterBySkipList(skipList, instances);
+		GKInstance stableIdentifier = (GKInstance) event.getAttributeValue(ReactomeJavaConstants.stableIdentifier);
+		if (stableIdentifier == null)
+			return false;
+		Boolean released = (Boolean) stableIdentifier.getAttributeValue(ReactomeJavaConstants.released);
+		return released == null || released.booleanValue() == false;
 	}
 
 	@Override
-	public QAReport executeQACheck() throws Exception {
+	public QAReport getScanReport() throws Exception {
 		QAReport newEventReport = new QAReport();
 
-		Collection<GKInstance> reactionLikeEventsSummationIsNull = getNewEventInstances(dba,
-		                                                                          ReactomeJavaConstants.ReactionlikeEvent, 
-		                                                                          ReactomeJavaConstants.summation, 
-		                                                                          QACheckerHelper.IS_NULL, 
-		                                                                          null);
-		for (GKInstance instance : reactionLikeEventsSummationIsNull) {
+		for (GKInstance instance : summationIsNull) {
 		    newEventReport.addLine(Arrays.asList(instance.getDBID().toString(), 
 		                                         instance.getDisplayName(), 
 		                                         instance.getSchemClass().getName(), 
@@ -128,7 +85,6 @@ public class NewEventConsistencyCheck extends AbstractQACheck {
 		                                         QACheckerHelper.getLastModificationAuthor(instance)));
 		}
 
-		Collection<GKInstance> noInferredFromAndNoLitRef = this.getNewEventsWithNoInferredFromAndNoLitRef(dba, null);
 		for (GKInstance instance : noInferredFromAndNoLitRef) {
 			newEventReport.addLine(Arrays.asList(instance.getDBID().toString(),
 			        instance.getDisplayName(), 
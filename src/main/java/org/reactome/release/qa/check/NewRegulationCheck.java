@@ -1,11 +1,15 @@
 package org.reactome.release.qa.check;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.gk.persistence.MySQLAdaptor;
 import org.reactome.release.qa.annotations.ReleaseQACheck;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.AttributeDiff;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -16,13 +20,13 @@ import org.reactome.release.qa.common.QAReport;
 
 import java.util.*;
 
-import static java.util.stream.Collectors.toSet;
-
 @ReleaseQACheck
 @SliceQACheck
 public class NewRegulationCheck extends AbstractQACheck implements ChecksTwoDatabases
 {
 
+    private static final Logger logger = LogManager.getLogger();
+
     private MySQLAdaptor priorAdaptor;
 
     @Override
@@ -43,25 +47,42 @@ public class NewRegulationCheck extends AbstractQACheck implements ChecksTwoData
     {
         QAReport report = new QAReport();
         report.setColumnHeaders("DBID","DisplayName", "SchemaClass", "Issue", "MostRecentAuthor");
-        // Find all ReactionlikeEvents that have a filled 'regulatedBy' attribute in current slice.
-        Set<GKInstance> currentRlEsWithRegulations = getRlEsWithRegulationInstances(dba);
-
-        for (GKInstance currentRlE : currentRlEsWithRegulations) {
-            GKInstance previousRlE = priorAdaptor.fetchInstance(currentRlE.getDBID());
+        // Stream the regulations and reviews of the ReactionlikeEvents in both slices.
+        AttributeDiff diff = new AttributeDiff(dba,
+                                               priorAdaptor,
+                                               ReactomeJavaConstants.ReactionlikeEvent,
+                                               ReactomeJavaConstants.regulatedBy,
+                                               ReactomeJavaConstants.reviewed);
+        List<Long> flaggedDbIds = new ArrayList<>();
+        diff.forEachDelta(delta -> {
+            // Only the ReactionlikeEvents in both slices that have a filled 'regulatedBy' attribute in current slice.
+            if (delta.getChange() != AttributeDiff.Change.CHANGED ||
+                delta.getCurrentValues(ReactomeJavaConstants.regulatedBy).isEmpty()) {
+                return;
+            }
             // QA check
-            if (previousRlE != null && currentRlE.getSchemClass().getName().equals(previousRlE.getSchemClass().getName())) {
-                if (changedRegulatedByWithoutNewReviewed(currentRlE, previousRlE)) {
-                    report.addLine(
-                            currentRlE.getDBID().toString(),
-                            currentRlE.getDisplayName(),
-                            currentRlE.getSchemClass().getName(),
-                            "ReactionlikeEvent with new regulatedBy instance but has not yet been reviewed",
-                            QACheckerHelper.getLastModificationAuthor(currentRlE)
-                    );
-                }
-            } else {
-                System.out.println(currentRlE + " is not the same class as " + previousRlE);
+            if (delta.isClassChanged()) {
+                logger.debug(delta.getCurrentClassName() + " " + delta.getDbId() +
+                             " is not the same class as " + delta.getPriorClassName());
+            } else if (changedRegulatedByWithoutNewReviewed(delta)) {
+                flaggedDbIds.add(delta.getDbId());
+            }
+        });
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        hydrator.addAll(flaggedDbIds);
+        hydrator.hydrate();
+        for (Long dbId : flaggedDbIds) {
+            GKInstance currentRlE = hydrator.get(dbId);
+            if (currentRlE == null) {
+                continue;
             }
+            report.addLine(
+                    currentRlE.getDBID().toString(),
+                    currentRlE.getDisplayName(),
+                    currentRlE.getSchemClass().getName(),
+                    "ReactionlikeEvent with new regulatedBy instance but has not yet been reviewed",
+                    QACheckerHelper.getLastModificationAuthor(currentRlE)
+            );
         }
         return report;
     }
@@ -71,26 +92,19 @@ public class NewRegulationCheck extends AbstractQACheck implements ChecksTwoData
      * If it does, it then compares the number of reviewed instances between slices. If the number of regulation instances is greater AND
      * the number of reviewed instances is the same, it is flagged to indicate that this ReactionlikeEvent still needs to reviewed before
      * it can be released.
-     * @param currentRlE GKInstance -- ReactionlikeEvent from current slice.
-     * @param previousRlE GKInstance -- Same ReactionlikeEvent, but from previous slice.
+     * @param delta AttributeDiff.Delta -- Difference of the ReactionlikeEvent between the current and previous slices.
      * @return boolean -- True if a new, unreviewed regulation instance has been added.
-     * @throws Exception -- DBA exceptions.
      */
-    private boolean changedRegulatedByWithoutNewReviewed(GKInstance currentRlE, GKInstance previousRlE) throws Exception {
-
-        // If previousRlE does not exist, we ignore it since that does not pertain to this particular QA check.
-        if (previousRlE == null) {
-            return false;
-        }
+    private boolean changedRegulatedByWithoutNewReviewed(AttributeDiff.Delta delta) {
         // Compare contents of the 'regulatedBy' attribute of the current and previous versions of the RlE.
         boolean sameRegulatedByAttrs = hasEquivalentAttributeValues(
-                currentRlE.getAttributeValuesList(ReactomeJavaConstants.regulatedBy),
-                previousRlE.getAttributeValuesList(ReactomeJavaConstants.regulatedBy)
+                delta.getCurrentDbIds(ReactomeJavaConstants.regulatedBy),
+                delta.getPriorDbIds(ReactomeJavaConstants.regulatedBy)
         );
 
         boolean sameReviewedAttrs = hasEquivalentAttributeValues(
-                currentRlE.getAttributeValuesList(ReactomeJavaConstants.reviewed),
-                previousRlE.getAttributeValuesList(ReactomeJavaConstants.reviewed)
+                delta.getCurrentDbIds(ReactomeJavaConstants.reviewed),
+                delta.getPriorDbIds(ReactomeJavaConstants.reviewed)
         );
 
         // The actual QA check
@@ -100,29 +114,14 @@ public class NewRegulationCheck extends AbstractQACheck implements ChecksTwoData
     /**
      * Takes two lists from the same attribute in current and previous versions of a ReactionlikeEvent and
      * compares their contents, returning false if they differ.
-     * @param attributeValuesCurrent List<GKInstance> -- Contents of currentRlE's attribute
-     * @param attributeValuesPrevious List<GKInstance> -- Contents of previousRlE's attribute
+     * @param attributeValuesCurrent List<Long> -- DBIDs of currentRlE's attribute values
+     * @param attributeValuesPrevious List<Long> -- DBIDs of previousRlE's attribute values
      * @return boolean -- true if lists are equal, false if not.
      */
-    private boolean hasEquivalentAttributeValues(List<GKInstance> attributeValuesCurrent, List<GKInstance> attributeValuesPrevious) {
+    private boolean hasEquivalentAttributeValues(List<Long> attributeValuesCurrent, List<Long> attributeValuesPrevious) {
         if (attributeValuesCurrent.size() != attributeValuesPrevious.size()) {
             return false;
         }
-        Set<Long> list1DbIds = getInstanceListDBIDs(attributeValuesCurrent);
-        Set<Long> list2DbIds = getInstanceListDBIDs(attributeValuesPrevious);
-        return list1DbIds.equals(list2DbIds);
-    }
-
-    // Return all unique DBIDs from instances in the list
-    private Set<Long> getInstanceListDBIDs(List<GKInstance> list) {
-        return list.stream().map(GKInstance::getDBID).collect(toSet());
-    }
-
-    private Set<GKInstance> getRlEsWithRegulationInstances(MySQLAdaptor dba) throws Exception {
-        return (HashSet<GKInstance>) dba.fetchInstanceByAttribute(
-                ReactomeJavaConstants.ReactionlikeEvent,
-                ReactomeJavaConstants.regulatedBy,
-                "IS NOT NULL",
-                null);
+        return new HashSet<>(attributeValuesCurrent).equals(new HashSet<>(attributeValuesPrevious));
     }
-}
\ No newline at end of file
+}
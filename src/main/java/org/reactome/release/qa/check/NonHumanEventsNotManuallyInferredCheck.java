@@ -4,8 +4,12 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex.EventSet;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,23 +19,37 @@ import java.util.List;
  */
 
 @SliceQACheck
-public class NonHumanEventsNotManuallyInferredCheck extends AbstractQACheck {
+public class NonHumanEventsNotManuallyInferredCheck extends AbstractQACheck implements FusedScanCheck {
 
     private List<Long> skiplistDbIds = new ArrayList<>();
 
+    private QAReport report;
+
     @Override
     public QAReport executeQACheck() throws Exception {
-        QAReport report = new QAReport();
+        return SchemaClassScan.execute(this, dba);
+    }
+
+    @Override
+    public void registerRules(SchemaClassScan scan) throws Exception {
+        report = new QAReport();
+        report.setColumnHeaders(getColumnHeaders());
         this.skiplistDbIds.addAll(QACheckerHelper.getNonHumanPathwaySkipList());
+        ReferrerIndex inferredFromReferrers = ReferrerIndex.getIndex(dba, ReactomeJavaConstants.inferredFrom);
+        EventSet skiplistEvents = QACheckerHelper.getSkipListEvents(dba, skiplistDbIds);
 
-        // The actual method for finding Events that aren't manually inferred is used by multiple QA tests.
-        for (GKInstance event : QACheckerHelper.findEventsNotUsedForManualInference(dba, skiplistDbIds)) {
+        // The actual test for Events that aren't manually inferred is used by multiple QA tests.
+        scan.addRule(ReactomeJavaConstants.Event, event -> {
             // Many Events have multiple species. Cases where there are multiple species and one of them is human are also excluded.
-            if (QACheckerHelper.hasOnlyNonHumanSpecies(event)) {
+            if (QACheckerHelper.isNotUsedForManualInference(event, inferredFromReferrers, skiplistEvents)
+                    && QACheckerHelper.hasOnlyNonHumanSpecies(event)) {
                 report.addLine(getReportLine(event));
             }
-        }
-        report.setColumnHeaders(getColumnHeaders());
+        }, ReactomeJavaConstants.species, ReactomeJavaConstants.created);
+    }
+
+    @Override
+    public QAReport getScanReport() {
         return report;
     }
 
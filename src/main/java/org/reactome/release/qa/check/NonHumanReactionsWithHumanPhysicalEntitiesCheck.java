@@ -4,6 +4,7 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex.EventSet;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -22,14 +23,22 @@ public class NonHumanReactionsWithHumanPhysicalEntitiesCheck extends AbstractQAC
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         this.skiplistDbIds.addAll(QACheckerHelper.getNonHumanPathwaySkipList());
+        EventSet skiplistEvents = QACheckerHelper.getSkipListEvents(dba, skiplistDbIds);
 
         Collection<GKInstance> reactions = dba.fetchInstancesByClass(ReactomeJavaConstants.ReactionlikeEvent);
+        List<GKInstance> nonHumanReactions = new ArrayList<>();
         for (GKInstance reaction : reactions) {
             // Many Events have multiple species. Cases where there are multiple species and one of them is Human are also excluded.
-            if (QACheckerHelper.hasOnlyNonHumanSpecies(reaction) && !QACheckerHelper.memberSkipListPathway(reaction, skiplistDbIds)) {
-                for (GKInstance humanPE : findAllHumanPhysicalEntitiesInReaction(reaction)) {
-                    report.addLine(getReportLine(humanPE, reaction));
-                }
+            if (QACheckerHelper.hasOnlyNonHumanSpecies(reaction) && !QACheckerHelper.memberSkipListPathway(reaction, skiplistEvents)) {
+                nonHumanReactions.add(reaction);
+            }
+        }
+        Map<GKInstance, List<GKInstance>> reactionToPEs = QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(dba,
+                nonHumanReactions,
+                ReactomeJavaConstants.created);
+        for (GKInstance reaction : nonHumanReactions) {
+            for (GKInstance humanPE : findAllHumanPhysicalEntitiesInReaction(reactionToPEs.get(reaction))) {
+                report.addLine(getReportLine(humanPE, reaction));
             }
         }
         report.setColumnHeaders(getColumnHeaders());
@@ -37,14 +46,14 @@ public class NonHumanReactionsWithHumanPhysicalEntitiesCheck extends AbstractQAC
     }
 
     /**
-     * Finds all distinct human PhysicalEntities that exist in the incoming ReactionlikeEvent.
-     * @param reaction GKInstance -- ReactionlikeEvent with non-human species.
+     * Finds all distinct human PhysicalEntities that exist in a ReactionlikeEvent.
+     * @param reactionPEs List<GKInstance> -- All distinct PhysicalEntities in a ReactionlikeEvent with non-human species.
      * @return Set<GKInstance> -- Any human PhysicalEntities that exist in the ReactionlikeEvent.
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
-    private Set<GKInstance> findAllHumanPhysicalEntitiesInReaction(GKInstance reaction) throws Exception {
-        Set<GKInstance> humanPEs = new HashSet<>();
-        for (GKInstance physicalEntity: QACheckerHelper.getAllReactionParticipantsIncludingActiveUnits(reaction)) {
+    private Set<GKInstance> findAllHumanPhysicalEntitiesInReaction(List<GKInstance> reactionPEs) throws Exception {
+        Set<GKInstance> humanPEs = new LinkedHashSet<>();
+        for (GKInstance physicalEntity: reactionPEs) {
             if (QACheckerHelper.isHumanDatabaseObject(physicalEntity)) {
                 humanPEs.add(physicalEntity);
             }
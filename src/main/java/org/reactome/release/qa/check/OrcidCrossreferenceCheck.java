@@ -1,11 +1,8 @@
 package org.reactome.release.qa.check;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -14,6 +11,8 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.DuplicateValueQuery;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QAReport;
 import org.reactome.release.qa.common.SkipList;
 
@@ -45,61 +44,34 @@ public class OrcidCrossreferenceCheck extends AbstractQACheck {
                                 "Identifier",
                                 "Person_DBIDs");
 
-        // Create a map between ORCID and person list.
-        Map<GKInstance, List<GKInstance>> orcidToPeople = new HashMap<GKInstance, List<GKInstance>>();
-
-        // Fetch all Person instances from database where crossReference attribute 'IS NOT NULL'.
-        // This does not verify that the ORCID database is being used for crossReference.
-        // However, no other databases have been found, so a verification is not currently needed.
-        @SuppressWarnings("unchecked")
-        Collection<GKInstance> peopleWithCrossreference = dba.fetchInstanceByAttribute(ReactomeJavaConstants.Person,
-                                                                                       ReactomeJavaConstants.crossReference,
-                                                                                       "IS NOT NULL",
-                                                                                       null);
-        // For all person instances:
-        for (GKInstance person : peopleWithCrossreference) {
-            // Get ORCID for given person.
-            List<GKInstance> crossRefs = person.getAttributeValuesList(ReactomeJavaConstants.crossReference);
-            if (crossRefs == null || crossRefs.size() == 0)
+        // Find the cross-references shared by more than one person on the server.
+        // A shared cross-reference need not be an ORCID, which is checked below.
+        Map<String, List<Long>> crossRefToPeople = DuplicateValueQuery.findDuplicateValues(dba,
+                                                                                           ReactomeJavaConstants.Person,
+                                                                                           ReactomeJavaConstants.crossReference);
+        InstanceHydrator hydrator = new InstanceHydrator(dba,
+                                                         ReactomeJavaConstants.referenceDatabase,
+                                                         ReactomeJavaConstants.identifier);
+        crossRefToPeople.keySet().forEach(dbId -> hydrator.add(Long.valueOf(dbId)));
+        Map<Long, GKInstance> crossRefs = hydrator.hydrate();
+
+        List<GKInstance> orcids = new ArrayList<GKInstance>();
+        for (String dbId : crossRefToPeople.keySet()) {
+            GKInstance crossRef = crossRefs.get(Long.valueOf(dbId));
+            if (crossRef == null || skipList.containsInstanceDbId(crossRef.getDBID()))
                 continue;
-
-            List<GKInstance> orcids = new ArrayList<GKInstance>();
-            for (GKInstance crossRef : crossRefs) {
-                if (!skipList.containsInstanceDbId(crossRef.getDBID())) {
-                    GKInstance refDb = (GKInstance) crossRef.getAttributeValue(ReactomeJavaConstants.referenceDatabase);
-                    if (refDb.getDBID().equals(ORCID_DBID))
-                        orcids.add(crossRef);
-                }
-            }
-
-            if (orcids.size() == 0) continue;
-
-            for (GKInstance orcid : orcids) {
-                orcidToPeople.compute(orcid, (key, list) -> {
-                    if (list == null)
-                        list = new ArrayList<GKInstance>();
-                    list.add(person);
-                    return list;
-                });
-            }
+            GKInstance refDb = (GKInstance) crossRef.getAttributeValue(ReactomeJavaConstants.referenceDatabase);
+            if (refDb != null && refDb.getDBID().equals(ORCID_DBID))
+                orcids.add(crossRef);
         }
+        orcids.sort((orcid1, orcid2) -> orcid1.getDBID().compareTo(orcid2.getDBID()));
 
-        // For entry in map:
-        for (Entry<GKInstance, List<GKInstance>> entry : orcidToPeople.entrySet()) {
-            List<GKInstance> people = entry.getValue();
-
-            // If there are no duplicates, continue.
-            if (people.size() < 2)
-                continue;
-
-            // Person DBID's (e.g. "1168468,140934,26636").
-            String peopleDBIDs = people.stream()
-                                       .map(GKInstance::getDBID)
-                                       .sorted()
-                                       .map(dbid -> dbid.toString())
-                                       .collect(Collectors.joining(","));
+        for (GKInstance orcid : orcids) {
+            // Person DBID's (e.g. "26636,140934,1168468").
+            String peopleDBIDs = crossRefToPeople.get(orcid.getDBID().toString()).stream()
+                                                 .map(dbid -> dbid.toString())
+                                                 .collect(Collectors.joining(","));
             // Create report row.
-            GKInstance orcid = entry.getKey();
             report.addLine(orcid.getDBID() + "",
                            orcid.getDisplayName(),
                            orcid.getAttributeValue(ReactomeJavaConstants.identifier) + "",
@@ -1,12 +1,13 @@
 package org.reactome.release.qa.check;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
-import java.util.stream.Collectors;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
@@ -14,8 +15,11 @@ import org.gk.persistence.MySQLAdaptor;
 import org.gk.util.GKApplicationUtilities;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.AttributeDiff;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QACheckUtilities;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 /**
  * This check is to make sure the ReviewStatus setting for Events follows the following:
@@ -26,8 +30,11 @@ import org.reactome.release.qa.common.QAReport;
  */
 @SuppressWarnings("unchecked")
 @SliceQACheck
-public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatabases {
+public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatabases, FusedScanCheck {
     private MySQLAdaptor priorDBA;
+    private QAReport report;
+    // The structural differences of the Events, streamed for the first two stars Event
+    private Map<Long, AttributeDiff.Delta> eventDeltas;
     
     public ReviewStatusCheck() {
     }
@@ -39,20 +46,27 @@ public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatab
 
     @Override
     public QAReport executeQACheck() throws Exception {
+        return SchemaClassScan.execute(this, dba);
+    }
+
+    @Override
+    public void registerRules(SchemaClassScan scan) throws Exception {
         if (priorDBA == null)
             throw new IllegalStateException("Need to specify the prior database for " + getClass().getName());
-        QAReport report = new QAReport();
+        report = new QAReport();
+        eventDeltas = null;
         report.setColumnHeaders("DB_ID", "DisplayName", "Issue", "LastIE", "Note", "Severity");
-        Collection<GKInstance> events = this.dba.fetchInstancesByClass(ReactomeJavaConstants.Event);
-        for (GKInstance event : events) {
+        scan.addRule(ReactomeJavaConstants.Event, event -> {
             String[] line = validateReviewStatus(event);
-            if (line == null)
-                continue;
-            report.addLine(line);
-        }
-        return report;
+            if (line != null)
+                report.addLine(line);
+        }, "reviewStatus", "internalReviewed", "internalReviewed." + ReactomeJavaConstants.dateTime);
     }
 
+    @Override
+    public QAReport getScanReport() {
+        return report;
+    }
     
     /**
      * Make sure only 3 stars or update reviewed Events are released. This validation bypassed
@@ -112,13 +126,26 @@ public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatab
      * @throws Exception
      */
     private String getNoteForTwoStars(GKInstance inst) throws Exception {
-        GKInstance oldInst = priorDBA.fetchInstance(inst.getDBID());
-        if (oldInst == null)
-            return "Cannot find the instance in the prior database";
-        if (!inst.getSchemClass().getName().equals(oldInst.getSchemClass().getName()))
+        AttributeDiff.Delta delta = getEventDeltas().get(inst.getDBID());
+        if (delta == null) {
+            // Same class and same structure in the prior database
+            if (inst.getSchemClass().isa(ReactomeJavaConstants.Pathway))
+                return "Same " + ReactomeJavaConstants.hasEvent;
+            if (inst.getSchemClass().isa(ReactomeJavaConstants.ReactionlikeEvent))
+                return "No structural update found";
+            return null;
+        }
+        if (delta.getChange() == AttributeDiff.Change.ADDED) {
+            // The prior instance may be there but not an Event
+            GKInstance oldInst = priorDBA.fetchInstance(inst.getDBID());
+            if (oldInst == null)
+                return "Cannot find the instance in the prior database";
+            return "The class of the instance in the prior database is different";
+        }
+        if (delta.isClassChanged())
             return "The class of the instance in the prior database is different";
         if (inst.getSchemClass().isa(ReactomeJavaConstants.Pathway)) {
-            return getNodeForTwoStars(inst, oldInst, ReactomeJavaConstants.hasEvent);
+            return getNodeForTwoStars(delta, ReactomeJavaConstants.hasEvent);
         }
         if (inst.getSchemClass().isa(ReactomeJavaConstants.ReactionlikeEvent)) {
             String[] attNames = {ReactomeJavaConstants.input, 
@@ -127,7 +154,7 @@ public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatab
                                  ReactomeJavaConstants.regulatedBy};
             StringBuilder notes = new StringBuilder();
             for (String attName : attNames) {
-                String note = getNodeForTwoStars(inst, oldInst, attName);
+                String note = getNodeForTwoStars(delta, attName);
                 if (note.startsWith("Same"))
                     continue;
                 if (notes.length() > 0)
@@ -141,13 +168,35 @@ public class ReviewStatusCheck extends AbstractQACheck implements ChecksTwoDatab
         return null;
     }
 
-    private String getNodeForTwoStars(GKInstance inst, 
-                                      GKInstance oldInst,
+    /**
+     * Streams the structural attributes of the Events in both databases once,
+     * keeping the Events which differ.
+     * @return the {DB_ID: delta} map of the Events which differ
+     * @throws Exception
+     */
+    private synchronized Map<Long, AttributeDiff.Delta> getEventDeltas() throws Exception {
+        if (eventDeltas == null) {
+            Map<Long, AttributeDiff.Delta> deltas = new HashMap<>();
+            new AttributeDiff(dba,
+                              priorDBA,
+                              ReactomeJavaConstants.Event,
+                              ReactomeJavaConstants.hasEvent,
+                              ReactomeJavaConstants.input,
+                              ReactomeJavaConstants.output,
+                              ReactomeJavaConstants.catalystActivity,
+                              ReactomeJavaConstants.regulatedBy).forEachDelta(delta -> {
+                if (delta.getChange() != AttributeDiff.Change.REMOVED)
+                    deltas.put(delta.getDbId(), delta);
+            });
+            eventDeltas = deltas;
+        }
+        return eventDeltas;
+    }
+
+    private String getNodeForTwoStars(AttributeDiff.Delta delta,
                                       String attName) throws Exception {
-        List<GKInstance> current = inst.getAttributeValuesList(attName);
-        List<GKInstance> prior = oldInst.getAttributeValuesList(attName);
-        List<Long> currentIDs = current.stream().map(i -> i.getDBID()).collect(Collectors.toList());
-        List<Long> priorIDs = prior.stream().map(i -> i.getDBID()).collect(Collectors.toList());
+        List<Long> currentIDs = new ArrayList<>(delta.getCurrentDbIds(attName));
+        List<Long> priorIDs = new ArrayList<>(delta.getPriorDbIds(attName));
         if (currentIDs.size() > priorIDs.size()) {
             priorIDs.removeAll(currentIDs);
             if (priorIDs.size() == 0)
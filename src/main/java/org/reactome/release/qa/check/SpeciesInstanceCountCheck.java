@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -21,7 +22,9 @@ import org.gk.model.ReactomeJavaConstants;
 import org.gk.persistence.MySQLAdaptor;
 import org.reactome.release.qa.annotations.ReleaseQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
 
 /**
  * This will compare the number of instances for each species between two databases.
@@ -139,8 +142,7 @@ public class SpeciesInstanceCountCheck extends AbstractQACheck implements Checks
 				else
 				{
 					// Get all things that refer to the species. This is how it was done in the old Perl code for Orthoinference.
-					@SuppressWarnings("unchecked")
-					Collection<GKInstance> currentReferrers = species.getReferers(ReactomeJavaConstants.species);
+					Collection<GKInstance> currentReferrers = fetchReferrers(this.dba, species);
 					
 					if (currentReferrers != null && !currentReferrers.isEmpty())
 					{
@@ -157,8 +159,7 @@ public class SpeciesInstanceCountCheck extends AbstractQACheck implements Checks
 										.forEach( populateClassCountMap(currentClassCounts) );
 						
 						// Get all things that refer to the species, this time in prior release database.
-						@SuppressWarnings("unchecked")
-						Collection<GKInstance> priorReferrers = priorSpecies.getReferers(ReactomeJavaConstants.species);
+						Collection<GKInstance> priorReferrers = fetchReferrers(this.priorAdaptor, priorSpecies);
 						priorReferrers.stream().sequential()
 										.filter( filterOnlyInferredObjects )
 										.map( inst -> inst.getSchemClass().getName() )
@@ -224,6 +225,45 @@ public class SpeciesInstanceCountCheck extends AbstractQACheck implements Checks
 		return report;
 	}
 
+	/**
+	 * Fetches all things that refer to the species in bulk, together with the attributes
+	 * which the filters test, rather than one instance at a time.
+	 * @param adaptor - The adaptor of the species' database.
+	 * @param species - The species.
+	 * @return The instances which refer to the species with the "species" attribute, leaving out
+	 * any referrer which no longer exists.
+	 * @throws Exception
+	 */
+	private static Collection<GKInstance> fetchReferrers(MySQLAdaptor adaptor, GKInstance species) throws Exception
+	{
+		ReferrerIndex speciesReferrers = ReferrerIndex.getIndex(adaptor, ReactomeJavaConstants.species);
+		InstanceHydrator referrers = new InstanceHydrator(adaptor, ReactomeJavaConstants.created, ReactomeJavaConstants.isChimeric);
+		for (long dbId : speciesReferrers.getReferrerDbIds(species.getDBID()))
+		{
+			referrers.add(dbId);
+		}
+		// The hydrated map holds only the referrers which were found.
+		Collection<GKInstance> instances = new ArrayList<GKInstance>(referrers.hydrate().values());
+		// The filters read the note of each "Created" InstanceEdit.
+		Set<GKInstance> createdEdits = new HashSet<GKInstance>();
+		for (GKInstance inst : instances)
+		{
+			if (inst.getSchemClass().isValidAttribute(ReactomeJavaConstants.created))
+			{
+				GKInstance created = (GKInstance) inst.getAttributeValue(ReactomeJavaConstants.created);
+				if (created != null)
+				{
+					createdEdits.add(created);
+				}
+			}
+		}
+		if (!createdEdits.isEmpty())
+		{
+			adaptor.loadInstanceAttributeValues(createdEdits, new String[] {ReactomeJavaConstants.note});
+		}
+		return instances;
+	}
+
 	/**
 	 * Returns a function that will modify the input map, based on whether the input to the function
 	 * is new to the map. The function will take a String as input.
@@ -8,6 +8,7 @@ import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SpeciesDictionary;
 
 /**
  * This QA checks species used in two Event instances via preceding relationship:
@@ -35,9 +36,9 @@ public class SpeciesPrecedingRelationCheck extends AbstractQACheck {
         report.setColumnHeaders("Preceding Event DBID", "Preceding Event DisplayName", "Preceding Event Species", "Preceding Event Related Species",
                                 "Following Event DBID", "Following Event DisplayName", "Following Event Species", "Following Event Related Species");
         Collection<GKInstance> rles = dba.fetchInstancesByClass(ReactomeJavaConstants.ReactionlikeEvent);
-        dba.loadInstanceAttributeValues(rles, new String[] {ReactomeJavaConstants.precedingEvent,
-                                                            ReactomeJavaConstants.species,
-                                                            "relatedSpecies"});
+        dba.loadInstanceAttributeValues(rles, new String[] {ReactomeJavaConstants.precedingEvent});
+        // The species are only loaded for the reported events.
+        SpeciesDictionary dictionary = SpeciesDictionary.getDictionary(dba);
         for (GKInstance rle : rles) {
             if (isEscaped(rle)) {
                 continue;
@@ -46,27 +47,25 @@ public class SpeciesPrecedingRelationCheck extends AbstractQACheck {
             if (precedingEvents.size() == 0)
                 continue;
             for (GKInstance pEvent : precedingEvents) {
-                check(rle, pEvent, report);
+                check(rle, pEvent, dictionary, report);
             }
         }
         return report;
     }
     
-    private void check(GKInstance rle, GKInstance preRLE, QAReport report) throws Exception {
-        List<GKInstance> rleSpecies = rle.getAttributeValuesList(ReactomeJavaConstants.species);
-        List<GKInstance> preSpecies = preRLE.getAttributeValuesList(ReactomeJavaConstants.species);
-        List<GKInstance> rleRelatedSpecies = rle.getAttributeValuesList("relatedSpecies");
-        List<GKInstance> preRelatedSpecies = preRLE.getAttributeValuesList("relatedSpecies");
-        if (rleSpecies.size() == 1 &&
-            preSpecies.size() == 1 &&
-            (rleSpecies.get(0).equals(preSpecies.get(0)) || 
-             preRelatedSpecies.contains(rleSpecies.get(0)) ||
-             rleRelatedSpecies.contains(preSpecies.get(0))))
+    private void check(GKInstance rle, GKInstance preRLE, SpeciesDictionary dictionary, QAReport report) throws Exception {
+        if (dictionary.getSpeciesCount(rle.getDBID()) == 1 &&
+            dictionary.getSpeciesCount(preRLE.getDBID()) == 1 &&
+            dictionary.sharesSpecies(rle.getDBID(), preRLE.getDBID()))
             return; // There is nothing to be report. This is good!
         // Either RLE can be escaped.
         if (isEscaped(rle) || isEscaped(preRLE)) {
             return;
         }
+        List<GKInstance> rleSpecies = rle.getAttributeValuesList(ReactomeJavaConstants.species);
+        List<GKInstance> preSpecies = preRLE.getAttributeValuesList(ReactomeJavaConstants.species);
+        List<GKInstance> rleRelatedSpecies = rle.getAttributeValuesList("relatedSpecies");
+        List<GKInstance> preRelatedSpecies = preRLE.getAttributeValuesList("relatedSpecies");
         report.addLine(preRLE.getDBID().toString(),
                        preRLE.getDisplayName(),
                        join(preSpecies),
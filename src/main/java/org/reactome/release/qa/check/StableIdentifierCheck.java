@@ -1,17 +1,22 @@
 package org.reactome.release.qa.check;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.ConnectionPool;
+import org.reactome.release.qa.common.DuplicateValueQuery;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
-import org.reactome.release.qa.common.QAReport; 
+import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
+import org.reactome.release.qa.common.StreamingQuery;
 
 /**
  * Need to consider a database level enforcement.
@@ -30,52 +35,63 @@ public class StableIdentifierCheck extends AbstractQACheck {
 	    QAReport report = new QAReport();
 	    report.setColumnHeaders("DBID", "DisplayName", "Issue", "LastAuthor");
 	    
-	    Collection<GKInstance> stableIds = dba.fetchInstancesByClass(ReactomeJavaConstants.StableIdentifier);
-	    dba.loadInstanceAttributeValues(stableIds, new String[] {ReactomeJavaConstants.identifier});
-	    Map<String, Set<GKInstance>> idToInsts = new HashMap<>();
-	    for (GKInstance stableId : stableIds) {
-	        if (isEscaped(stableId)) {
-	            continue;
-	        }
-	        String id = (String) stableId.getAttributeValue(ReactomeJavaConstants.identifier);
-	        if (id == null) {
-	            report.addLine(stableId.getDBID().toString(),
-	                           stableId.getDisplayName(),
-	                           "Missing identifier",
-	                           QACheckerHelper.getLastModificationAuthor(stableId));
-	            continue;
-	        }
-	        idToInsts.compute(id, (key, set) -> {
-	            if (set == null)
-	                set = new HashSet<>();
-	            set.add(stableId);
-	            return set;
+	    ReferrerIndex referrers = ReferrerIndex.getIndex(dba, ReactomeJavaConstants.stableIdentifier);
+	    // The issues of single instances are found from one scan of the identifier
+	    // column, so that only the instances with an issue are fetched
+	    Map<Long, String> dbIdToIssue = new TreeMap<>();
+	    String query = "SELECT DB_ID, " + ReactomeJavaConstants.identifier + " IS NULL" +
+	                   " FROM " + ReactomeJavaConstants.StableIdentifier;
+	    try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+	        StreamingQuery.forEachRow(lease, query, rs -> {
+	            long dbId = rs.getLong(1);
+	            if (rs.getBoolean(2)) {
+	                dbIdToIssue.put(dbId, "Missing identifier");
+	                return;
+	            }
+	            // Check if this stableId is used
+	            int referrerCount = referrers.getReferrerCount(dbId);
+	            if (referrerCount == 0) {
+	                dbIdToIssue.put(dbId, "Not used");
+	            }
+	            else if (referrerCount > 1) {
+	                dbIdToIssue.put(dbId, "Referred more than once");
+	            }
 	        });
-	        // Check if this stableId is used
-	        Collection<GKInstance> referrers = stableId.getReferers(ReactomeJavaConstants.stableIdentifier);
-	        if (referrers == null || referrers.size() == 0) {
-	            report.addLine(stableId.getDBID().toString(), 
-	                    stableId.getDisplayName(), 
-	                    "Not used", 
-	                    QACheckerHelper.getLastModificationAuthor(stableId));
-	        }
-	        else if (referrers.size() > 1) {
-	            report.addLine(stableId.getDBID().toString(), 
-                        stableId.getDisplayName(), 
-                        "Referred more than once", 
-                        QACheckerHelper.getLastModificationAuthor(stableId));
+	    }
+	    // The duplicated identifiers are grouped on the server
+	    Map<String, List<Long>> idToDbIds = DuplicateValueQuery.findDuplicateValues(dba,
+	                                                                               ReactomeJavaConstants.StableIdentifier,
+	                                                                               ReactomeJavaConstants.identifier);
+	    InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+	    hydrator.addAll(dbIdToIssue.keySet());
+	    idToDbIds.values().forEach(hydrator::addAll);
+	    Map<Long, GKInstance> stableIds = hydrator.hydrate();
+	    
+	    for (Long dbId : dbIdToIssue.keySet()) {
+	        GKInstance stableId = stableIds.get(dbId);
+	        if (stableId == null || isEscaped(stableId)) {
+	            continue;
 	        }
+	        report.addLine(stableId.getDBID().toString(), 
+	                       stableId.getDisplayName(), 
+	                       dbIdToIssue.get(dbId), 
+	                       QACheckerHelper.getLastModificationAuthor(stableId));
 	    }
 	    
-	    for (Collection<GKInstance> instances: idToInsts.values()) {
-	        if (instances.size() != 1) {
+	    for (List<Long> dbIds : idToDbIds.values()) {
+	        List<GKInstance> instances = new ArrayList<>();
+	        for (Long dbId : dbIds) {
+	            GKInstance stableId = stableIds.get(dbId);
+	            if (stableId != null && !isEscaped(stableId)) {
+	                instances.add(stableId);
+	            }
+	        }
+	        if (instances.size() > 1) {
 	            for (GKInstance stableId: instances) {
-	                if (!isEscaped(stableId)) {
-	                    report.addLine(stableId.getDBID().toString(), 
-	                            stableId.getDisplayName(), 
-	                            "Duplicated identifier", 
-	                            QACheckerHelper.getLastModificationAuthor(stableId));
-	                } 
+	                report.addLine(stableId.getDBID().toString(), 
+	                        stableId.getDisplayName(), 
+	                        "Duplicated identifier", 
+	                        QACheckerHelper.getLastModificationAuthor(stableId));
 	            }
 	        }
 	    }
@@ -1,12 +1,16 @@
 package org.reactome.release.qa.check;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.gk.persistence.MySQLAdaptor;
 import org.reactome.release.qa.annotations.ReleaseQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.AttributeDiff;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QAReport;
 
 /**
@@ -24,34 +28,48 @@ public class StableIdentifierVersionMismatchCheck extends AbstractQACheck implem
 	{
 		QAReport report = new QAReport();
 		report.setColumnHeaders("StableIdentifier", this.dba.getDBName(), this.otherAdaptor.getDBName());
-		@SuppressWarnings("unchecked")
-		Set<GKInstance> gkCentralSTIDs = (Set<GKInstance>) this.otherAdaptor.fetchInstancesByClass(ReactomeJavaConstants.StableIdentifier);
+		// This assumes that the DBID from gk_central is used for the same Stable Identifier as in test_reactome_XX.
+		AttributeDiff diff = new AttributeDiff(this.dba,
+		                                       this.otherAdaptor,
+		                                       ReactomeJavaConstants.StableIdentifier,
+		                                       ReactomeJavaConstants.identifier,
+		                                       ReactomeJavaConstants.identifierVersion);
+		List<String[]> lines = new ArrayList<>();
+		InstanceHydrator gkCentralSTIDs = new InstanceHydrator(this.otherAdaptor, InstanceHydrator.EDIT_ATTRIBUTES);
+		diff.forEachDelta(delta -> {
+			if (delta.getChange() != AttributeDiff.Change.CHANGED || delta.isClassChanged())
+			{
+				return;
+			}
+			String identifier = getValue(delta.getPriorValues(ReactomeJavaConstants.identifier));
+			String version = getValue(delta.getPriorValues(ReactomeJavaConstants.identifierVersion));
+			String testReactomeIdentifierString = getValue(delta.getCurrentValues(ReactomeJavaConstants.identifier));
+			String testReactomeIdentifierVersionString = getValue(delta.getCurrentValues(ReactomeJavaConstants.identifierVersion));
 
-		for (GKInstance gkCentralSTID : gkCentralSTIDs)
-		{
-		    if (isEscaped(gkCentralSTID)) {
-		        continue;
-		    }
-			String identifier = (String) gkCentralSTID.getAttributeValue(ReactomeJavaConstants.identifier);
-			String version = (String) gkCentralSTID.getAttributeValue(ReactomeJavaConstants.identifierVersion);
-			
-			// This assumes that the DBID from gk_central is used for the same Stable Identifier as in test_reactome_XX.
-			GKInstance testReactomeSTID = this.dba.fetchInstance(gkCentralSTID.getDBID());
-			
-			if (testReactomeSTID!=null && testReactomeSTID.getSchemClass().getName().equals(ReactomeJavaConstants.StableIdentifier))
+			if (identifier != null && identifier.equals(testReactomeIdentifierString) && !Objects.equals(version, testReactomeIdentifierVersionString))
 			{
-				String testReactomeIdentifierString = (String) testReactomeSTID.getAttributeValue(ReactomeJavaConstants.identifier);
-				String testReactomeIdentifierVersionString = (String) testReactomeSTID.getAttributeValue(ReactomeJavaConstants.identifierVersion);
-				
-				if (identifier.equals(testReactomeIdentifierString) && !version.equals(testReactomeIdentifierVersionString))
-				{
-					report.addLine(testReactomeIdentifierString, version, testReactomeIdentifierVersionString);
-				}
+				gkCentralSTIDs.add(delta.getDbId());
+				lines.add(new String[] {Long.toString(delta.getDbId()), testReactomeIdentifierString, version, testReactomeIdentifierVersionString});
+			}
+		});
+		gkCentralSTIDs.hydrate();
+		for (String[] line : lines)
+		{
+			// The instance may have been deleted since the diff.
+			GKInstance gkCentralSTID = gkCentralSTIDs.get(Long.valueOf(line[0]));
+			if (gkCentralSTID == null || isEscaped(gkCentralSTID)) {
+				continue;
 			}
+			report.addLine(line[1], line[2], line[3]);
 		}
 		return report;
 	}
 
+	private String getValue(List<String> values)
+	{
+		return values.isEmpty() ? null : values.get(0);
+	}
+
 	@Override
 	public void setOtherDBAdaptor(MySQLAdaptor adaptor)
 	{
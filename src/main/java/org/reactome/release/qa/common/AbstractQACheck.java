@@ -4,10 +4,10 @@ import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.gk.persistence.MySQLAdaptor;
-import org.gk.util.FileUtilities;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -20,13 +20,12 @@ public abstract class AbstractQACheck implements QACheck {
 
     private static final Pattern CHECK_SUFFIX_PAT = Pattern.compile("Check(er)?$");
 
+    /** The cut-off date is read once and never modified, so it can be shared by concurrent checks. */
     private static final Date CUTOFF_DATE = QACheckProperties.getCutoffDate();
 
     protected MySQLAdaptor dba;
 
     protected final List<Long> EMPTY_SKIP_LIST = Collections.emptyList();
-
-    private Set<Long> escDbIds;
     
     @Override
     abstract public QAReport executeQACheck() throws Exception;
@@ -36,6 +35,18 @@ public abstract class AbstractQACheck implements QACheck {
         this.dba = dba;
     }
  
+    /**
+     * Acquires a connection for this check's SQL queries. The caller
+     * closes the lease in a try-with-resources block, which returns a
+     * pooled connection to the pool.
+     *
+     * @return the connection lease
+     * @throws SQLException if a pooled connection could not be opened
+     */
+    protected ConnectionLease acquireConnection() throws SQLException {
+        return ConnectionPool.acquire(dba);
+    }
+
     protected File getConfigurationFile() {
         String fileName = "resources" + File.separator + getClass().getSimpleName() + ".txt";
         File file = new File(fileName);
@@ -76,12 +87,8 @@ public abstract class AbstractQACheck implements QACheck {
      * @throws Exception
      */
     protected boolean isEscaped(GKInstance instance) throws Exception {
-        // Load the skip list on demand.
-        if (escDbIds == null) {
-            escDbIds = loadEscapedDbIds();
-        }
         // First check: DB id is in the escape list.
-        if (!escDbIds.contains(instance.getDBID())) {
+        if (!getEscapedDbIds().contains(instance.getDBID())) {
             return false;
         }
         // Second check: if there is a cut-off date, then the instance
@@ -89,6 +96,11 @@ public abstract class AbstractQACheck implements QACheck {
         if (CUTOFF_DATE == null) {
             return true;
         }
+        InstanceEditTimeline timeline = InstanceEditTimeline.getTimeline(instance);
+        if (timeline != null) {
+            long ieTime = timeline.getLatestCuratorEditTime(instance.getDBID());
+            return ieTime == InstanceEditTimeline.NO_TIME || ieTime <= CUTOFF_DATE.getTime();
+        }
         GKInstance ie = QACheckUtilities.getLatestCuratorIEFromInstance(instance);
         if (ie == null) {
             // Probably an error, but the error should be detected
@@ -102,35 +114,17 @@ public abstract class AbstractQACheck implements QACheck {
         }
         DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         Date ieDate = df.parse(ieDateValue);
-        return !ieDate.after(CUTOFF_DATE);
+        return ieDate.getTime() <= CUTOFF_DATE.getTime();
     }
     
     /**
-     * Opens the file consisting of escaped instance DB ids.
-     * @throws IOException
+     * Returns the escape list, which the {@link SkipListRegistry} loads
+     * at most once per run and shares with every instance of the check.
+     * An instance in the list is only escaped if {@link #isEscaped(GKInstance)}
+     * also says so.
      */
-    private Set<Long> loadEscapedDbIds() throws IOException {
-        File file = new File("QA_SkipList" + File.separator + getDisplayName() + ".txt");
-        HashSet<Long> escapedDbIds = new HashSet<Long>();
-        if (file.exists()) {
-            logger.info("Loading the " + getClass().getSimpleName() + " skip list " + file + "...");
-            FileUtilities fu = new FileUtilities();
-            fu.setInput(file.getAbsolutePath());
-            String line = null;
-            while ((line = fu.readLine()) != null) {
-                if (line.startsWith("#"))
-                    continue; // Escape comment line
-                String[] tokens = line.split("\t");
-                // Make sure only number will be got
-                if (tokens[0].matches("\\d+")) {
-                    Long dbId = Long.valueOf(tokens[0]);
-                    escapedDbIds.add(dbId);
-                }
-            }
-            fu.close();
-        }
-        
-        return escapedDbIds;
+    protected LongHashSet getEscapedDbIds() throws IOException {
+        return SkipListRegistry.getEscapeList(getDisplayName());
     }
     
     /**
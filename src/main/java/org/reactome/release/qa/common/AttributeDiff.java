@@ -0,0 +1,460 @@
+package org.reactome.release.qa.common;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.Schema;
+import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
+
+/**
+ * Compares the attribute values of the instances of a class in two
+ * databases, e.g. the current and the prior release.
+ *
+ * Rather than fetching each instance from the other database, the class
+ * and attribute values of every instance are streamed from both databases
+ * in DB id order, on a connection of each, and the two streams are merge
+ * joined. An instance which is only in the current database is
+ * {@link Change#ADDED}, one which is only in the prior database is
+ * {@link Change#REMOVED}, and one whose class or values differ is
+ * {@link Change#CHANGED}. Unchanged instances are not reported. An
+ * attribute is read from each subclass which defines it, the values of a
+ * multi-valued attribute are compared in rank order, and an instance
+ * value is its DB id.
+ */
+public class AttributeDiff {
+
+    private static final Logger logger = Logger.getLogger(AttributeDiff.class);
+
+    public enum Change {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    /**
+     * Handles one difference.
+     */
+    @FunctionalInterface
+    public interface DeltaHandler {
+        /**
+         * @param delta the difference of one instance
+         * @throws Exception
+         */
+        void handle(Delta delta) throws Exception;
+    }
+
+    /**
+     * The difference of one instance between the two databases.
+     */
+    public static class Delta {
+
+        private final List<String> attributes;
+
+        private final long dbId;
+
+        private final Change change;
+
+        private final String currentClassName;
+
+        private final String priorClassName;
+
+        private final List<List<String>> currentValues;
+
+        private final List<List<String>> priorValues;
+
+        private Delta(List<String> attributes,
+                      long dbId,
+                      Change change,
+                      String currentClassName,
+                      String priorClassName,
+                      List<List<String>> currentValues,
+                      List<List<String>> priorValues) {
+            this.attributes = attributes;
+            this.dbId = dbId;
+            this.change = change;
+            this.currentClassName = currentClassName;
+            this.priorClassName = priorClassName;
+            this.currentValues = currentValues;
+            this.priorValues = priorValues;
+        }
+
+        public long getDbId() {
+            return dbId;
+        }
+
+        public Change getChange() {
+            return change;
+        }
+
+        /**
+         * @return the class of the instance in the current database, or
+         *   null if the instance was removed
+         */
+        public String getCurrentClassName() {
+            return currentClassName;
+        }
+
+        /**
+         * @return the class of the instance in the prior database, or
+         *   null if the instance was added
+         */
+        public String getPriorClassName() {
+            return priorClassName;
+        }
+
+        /**
+         * @return whether the instance is in both databases with different classes
+         */
+        public boolean isClassChanged() {
+            return change == Change.CHANGED && !Objects.equals(currentClassName, priorClassName);
+        }
+
+        /**
+         * @param attName one of the compared attributes
+         * @return the values in the current database in rank order, which
+         *   are empty if the instance was removed
+         */
+        public List<String> getCurrentValues(String attName) {
+            return currentValues.get(indexOf(attName));
+        }
+
+        /**
+         * @param attName one of the compared attributes
+         * @return the values in the prior database in rank order, which
+         *   are empty if the instance was added
+         */
+        public List<String> getPriorValues(String attName) {
+            return priorValues.get(indexOf(attName));
+        }
+
+        /**
+         * @param attName one of the compared instance attributes
+         * @return the DB ids of the values in the current database in rank order
+         */
+        public List<Long> getCurrentDbIds(String attName) {
+            return toDbIds(getCurrentValues(attName));
+        }
+
+        /**
+         * @param attName one of the compared instance attributes
+         * @return the DB ids of the values in the prior database in rank order
+         */
+        public List<Long> getPriorDbIds(String attName) {
+            return toDbIds(getPriorValues(attName));
+        }
+
+        private int indexOf(String attName) {
+            int index = attributes.indexOf(attName);
+            if (index < 0) {
+                throw new IllegalArgumentException(attName + " is not one of the compared attributes " + attributes);
+            }
+            return index;
+        }
+
+        private List<Long> toDbIds(List<String> values) {
+            return values.stream().map(Long::valueOf).collect(Collectors.toList());
+        }
+
+    }
+
+    /**
+     * One row of the instances of a database. The class row of an instance
+     * has attribute number -1, and each value row has the number of its
+     * attribute in the compared attributes.
+     */
+    public static class Row {
+
+        private final long dbId;
+
+        private final String className;
+
+        private final int attribute;
+
+        private final String value;
+
+        /**
+         * @param dbId the instance DB id
+         * @param className the instance class for the class row, otherwise null
+         * @param attribute the attribute number, or -1 for the class row
+         * @param value the attribute value, or null for the class row
+         */
+        public Row(long dbId, String className, int attribute, String value) {
+            this.dbId = dbId;
+            this.className = className;
+            this.attribute = attribute;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * The rows of the instances of a database in DB id, attribute number
+     * and rank order, so that the class row of an instance comes first.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        /**
+         * @return the next row, or null if there are no more rows
+         * @throws Exception
+         */
+        Row next() throws Exception;
+    }
+
+    /**
+     * The instances of one database, read one instance at a time.
+     */
+    private static class InstanceCursor {
+
+        private final RowSource rows;
+
+        private final int attributeCount;
+
+        private Row row;
+
+        private long dbId;
+
+        private String className;
+
+        private List<List<String>> values;
+
+        InstanceCursor(RowSource rows, int attributeCount) throws Exception {
+            this.rows = rows;
+            this.attributeCount = attributeCount;
+            row = rows.next();
+        }
+
+        /**
+         * Reads the rows of the next instance.
+         *
+         * @return whether there is another instance
+         */
+        boolean next() throws Exception {
+            if (row == null) {
+                return false;
+            }
+            dbId = row.dbId;
+            className = null;
+            values = new ArrayList<>(attributeCount);
+            for (int i = 0; i < attributeCount; i++) {
+                values.add(new ArrayList<>());
+            }
+            while (row != null && row.dbId == dbId) {
+                if (row.attribute < 0) {
+                    className = row.className;
+                }
+                else {
+                    values.get(row.attribute).add(row.value);
+                }
+                row = rows.next();
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * The rows of a streamed (DB id, class, attribute number, value) query.
+     */
+    private static class QueryRowSource implements RowSource, AutoCloseable {
+
+        private final ConnectionLease lease;
+
+        private final PreparedStatement ps;
+
+        private final ResultSet rs;
+
+        QueryRowSource(MySQLAdaptor dba, String sql) throws Exception {
+            lease = ConnectionPool.acquire(dba);
+            try {
+                ps = StreamingQuery.prepare(lease, sql);
+                rs = ps.executeQuery();
+            }
+            catch (Exception e) {
+                lease.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public Row next() throws Exception {
+            if (!rs.next()) {
+                return null;
+            }
+            return new Row(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getString(4));
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                rs.close();
+                ps.close();
+            }
+            finally {
+                lease.close();
+            }
+        }
+
+    }
+
+    private final MySQLAdaptor dba;
+
+    private final MySQLAdaptor priorDBA;
+
+    private final String clsName;
+
+    private final List<String> attributes;
+
+    /**
+     * @param dba the adaptor of the current database
+     * @param priorDBA the adaptor of the database to compare with
+     * @param clsName the class whose instances, including the instances of
+     *   its subclasses, are compared
+     * @param attributes the attributes to compare
+     */
+    public AttributeDiff(MySQLAdaptor dba, MySQLAdaptor priorDBA, String clsName, String... attributes) {
+        this.dba = dba;
+        this.priorDBA = priorDBA;
+        this.clsName = clsName;
+        this.attributes = Collections.unmodifiableList(Arrays.asList(attributes));
+    }
+
+    /**
+     * Streams both databases and calls the handler for each instance
+     * which differs, in DB id order.
+     *
+     * @param handler the delta handler
+     * @throws Exception if a query or the handler fails
+     */
+    public void forEachDelta(DeltaHandler handler) throws Exception {
+        String currentSql = getInstanceSql(dba);
+        String priorSql = getInstanceSql(priorDBA);
+        logger.debug("Comparing " + clsName + " " + attributes + " of " + ConnectionPool.getDatabaseKey(dba) +
+                     " and " + ConnectionPool.getDatabaseKey(priorDBA) + ": " + currentSql);
+        // Both queries run before either result is read.
+        int[] counts = new int[Change.values().length];
+        try (QueryRowSource current = new QueryRowSource(dba, currentSql);
+             QueryRowSource prior = new QueryRowSource(priorDBA, priorSql)) {
+            merge(attributes, current, prior, delta -> {
+                counts[delta.getChange().ordinal()]++;
+                handler.handle(delta);
+            });
+        }
+        logger.info(clsName + " " + attributes + ": " + counts[Change.ADDED.ordinal()] + " added, " +
+                    counts[Change.REMOVED.ordinal()] + " removed and " + counts[Change.CHANGED.ordinal()] + " changed.");
+    }
+
+    /**
+     * Merge joins the rows of two databases and calls the handler for
+     * each instance which differs, in DB id order.
+     *
+     * @param attributes the compared attributes
+     * @param currentRows the rows of the current database
+     * @param priorRows the rows of the database to compare with
+     * @param handler the delta handler
+     * @throws Exception if a row source or the handler fails
+     */
+    public static void merge(List<String> attributes,
+                             RowSource currentRows,
+                             RowSource priorRows,
+                             DeltaHandler handler) throws Exception {
+        InstanceCursor current = new InstanceCursor(currentRows, attributes.size());
+        InstanceCursor prior = new InstanceCursor(priorRows, attributes.size());
+        boolean hasCurrent = current.next();
+        boolean hasPrior = prior.next();
+        while (hasCurrent || hasPrior) {
+            Delta delta = null;
+            if (hasPrior && (!hasCurrent || prior.dbId < current.dbId)) {
+                delta = new Delta(attributes, prior.dbId, Change.REMOVED, null, prior.className, getEmptyValues(attributes), prior.values);
+                hasPrior = prior.next();
+            }
+            else if (!hasPrior || current.dbId < prior.dbId) {
+                delta = new Delta(attributes, current.dbId, Change.ADDED, current.className, null, current.values, getEmptyValues(attributes));
+                hasCurrent = current.next();
+            }
+            else {
+                if (!Objects.equals(current.className, prior.className) || !current.values.equals(prior.values)) {
+                    delta = new Delta(attributes, current.dbId, Change.CHANGED, current.className, prior.className, current.values, prior.values);
+                }
+                hasCurrent = current.next();
+                hasPrior = prior.next();
+            }
+            if (delta != null) {
+                handler.handle(delta);
+            }
+        }
+    }
+
+    private static List<List<String>> getEmptyValues(List<String> attributes) {
+        List<List<String>> values = new ArrayList<>(attributes.size());
+        for (int i = 0; i < attributes.size(); i++) {
+            values.add(Collections.emptyList());
+        }
+        return values;
+    }
+
+    /**
+     * @return the (DB id, class, attribute number, value, rank) query of
+     *   the instances of one database, where the class row of an instance
+     *   has attribute number -1 and the rows are in DB id, attribute and
+     *   rank order
+     */
+    private String getInstanceSql(MySQLAdaptor adaptor) throws Exception {
+        Schema schema = adaptor.fetchSchema();
+        SchemaClass cls = schema.getClassByName(clsName);
+        if (cls == null) {
+            throw new IllegalArgumentException("No class " + clsName + " in " + ConnectionPool.getDatabaseKey(adaptor));
+        }
+        String classes = QACheckerHelper.getSubclassNames(clsName, schema);
+        List<String> selects = new ArrayList<>();
+        selects.add("SELECT d.DB_ID, d._class, -1, NULL, 0 FROM DatabaseObject d WHERE d._class IN (" + classes + ")");
+        for (int i = 0; i < attributes.size(); i++) {
+            String attName = attributes.get(i);
+            Collection<SchemaAttribute> origins = getOrigins(schema, cls, attName);
+            if (origins.isEmpty()) {
+                logger.warn("No class of " + clsName + " has the attribute " + attName + " in " +
+                            ConnectionPool.getDatabaseKey(adaptor));
+            }
+            for (SchemaAttribute att : origins) {
+                String table = att.isMultiple() ? att.getOrigin().getName() + "_2_" + attName : att.getOrigin().getName();
+                String rank = att.isMultiple() ? "t." + attName + "_rank" : "0";
+                selects.add("SELECT t.DB_ID, NULL, " + i + ", t." + attName + ", " + rank +
+                            " FROM " + table + " t, DatabaseObject d" +
+                            " WHERE d.DB_ID = t.DB_ID AND d._class IN (" + classes + ")" +
+                            " AND t." + attName + " IS NOT NULL");
+            }
+        }
+        return String.join(" UNION ALL ", selects) + " ORDER BY 1, 3, 5";
+    }
+
+    /**
+     * An attribute may be defined separately in several subclasses, e.g.
+     * hasEvent of Pathway and of BlackBoxEvent.
+     *
+     * @return the attribute of each distinct origin class of the class or
+     *   its subclasses, in origin name order
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<SchemaAttribute> getOrigins(Schema schema, SchemaClass cls, String attName) throws Exception {
+        Map<String, SchemaAttribute> origins = new TreeMap<>();
+        for (SchemaClass subclass : (Collection<SchemaClass>) schema.getClasses()) {
+            if (subclass.isa(cls) && subclass.isValidAttribute(attName)) {
+                SchemaAttribute att = subclass.getAttribute(attName);
+                origins.putIfAbsent(att.getOrigin().getName(), att);
+            }
+        }
+        return origins.values();
+    }
+
+}
@@ -0,0 +1,46 @@
+package org.reactome.release.qa.common;
+
+import java.sql.Connection;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}. Closing the lease
+ * returns the connection to the pool. A lease on an adaptor's own
+ * connection, used when there is no pool, leaves the connection open.
+ */
+public class ConnectionLease implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final ConnectionPool pool;
+
+    private boolean isClosed;
+
+    ConnectionLease(Connection connection, ConnectionPool pool) {
+        this.connection = connection;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the leased connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * @return whether the connection is the adaptor's own connection, which
+     *   the adaptor uses to load instances
+     */
+    public boolean isShared() {
+        return pool == null;
+    }
+
+    @Override
+    public void close() {
+        if (!isClosed && pool != null) {
+            pool.release(connection);
+        }
+        isClosed = true;
+    }
+
+}
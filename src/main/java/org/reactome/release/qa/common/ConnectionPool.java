@@ -0,0 +1,309 @@
+package org.reactome.release.qa.common;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+
+/**
+ * A small, fixed-size pool of read-only JDBC connections to one database.
+ *
+ * The pool is registered under the database name and host, so every
+ * {@link MySQLAdaptor} for that database, whichever worker thread owns it,
+ * borrows from the same pool. A check obtains a connection with
+ * {@link #acquire(MySQLAdaptor)} in a try-with-resources block, so the
+ * connection is returned to the pool even if the check throws.
+ *
+ * If no pool is registered for the adaptor's database, then
+ * {@link #acquire(MySQLAdaptor)} hands out the adaptor's own connection,
+ * which is the behavior without a pool.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class);
+
+    private static final int DEFAULT_PORT = 3306;
+
+    /** How long to wait for a connection to become valid, in seconds. */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    /**
+     * How long to wait for a pooled connection to be released, in seconds.
+     * A worker may hold one lease while it takes another, e.g. for an index
+     * load or the second database of a diff, so a pool which is smaller than
+     * the number of workers can run out with every holder waiting. The wait
+     * then fails rather than blocks the run for good.
+     */
+    private static final int BORROW_TIMEOUT = 600;
+
+    /**
+     * Connector/J client-side prepared statement caching. The same check
+     * queries are issued many times per run, e.g. once per schema class.
+     */
+    private static final String CONNECTION_PARAMS =
+            "?cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048" +
+            "&useServerPrepStmts=false&characterEncoding=UTF-8";
+
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    private final String url;
+    private final String databaseKey;
+    private final Properties connectionProps;
+    private final int size;
+    private final BlockingQueue<Connection> idle;
+    private final List<Connection> created;
+
+    /**
+     * @param host the database host
+     * @param port the database port, or null for the default MySQL port
+     * @param dbName the database name
+     * @param user the database user
+     * @param pwd the database password
+     * @param size the maximum number of connections
+     */
+    public ConnectionPool(String host, Integer port, String dbName, String user, String pwd, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The connection pool size must be positive: " + size);
+        }
+        this.url = "jdbc:mysql://" + host + ":" + (port == null ? DEFAULT_PORT : port) + "/" + dbName + CONNECTION_PARAMS;
+        this.databaseKey = dbName + "@" + host;
+        this.connectionProps = new Properties();
+        this.connectionProps.setProperty("user", user);
+        if (pwd != null) {
+            this.connectionProps.setProperty("password", pwd);
+        }
+        this.size = size;
+        this.idle = new LinkedBlockingQueue<>();
+        this.created = new ArrayList<>();
+    }
+
+    /**
+     * Registers the given pool for the given adaptor's database. If there
+     * is already a pool for that database, then that pool is kept and the
+     * given pool is closed.
+     *
+     * @param dba the adaptor for the pooled database
+     * @param pool the pool to register
+     * @return the registered pool
+     */
+    public static ConnectionPool register(MySQLAdaptor dba, ConnectionPool pool) {
+        ConnectionPool registered = POOLS.putIfAbsent(getDatabaseKey(dba), pool);
+        if (registered == null) {
+            logger.info("Using a pool of " + pool.size + " connections for " + getDatabaseKey(dba));
+            return pool;
+        }
+        pool.close();
+        return registered;
+    }
+
+    /**
+     * @param dba the database adaptor
+     * @return the pool registered for the adaptor's database, or null if there is none
+     */
+    public static ConnectionPool getPool(MySQLAdaptor dba) {
+        return POOLS.get(getDatabaseKey(dba));
+    }
+
+    /**
+     * Acquires a connection to the given adaptor's database. The caller
+     * closes the returned lease, preferably with try-with-resources.
+     *
+     * @param dba the database adaptor
+     * @return the connection lease
+     * @throws SQLException if a pooled connection could not be opened
+     */
+    public static ConnectionLease acquire(MySQLAdaptor dba) throws SQLException {
+        ConnectionPool pool = getPool(dba);
+        if (pool == null) {
+            return new ConnectionLease(dba.getConnection(), null);
+        }
+        return new ConnectionLease(pool.borrow(), pool);
+    }
+
+    /**
+     * Runs the given tasks concurrently on at most the given number of
+     * threads, each of which would typically acquire a pooled connection.
+     * Without a pool for the adaptor's database, the tasks are run one
+     * after another, since they would share the adaptor's connection.
+     *
+     * @param dba the database adaptor which the tasks query
+     * @param tasks the tasks to run
+     * @param maxThreads the maximum number of tasks run at once
+     * @return the result of each task in task order
+     * @throws Exception the exception of the first failed task
+     */
+    public static <T> List<T> runConcurrently(MySQLAdaptor dba, List<Callable<T>> tasks, int maxThreads)
+            throws Exception {
+        List<T> results = new ArrayList<>(tasks.size());
+        if (getPool(dba) == null || tasks.size() < 2) {
+            for (Callable<T> task : tasks) {
+                results.add(task.call());
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(), maxThreads));
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Closes all registered pools. This is called at the end of the run.
+     */
+    public static void closeAll() {
+        POOLS.values().forEach(ConnectionPool::close);
+        POOLS.clear();
+    }
+
+    /**
+     * @param dba the database adaptor
+     * @return the key which identifies the adaptor's database in a run
+     */
+    public static String getDatabaseKey(MySQLAdaptor dba) {
+        return dba.getDBName() + "@" + dba.getDBHost();
+    }
+
+    /**
+     * Borrows a connection, opening a new one if the pool is not yet
+     * full, and otherwise waiting up to {@link #BORROW_TIMEOUT} seconds for
+     * one to be released. An invalid connection is discarded and the
+     * borrow starts over, so that its slot is only taken again by
+     * {@link #open()}, which checks the pool size.
+     *
+     * @return the read-only connection
+     * @throws SQLException if the connection could not be opened, or none
+     *   was released in time
+     */
+    Connection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(BORROW_TIMEOUT);
+        while (true) {
+            Connection conn = idle.poll();
+            if (conn == null) {
+                conn = open();
+            }
+            if (conn == null) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new SQLException("Timed out after " + BORROW_TIMEOUT + " seconds waiting for one of the " +
+                                           size + " pooled connections to " + databaseKey +
+                                           "; use a larger pool or fewer threads");
+                }
+                // Poll rather than block, since a discarded connection
+                // frees a slot without being returned to the idle queue.
+                try {
+                    conn = idle.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a pooled connection", e);
+                }
+                if (conn == null) {
+                    continue;
+                }
+            }
+            if (conn.isValid(VALIDATION_TIMEOUT)) {
+                return conn;
+            }
+            logger.warn("Discarding an invalid pooled connection to " + url);
+            replace(conn);
+        }
+    }
+
+    /**
+     * Returns the given connection to the pool.
+     *
+     * @param conn the borrowed connection
+     */
+    void release(Connection conn) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            idle.offer(conn);
+        } catch (SQLException e) {
+            logger.warn("Discarding a pooled connection which could not be reset: " + e);
+            replace(conn);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (created) {
+            for (Connection conn : created) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.warn("Could not close a pooled connection: " + e);
+                }
+            }
+            created.clear();
+        }
+        idle.clear();
+    }
+
+    /**
+     * Opens a new connection if the pool is not full.
+     *
+     * @return the new connection, or null if the pool is full
+     */
+    private Connection open() throws SQLException {
+        synchronized (created) {
+            if (created.size() >= size) {
+                return null;
+            }
+            Connection conn = connect();
+            created.add(conn);
+            return conn;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, connectionProps);
+        // QA checks never write to the database.
+        conn.setReadOnly(true);
+        return conn;
+    }
+
+    private void replace(Connection conn) {
+        synchronized (created) {
+            created.remove(conn);
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Nothing more can be done with a broken connection.
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.Schema;
+
+/**
+ * Finds the attribute values which are shared by more than one instance
+ * of a class.
+ *
+ * Rather than fetching every instance of the class and grouping the
+ * values in a map, the duplicated values are found on the server with a
+ * <code>GROUP BY value HAVING COUNT(DISTINCT DB_ID) > 1</code> query, and
+ * only the instances of those values are returned. Memory and transfer
+ * therefore scale with the number of duplicates rather than the size of
+ * the class. The caller hydrates the returned DB ids if it needs the
+ * instances, e.g. with an {@link InstanceHydrator}.
+ *
+ * The server groups the values by the column collation, which may
+ * ignore case or trailing spaces, so the returned rows are regrouped by
+ * the exact value.
+ */
+public class DuplicateValueQuery {
+
+    private static final Logger logger = Logger.getLogger(DuplicateValueQuery.class);
+
+    private DuplicateValueQuery() {
+    }
+
+    /**
+     * @param dba the adaptor of the database to query
+     * @param clsName the class whose instances, including the instances of
+     *   its subclasses, are grouped
+     * @param attName the attribute whose values are compared, where an
+     *   instance value is its DB id and any value of a multi-valued
+     *   attribute counts
+     * @return the {value: sorted instance DB ids} groups of the values which
+     *   are shared by more than one instance, in value order
+     * @throws Exception if the query fails
+     */
+    public static Map<String, List<Long>> findDuplicateValues(MySQLAdaptor dba,
+                                                              String clsName,
+                                                              String attName) throws Exception {
+        Schema schema = dba.fetchSchema();
+        String table = QACheckerHelper.getAttributeTableName(clsName, attName, dba);
+        String classes = QACheckerHelper.getSubclassNames(clsName, schema);
+        String values = "SELECT t." + attName + " AS value FROM " + table + " t, DatabaseObject d" +
+                " WHERE d.DB_ID = t.DB_ID AND d._class IN (" + classes + ") AND t." + attName + " IS NOT NULL" +
+                " GROUP BY t." + attName + " HAVING COUNT(DISTINCT t.DB_ID) > 1";
+        String query = "SELECT DISTINCT t." + attName + ", t.DB_ID FROM " + table + " t, DatabaseObject d," +
+                " (" + values + ") v" +
+                " WHERE t." + attName + " = v.value AND d.DB_ID = t.DB_ID AND d._class IN (" + classes + ")" +
+                " ORDER BY t." + attName + ", t.DB_ID";
+        Map<String, List<Long>> valueToDbIds = new LinkedHashMap<>();
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            StreamingQuery.forEachRow(lease, query, rs -> {
+                valueToDbIds.computeIfAbsent(rs.getString(1), key -> new ArrayList<>()).add(rs.getLong(2));
+            });
+        }
+        // Drop the values which only the collation grouped together.
+        for (Iterator<List<Long>> iterator = valueToDbIds.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().size() < 2) {
+                iterator.remove();
+            }
+        }
+        logger.debug(clsName + "." + attName + " has " + valueToDbIds.size() + " duplicated values.");
+        return valueToDbIds;
+    }
+
+}
@@ -0,0 +1,643 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
+
+/**
+ * The run-wide index of the composition of the physical entities.
+ *
+ * The index is loaded on first use from one <code>UNION ALL</code> read of
+ * the {@link #COMPOSITION_ATTRIBUTES} tables, and one read each of the
+ * PhysicalEntity species and isChimeric values. Each entity which contains
+ * or is contained in another is given a dense ordinal and the composition
+ * edges are held as child adjacency arrays over the ordinals.
+ *
+ * The entities contained in an entity at any depth, their species and
+ * whether one of them is chimeric are resolved on first request and
+ * memoised, and a container is resolved from the memoised results of the
+ * entities it contains. A complex which is shared by many reactions and
+ * complexes is therefore walked once per run rather than once per use.
+ *
+ * The schema does not allow an entity to contain itself, but the data may
+ * have a composition cycle. The entities on a cycle are grouped into one
+ * strongly connected component, and every entity of a component contains
+ * every entity of the component, itself included, as
+ * {@link org.gk.model.InstanceUtilities#getContainedInstances(org.gk.model.GKInstance, String...)}
+ * does when it walks back to the entity. The answers are therefore the
+ * same whichever entity is asked about first.
+ */
+public class EntityCompositionIndex {
+
+    private static final Logger logger = Logger.getLogger(EntityCompositionIndex.class);
+
+    /** The attributes which contain other entities. */
+    public static final String[] COMPOSITION_ATTRIBUTES = {
+            ReactomeJavaConstants.hasComponent,
+            ReactomeJavaConstants.hasMember,
+            ReactomeJavaConstants.hasCandidate,
+            ReactomeJavaConstants.repeatedUnit
+    };
+
+    /** The attributes whose contained entities make a container chimeric, as bits of attribute numbers. */
+    private static final int PART_ATTRIBUTES = 1 << 0 | 1 << 1;
+
+    private static final int ALL_ATTRIBUTES = (1 << COMPOSITION_ATTRIBUTES.length) - 1;
+
+    private static final long[] NONE = new long[0];
+
+    /** The {database key: index} map. */
+    private static final Map<String, EntityCompositionIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final String databaseKey;
+
+    /** The {entity DB id: entity ordinal} index. */
+    private LongIntMap ordinals;
+
+    private long[] dbIds;
+
+    /** The children of entity <code>i</code> are <code>children[childStart[i]..childStart[i+1])</code>. */
+    private int[] childStart;
+
+    private int[] children;
+
+    /** The attribute number of each child edge. */
+    private byte[] childAttributes;
+
+    /** The species of entity <code>i</code> are <code>species[speciesStart[i]..speciesStart[i+1])</code>. */
+    private int[] speciesStart;
+
+    private long[] species;
+
+    /** The DB ids of the chimeric entities, including the entities which are not in a composition. */
+    private LongHashSet chimericDbIds;
+
+    /** The strongly connected components of all composition edges. */
+    private Components closureComponents;
+
+    /** The strongly connected components of the {@link #PART_ATTRIBUTES} edges. */
+    private Components partComponents;
+
+    /** The memoised contained entities of each resolved entity, shared by the entities of a component. */
+    private int[][] closures;
+
+    private BitSet isClosureResolved;
+
+    /** The memoised species of the contained entities of each entity. */
+    private long[][] containedSpecies;
+
+    private BitSet isChimericResolved;
+
+    private BitSet containsChimeric;
+
+    private volatile boolean isLoaded;
+
+    private EntityCompositionIndex(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * Builds an index from the given values rather than a database.
+     *
+     * @param attributeEdges the (container, contained) DB id pairs of each
+     *   of the {@link #COMPOSITION_ATTRIBUTES}, in that order
+     * @param speciesPairs the (entity, species) DB id pairs
+     * @param chimericDbIds the DB ids of the chimeric entities
+     */
+    public EntityCompositionIndex(List<long[]> attributeEdges, long[] speciesPairs, long[] chimericDbIds) {
+        this("");
+        index(attributeEdges, speciesPairs, chimericDbIds);
+        isLoaded = true;
+    }
+
+    /**
+     * Returns the loaded index for the given adaptor's database, loading
+     * it with the adaptor if necessary.
+     *
+     * @param dba the database adaptor
+     * @return the index
+     * @throws Exception if the index could not be loaded
+     */
+    public static EntityCompositionIndex getIndex(MySQLAdaptor dba) throws Exception {
+        EntityCompositionIndex index =
+                INDEXES.computeIfAbsent(ConnectionPool.getDatabaseKey(dba), EntityCompositionIndex::new);
+        index.load(dba);
+        return index;
+    }
+
+    /**
+     * The equivalent of {@link org.gk.model.InstanceUtilities#getContainedInstances(org.gk.model.GKInstance, String...)}
+     * with the {@link #COMPOSITION_ATTRIBUTES}.
+     *
+     * @param dbId the entity DB id
+     * @return the DB ids of the entities contained in the given entity at
+     *   any depth, in ascending order
+     */
+    public synchronized long[] getContainedDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return NONE;
+        }
+        int[] closure = getClosure(ordinal);
+        long[] contained = new long[closure.length];
+        for (int i = 0; i < closure.length; i++) {
+            contained[i] = dbIds[closure[i]];
+        }
+        Arrays.sort(contained);
+        return contained;
+    }
+
+    /**
+     * @param dbId the entity DB id
+     * @return the DB ids of the entities contained in the given entity at
+     *   any depth which contain no entity, in ascending order
+     */
+    public synchronized long[] getContainedLeafDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return NONE;
+        }
+        return Arrays.stream(getClosure(ordinal))
+                     .filter(member -> childStart[member] == childStart[member + 1])
+                     .mapToLong(member -> dbIds[member])
+                     .sorted()
+                     .toArray();
+    }
+
+    /**
+     * @param dbId the entity DB id
+     * @return the distinct species DB ids of the entities contained in the
+     *   given entity at any depth, in ascending order
+     */
+    public synchronized long[] getContainedSpeciesDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return NONE;
+        }
+        if (containedSpecies[ordinal] == null) {
+            int[] closure = getClosure(ordinal);
+            int count = 0;
+            for (int member : closure) {
+                count += speciesStart[member + 1] - speciesStart[member];
+            }
+            long[] found = new long[count];
+            count = 0;
+            for (int member : closure) {
+                for (int i = speciesStart[member]; i < speciesStart[member + 1]; i++) {
+                    found[count++] = species[i];
+                }
+            }
+            containedSpecies[ordinal] = distinct(found, count);
+        }
+        return containedSpecies[ordinal].clone();
+    }
+
+    /**
+     * @param dbId the entity DB id
+     * @return whether the entity is chimeric
+     */
+    public boolean isChimeric(long dbId) {
+        return chimericDbIds.contains(dbId);
+    }
+
+    /**
+     * @param dbId the entity DB id
+     * @return whether an entity contained in the given entity at any depth
+     *   through <code>hasComponent</code> or <code>hasMember</code> is chimeric
+     */
+    public synchronized boolean containsChimeric(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return false;
+        }
+        for (int component : getUnresolvedComponents(ordinal, PART_ATTRIBUTES, partComponents, isChimericResolved)) {
+            boolean isContained = false;
+            for (int j = partComponents.memberStart[component]; j < partComponents.memberStart[component + 1] && !isContained; j++) {
+                int member = partComponents.members[j];
+                for (int i = childStart[member]; i < childStart[member + 1]; i++) {
+                    if ((PART_ATTRIBUTES & 1 << childAttributes[i]) == 0) {
+                        continue;
+                    }
+                    // A child in the same component is resolved with it, and is checked itself.
+                    int child = children[i];
+                    if (chimericDbIds.contains(dbIds[child]) || containsChimeric.get(child)) {
+                        isContained = true;
+                        break;
+                    }
+                }
+            }
+            for (int j = partComponents.memberStart[component]; j < partComponents.memberStart[component + 1]; j++) {
+                int member = partComponents.members[j];
+                containsChimeric.set(member, isContained);
+                isChimericResolved.set(member);
+            }
+        }
+        return containsChimeric.get(ordinal);
+    }
+
+    /**
+     * @return the number of entities which contain or are contained in another
+     */
+    public int size() {
+        return dbIds.length;
+    }
+
+    /**
+     * @return the memoised contained entity ordinals, resolving the given
+     *   entity's component and its unresolved descendant components if
+     *   necessary
+     */
+    private int[] getClosure(int ordinal) {
+        if (closures[ordinal] != null) {
+            return closures[ordinal];
+        }
+        int[] buffer = new int[16];
+        for (int component : getUnresolvedComponents(ordinal, ALL_ATTRIBUTES, closureComponents, isClosureResolved)) {
+            int count = 0;
+            for (int j = closureComponents.memberStart[component]; j < closureComponents.memberStart[component + 1]; j++) {
+                int member = closureComponents.members[j];
+                for (int i = childStart[member]; i < childStart[member + 1]; i++) {
+                    int child = children[i];
+                    // A child in the same component only adds itself, and the
+                    // members of a cycle are all the child of a member.
+                    int[] childClosure = closureComponents.component[child] == component ? new int[0] : closures[child];
+                    if (count + childClosure.length + 1 > buffer.length) {
+                        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + childClosure.length + 1));
+                    }
+                    buffer[count++] = child;
+                    System.arraycopy(childClosure, 0, buffer, count, childClosure.length);
+                    count += childClosure.length;
+                }
+            }
+            Arrays.sort(buffer, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    buffer[distinct++] = buffer[i];
+                }
+            }
+            int[] closure = Arrays.copyOf(buffer, distinct);
+            for (int j = closureComponents.memberStart[component]; j < closureComponents.memberStart[component + 1]; j++) {
+                int member = closureComponents.members[j];
+                closures[member] = closure;
+                isClosureResolved.set(member);
+            }
+        }
+        return closures[ordinal];
+    }
+
+    /**
+     * Walks the composition depth first without recursion, so that a deep
+     * composition cannot overflow the stack.
+     *
+     * @param attributes the bits of the attribute numbers of the edges to follow
+     * @param components the components of the edges to follow
+     * @param resolved the ordinals which are already resolved and are not walked
+     * @return the unresolved components reachable from the given ordinal,
+     *   each after the components it contains
+     */
+    private int[] getUnresolvedComponents(int ordinal, int attributes, Components components, BitSet resolved) {
+        if (resolved.get(ordinal)) {
+            return new int[0];
+        }
+        int[] found = new int[16];
+        int size = 0;
+        int[] stack = new int[16];
+        int top = 0;
+        BitSet visited = new BitSet();
+        visited.set(ordinal);
+        stack[top++] = ordinal;
+        while (top > 0) {
+            int current = stack[--top];
+            if (size == found.length) {
+                found = Arrays.copyOf(found, size * 2);
+            }
+            found[size++] = components.component[current];
+            for (int i = childStart[current]; i < childStart[current + 1]; i++) {
+                int child = children[i];
+                if ((attributes & 1 << childAttributes[i]) == 0 ||
+                    resolved.get(child) || visited.get(child)) {
+                    continue;
+                }
+                visited.set(child);
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = child;
+            }
+        }
+        // The components are numbered after the components they contain.
+        Arrays.sort(found, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || found[i] != found[i - 1]) {
+                found[distinct++] = found[i];
+            }
+        }
+        return Arrays.copyOf(found, distinct);
+    }
+
+    /**
+     * Finds the strongly connected components of the given edges with
+     * Tarjan's algorithm, without recursion.
+     *
+     * @param attributes the bits of the attribute numbers of the edges to follow
+     * @return the components, each numbered after the components it contains
+     */
+    private Components getComponents(int attributes) {
+        int size = dbIds.length;
+        int[] component = new int[size];
+        int[] index = new int[size];
+        Arrays.fill(index, -1);
+        int[] lowLink = new int[size];
+        int[] stack = new int[size];
+        int stackTop = 0;
+        BitSet isOnStack = new BitSet(size);
+        int[] walk = new int[size];
+        int[] cursors = new int[size];
+        int nextIndex = 0;
+        int count = 0;
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            int top = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackTop++] = root;
+            isOnStack.set(root);
+            walk[top] = root;
+            cursors[top++] = childStart[root];
+            while (top > 0) {
+                int current = walk[top - 1];
+                int cursor = cursors[top - 1];
+                if (cursor < childStart[current + 1]) {
+                    cursors[top - 1]++;
+                    if ((attributes & 1 << childAttributes[cursor]) == 0) {
+                        continue;
+                    }
+                    int child = children[cursor];
+                    if (index[child] < 0) {
+                        index[child] = lowLink[child] = nextIndex++;
+                        stack[stackTop++] = child;
+                        isOnStack.set(child);
+                        walk[top] = child;
+                        cursors[top++] = childStart[child];
+                    }
+                    else if (isOnStack.get(child)) {
+                        lowLink[current] = Math.min(lowLink[current], index[child]);
+                    }
+                    continue;
+                }
+                top--;
+                if (lowLink[current] == index[current]) {
+                    int member;
+                    do {
+                        member = stack[--stackTop];
+                        isOnStack.clear(member);
+                        component[member] = count;
+                    } while (member != current);
+                    count++;
+                }
+                if (top > 0) {
+                    int parent = walk[top - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[current]);
+                }
+            }
+        }
+        // Counting-sort the ordinals by their component.
+        int[] memberStart = new int[count + 1];
+        for (int i = 0; i < size; i++) {
+            memberStart[component[i] + 1]++;
+        }
+        for (int i = 1; i <= count; i++) {
+            memberStart[i] += memberStart[i - 1];
+        }
+        int[] members = new int[size];
+        int[] next = Arrays.copyOf(memberStart, count);
+        for (int i = 0; i < size; i++) {
+            members[next[component[i]]++] = i;
+        }
+        return new Components(component, memberStart, members);
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            logger.info("Loading the entity composition of " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            List<long[]> attributeEdges = new ArrayList<>();
+            int[] edgeCounts = new int[COMPOSITION_ATTRIBUTES.length];
+            List<String> selects = new ArrayList<>();
+            for (int i = 0; i < COMPOSITION_ATTRIBUTES.length; i++) {
+                attributeEdges.add(new long[1024]);
+                for (String select : getSelects(dba, COMPOSITION_ATTRIBUTES[i])) {
+                    selects.add(select.replaceFirst(" FROM ", ", " + i + " FROM "));
+                }
+            }
+            long[][] speciesPairs = {new long[1024]};
+            int[] speciesCount = {0};
+            LongHashSet chimeric = new LongHashSet();
+            try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                if (!selects.isEmpty()) {
+                    StreamingQuery.forEachRow(lease, String.join(" UNION ALL ", selects), rs -> {
+                        int attribute = rs.getInt(3);
+                        int edge = edgeCounts[attribute]++;
+                        long[] pairs = attributeEdges.get(attribute);
+                        if (2 * edge == pairs.length) {
+                            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                            attributeEdges.set(attribute, pairs);
+                        }
+                        pairs[2 * edge] = rs.getLong(1);
+                        pairs[2 * edge + 1] = rs.getLong(2);
+                    });
+                }
+                for (String select : getSelects(dba, ReactomeJavaConstants.species)) {
+                    StreamingQuery.forEachRow(lease, select, rs -> {
+                        int pair = speciesCount[0]++;
+                        if (2 * pair == speciesPairs[0].length) {
+                            speciesPairs[0] = Arrays.copyOf(speciesPairs[0], speciesPairs[0].length * 2);
+                        }
+                        speciesPairs[0][2 * pair] = rs.getLong(1);
+                        speciesPairs[0][2 * pair + 1] = rs.getLong(2);
+                    });
+                }
+                for (String select : getSelects(dba, ReactomeJavaConstants.isChimeric)) {
+                    StreamingQuery.forEachRow(lease, select, rs -> {
+                        // A boolean is held as the TRUE/FALSE enum.
+                        String value = rs.getString(2);
+                        if ("TRUE".equalsIgnoreCase(value) || "1".equals(value)) {
+                            chimeric.add(rs.getLong(1));
+                        }
+                    });
+                }
+            }
+            for (int i = 0; i < COMPOSITION_ATTRIBUTES.length; i++) {
+                attributeEdges.set(i, Arrays.copyOf(attributeEdges.get(i), 2 * edgeCounts[i]));
+            }
+            index(attributeEdges, Arrays.copyOf(speciesPairs[0], 2 * speciesCount[0]), chimeric.toSortedArray());
+            isLoaded = true;
+            logger.info("Loaded " + Arrays.stream(edgeCounts).sum() + " composition values of " + dbIds.length +
+                        " entities in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    /**
+     * @return the (DB id, value) query of each PhysicalEntity table which
+     *   holds the attribute
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> getSelects(MySQLAdaptor dba, String attributeName) {
+        List<String> selects = new ArrayList<>();
+        for (SchemaClass cls : (Collection<SchemaClass>) dba.getSchema().getClasses()) {
+            if (!cls.isa(ReactomeJavaConstants.PhysicalEntity) || !cls.isValidAttribute(attributeName)) {
+                continue;
+            }
+            for (SchemaAttribute att : (Collection<SchemaAttribute>) cls.getAttributes()) {
+                // Only the defining class has a column for the attribute.
+                if (att.getOrigin() != cls || !att.getName().equals(attributeName)) {
+                    continue;
+                }
+                if (att.isMultiple()) {
+                    selects.add("SELECT DB_ID, " + attributeName +
+                                " FROM " + cls.getName() + "_2_" + attributeName);
+                }
+                else {
+                    selects.add("SELECT DB_ID, " + attributeName +
+                                " FROM " + cls.getName() +
+                                " WHERE " + attributeName + " IS NOT NULL");
+                }
+            }
+        }
+        return selects;
+    }
+
+    private void index(List<long[]> attributeEdges, long[] speciesPairs, long[] chimericDbIds) {
+        ordinals = new LongIntMap();
+        long[] entities = new long[1024];
+        int edgeCount = 0;
+        for (long[] pairs : attributeEdges) {
+            for (long dbId : pairs) {
+                int ordinal = ordinals.size();
+                if (ordinals.putIfAbsent(dbId, ordinal)) {
+                    if (ordinal == entities.length) {
+                        entities = Arrays.copyOf(entities, ordinal * 2);
+                    }
+                    entities[ordinal] = dbId;
+                }
+            }
+            edgeCount += pairs.length / 2;
+        }
+        dbIds = Arrays.copyOf(entities, ordinals.size());
+        int size = dbIds.length;
+        // Counting-sort the edges by their container.
+        childStart = new int[size + 1];
+        for (long[] pairs : attributeEdges) {
+            for (int i = 0; i < pairs.length; i += 2) {
+                childStart[ordinals.get(pairs[i], -1) + 1]++;
+            }
+        }
+        for (int i = 1; i <= size; i++) {
+            childStart[i] += childStart[i - 1];
+        }
+        children = new int[edgeCount];
+        childAttributes = new byte[edgeCount];
+        int[] next = Arrays.copyOf(childStart, size);
+        for (int attribute = 0; attribute < attributeEdges.size(); attribute++) {
+            long[] pairs = attributeEdges.get(attribute);
+            for (int i = 0; i < pairs.length; i += 2) {
+                int edge = next[ordinals.get(pairs[i], -1)]++;
+                children[edge] = ordinals.get(pairs[i + 1], -1);
+                childAttributes[edge] = (byte) attribute;
+            }
+        }
+        indexSpecies(speciesPairs);
+        this.chimericDbIds = new LongHashSet(chimericDbIds.length);
+        for (long dbId : chimericDbIds) {
+            this.chimericDbIds.add(dbId);
+        }
+        closureComponents = getComponents(ALL_ATTRIBUTES);
+        partComponents = getComponents(PART_ATTRIBUTES);
+        closures = new int[size][];
+        isClosureResolved = new BitSet(size);
+        containedSpecies = new long[size][];
+        isChimericResolved = new BitSet(size);
+        containsChimeric = new BitSet(size);
+    }
+
+    /**
+     * Groups the species of the indexed entities by entity, skipping the
+     * entities which are not in a composition.
+     */
+    private void indexSpecies(long[] speciesPairs) {
+        int size = dbIds.length;
+        speciesStart = new int[size + 1];
+        for (int i = 0; i < speciesPairs.length; i += 2) {
+            int ordinal = ordinals.get(speciesPairs[i], -1);
+            if (ordinal >= 0) {
+                speciesStart[ordinal + 1]++;
+            }
+        }
+        for (int i = 1; i <= size; i++) {
+            speciesStart[i] += speciesStart[i - 1];
+        }
+        species = new long[speciesStart[size]];
+        int[] next = Arrays.copyOf(speciesStart, size);
+        for (int i = 0; i < speciesPairs.length; i += 2) {
+            int ordinal = ordinals.get(speciesPairs[i], -1);
+            if (ordinal >= 0) {
+                species[next[ordinal]++] = speciesPairs[i + 1];
+            }
+        }
+    }
+
+    /**
+     * @return the distinct values of the first <code>count</code> values, in ascending order
+     */
+    private static long[] distinct(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+
+    /**
+     * The strongly connected components of the composition.
+     */
+    private static class Components {
+
+        /** The component of each ordinal. */
+        final int[] component;
+
+        /** The ordinals of component <code>i</code> are <code>members[memberStart[i]..memberStart[i+1])</code>. */
+        final int[] memberStart;
+
+        final int[] members;
+
+        Components(int[] component, int[] memberStart, int[] members) {
+            this.component = component;
+            this.memberStart = memberStart;
+            this.members = members;
+        }
+
+    }
+
+}
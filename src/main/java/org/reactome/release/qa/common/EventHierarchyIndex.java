@@ -0,0 +1,408 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaClass;
+
+/**
+ * The run-wide index of the event hierarchy.
+ *
+ * The index is loaded on first use from one bulk read each of the events,
+ * the <code>hasEvent</code> table and the front page items. Each event is
+ * given a dense ordinal in DB id order and the <code>hasEvent</code>
+ * edges are held as child and parent adjacency arrays over the ordinals.
+ * A set of events is an {@link EventSet} bitmap over the ordinals, so a
+ * hierarchy closure is one traversal of the arrays and the checks combine
+ * closures with set operations instead of loading <code>hasEvent</code>
+ * values and referrers instance by instance.
+ *
+ * The events contained in the front page items are computed when the
+ * index is loaded. A skip list of pathways is resolved once per check by
+ * {@link #getPathwaysAndContainedEvents(Collection)}, since the same skip
+ * list is typically tested for every event of the check.
+ */
+public class EventHierarchyIndex {
+
+    private static final Logger logger = Logger.getLogger(EventHierarchyIndex.class);
+
+    private static final String EVENT_SQL =
+            "SELECT e.DB_ID, do._class FROM Event e, DatabaseObject do" +
+            " WHERE do.DB_ID = e.DB_ID ORDER BY e.DB_ID";
+
+    private static final String HAS_EVENT_SQL =
+            "SELECT DB_ID, hasEvent FROM Pathway_2_hasEvent ORDER BY DB_ID, hasEvent_rank";
+
+    private static final String FRONT_PAGE_SQL =
+            "SELECT frontPageItem FROM FrontPage_2_frontPageItem ORDER BY DB_ID, frontPageItem_rank";
+
+    private static final byte PATHWAY = 1;
+
+    private static final byte REACTIONLIKE_EVENT = 2;
+
+    /** The {database key: index} map. */
+    private static final Map<String, EventHierarchyIndex> INDEXES = new ConcurrentHashMap<>();
+
+    /**
+     * A set of events of one index, held as a bitmap over the event
+     * ordinals. The set operations return a new set and leave the
+     * operands unchanged.
+     */
+    public static class EventSet {
+
+        private final EventHierarchyIndex index;
+
+        private final BitSet ordinals;
+
+        private EventSet(EventHierarchyIndex index, BitSet ordinals) {
+            this.index = index;
+            this.ordinals = ordinals;
+        }
+
+        /**
+         * @param dbId the event DB id
+         * @return whether the event is in the set
+         */
+        public boolean contains(long dbId) {
+            int ordinal = index.ordinals.get(dbId, -1);
+            return ordinal >= 0 && ordinals.get(ordinal);
+        }
+
+        public int size() {
+            return ordinals.cardinality();
+        }
+
+        public boolean isEmpty() {
+            return ordinals.isEmpty();
+        }
+
+        /**
+         * @param other a set of the same index
+         * @return the events which are in either set
+         */
+        public EventSet union(EventSet other) {
+            BitSet result = (BitSet) ordinals.clone();
+            result.or(other.ordinals);
+            return new EventSet(index, result);
+        }
+
+        /**
+         * @param other a set of the same index
+         * @return the events which are in both sets
+         */
+        public EventSet intersection(EventSet other) {
+            BitSet result = (BitSet) ordinals.clone();
+            result.and(other.ordinals);
+            return new EventSet(index, result);
+        }
+
+        /**
+         * @param other a set of the same index
+         * @return the events which are in this set but not the other
+         */
+        public EventSet difference(EventSet other) {
+            BitSet result = (BitSet) ordinals.clone();
+            result.andNot(other.ordinals);
+            return new EventSet(index, result);
+        }
+
+        /**
+         * @return the DB ids of the events in ascending order
+         */
+        public long[] toDbIds() {
+            return ordinals.stream().mapToLong(ordinal -> index.dbIds[ordinal]).toArray();
+        }
+
+    }
+
+    private final String databaseKey;
+
+    /** The {event DB id: event ordinal} index. */
+    private LongIntMap ordinals;
+
+    private long[] dbIds;
+
+    private byte[] kinds;
+
+    /** The children of event <code>i</code> are <code>children[childStart[i]..childStart[i+1])</code>. */
+    private int[] childStart;
+
+    private int[] children;
+
+    /** The parents of event <code>i</code> are <code>parents[parentStart[i]..parentStart[i+1])</code>. */
+    private int[] parentStart;
+
+    private int[] parents;
+
+    private BitSet topLevelEvents;
+
+    private volatile boolean isLoaded;
+
+    private EventHierarchyIndex(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * Returns the loaded index for the given adaptor's database, loading
+     * it with the adaptor if necessary.
+     *
+     * @param dba the database adaptor
+     * @return the index
+     * @throws Exception if the index could not be loaded
+     */
+    public static EventHierarchyIndex getIndex(MySQLAdaptor dba) throws Exception {
+        EventHierarchyIndex index =
+                INDEXES.computeIfAbsent(ConnectionPool.getDatabaseKey(dba), EventHierarchyIndex::new);
+        index.load(dba);
+        return index;
+    }
+
+    /**
+     * The equivalent of {@link org.gk.model.InstanceUtilities#getContainedEvents(Collection)}.
+     *
+     * @param dbIds the event DB ids
+     * @return the events contained in the given events at any depth, which
+     *   do not include a given event unless it is contained in another
+     */
+    public EventSet getContainedEvents(long... dbIds) {
+        BitSet found = new BitSet(this.dbIds.length);
+        int[] stack = new int[0];
+        int top = 0;
+        for (long dbId : dbIds) {
+            int ordinal = ordinals.get(dbId, -1);
+            if (ordinal < 0) {
+                continue;
+            }
+            for (int i = childStart[ordinal]; i < childStart[ordinal + 1]; i++) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, Math.max(16, top * 2));
+                }
+                stack[top++] = children[i];
+            }
+        }
+        traverse(stack, top, childStart, children, found);
+        return new EventSet(this, found);
+    }
+
+    /**
+     * @param dbId the event DB id
+     * @return the pathways which contain the given event at any depth
+     */
+    public EventSet getContainingPathways(long dbId) {
+        BitSet found = new BitSet(dbIds.length);
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal >= 0) {
+            int[] stack = Arrays.copyOfRange(parents, parentStart[ordinal], parentStart[ordinal + 1]);
+            traverse(stack, stack.length, parentStart, parents, found);
+        }
+        return new EventSet(this, found);
+    }
+
+    /**
+     * @return the front page items and the events they contain
+     */
+    public EventSet getTopLevelHierarchy() {
+        return new EventSet(this, topLevelEvents);
+    }
+
+    /**
+     * The replacement of walking up the <code>hasEvent</code> referrers of
+     * each event: an event is in one of the given pathways at any depth if
+     * it is in the returned set.
+     *
+     * @param pathwayDbIds the pathway DB ids
+     * @return the given pathways and the events they contain at any depth
+     */
+    public EventSet getPathwaysAndContainedEvents(Collection<Long> pathwayDbIds) {
+        long[] roots = pathwayDbIds.stream().mapToLong(Long::longValue).toArray();
+        BitSet found = getContainedEvents(roots).ordinals;
+        for (long root : roots) {
+            int rootOrdinal = ordinals.get(root, -1);
+            if (rootOrdinal >= 0) {
+                found.set(rootOrdinal);
+            }
+        }
+        return new EventSet(this, found);
+    }
+
+    /**
+     * @param dbId the event DB id
+     * @return the DB ids of the event's <code>hasEvent</code> values in
+     *   rank order, which are empty if the event is not a pathway
+     */
+    public long[] getChildDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return new long[0];
+        }
+        long[] childDbIds = new long[childStart[ordinal + 1] - childStart[ordinal]];
+        for (int i = 0; i < childDbIds.length; i++) {
+            childDbIds[i] = dbIds[children[childStart[ordinal] + i]];
+        }
+        return childDbIds;
+    }
+
+    /**
+     * @param dbId the event DB id
+     * @return whether the event is a Pathway
+     */
+    public boolean isPathway(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        return ordinal >= 0 && kinds[ordinal] == PATHWAY;
+    }
+
+    /**
+     * @param dbId the event DB id
+     * @return whether the event is a ReactionlikeEvent
+     */
+    public boolean isReactionlikeEvent(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        return ordinal >= 0 && kinds[ordinal] == REACTIONLIKE_EVENT;
+    }
+
+    /**
+     * Adds the given ordinals and every ordinal reachable from them
+     * through the given adjacency arrays.
+     */
+    private static void traverse(int[] stack, int top, int[] start, int[] adjacent, BitSet found) {
+        while (top > 0) {
+            int ordinal = stack[--top];
+            if (found.get(ordinal)) {
+                continue;
+            }
+            found.set(ordinal);
+            int count = start[ordinal + 1] - start[ordinal];
+            if (top + count > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + count));
+            }
+            for (int i = start[ordinal]; i < start[ordinal + 1]; i++) {
+                if (!found.get(adjacent[i])) {
+                    stack[top++] = adjacent[i];
+                }
+            }
+        }
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            logger.info("Loading the event hierarchy of " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            int edgeCount;
+            try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                loadEvents(lease, dba);
+                edgeCount = loadEdges(lease);
+                loadTopLevelEvents(lease);
+            }
+            isLoaded = true;
+            logger.info("Loaded " + dbIds.length + " events with " + edgeCount + " hasEvent values in " +
+                        (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    private void loadEvents(ConnectionLease lease, MySQLAdaptor dba) throws Exception {
+        Map<String, Byte> classKinds = new HashMap<>();
+        ordinals = new LongIntMap();
+        dbIds = new long[1024];
+        kinds = new byte[1024];
+        int[] count = {0};
+        StreamingQuery.forEachRow(lease, EVENT_SQL, rs -> {
+            int ordinal = count[0]++;
+            if (ordinal == dbIds.length) {
+                dbIds = Arrays.copyOf(dbIds, ordinal * 2);
+                kinds = Arrays.copyOf(kinds, ordinal * 2);
+            }
+            dbIds[ordinal] = rs.getLong(1);
+            kinds[ordinal] = classKinds.computeIfAbsent(rs.getString(2), name -> getKind(dba, name));
+            ordinals.put(dbIds[ordinal], ordinal);
+        });
+        dbIds = Arrays.copyOf(dbIds, count[0]);
+        kinds = Arrays.copyOf(kinds, count[0]);
+    }
+
+    private byte getKind(MySQLAdaptor dba, String className) {
+        SchemaClass cls = dba.getSchema().getClassByName(className);
+        if (cls == null) {
+            return 0;
+        }
+        if (cls.isa(ReactomeJavaConstants.Pathway)) {
+            return PATHWAY;
+        }
+        return cls.isa(ReactomeJavaConstants.ReactionlikeEvent) ? REACTIONLIKE_EVENT : 0;
+    }
+
+    /**
+     * @return the number of <code>hasEvent</code> edges
+     */
+    private int loadEdges(ConnectionLease lease) throws Exception {
+        int[][] edges = {new int[1024], new int[1024]};
+        int[] count = {0};
+        StreamingQuery.forEachRow(lease, HAS_EVENT_SQL, rs -> {
+            int parent = ordinals.get(rs.getLong(1), -1);
+            int child = ordinals.get(rs.getLong(2), -1);
+            if (parent < 0 || child < 0) {
+                return; // A dangling reference.
+            }
+            int edge = count[0]++;
+            if (edge == edges[0].length) {
+                edges[0] = Arrays.copyOf(edges[0], edge * 2);
+                edges[1] = Arrays.copyOf(edges[1], edge * 2);
+            }
+            edges[0][edge] = parent;
+            edges[1][edge] = child;
+        });
+        childStart = new int[dbIds.length + 1];
+        children = toAdjacency(edges[0], edges[1], count[0], childStart);
+        parentStart = new int[dbIds.length + 1];
+        parents = toAdjacency(edges[1], edges[0], count[0], parentStart);
+        return count[0];
+    }
+
+    /**
+     * Counting-sorts the edges by their source, preserving the row order
+     * of the edges of each source.
+     *
+     * @param start filled with the offset of each source's targets
+     * @return the targets grouped by source
+     */
+    private int[] toAdjacency(int[] sources, int[] targets, int count, int[] start) {
+        for (int i = 0; i < count; i++) {
+            start[sources[i] + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        int[] adjacent = new int[count];
+        for (int i = 0; i < count; i++) {
+            adjacent[next[sources[i]]++] = targets[i];
+        }
+        return adjacent;
+    }
+
+    private void loadTopLevelEvents(ConnectionLease lease) throws Exception {
+        List<Long> items = new ArrayList<>();
+        StreamingQuery.forEachRow(lease, FRONT_PAGE_SQL, rs -> items.add(rs.getLong(1)));
+        int[] stack = items.stream()
+                .mapToInt(dbId -> ordinals.get(dbId, -1))
+                .filter(ordinal -> ordinal >= 0)
+                .toArray();
+        topLevelEvents = new BitSet(dbIds.length);
+        traverse(stack, stack.length, childStart, children, topLevelEvents);
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.reactome.release.qa.common;
+
+/**
+ * A check which applies per-instance rules to the instances of schema
+ * classes. When several such checks are run, the runner drives all of
+ * their rules in one {@link SchemaClassScan}, so that each class is
+ * fetched once. A check run on its own calls
+ * {@link SchemaClassScan#execute(FusedScanCheck, org.gk.persistence.MySQLAdaptor)}
+ * from {@link #executeQACheck()}.
+ */
+public interface FusedScanCheck extends QACheck {
+
+    /**
+     * Starts a new report and registers the check's rules.
+     *
+     * @param scan the scan to register with
+     * @throws Exception
+     */
+    public void registerRules(SchemaClassScan scan) throws Exception;
+
+    /**
+     * @return the report built by the rules, which is called after the scan
+     * @throws Exception
+     */
+    public QAReport getScanReport() throws Exception;
+
+}
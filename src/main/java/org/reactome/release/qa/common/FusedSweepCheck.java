@@ -0,0 +1,32 @@
+package org.reactome.release.qa.common;
+
+import java.util.List;
+
+/**
+ * A check which runs schema probe queries. When several such checks are
+ * run, the runner adds all of their probes to one {@link SchemaSweep}, so
+ * that a table probed by several checks is swept once. A check run on its
+ * own calls {@link SchemaSweep#execute(FusedSweepCheck, org.gk.persistence.MySQLAdaptor)}
+ * from {@link #executeQACheck()}.
+ */
+public interface FusedSweepCheck extends QACheck {
+
+    /** The number of integer columns selected by every probe of a shared sweep. */
+    public static final int COLUMNS = 2;
+
+    /**
+     * Adds the check's probes, remembering their probe numbers.
+     *
+     * @param sweep the sweep to add to
+     * @throws Exception
+     */
+    public void registerProbes(SchemaSweep sweep) throws Exception;
+
+    /**
+     * @param probeRows the rows of every probe of the sweep, in probe number order
+     * @return the report built from the rows of the check's probes
+     * @throws Exception
+     */
+    public QAReport getSweepReport(List<List<long[]>> probeRows) throws Exception;
+
+}
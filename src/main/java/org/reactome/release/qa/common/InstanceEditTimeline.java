@@ -0,0 +1,254 @@
+package org.reactome.release.qa.common;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.persistence.PersistenceAdaptor;
+
+/**
+ * The run-wide index of the latest curator InstanceEdit of every instance.
+ *
+ * The latest curator edit is the last <code>modified</code> InstanceEdit
+ * whose first author is not a {@link QACheckProperties#getDeveloperDbIds()}
+ * developer, or the <code>created</code> InstanceEdit if there is no such
+ * modification. This is the same rule applied by
+ * {@link QACheckUtilities#getLatestCuratorIEFromInstance(GKInstance)} and
+ * {@link QACheckerHelper#getLastModificationAuthor(GKInstance)}, which
+ * answer from the index when one is registered for the instance's database.
+ *
+ * The index is loaded on first use with a few bulk queries. Each edit is
+ * held as its epoch time and an interned display name, which is the
+ * reported author.
+ */
+public class InstanceEditTimeline {
+
+    private static final Logger logger = Logger.getLogger(InstanceEditTimeline.class);
+
+    /** The time of an instance which has no curator edit or whose edit has no date. */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    /** The author reported for an instance which has no curator edit. */
+    public static final String NO_AUTHOR = "No modification or creation author";
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final String EDIT_SQL =
+            "SELECT ie.DB_ID, ie.dateTime, do._displayName" +
+            " FROM InstanceEdit ie, DatabaseObject do" +
+            " WHERE do.DB_ID = ie.DB_ID";
+
+    private static final String AUTHOR_SQL =
+            "SELECT DB_ID, author FROM InstanceEdit_2_author ORDER BY DB_ID, author_rank";
+
+    private static final String MODIFIED_SQL =
+            "SELECT DB_ID, modified FROM DatabaseObject_2_modified ORDER BY DB_ID, modified_rank";
+
+    private static final String CREATED_SQL =
+            "SELECT DB_ID, created FROM DatabaseObject WHERE created IS NOT NULL";
+
+    /** The registered {database key: timeline} map. */
+    private static final Map<String, InstanceEditTimeline> TIMELINES = new ConcurrentHashMap<>();
+
+    private final String databaseKey;
+
+    /** The {instance DB id: edit ordinal} index. */
+    private LongIntMap instanceEdits;
+
+    /** The {edit DB id: edit ordinal} index. */
+    private LongIntMap editOrdinals;
+
+    private long[] editDbIds;
+
+    private long[] editTimes;
+
+    private int[] editAuthors;
+
+    private String[] authors;
+
+    private volatile boolean isLoaded;
+
+    private InstanceEditTimeline(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * Registers a timeline for the given adaptor's database. The timeline
+     * is loaded when it is first used.
+     *
+     * @param dba the database adaptor
+     */
+    public static void register(MySQLAdaptor dba) {
+        String key = ConnectionPool.getDatabaseKey(dba);
+        TIMELINES.putIfAbsent(key, new InstanceEditTimeline(key));
+    }
+
+    /**
+     * Returns the loaded timeline for the given instance's database, loading
+     * it with the instance's adaptor if necessary.
+     *
+     * @param instance the instance
+     * @return the timeline, or null if the instance is not a stored instance
+     *   of a database with a registered timeline
+     * @throws Exception if the timeline could not be loaded
+     */
+    public static InstanceEditTimeline getTimeline(GKInstance instance) throws Exception {
+        if (instance.getDBID() == null || instance.getDBID() <= 0) {
+            return null;
+        }
+        PersistenceAdaptor adaptor = instance.getDbAdaptor();
+        if (!(adaptor instanceof MySQLAdaptor) || TIMELINES.isEmpty()) {
+            return null;
+        }
+        MySQLAdaptor dba = (MySQLAdaptor) adaptor;
+        InstanceEditTimeline timeline = TIMELINES.get(ConnectionPool.getDatabaseKey(dba));
+        if (timeline == null) {
+            return null;
+        }
+        timeline.load(dba);
+        return timeline;
+    }
+
+    /**
+     * @param dbId the instance DB id
+     * @return the display name of the instance's latest curator edit, or
+     *   {@link #NO_AUTHOR} if there is none
+     */
+    public String getLastModificationAuthor(long dbId) {
+        int edit = instanceEdits.get(dbId, -1);
+        return edit < 0 ? NO_AUTHOR : authors[editAuthors[edit]];
+    }
+
+    /**
+     * @param dbId the instance DB id
+     * @return the DB id of the instance's latest curator edit, or null if
+     *   there is none
+     */
+    public Long getLatestCuratorEditDbId(long dbId) {
+        int edit = instanceEdits.get(dbId, -1);
+        return edit < 0 ? null : editDbIds[edit];
+    }
+
+    /**
+     * @param dbId the instance DB id
+     * @return the epoch time of the instance's latest curator edit, or
+     *   {@link #NO_TIME} if there is no such edit or it has no date
+     */
+    public long getLatestCuratorEditTime(long dbId) {
+        int edit = instanceEdits.get(dbId, -1);
+        return edit < 0 ? NO_TIME : editTimes[edit];
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            logger.info("Loading the InstanceEdit timeline for " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                loadEdits(lease);
+                boolean[] isCurator = loadCuratorEdits(lease);
+                loadInstanceEdits(lease, isCurator);
+            }
+            isLoaded = true;
+            logger.info("Loaded " + editDbIds.length + " InstanceEdits for " + instanceEdits.size() +
+                        " instances in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    private void loadEdits(ConnectionLease lease) throws Exception {
+        DateFormat df = new SimpleDateFormat(DATE_PATTERN);
+        Map<String, Integer> interned = new HashMap<>();
+        editOrdinals = new LongIntMap();
+        editDbIds = new long[1024];
+        editTimes = new long[1024];
+        editAuthors = new int[1024];
+        int[] count = {0};
+        StreamingQuery.forEachRow(lease, EDIT_SQL, rs -> {
+            int edit = count[0]++;
+            if (edit == editDbIds.length) {
+                editDbIds = Arrays.copyOf(editDbIds, edit * 2);
+                editTimes = Arrays.copyOf(editTimes, edit * 2);
+                editAuthors = Arrays.copyOf(editAuthors, edit * 2);
+            }
+            editDbIds[edit] = rs.getLong(1);
+            editTimes[edit] = parseTime(df, rs.getString(2));
+            editAuthors[edit] = interned.computeIfAbsent(rs.getString(3), name -> interned.size());
+            editOrdinals.put(editDbIds[edit], edit);
+        });
+        editDbIds = Arrays.copyOf(editDbIds, count[0]);
+        editTimes = Arrays.copyOf(editTimes, count[0]);
+        editAuthors = Arrays.copyOf(editAuthors, count[0]);
+        authors = new String[interned.size()];
+        interned.forEach((name, index) -> authors[index] = name);
+    }
+
+    /**
+     * @return the flags indicating whether the first author of each edit
+     *   is a curator rather than a developer
+     */
+    private boolean[] loadCuratorEdits(ConnectionLease lease) throws Exception {
+        List<Long> developerList = QACheckProperties.getDeveloperDbIds();
+        Set<Long> developers = developerList == null ? new HashSet<>() : new HashSet<>(developerList);
+        boolean[] isCurator = new boolean[editDbIds.length];
+        long[] previous = {0L};
+        StreamingQuery.forEachRow(lease, AUTHOR_SQL, rs -> {
+            long dbId = rs.getLong(1);
+            if (dbId == previous[0]) {
+                return; // Only the first author counts.
+            }
+            previous[0] = dbId;
+            int edit = editOrdinals.get(dbId, -1);
+            long author = rs.getLong(2);
+            if (edit >= 0 && !rs.wasNull()) {
+                isCurator[edit] = !developers.contains(author);
+            }
+        });
+        return isCurator;
+    }
+
+    private void loadInstanceEdits(ConnectionLease lease, boolean[] isCurator) throws Exception {
+        instanceEdits = new LongIntMap(editDbIds.length);
+        // The rows are in rank order, so the last curator edit wins.
+        StreamingQuery.forEachRow(lease, MODIFIED_SQL, rs -> {
+            int edit = editOrdinals.get(rs.getLong(2), -1);
+            if (edit >= 0 && isCurator[edit]) {
+                instanceEdits.put(rs.getLong(1), edit);
+            }
+        });
+        // Fall back to the creation edit.
+        StreamingQuery.forEachRow(lease, CREATED_SQL, rs -> {
+            int edit = editOrdinals.get(rs.getLong(2), -1);
+            if (edit >= 0) {
+                instanceEdits.putIfAbsent(rs.getLong(1), edit);
+            }
+        });
+    }
+
+    private long parseTime(DateFormat df, String dateTime) {
+        if (dateTime == null) {
+            return NO_TIME;
+        }
+        try {
+            return df.parse(dateTime).getTime();
+        } catch (ParseException e) {
+            logger.warn("InstanceEdit dateTime format invalid: " + dateTime);
+            return NO_TIME;
+        }
+    }
+
+}
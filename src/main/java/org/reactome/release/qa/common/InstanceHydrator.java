@@ -0,0 +1,171 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+
+/**
+ * Collects instance DB ids and fetches the instances in bulk.
+ *
+ * A SQL-based check typically adds the DB ids of every result row,
+ * calls {@link #hydrate()} once and then builds the report lines from
+ * {@link #get(Long)}, rather than calling {@link MySQLAdaptor#fetchInstance(Long)}
+ * for each row. The instances are fetched in <code>IN (...)</code> batches
+ * whose size adapts to the observed query time, and the given attributes
+ * are loaded for each batch in the same round trip.
+ */
+public class InstanceHydrator {
+
+    private static final Logger logger = Logger.getLogger(InstanceHydrator.class);
+
+    /**
+     * The attributes needed to report the most recent author and to
+     * evaluate a skip list cut-off date.
+     */
+    public static final String[] EDIT_ATTRIBUTES = {
+            ReactomeJavaConstants.created,
+            ReactomeJavaConstants.modified
+    };
+
+    private static final int INITIAL_BATCH_SIZE = 500;
+
+    private static final int MIN_BATCH_SIZE = 100;
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    /** A batch which takes less than this many milliseconds is doubled, more than twice this is halved. */
+    private static final long TARGET_BATCH_MILLIS = 1000;
+
+    private final MySQLAdaptor dba;
+
+    private final String[] attributes;
+
+    private final Set<Long> pending = new LinkedHashSet<>();
+
+    private final Map<Long, GKInstance> instances = new HashMap<>();
+
+    /** The DB ids which were fetched but do not exist, so they are not fetched again. */
+    private final Set<Long> missing = new HashSet<>();
+
+    private int batchSize = INITIAL_BATCH_SIZE;
+
+    /**
+     * @param dba the adaptor which fetches the instances
+     * @param attributes the attributes to load with the instances, where
+     *   an attribute which is not valid for an instance's class is ignored
+     */
+    public InstanceHydrator(MySQLAdaptor dba, String... attributes) {
+        this.dba = dba;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Adds the given DB id to the next bulk fetch.
+     *
+     * @param dbId the instance DB id
+     */
+    public void add(Long dbId) {
+        if (dbId != null && !instances.containsKey(dbId) && !missing.contains(dbId)) {
+            pending.add(dbId);
+        }
+    }
+
+    /**
+     * Adds the given DB ids to the next bulk fetch.
+     *
+     * @param dbIds the instance DB ids
+     */
+    public void addAll(Collection<Long> dbIds) {
+        for (Long dbId : dbIds) {
+            add(dbId);
+        }
+    }
+
+    /**
+     * Fetches the instances added since the last call.
+     *
+     * @return the {DB id: instance} map of all instances fetched so far,
+     *   which leaves out the DB ids of the instances which do not exist
+     * @throws Exception
+     */
+    public Map<Long, GKInstance> hydrate() throws Exception {
+        if (pending.isEmpty()) {
+            return instances;
+        }
+        List<Long> dbIds = new ArrayList<>(pending);
+        pending.clear();
+        logger.debug("Fetching " + dbIds.size() + " instances...");
+        int start = 0;
+        while (start < dbIds.size()) {
+            int end = Math.min(start + batchSize, dbIds.size());
+            long begin = System.currentTimeMillis();
+            fetch(dbIds.subList(start, end));
+            adjustBatchSize(end - start, System.currentTimeMillis() - begin);
+            start = end;
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the instance with the given DB id, fetching the pending
+     * instances first if necessary.
+     *
+     * @param dbId the instance DB id
+     * @return the instance, or null if there is no such instance
+     * @throws Exception
+     */
+    public GKInstance get(Long dbId) throws Exception {
+        if (pending.contains(dbId)) {
+            hydrate();
+        }
+        GKInstance instance = instances.get(dbId);
+        if (instance == null && !missing.contains(dbId)) {
+            // Not added beforehand.
+            add(dbId);
+            hydrate();
+            instance = instances.get(dbId);
+        }
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetch(List<Long> dbIds) throws Exception {
+        Collection<GKInstance> fetched =
+                dba.fetchInstances(ReactomeJavaConstants.DatabaseObject, new ArrayList<>(dbIds));
+        if (fetched != null && !fetched.isEmpty() && attributes.length > 0) {
+            dba.loadInstanceAttributeValues(fetched, attributes);
+        }
+        if (fetched != null) {
+            for (GKInstance instance : fetched) {
+                instances.put(instance.getDBID(), instance);
+            }
+        }
+        for (Long dbId : dbIds) {
+            if (!instances.containsKey(dbId)) {
+                missing.add(dbId);
+            }
+        }
+    }
+
+    private void adjustBatchSize(int size, long millis) {
+        if (size < batchSize) {
+            return; // The final partial batch says nothing about the batch size.
+        }
+        if (millis < TARGET_BATCH_MILLIS && batchSize < MAX_BATCH_SIZE) {
+            batchSize = Math.min(batchSize * 2, MAX_BATCH_SIZE);
+        } else if (millis > 2 * TARGET_BATCH_MILLIS && batchSize > MIN_BATCH_SIZE) {
+            batchSize = Math.max(batchSize / 2, MIN_BATCH_SIZE);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package org.reactome.release.qa.common;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An open-addressing hash set of positive <code>long</code> values, e.g.
+ * DB ids, which does not box the values.
+ *
+ * The set is not synchronized. A set which is built once and then only
+ * read, e.g. a skip list in the {@link SkipListRegistry}, can be shared
+ * between threads, preferably after {@link #makeReadOnly()}.
+ */
+public class LongHashSet {
+
+    /** The empty slot marker. DB ids are always positive. */
+    private static final long EMPTY = 0L;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] values;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean readOnly;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize the expected number of values
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @param values the values to add, where null values are ignored
+     * @return a new set of the given values
+     */
+    public static LongHashSet of(Collection<Long> values) {
+        LongHashSet set = new LongHashSet(values.size());
+        for (Long value : values) {
+            if (value != null) {
+                set.add(value);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Rejects any further values, so that the set can be shared safely.
+     *
+     * @return this set
+     */
+    public LongHashSet makeReadOnly() {
+        readOnly = true;
+        return this;
+    }
+
+    /**
+     * @param value the positive value to add
+     * @return whether the value was added
+     * @throws UnsupportedOperationException if the set is read-only
+     */
+    public boolean add(long value) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("The set is read-only");
+        }
+        if (value <= EMPTY) {
+            throw new IllegalArgumentException("The value must be positive: " + value);
+        }
+        int slot = find(value);
+        if (values[slot] == value) {
+            return false;
+        }
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * @param value the value
+     * @return whether the set contains the value
+     */
+    public boolean contains(long value) {
+        return value > EMPTY && values[find(value)] == value;
+    }
+
+    /**
+     * Null-safe convenience for boxed DB ids, e.g.
+     * {@link org.gk.model.GKInstance#getDBID()}.
+     *
+     * @param value the value, or null
+     * @return whether the value is not null and the set contains it
+     */
+    public boolean contains(Long value) {
+        return value != null && contains(value.longValue());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the values in ascending order
+     */
+    public long[] toSortedArray() {
+        long[] result = new long[size];
+        int i = 0;
+        for (long value : values) {
+            if (value != EMPTY) {
+                result[i++] = value;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return the slot which holds the value, or else the empty slot
+     *   where the value would be added
+     */
+    private int find(long value) {
+        int mask = values.length - 1;
+        int slot = LongIntMap.mix(value) & mask;
+        while (values[slot] != EMPTY && values[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (long value : oldValues) {
+            if (value != EMPTY) {
+                values[find(value)] = value;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        values = new long[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+}
@@ -0,0 +1,164 @@
+package org.reactome.release.qa.common;
+
+/**
+ * An open-addressing hash map from positive <code>long</code> keys, e.g.
+ * DB ids, to <code>int</code> values, e.g. dense ordinals, which does not
+ * box either the keys or the values.
+ *
+ * The map is not synchronized. An index which is built once and then
+ * only read can be shared between threads.
+ */
+public class LongIntMap {
+
+    /** The empty slot marker. DB ids are always positive. */
+    private static final long EMPTY = 0L;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int threshold;
+
+    public LongIntMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize the expected number of entries
+     */
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Adds the given entry, replacing the value of an existing key.
+     *
+     * @param key the positive key
+     * @param value the value
+     */
+    public void put(long key, int value) {
+        checkKey(key);
+        int slot = find(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+    }
+
+    /**
+     * Adds the given entry only if the key is not yet in the map.
+     *
+     * @param key the positive key
+     * @param value the value
+     * @return whether the entry was added
+     */
+    public boolean putIfAbsent(long key, int value) {
+        checkKey(key);
+        int slot = find(key);
+        if (keys[slot] == key) {
+            return false;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * @param key the key
+     * @param missing the value to return if the key is not in the map
+     * @return the value, or <code>missing</code> if the key is not in the map
+     */
+    public int get(long key, int missing) {
+        if (key <= EMPTY) {
+            return missing;
+        }
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : missing;
+    }
+
+    /**
+     * @param key the key
+     * @return whether the map contains the key
+     */
+    public boolean containsKey(long key) {
+        return key > EMPTY && keys[find(key)] == key;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the keys in no particular order
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void checkKey(long key) {
+        if (key <= EMPTY) {
+            throw new IllegalArgumentException("The key must be positive: " + key);
+        }
+    }
+
+    /**
+     * @return the slot which holds the key, or else the empty slot where
+     *   the key would be added
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Spreads sequential DB ids over the table.
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
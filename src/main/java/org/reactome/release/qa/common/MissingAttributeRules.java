@@ -0,0 +1,248 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.Schema;
+import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
+
+/**
+ * Compiles missing attribute rules into anti-join queries which return
+ * only the violating DB ids.
+ *
+ * A rule is violated by an instance of its class which has no value in
+ * any of the rule's attributes, and no value in the given attributes of
+ * any instance it refers to with a refer attribute. Each attribute test
+ * becomes a <code>NOT EXISTS</code> subquery on the attribute table, so
+ * no instance is fetched to evaluate a rule. The rules of the same class
+ * are batched into one query with a flag column per rule.
+ */
+public class MissingAttributeRules {
+
+    private static final Logger logger = Logger.getLogger(MissingAttributeRules.class);
+
+    /**
+     * A rule that at least one of a set of attributes has a value.
+     */
+    public static class Rule {
+
+        private final String clsName;
+
+        private final List<String> attributes;
+
+        private final Map<String, List<String>> referToAttributes;
+
+        /**
+         * @param clsName the class whose instances, including the instances
+         *   of its subclasses, are checked
+         * @param attributes the attributes of which at least one must have a value
+         */
+        public Rule(String clsName, List<String> attributes) {
+            this(clsName, attributes, Collections.emptyMap());
+        }
+
+        /**
+         * @param clsName the class whose instances, including the instances
+         *   of its subclasses, are checked
+         * @param attributes the attributes of which at least one must have a value
+         * @param referToAttributes the {refer attribute: attributes} of the
+         *   referred instances, where a value in a referred instance also
+         *   satisfies the rule
+         */
+        public Rule(String clsName,
+                    List<String> attributes,
+                    Map<String, List<String>> referToAttributes) {
+            this.clsName = clsName;
+            this.attributes = attributes;
+            this.referToAttributes = referToAttributes;
+        }
+
+    }
+
+    private final MySQLAdaptor dba;
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * @param dba the adaptor of the database to query
+     */
+    public MissingAttributeRules(MySQLAdaptor dba) {
+        this.dba = dba;
+    }
+
+    /**
+     * @param rule the rule to evaluate
+     * @return the rule number, which indexes the {@link #findViolations()} result
+     */
+    public int addRule(Rule rule) {
+        rules.add(rule);
+        return rules.size() - 1;
+    }
+
+    /**
+     * @return the {class: rule numbers} groups of the rules, in the order
+     *   the classes were first added
+     */
+    private Map<String, List<Integer>> getClassRules() {
+        Map<String, List<Integer>> clsToRules = new LinkedHashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            clsToRules.computeIfAbsent(rules.get(i).clsName, key -> new ArrayList<>()).add(i);
+        }
+        return clsToRules;
+    }
+
+    /**
+     * Compiles the rules of one class. The query selects the DB id of each
+     * instance which violates at least one of the rules, followed by a
+     * 0/1 violation flag for each rule in the given order.
+     *
+     * @param clsName the class of the rules
+     * @param ruleNumbers the rules to compile
+     * @return the query
+     * @throws Exception if no class of the instances has an attribute
+     */
+    public String compile(String clsName, List<Integer> ruleNumbers) throws Exception {
+        Schema schema = dba.fetchSchema();
+        SchemaClass cls = schema.getClassByName(clsName);
+        List<String> flags = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < ruleNumbers.size(); i++) {
+            Rule rule = rules.get(ruleNumbers.get(i));
+            List<String> conditions = new ArrayList<>();
+            for (String attName : rule.attributes) {
+                conditions.add("NOT " + compileHasValue("a", "d.DB_ID", attName, getOrigins(schema, Collections.singleton(cls), attName)));
+            }
+            for (String refer : rule.referToAttributes.keySet()) {
+                conditions.add("NOT " + compileReferHasValue(schema, cls, refer, rule.referToAttributes.get(refer)));
+            }
+            String flag = "r" + i;
+            flags.add("(" + String.join(" AND ", conditions) + ") AS " + flag);
+            violations.add("v." + flag);
+        }
+        return "SELECT v.* FROM (SELECT d.DB_ID, " + String.join(", ", flags) +
+               " FROM DatabaseObject d WHERE d._class IN (" + QACheckerHelper.getSubclassNames(clsName, schema) + ")) v" +
+               " WHERE " + String.join(" OR ", violations) +
+               " ORDER BY v.DB_ID";
+    }
+
+    /**
+     * Runs one compiled query per class.
+     *
+     * @return the sorted violating DB ids of each rule in rule number order
+     * @throws Exception if a query fails
+     */
+    public List<List<Long>> findViolations() throws Exception {
+        List<List<Long>> results = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            results.add(new ArrayList<>());
+        }
+        Map<String, List<Integer>> clsToRules = getClassRules();
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            for (String clsName : clsToRules.keySet()) {
+                List<Integer> ruleNumbers = clsToRules.get(clsName);
+                String query = compile(clsName, ruleNumbers);
+                logger.debug("Checking " + ruleNumbers.size() + " rules of " + clsName + ": " + query);
+                StreamingQuery.forEachRow(lease, query, rs -> {
+                    for (int i = 0; i < ruleNumbers.size(); i++) {
+                        if (rs.getBoolean(i + 2)) {
+                            results.get(ruleNumbers.get(i)).add(rs.getLong(1));
+                        }
+                    }
+                });
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return the condition that the checked instance refers to an
+     *   instance with a value in one of the attributes
+     */
+    @SuppressWarnings("unchecked")
+    private String compileReferHasValue(Schema schema,
+                                        SchemaClass cls,
+                                        String refer,
+                                        List<String> refAttNames) throws Exception {
+        Collection<SchemaAttribute> referOrigins = getOrigins(schema, Collections.singleton(cls), refer);
+        // The referred instances are those of the allowed classes of the refer attribute
+        Set<SchemaClass> referredClasses = new HashSet<>();
+        for (SchemaAttribute origin : referOrigins) {
+            referredClasses.addAll((Collection<SchemaClass>) origin.getAllowedClasses());
+        }
+        List<String> conditions = new ArrayList<>();
+        for (String refAttName : refAttNames) {
+            conditions.add(compileHasValue("ra", "r." + refer, refAttName, getOrigins(schema, referredClasses, refAttName)));
+        }
+        List<String> exists = new ArrayList<>();
+        for (SchemaAttribute origin : referOrigins) {
+            String from = origin.isMultiple() ? origin.getOrigin().getName() + "_2_" + refer : origin.getOrigin().getName();
+            exists.add("EXISTS (SELECT 1 FROM " + from + " r WHERE r.DB_ID = d.DB_ID" +
+                       " AND " + toDisjunction(conditions) + ")");
+        }
+        return toDisjunction(exists);
+    }
+
+    /**
+     * @param alias the alias of the attribute table, which differs for each
+     *   nesting level
+     * @param dbIdColumn the column holding the DB id of the instance
+     * @return the condition that the instance has a value in the attribute
+     */
+    private String compileHasValue(String alias,
+                                   String dbIdColumn,
+                                   String attName,
+                                   Collection<SchemaAttribute> origins) {
+        List<String> exists = new ArrayList<>();
+        for (SchemaAttribute origin : origins) {
+            String from = origin.isMultiple() ? origin.getOrigin().getName() + "_2_" + attName : origin.getOrigin().getName();
+            exists.add("EXISTS (SELECT 1 FROM " + from + " " + alias +
+                       " WHERE " + alias + ".DB_ID = " + dbIdColumn +
+                       " AND " + alias + "." + attName + " IS NOT NULL)");
+        }
+        return toDisjunction(exists);
+    }
+
+    /**
+     * An attribute may be defined separately in several subclasses, and an
+     * instance has a value if it has one in any of the defining tables.
+     *
+     * @param classes the classes of the instances, including their subclasses
+     * @return the attribute of each distinct origin class, in origin name order
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<SchemaAttribute> getOrigins(Schema schema,
+                                                   Collection<SchemaClass> classes,
+                                                   String attName) throws Exception {
+        Map<String, SchemaAttribute> origins = new TreeMap<>();
+        for (SchemaClass subclass : (Collection<SchemaClass>) schema.getClasses()) {
+            if (classes.stream().anyMatch(subclass::isa) && subclass.isValidAttribute(attName)) {
+                SchemaAttribute att = subclass.getAttribute(attName);
+                origins.putIfAbsent(att.getOrigin().getName(), att);
+            }
+        }
+        if (origins.isEmpty()) {
+            throw new IllegalArgumentException("No class of " + classes.stream()
+                                                                       .map(SchemaClass::getName)
+                                                                       .sorted()
+                                                                       .collect(Collectors.joining(", ")) +
+                                               " has the attribute " + attName);
+        }
+        return origins.values();
+    }
+
+    private String toDisjunction(List<String> conditions) {
+        return conditions.size() == 1 ? conditions.get(0) : "(" + String.join(" OR ", conditions) + ")";
+    }
+
+}
@@ -10,13 +10,20 @@ import java.util.Properties;
 import org.gk.persistence.MySQLAdaptor;
 
 public class MySQLAdaptorManager {
+
+    /**
+     * The optional auth.properties or command line option for the number of
+     * pooled connections per database. If it is not set, then each check
+     * uses its adaptor's connection.
+     */
+    private static final String POOL_SIZE_PROP = "dbPoolSize";
     
     private MySQLAdaptor dba;
     private MySQLAdaptor altDba;
     private Map<String, Object> cmdOpts;
     private static MySQLAdaptorManager manager;
 
-    public static MySQLAdaptorManager getManager() {
+    public static synchronized MySQLAdaptorManager getManager() {
         if (manager == null)
             manager = new MySQLAdaptorManager();
         return manager;
@@ -63,6 +70,31 @@ public class MySQLAdaptorManager {
                                prop.getProperty("dbName"),
                                prop.getProperty("dbUser"),
                                prop.getProperty("dbPwd"));
+        initConnectionPool(dba, prop, "dbHost", "dbName", "dbUser", "dbPwd");
+    }
+
+    /**
+     * Registers a connection pool for the given adaptor's database if the
+     * pool size property is set. The pool is shared by all adaptors for
+     * the same database.
+     */
+    private void initConnectionPool(MySQLAdaptor adaptor, Properties prop,
+            String hostProp, String nameProp, String userProp, String pwdProp) {
+        Object sizeValue = prop.get(POOL_SIZE_PROP);
+        if (sizeValue == null || sizeValue instanceof Boolean) {
+            return;
+        }
+        int size = Integer.parseInt(sizeValue.toString());
+        if (size < 1 || ConnectionPool.getPool(adaptor) != null) {
+            return;
+        }
+        ConnectionPool pool = new ConnectionPool(prop.getProperty(hostProp),
+                                                 null,
+                                                 prop.getProperty(nameProp),
+                                                 prop.getProperty(userProp),
+                                                 prop.getProperty(pwdProp),
+                                                 size);
+        ConnectionPool.register(adaptor, pool);
     }
 
     protected Properties getAuthProperties() throws Exception {
@@ -81,6 +113,7 @@ public class MySQLAdaptorManager {
                                prop.getProperty("altDbName"),
                                prop.getProperty("altDbUser"),
                                prop.getProperty("altDbPwd"));
+        initConnectionPool(altDba, prop, "altDbHost", "altDbName", "altDbUser", "altDbPwd");
     }
 
     
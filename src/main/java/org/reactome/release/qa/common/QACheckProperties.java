@@ -7,6 +7,7 @@ import java.io.InputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
@@ -32,7 +33,8 @@ public class QACheckProperties {
     
     private static final String QA_PROP_FILE = "resources" + QA_PROP_RESOURCE;
 
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+    /** The date format pattern. A SimpleDateFormat is not thread-safe, so each parse makes its own. */
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
     
     private static final Properties PROPERTIES = loadProperties();
 
@@ -42,7 +44,7 @@ public class QACheckProperties {
 
     public static Date getDate(String key) throws ParseException {
         String value = getProperty(key);
-        return  value == null ? null : DATE_FORMAT.parse(value);
+        return  value == null ? null : new SimpleDateFormat(DATE_PATTERN).parse(value);
     }
 
     public static Integer getInteger(String key) {
@@ -55,13 +57,18 @@ public class QACheckProperties {
         return value == null ? null : Double.parseDouble(value);
     }
 
+    /**
+     * @return a copy of the cut-off date, or null if there is no cut-off date
+     */
     public static Date getCutoffDate() {
-        return (Date) PROPERTIES.get(CUTOFF_DATE_PROP);
+        Date cutoffDate = (Date) PROPERTIES.get(CUTOFF_DATE_PROP);
+        return cutoffDate == null ? null : new Date(cutoffDate.getTime());
     }
 
     @SuppressWarnings("unchecked")
     public static List<Long> getDeveloperDbIds() {
-        return (List<Long>) PROPERTIES.get(DEVELOPERS_PROP);
+        List<Long> developers = (List<Long>) PROPERTIES.get(DEVELOPERS_PROP);
+        return developers == null ? null : Collections.unmodifiableList(developers);
     }
     
     private static Properties loadProperties() {
@@ -86,7 +93,7 @@ public class QACheckProperties {
         // Cast the instance escape cut-off date to a date.
         String cutoffDateStr = properties.getProperty(CUTOFF_DATE_PROP);
         if (cutoffDateStr != null) {
-            DateFormat df = DATE_FORMAT;
+            DateFormat df = new SimpleDateFormat(DATE_PATTERN);
             try {
                 Date cutoffDate = df.parse(cutoffDateStr);
                 properties.put(CUTOFF_DATE_PROP, cutoffDate);
@@ -4,10 +4,17 @@ import java.util.List;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
 
 public class QACheckUtilities {
 
     public static GKInstance getLatestCuratorIEFromInstance(GKInstance instance) throws Exception {
+         // Answer from the run-wide index if there is one.
+         InstanceEditTimeline timeline = InstanceEditTimeline.getTimeline(instance);
+         if (timeline != null) {
+             Long ieDbId = timeline.getLatestCuratorEditDbId(instance.getDBID());
+             return ieDbId == null ? null : ((MySQLAdaptor) instance.getDbAdaptor()).fetchInstance(ieDbId);
+         }
          @SuppressWarnings("unchecked")
         List<GKInstance> modIEs = instance.getAttributeValuesList(ReactomeJavaConstants.modified);
          if (modIEs != null) {
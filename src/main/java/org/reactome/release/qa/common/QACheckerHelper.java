@@ -2,6 +2,7 @@ package org.reactome.release.qa.common;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -14,6 +15,7 @@ import org.gk.schema.InvalidAttributeException;
 import org.gk.schema.Schema;
 import org.gk.schema.SchemaAttribute;
 import org.gk.schema.SchemaClass;
+import org.reactome.release.qa.common.EventHierarchyIndex.EventSet;
 
 public class QACheckerHelper {
     
@@ -40,8 +42,10 @@ public class QACheckerHelper {
         if (skipList == null || skipList.isEmpty()) {
             return dbIds;
         } else {
-            return dbIds.parallelStream()
-                    .filter(dbId -> !skipList.contains(dbId))
+            // A hash lookup per DB id rather than a scan of the skip list.
+            LongHashSet skipped = LongHashSet.of(skipList);
+            return dbIds.stream()
+                    .filter(dbId -> !skipped.contains(dbId))
                     .collect(Collectors.toList());
         }
     }
@@ -56,7 +60,25 @@ public class QACheckerHelper {
     {
         if (skipList != null && !skipList.isEmpty())
         {
-            return instances.parallelStream().filter(inst -> !skipList.contains(inst.getDBID())).collect(Collectors.toList());
+            return filterBySkipList(LongHashSet.of(skipList), instances);
+        }
+        else
+        {
+            return instances;
+        }
+    }
+    
+    /**
+     * Filter a list of GKInstance objects by the DB IDs in skipList.
+     * @param skipList - the skipList, e.g. from the {@link SkipListRegistry}.
+     * @param instances - Objects from the database. Any object whose DB_ID is in skipList will *not* be in the output.
+     * @return
+     */
+    public static Collection<GKInstance> filterBySkipList(LongHashSet skipList, Collection<GKInstance> instances)
+    {
+        if (skipList != null && !skipList.isEmpty())
+        {
+            return instances.stream().filter(inst -> !skipList.contains(inst.getDBID())).collect(Collectors.toList());
         }
         else
         {
@@ -73,16 +95,9 @@ public class QACheckerHelper {
         return true;
     }
     
-    @SuppressWarnings("unchecked")
     public static GKInstance getHuman(MySQLAdaptor dba) throws Exception {
-        Collection<GKInstance> c = dba.fetchInstanceByAttribute(ReactomeJavaConstants.Species,
-                ReactomeJavaConstants._displayName,
-                "=",
-                "Homo sapiens");
-        if (c == null || c.size() == 0)
-            throw new IllegalStateException("Cannot find species Homo sapiens in the database, " +
-                                            dba.getDBName() + "@" + dba.getDBHost());
-        return c.iterator().next();
+        // The human species is looked up once per run.
+        return dba.fetchInstance(SpeciesDictionary.getDictionary(dba).getHumanDbId());
     }
     
     public static List<Long> getSkipList(String filePath) throws IOException
@@ -90,20 +105,26 @@ public class QACheckerHelper {
         List<Long> skipList = new ArrayList<Long>();
         if (filePath == null)
             return skipList;
-        Files.readAllLines(Paths.get(filePath)).forEach(line -> {
-            Long dbId = Long.parseLong(line.split("\t")[0]);
+        if (!Files.exists(Paths.get(filePath)))
+            throw new NoSuchFileException(filePath);
+        for (long dbId : SkipListRegistry.getSkipList(Paths.get(filePath)).toSortedArray())
             skipList.add(dbId);
-        });
         return skipList;
     }
     
     public static String getLastModificationAuthor(GKInstance instance)
     {
-        final String noAuthor = "No modification or creation author";
+        final String noAuthor = InstanceEditTimeline.NO_AUTHOR;
         
         GKInstance mostRecentMod = null;
         try
         {
+            // Answer from the run-wide index if there is one.
+            InstanceEditTimeline timeline = InstanceEditTimeline.getTimeline(instance);
+            if (timeline != null)
+            {
+                return timeline.getLastModificationAuthor(instance.getDBID());
+            }
             @SuppressWarnings("unchecked")
             List<GKInstance> modificationInstances = (List<GKInstance>) instance.getAttributeValuesList("modified");
             if (modificationInstances.size() > 0)
@@ -209,6 +230,18 @@ public class QACheckerHelper {
     
     public static int componentsHaveSpecies(GKInstance physicalEntity) throws Exception
     {
+        if (physicalEntity.getDBID() != null && physicalEntity.getDbAdaptor() instanceof MySQLAdaptor)
+        {
+            // The species of the contained entities are computed once per container.
+            int speciesCount = SpeciesDictionary.getDictionary((MySQLAdaptor) physicalEntity.getDbAdaptor())
+                                                .getSpeciesCount(physicalEntity.getDBID());
+            if (speciesCount > 0)
+            {
+                return speciesCount;
+            }
+            EntityCompositionIndex index = EntityCompositionIndex.getIndex((MySQLAdaptor) physicalEntity.getDbAdaptor());
+            return index.getContainedSpeciesDbIds(physicalEntity.getDBID()).length;
+        }
         Set<GKInstance> speciesSet = QACheckerHelper.grepAllSpeciesInPE(physicalEntity, true);
         //return !speciesSet.isEmpty();
         return !speciesSet.isEmpty() ? speciesSet.size() : 0;
@@ -273,6 +306,23 @@ public class QACheckerHelper {
         return instances;
     }
     
+    /**
+     * @param clsName the class name
+     * @param schema the schema
+     * @return the quoted SQL list of the names of the class and its
+     *   subclasses, e.g. for a <code>DatabaseObject._class IN (...)</code>
+     *   clause
+     */
+    @SuppressWarnings("unchecked")
+    public static String getSubclassNames(String clsName, Schema schema) {
+        SchemaClass cls = schema.getClassByName(clsName);
+        return ((Collection<SchemaClass>) schema.getClasses()).stream()
+                .filter(subclass -> subclass.isa(cls))
+                .map(subclass -> "'" + subclass.getName() + "'")
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
     /**
      * A generic method to get the table for an attribute in a specified class.
      * @param clsName
@@ -305,25 +355,42 @@ public class QACheckerHelper {
     public static Set<GKInstance> findEventsNotUsedForManualInference(MySQLAdaptor dba, List<Long> skiplistDbIds) throws Exception {
         Set<GKInstance> eventsNotUsedForInference = new HashSet<>();
         Collection<GKInstance> events = dba.fetchInstancesByClass(ReactomeJavaConstants.Event);
+        ReferrerIndex inferredFromReferrers = ReferrerIndex.getIndex(dba, ReactomeJavaConstants.inferredFrom);
+        EventSet skiplistEvents = getSkipListEvents(dba, skiplistDbIds);
         for (GKInstance event : events) {
-            if (!manuallyInferred(event) && !memberSkipListPathway(event, skiplistDbIds)) {
+            if (isNotUsedForManualInference(event, inferredFromReferrers, skiplistEvents)) {
                 eventsNotUsedForInference.add(event);
             }
         }
         return eventsNotUsedForInference;
     }
 
+    /**
+     * Checks one Event for {@link #findEventsNotUsedForManualInference(MySQLAdaptor, List)}, e.g. in a
+     * {@link SchemaClassScan} rule which visits the Events anyway.
+     * @param event GKInstance -- Event being checked.
+     * @param inferredFromReferrers ReferrerIndex -- The inferredFrom referrers of the Event's database.
+     * @param skiplistEvents EventSet -- The resolved skiplist from {@link #getSkipListEvents(MySQLAdaptor, List)}.
+     *   If the Event is a member of these pathways, it is skipped.
+     * @return boolean -- true if the Event is not used for manual inference and not in a skiplist Pathway.
+     */
+    public static boolean isNotUsedForManualInference(GKInstance event,
+                                                      ReferrerIndex inferredFromReferrers,
+                                                      EventSet skiplistEvents) {
+        return !manuallyInferred(event, inferredFromReferrers) && !memberSkipListPathway(event, skiplistEvents);
+    }
+
     /**
      * Checks if incoming Event is manually inferred by checking inferredFrom referral.
      * This method only correctly identifies manual inferences in a curation or slice database.
      * This is due to the fact that it only checks the 'inferredFrom' attribute, which is used
      * in automatic inferences as well.
      * @param event GKInstance -- Event instance being checked for inferredFrom referral.
+     * @param inferredFromReferrers ReferrerIndex -- The inferredFrom referrers of the Event's database.
      * @return boolean -- true if inferredFrom referral exists, false if not.
-     * @throws Exception -- Thrown by MySQLAdaptor.
      */
-    private static boolean manuallyInferred(GKInstance event) throws Exception {
-        return event.getReferers(ReactomeJavaConstants.inferredFrom) != null;
+    private static boolean manuallyInferred(GKInstance event, ReferrerIndex inferredFromReferrers) {
+        return inferredFromReferrers.hasReferrers(event.getDBID());
     }
 
     /**
@@ -356,6 +423,11 @@ public class QACheckerHelper {
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
     public static Set<GKInstance> getAllReactionParticipantsIncludingActiveUnits(GKInstance reaction) throws Exception {
+        if (reaction.getDBID() != null && reaction.getDbAdaptor() instanceof MySQLAdaptor) {
+            // The participants of every reaction are computed once per run.
+            MySQLAdaptor dba = (MySQLAdaptor) reaction.getDbAdaptor();
+            return fetchInstances(dba, ReactionParticipantIndex.getIndex(dba).getParticipantDbIds(reaction.getDBID()));
+        }
         Set<GKInstance> reactionPEs = new HashSet<>();
         reactionPEs.addAll(InstanceUtilities.getReactionParticipants(reaction));
         // Retrieve activeUnit PEs from Reaction Catalysts/Regulations, if present.
@@ -369,6 +441,41 @@ public class QACheckerHelper {
         return allReactionPEs;
     }
 
+    /**
+     * The bulk equivalent of {@link #getAllReactionParticipantsIncludingActiveUnits(GKInstance)}. The participants
+     * are taken from the {@link ReactionParticipantIndex} and fetched together, rather than one at a time.
+     * @param dba MySQLAdaptor
+     * @param reactions Collection<GKInstance> -- ReactionlikeEvents that will be checked for all participants.
+     * @param attributes String... -- Attributes to load with the participants, e.g. species.
+     * @return Map<GKInstance, List<GKInstance>> -- The distinct participants of each incoming ReactionlikeEvent in DbId order,
+     * in the order of the incoming ReactionlikeEvents.
+     * @throws Exception -- Thrown by MySQLAdaptor.
+     */
+    public static Map<GKInstance, List<GKInstance>> getAllReactionParticipantsIncludingActiveUnits(MySQLAdaptor dba,
+                                                                                                 Collection<GKInstance> reactions,
+                                                                                                 String... attributes) throws Exception {
+        ReactionParticipantIndex index = ReactionParticipantIndex.getIndex(dba);
+        InstanceHydrator hydrator = new InstanceHydrator(dba, attributes);
+        for (GKInstance reaction : reactions) {
+            for (long dbId : index.getParticipantDbIds(reaction.getDBID())) {
+                hydrator.add(dbId);
+            }
+        }
+        Map<Long, GKInstance> dbIdToPE = hydrator.hydrate();
+        Map<GKInstance, List<GKInstance>> reactionToPEs = new LinkedHashMap<>();
+        for (GKInstance reaction : reactions) {
+            List<GKInstance> reactionPEs = new ArrayList<>();
+            for (long dbId : index.getParticipantDbIds(reaction.getDBID())) {
+                GKInstance reactionPE = dbIdToPE.get(dbId);
+                if (reactionPE != null) {
+                    reactionPEs.add(reactionPE);
+                }
+            }
+            reactionToPEs.put(reaction, reactionPEs);
+        }
+        return reactionToPEs;
+    }
+
     /**
      * This method returns all instances found in the 'activeUnit' slot of the incoming Reaction's 'catalystActivity'
      * and 'regulatedBy' instances, if they exist.
@@ -398,6 +505,11 @@ public class QACheckerHelper {
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
     public static Set<GKInstance> getPhysicalEntityContainedInstances(GKInstance reactionPE) throws Exception {
+        if (reactionPE.getDBID() != null && reactionPE.getDbAdaptor() instanceof MySQLAdaptor) {
+            // The contained instances are computed once per container.
+            MySQLAdaptor dba = (MySQLAdaptor) reactionPE.getDbAdaptor();
+            return fetchInstances(dba, EntityCompositionIndex.getIndex(dba).getContainedDbIds(reactionPE.getDBID()));
+        }
         return InstanceUtilities.getContainedInstances(
                 reactionPE,
                 ReactomeJavaConstants.hasMember,
@@ -407,6 +519,21 @@ public class QACheckerHelper {
         );
     }
 
+    /**
+     * Fetches the instances of the given DB ids in bulk.
+     * @param dba MySQLAdaptor
+     * @param dbIds long[] -- DbIds of the instances.
+     * @return Set<GKInstance> -- The instances which were found.
+     * @throws Exception -- Thrown by MySQLAdaptor.
+     */
+    private static Set<GKInstance> fetchInstances(MySQLAdaptor dba, long[] dbIds) throws Exception {
+        InstanceHydrator hydrator = new InstanceHydrator(dba);
+        for (long dbId : dbIds) {
+            hydrator.add(dbId);
+        }
+        return new HashSet<>(hydrator.hydrate().values());
+    }
+
     /**
      * Checks if incoming DatabaseObject (Event or PhysicalEntity) has single Homo sapiens species.
      * @param databaseObject GKInstance -- Event or PhysicalEntity instance being checked for only Homo sapiens species.
@@ -414,6 +541,10 @@ public class QACheckerHelper {
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
     public static boolean isHumanDatabaseObject(GKInstance databaseObject) throws Exception {
+        SpeciesDictionary dictionary = SpeciesDictionary.getDictionary(databaseObject);
+        if (dictionary != null) {
+            return dictionary.isHuman(databaseObject.getDBID());
+        }
 
         List<GKInstance> objectSpecies = databaseObject.getSchemClass().isValidAttribute(ReactomeJavaConstants.species) ?
                 databaseObject.getAttributeValuesList(ReactomeJavaConstants.species) : Collections.emptyList();
@@ -427,6 +558,10 @@ public class QACheckerHelper {
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
     public static boolean hasOnlyNonHumanSpecies(GKInstance databaseObject) throws Exception {
+        SpeciesDictionary dictionary = SpeciesDictionary.getDictionary(databaseObject);
+        if (dictionary != null) {
+            return dictionary.hasOnlyNonHumanSpecies(databaseObject.getDBID());
+        }
         // Check if species is a valid attribute for physicalEntity.
         return hasSpeciesAttribute(databaseObject)
                 && databaseObject.getAttributeValue(ReactomeJavaConstants.species) != null
@@ -460,6 +595,13 @@ public class QACheckerHelper {
      */
     public static Set<Long> getSpeciesAndRelatedSpeciesDbIds(GKInstance inst) throws Exception {
         Set<Long> speciesDbIds = new HashSet<>();
+        SpeciesDictionary dictionary = SpeciesDictionary.getDictionary(inst);
+        if (dictionary != null) {
+            for (long dbId : dictionary.getSpeciesAndRelatedSpeciesDbIds(inst.getDBID())) {
+                speciesDbIds.add(dbId);
+            }
+            return speciesDbIds;
+        }
         List<String> speciesAttributes = Arrays.asList(ReactomeJavaConstants.species, ReactomeJavaConstants.relatedSpecies);
         for (String speciesAttribute: speciesAttributes) {
             if(inst.getSchemClass().isValidAttribute(speciesAttribute)) {
@@ -482,14 +624,42 @@ public class QACheckerHelper {
                 && databaseObject.getAttributeValue(ReactomeJavaConstants.disease) != null;
     }
 
+    /**
+     * Resolves a skiplist of Pathway DbIds once, so that the Events of a check are then tested
+     * with {@link #memberSkipListPathway(GKInstance, EventSet)}.
+     * @param dba MySQLAdaptor
+     * @param skiplistDbIds List<Long> -- List of Pathway DbIds.
+     * @return EventSet -- The skiplist Pathways and the Events they contain at any depth.
+     * @throws Exception -- Thrown by MySQLAdaptor.
+     */
+    public static EventSet getSkipListEvents(MySQLAdaptor dba, List<Long> skiplistDbIds) throws Exception {
+        return EventHierarchyIndex.getIndex(dba).getPathwaysAndContainedEvents(skiplistDbIds);
+    }
+
+    /**
+     * Checks if the incoming Event is a member of a skiplist Pathway.
+     * @param event GKInstance -- Event that is being checked for membership in a skiplist Pathway.
+     * @param skiplistEvents EventSet -- The resolved skiplist from {@link #getSkipListEvents(MySQLAdaptor, List)}.
+     * @return boolean -- true if member of skiplist Pathway, false if not.
+     */
+    public static boolean memberSkipListPathway(GKInstance event, EventSet skiplistEvents) {
+        return skiplistEvents.contains(event.getDBID());
+    }
+
     /**
      * Finds all parent DbIds of the incoming Event, and then checks if any of them are in the skiplist of Pathway DbIds.
+     * The skiplist is resolved on every call, so a check which tests many Events resolves it once with
+     * {@link #getSkipListEvents(MySQLAdaptor, List)} instead.
      * @param event GKInstance -- Event that is being checked for membership in a skiplist Pathway.
      * @param skiplistDbIds List<String> -- List of Pathway DbIds. If an Event being checked is a member of these pathways, they are skipped.
      * @return boolean -- true if member of skiplist Pathway, false if not.
      * @throws Exception -- Thrown by MySQLAdaptor.
      */
     public static boolean memberSkipListPathway(GKInstance event, List<Long> skiplistDbIds) throws Exception {
+        if (event.getDBID() != null && event.getDbAdaptor() instanceof MySQLAdaptor) {
+            EventSet skiplistEvents = getSkipListEvents((MySQLAdaptor) event.getDbAdaptor(), skiplistDbIds);
+            return memberSkipListPathway(event, skiplistEvents);
+        }
         // Finds all parent Event DbIds.
         Set<Long> hierarchyDbIds = findEventHierarchyDbIds(event);
         // Check if any returned Event DbIds (including original Events) are in skiplist.
@@ -519,11 +689,7 @@ public class QACheckerHelper {
      * @return List<String> -- List of DbIds.
      */
     public static List<Long> getNonHumanPathwaySkipList() throws IOException {
-        List<Long> skiplistDbIds = new ArrayList<>();
-        for (String dbId : Files.readAllLines(Paths.get("resources/manually_curated_nonhuman_pathways_skip_list.txt"))) {
-            skiplistDbIds.add(Long.parseLong(dbId));
-        }
-        return skiplistDbIds;
+        return getSkipList(SkipListRegistry.RESOURCE_DIR + "/manually_curated_nonhuman_pathways_skip_list.txt");
     }
 
     /**
@@ -0,0 +1,265 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.Schema;
+import org.gk.schema.SchemaClass;
+
+/**
+ * The run-wide index of the participants of every ReactionlikeEvent.
+ *
+ * The participants of a reaction are those of
+ * {@link QACheckerHelper#getAllReactionParticipantsIncludingActiveUnits(org.gk.model.GKInstance)}:
+ * the inputs, outputs, catalyst physical entities, PhysicalEntity
+ * regulators and the catalyst and regulation active units, together with
+ * the entities they contain at any depth. The direct participants are
+ * loaded on first use from one <code>UNION ALL</code> read, expanded with
+ * the {@link EntityCompositionIndex} and held as sorted DB id arrays
+ * grouped by reaction, so the reaction checks share one computation of
+ * the participants per run.
+ */
+public class ReactionParticipantIndex {
+
+    private static final Logger logger = Logger.getLogger(ReactionParticipantIndex.class);
+
+    private static final long[] NONE = new long[0];
+
+    /** The {database key: index} map. */
+    private static final Map<String, ReactionParticipantIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final String databaseKey;
+
+    /** The {reaction DB id: reaction ordinal} index. */
+    private LongIntMap ordinals;
+
+    /** The participants of ordinal <code>i</code> are <code>participants[participantStart[i]..participantStart[i+1])</code>. */
+    private int[] participantStart;
+
+    private long[] participants;
+
+    private volatile boolean isLoaded;
+
+    private ReactionParticipantIndex(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * Builds an index from the given values rather than a database.
+     *
+     * @param participantPairs the (reaction, direct participant) DB id
+     *   pairs, where a direct participant is e.g. an input or an active unit
+     * @param composition the index which expands the direct participants
+     */
+    public ReactionParticipantIndex(long[] participantPairs, EntityCompositionIndex composition) {
+        this("");
+        int count = participantPairs.length / 2;
+        long[] reactionDbIds = new long[count];
+        long[] participantDbIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            reactionDbIds[i] = participantPairs[2 * i];
+            participantDbIds[i] = participantPairs[2 * i + 1];
+        }
+        index(reactionDbIds, participantDbIds, count, composition);
+        isLoaded = true;
+    }
+
+    /**
+     * Returns the loaded index for the given adaptor's database, loading
+     * it with the adaptor if necessary.
+     *
+     * @param dba the database adaptor
+     * @return the index
+     * @throws Exception if the index could not be loaded
+     */
+    public static ReactionParticipantIndex getIndex(MySQLAdaptor dba) throws Exception {
+        ReactionParticipantIndex index =
+                INDEXES.computeIfAbsent(ConnectionPool.getDatabaseKey(dba), ReactionParticipantIndex::new);
+        index.load(dba);
+        return index;
+    }
+
+    /**
+     * @param dbId the reaction DB id
+     * @return the DB ids of the reaction's participants, including the
+     *   active units and the entities they contain, in ascending order
+     */
+    public long[] getParticipantDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return NONE;
+        }
+        return Arrays.copyOfRange(participants, participantStart[ordinal], participantStart[ordinal + 1]);
+    }
+
+    /**
+     * @return the number of reactions which have a participant
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            EntityCompositionIndex composition = EntityCompositionIndex.getIndex(dba);
+            logger.info("Loading the reaction participants of " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            long[][] edges = {new long[1024], new long[1024]};
+            int[] count = {0};
+            String sql = getParticipantSql(dba);
+            if (sql != null) {
+                try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                    StreamingQuery.forEachRow(lease, sql, rs -> {
+                        int edge = count[0]++;
+                        if (edge == edges[0].length) {
+                            edges[0] = Arrays.copyOf(edges[0], edge * 2);
+                            edges[1] = Arrays.copyOf(edges[1], edge * 2);
+                        }
+                        edges[0][edge] = rs.getLong(1);
+                        edges[1][edge] = rs.getLong(2);
+                    });
+                }
+            }
+            index(edges[0], edges[1], count[0], composition);
+            isLoaded = true;
+            logger.info("Loaded " + participants.length + " participants of " + ordinals.size() +
+                        " reactions in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    /**
+     * @return the union of the (reaction, direct participant) queries, or
+     *   null if the schema has no ReactionlikeEvent participant attribute
+     */
+    private String getParticipantSql(MySQLAdaptor dba) throws Exception {
+        String rle = ReactomeJavaConstants.ReactionlikeEvent;
+        List<String> selects = new ArrayList<>();
+        addSelect(selects, getValueSql(dba, rle, ReactomeJavaConstants.input));
+        addSelect(selects, getValueSql(dba, rle, ReactomeJavaConstants.output));
+        String catalysts = getValueSql(dba, rle, ReactomeJavaConstants.catalystActivity);
+        if (catalysts != null) {
+            addSelect(selects, getJoinSql(catalysts, getValueSql(dba, ReactomeJavaConstants.CatalystActivity, ReactomeJavaConstants.physicalEntity), null));
+            addSelect(selects, getJoinSql(catalysts, getValueSql(dba, ReactomeJavaConstants.CatalystActivity, ReactomeJavaConstants.activeUnit), null));
+        }
+        String regulations = getValueSql(dba, rle, ReactomeJavaConstants.regulatedBy);
+        if (regulations != null) {
+            // Only the regulators which are entities are participants.
+            Schema schema = dba.fetchSchema();
+            String entityClasses = QACheckerHelper.getSubclassNames(ReactomeJavaConstants.PhysicalEntity, schema);
+            addSelect(selects, getJoinSql(regulations, getValueSql(dba, ReactomeJavaConstants.Regulation, ReactomeJavaConstants.regulator), entityClasses));
+            addSelect(selects, getJoinSql(regulations, getValueSql(dba, ReactomeJavaConstants.Regulation, ReactomeJavaConstants.activeUnit), null));
+        }
+        return selects.isEmpty() ? null : String.join(" UNION ALL ", selects);
+    }
+
+    private void addSelect(List<String> selects, String select) {
+        if (select != null) {
+            selects.add(select);
+        }
+    }
+
+    /**
+     * @return the (DB id, value) query of the attribute, or null if the
+     *   class does not have the attribute
+     */
+    private String getValueSql(MySQLAdaptor dba, String clsName, String attName) throws Exception {
+        SchemaClass cls = dba.fetchSchema().getClassByName(clsName);
+        if (cls == null || !cls.isValidAttribute(attName)) {
+            return null;
+        }
+        String table = QACheckerHelper.getAttributeTableName(clsName, attName, dba);
+        return "SELECT DB_ID, " + attName + " AS value FROM " + table + " WHERE " + attName + " IS NOT NULL";
+    }
+
+    /**
+     * @param entityClasses the quoted classes of the values to keep, or
+     *   null to keep every value
+     * @return the (DB id, value of value) query of the given value queries
+     */
+    private String getJoinSql(String first, String second, String entityClasses) {
+        if (second == null) {
+            return null;
+        }
+        String join = "SELECT f.DB_ID, s.value FROM (" + first + ") f, (" + second + ") s";
+        if (entityClasses != null) {
+            join += ", DatabaseObject d WHERE s.DB_ID = f.value AND d.DB_ID = s.value AND d._class IN (" + entityClasses + ")";
+        }
+        else {
+            join += " WHERE s.DB_ID = f.value";
+        }
+        return join;
+    }
+
+    /**
+     * Groups the direct participants by reaction with a counting sort,
+     * then adds the contained entities to each group and sorts and
+     * de-duplicates it.
+     */
+    private void index(long[] reactionDbIds, long[] participantDbIds, int count, EntityCompositionIndex composition) {
+        ordinals = new LongIntMap();
+        int[] edgeOrdinals = new int[count];
+        int[] groupSizes = new int[16];
+        for (int i = 0; i < count; i++) {
+            int ordinal = ordinals.get(reactionDbIds[i], -1);
+            if (ordinal < 0) {
+                ordinal = ordinals.size();
+                ordinals.put(reactionDbIds[i], ordinal);
+                if (ordinal == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, ordinal * 2);
+                }
+            }
+            edgeOrdinals[i] = ordinal;
+            groupSizes[ordinal]++;
+        }
+        int size = ordinals.size();
+        int[] next = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            next[i + 1] = next[i] + groupSizes[i];
+        }
+        long[] grouped = new long[count];
+        int[] offsets = Arrays.copyOf(next, size);
+        for (int i = 0; i < count; i++) {
+            grouped[offsets[edgeOrdinals[i]]++] = participantDbIds[i];
+        }
+        participantStart = new int[size + 1];
+        long[] expanded = new long[Math.max(16, count)];
+        int total = 0;
+        long[] group = new long[16];
+        for (int i = 0; i < size; i++) {
+            int groupSize = 0;
+            for (int j = next[i]; j < next[i + 1]; j++) {
+                long[] contained = composition.getContainedDbIds(grouped[j]);
+                if (groupSize + contained.length + 1 > group.length) {
+                    group = Arrays.copyOf(group, Math.max(group.length * 2, groupSize + contained.length + 1));
+                }
+                group[groupSize++] = grouped[j];
+                System.arraycopy(contained, 0, group, groupSize, contained.length);
+                groupSize += contained.length;
+            }
+            Arrays.sort(group, 0, groupSize);
+            if (total + groupSize > expanded.length) {
+                expanded = Arrays.copyOf(expanded, Math.max(expanded.length * 2, total + groupSize));
+            }
+            for (int j = 0; j < groupSize; j++) {
+                if (j == 0 || group[j] != group[j - 1]) {
+                    expanded[total++] = group[j];
+                }
+            }
+            participantStart[i + 1] = total;
+        }
+        participants = Arrays.copyOf(expanded, total);
+    }
+
+}
@@ -0,0 +1,222 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
+
+/**
+ * The run-wide reverse index of one instance attribute.
+ *
+ * The index answers {@link org.gk.model.GKInstance#getReferers(String)}
+ * for every instance at once. It is loaded on first use from one
+ * <code>UNION ALL</code> scan of the attribute's <code>_2_</code> tables,
+ * for a multi-valued attribute, and class table columns, for a
+ * single-valued attribute, over every class which defines an attribute
+ * of that name. The referrers are held as sorted DB id arrays grouped by
+ * the referenced instance, so a check looks up the referrers without a
+ * query per instance and fetches instances only for what it reports.
+ */
+public class ReferrerIndex {
+
+    private static final Logger logger = Logger.getLogger(ReferrerIndex.class);
+
+    private static final long[] NONE = new long[0];
+
+    /** The {database key/attribute: index} map. */
+    private static final Map<String, ReferrerIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final String databaseKey;
+
+    private final String attributeName;
+
+    /** The {referenced DB id: referenced ordinal} index. */
+    private LongIntMap ordinals;
+
+    /** The referrers of ordinal <code>i</code> are <code>referrers[referrerStart[i]..referrerStart[i+1])</code>. */
+    private int[] referrerStart;
+
+    private long[] referrers;
+
+    private volatile boolean isLoaded;
+
+    private ReferrerIndex(String databaseKey, String attributeName) {
+        this.databaseKey = databaseKey;
+        this.attributeName = attributeName;
+    }
+
+    /**
+     * Returns the loaded index of the given attribute for the given
+     * adaptor's database, loading it with the adaptor if necessary.
+     *
+     * @param dba the database adaptor
+     * @param attributeName the instance attribute name, e.g. <code>inferredFrom</code>
+     * @return the index
+     * @throws Exception if the index could not be loaded
+     */
+    public static ReferrerIndex getIndex(MySQLAdaptor dba, String attributeName) throws Exception {
+        String databaseKey = ConnectionPool.getDatabaseKey(dba);
+        ReferrerIndex index = INDEXES.computeIfAbsent(databaseKey + "/" + attributeName,
+                key -> new ReferrerIndex(databaseKey, attributeName));
+        index.load(dba);
+        return index;
+    }
+
+    /**
+     * @param dbId the referenced instance DB id
+     * @return the distinct DB ids of the instances which refer to the
+     *   given instance with the attribute, in ascending order
+     */
+    public long[] getReferrerDbIds(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return NONE;
+        }
+        return Arrays.copyOfRange(referrers, referrerStart[ordinal], referrerStart[ordinal + 1]);
+    }
+
+    /**
+     * @param dbId the referenced instance DB id
+     * @return the number of distinct instances which refer to the given
+     *   instance with the attribute
+     */
+    public int getReferrerCount(long dbId) {
+        int ordinal = ordinals.get(dbId, -1);
+        return ordinal < 0 ? 0 : referrerStart[ordinal + 1] - referrerStart[ordinal];
+    }
+
+    /**
+     * @param dbId the referenced instance DB id
+     * @return whether any instance refers to the given instance with the attribute
+     */
+    public boolean hasReferrers(long dbId) {
+        return ordinals.containsKey(dbId);
+    }
+
+    /**
+     * @return the number of instances which are referred to with the attribute
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            logger.info("Loading the " + attributeName + " referrers of " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            String sql = getReferrerSql(dba);
+            long[][] edges = {new long[1024], new long[1024]};
+            int[] count = {0};
+            if (sql != null) {
+                try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                    StreamingQuery.forEachRow(lease, sql, rs -> {
+                        int edge = count[0]++;
+                        if (edge == edges[0].length) {
+                            edges[0] = Arrays.copyOf(edges[0], edge * 2);
+                            edges[1] = Arrays.copyOf(edges[1], edge * 2);
+                        }
+                        edges[0][edge] = rs.getLong(1);
+                        edges[1][edge] = rs.getLong(2);
+                    });
+                }
+            }
+            else {
+                logger.warn("No instance attribute " + attributeName + " in the schema of " + databaseKey);
+            }
+            index(edges[0], edges[1], count[0]);
+            isLoaded = true;
+            logger.info("Loaded " + count[0] + " " + attributeName + " references to " + ordinals.size() +
+                        " instances in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    /**
+     * @return the union of the (referrer, referenced) queries of every
+     *   table which holds the attribute, or null if no class defines it
+     */
+    @SuppressWarnings("unchecked")
+    private String getReferrerSql(MySQLAdaptor dba) {
+        List<String> selects = new ArrayList<>();
+        for (SchemaClass cls : (Collection<SchemaClass>) dba.getSchema().getClasses()) {
+            if (!cls.isValidAttribute(attributeName)) {
+                continue;
+            }
+            for (SchemaAttribute att : (Collection<SchemaAttribute>) cls.getAttributes()) {
+                // Only the defining class has a column for the attribute.
+                if (att.getOrigin() != cls || !att.getName().equals(attributeName) ||
+                    !att.isInstanceTypeAttribute()) {
+                    continue;
+                }
+                if (att.isMultiple()) {
+                    selects.add("SELECT DB_ID, " + attributeName +
+                                " FROM " + cls.getName() + "_2_" + attributeName);
+                }
+                else {
+                    selects.add("SELECT DB_ID, " + attributeName +
+                                " FROM " + cls.getName() +
+                                " WHERE " + attributeName + " IS NOT NULL");
+                }
+            }
+        }
+        return selects.isEmpty() ? null : String.join(" UNION ALL ", selects);
+    }
+
+    /**
+     * Groups the referrers by the referenced instance with a counting
+     * sort, then sorts and de-duplicates each group.
+     */
+    private void index(long[] referrerDbIds, long[] referencedDbIds, int count) {
+        ordinals = new LongIntMap();
+        int[] edgeOrdinals = new int[count];
+        int[] groupSizes = new int[16];
+        for (int i = 0; i < count; i++) {
+            int ordinal = ordinals.get(referencedDbIds[i], -1);
+            if (ordinal < 0) {
+                ordinal = ordinals.size();
+                ordinals.put(referencedDbIds[i], ordinal);
+                if (ordinal == groupSizes.length) {
+                    groupSizes = Arrays.copyOf(groupSizes, ordinal * 2);
+                }
+            }
+            edgeOrdinals[i] = ordinal;
+            groupSizes[ordinal]++;
+        }
+        int size = ordinals.size();
+        int[] next = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            next[i + 1] = next[i] + groupSizes[i];
+        }
+        long[] grouped = new long[count];
+        int[] offsets = Arrays.copyOf(next, size);
+        for (int i = 0; i < count; i++) {
+            grouped[offsets[edgeOrdinals[i]]++] = referrerDbIds[i];
+        }
+        // A referrer which holds the same value more than once counts once.
+        referrerStart = new int[size + 1];
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            Arrays.sort(grouped, next[i], next[i + 1]);
+            for (int j = next[i]; j < next[i + 1]; j++) {
+                if (j == next[i] || grouped[j] != grouped[j - 1]) {
+                    grouped[distinct++] = grouped[j];
+                }
+            }
+            referrerStart[i + 1] = distinct;
+        }
+        referrers = Arrays.copyOf(grouped, distinct);
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaClass;
+
+/**
+ * One pass over the instances of schema classes which drives the
+ * per-instance rules of several checks.
+ *
+ * Each {@link FusedScanCheck} registers its rules for a class together
+ * with the attributes the rules read. The scan then fetches the instances
+ * of each registered class once, loads the union of the attributes in
+ * bulk and applies every matching rule to each instance, in DB id order.
+ * A class which is a subclass of another registered class is not fetched
+ * again, so e.g. the Event and ReactionlikeEvent rules share one Event
+ * fetch. The rules add to the report of their own check.
+ *
+ * An attribute may be given as a path <code>a.b</code>, in which case
+ * <code>b</code> is loaded in bulk for the instances referred to by
+ * <code>a</code>, e.g. <code>stableIdentifier.released</code>.
+ */
+public class SchemaClassScan {
+
+    private static final Logger logger = Logger.getLogger(SchemaClassScan.class);
+
+    /**
+     * A rule applied to each instance of a class.
+     */
+    @FunctionalInterface
+    public interface InstanceRule {
+        /**
+         * @param instance an instance of the rule's class or a subclass
+         * @throws Exception
+         */
+        void apply(GKInstance instance) throws Exception;
+    }
+
+    private static class RegisteredRule {
+        final SchemaClass cls;
+        final InstanceRule rule;
+
+        RegisteredRule(SchemaClass cls, InstanceRule rule) {
+            this.cls = cls;
+            this.rule = rule;
+        }
+    }
+
+    private final MySQLAdaptor dba;
+
+    private final List<RegisteredRule> rules = new ArrayList<>();
+
+    /** The attributes of the scanned instances. */
+    private final Set<String> attributes = new LinkedHashSet<>();
+
+    /** The {attribute: attributes} of the referred instances. */
+    private final Map<String, Set<String>> referredAttributes = new LinkedHashMap<>();
+
+    /**
+     * @param dba the adaptor which fetches the instances
+     */
+    public SchemaClassScan(MySQLAdaptor dba) {
+        this.dba = dba;
+    }
+
+    /**
+     * Runs the rules of the given check on their own.
+     *
+     * @param check the check to run
+     * @param dba the adaptor which fetches the instances
+     * @return the check's report
+     * @throws Exception
+     */
+    public static QAReport execute(FusedScanCheck check, MySQLAdaptor dba) throws Exception {
+        SchemaClassScan scan = new SchemaClassScan(dba);
+        check.registerRules(scan);
+        scan.run();
+        return check.getScanReport();
+    }
+
+    /**
+     * @param clsName the class whose instances, including the instances of
+     *   its subclasses, the rule is applied to
+     * @param rule the rule
+     * @param attributes the attributes the rule reads, where
+     *   <code>a.b</code> is attribute <code>b</code> of the instances
+     *   referred to by attribute <code>a</code>
+     * @throws Exception if the schema could not be fetched
+     */
+    public void addRule(String clsName, InstanceRule rule, String... attributes) throws Exception {
+        rules.add(new RegisteredRule(dba.fetchSchema().getClassByName(clsName), rule));
+        for (String attribute : attributes) {
+            int dot = attribute.indexOf('.');
+            if (dot < 0) {
+                this.attributes.add(attribute);
+            }
+            else {
+                String refer = attribute.substring(0, dot);
+                this.attributes.add(refer);
+                referredAttributes.computeIfAbsent(refer, key -> new LinkedHashSet<>()).add(attribute.substring(dot + 1));
+            }
+        }
+    }
+
+    /**
+     * Applies the rules to the instances of their classes.
+     *
+     * @throws Exception if an instance could not be fetched or a rule fails
+     */
+    @SuppressWarnings("unchecked")
+    public void run() throws Exception {
+        for (SchemaClass root : getRootClasses()) {
+            List<GKInstance> instances = new ArrayList<>(dba.fetchInstancesByClass(root));
+            logger.info("Scanning " + instances.size() + " " + root.getName() + " instances with " +
+                        rules.size() + " rules...");
+            if (!attributes.isEmpty()) {
+                dba.loadInstanceAttributeValues(instances, attributes.toArray(new String[0]));
+            }
+            loadReferredAttributes(instances);
+            instances.sort((inst1, inst2) -> inst1.getDBID().compareTo(inst2.getDBID()));
+            List<RegisteredRule> rootRules = new ArrayList<>();
+            for (RegisteredRule rule : rules) {
+                if (rule.cls.isa(root)) {
+                    rootRules.add(rule);
+                }
+            }
+            for (GKInstance instance : instances) {
+                SchemaClass cls = instance.getSchemClass();
+                for (RegisteredRule rule : rootRules) {
+                    if (cls.isa(rule.cls)) {
+                        rule.rule.apply(instance);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the distinct registered classes which are not a subclass of
+     *   another registered class
+     */
+    private List<SchemaClass> getRootClasses() {
+        List<SchemaClass> roots = new ArrayList<>();
+        for (RegisteredRule rule : rules) {
+            if (roots.contains(rule.cls)) {
+                continue;
+            }
+            boolean isSubclass = rules.stream().anyMatch(other -> other.cls != rule.cls && rule.cls.isa(other.cls));
+            if (!isSubclass) {
+                roots.add(rule.cls);
+            }
+        }
+        return roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void loadReferredAttributes(Collection<GKInstance> instances) throws Exception {
+        for (String refer : referredAttributes.keySet()) {
+            Set<GKInstance> referred = new HashSet<>();
+            for (GKInstance instance : instances) {
+                if (instance.getSchemClass().isValidAttribute(refer)) {
+                    for (Object value : instance.getAttributeValuesList(refer)) {
+                        if (value instanceof GKInstance) {
+                            referred.add((GKInstance) value);
+                        }
+                    }
+                }
+            }
+            if (!referred.isEmpty()) {
+                dba.loadInstanceAttributeValues(referred, referredAttributes.get(refer).toArray(new String[0]));
+            }
+        }
+    }
+
+}
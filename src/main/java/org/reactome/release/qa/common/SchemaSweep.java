@@ -0,0 +1,173 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+import org.gk.persistence.MySQLAdaptor;
+
+/**
+ * Runs many small schema-driven probe queries in a few round trips.
+ *
+ * A check which walks the schema typically issues one query per class,
+ * attribute and value class. Instead, it adds each query as a probe
+ * together with the physical table the probe reads. The probes of a
+ * table are sent as one <code>UNION ALL</code> query, or a few of them
+ * if there are many probes, and each row is tagged with its probe. The
+ * table queries are run concurrently on pooled connections, so the
+ * round trips scale with the tables rather than the probes. Without a
+ * connection pool, the queries are run one after another on the
+ * adaptor's connection.
+ *
+ * Every probe selects the same number of integer columns, e.g. DB ids.
+ * An identical probe is only queried once, but its rows are returned
+ * for every time it was added.
+ */
+public class SchemaSweep {
+
+    private static final Logger logger = Logger.getLogger(SchemaSweep.class);
+
+    /** The maximum number of probes in one query. */
+    private static final int MAX_PROBES_PER_QUERY = 50;
+
+    /** The maximum number of queries run at once. */
+    private static final int MAX_CONCURRENT_QUERIES = 4;
+
+    /** A row of a distinct probe. */
+    private static class ProbeRow {
+        final int probe;
+        final long[] values;
+
+        ProbeRow(int probe, long[] values) {
+            this.probe = probe;
+            this.values = values;
+        }
+    }
+
+    private final MySQLAdaptor dba;
+
+    private final int columns;
+
+    /** The {probe query: distinct probe} index. */
+    private final Map<String, Integer> distinctProbes = new LinkedHashMap<>();
+
+    /** The {table: distinct probes} groups in the order they were first added. */
+    private final Map<String, List<Integer>> tableProbes = new LinkedHashMap<>();
+
+    /** The distinct probe of each added probe. */
+    private final List<Integer> probes = new ArrayList<>();
+
+    /**
+     * @param dba the adaptor of the database to query
+     * @param columns the number of integer columns selected by each probe
+     */
+    public SchemaSweep(MySQLAdaptor dba, int columns) {
+        this.dba = dba;
+        this.columns = columns;
+    }
+
+    /**
+     * Runs the probes of the given check on their own.
+     *
+     * @param check the check to run
+     * @param dba the adaptor of the database to query
+     * @return the check's report
+     * @throws Exception
+     */
+    public static QAReport execute(FusedSweepCheck check, MySQLAdaptor dba) throws Exception {
+        SchemaSweep sweep = new SchemaSweep(dba, FusedSweepCheck.COLUMNS);
+        check.registerProbes(sweep);
+        return check.getSweepReport(sweep.run());
+    }
+
+    /**
+     * @param table the physical table the probe reads, e.g. from
+     *   {@link QACheckerHelper#getAttributeTableName(String, String, MySQLAdaptor)},
+     *   which groups the probe with the other probes of the table
+     * @param sql the probe query
+     * @return the probe number, which indexes the {@link #run()} result
+     */
+    public int addProbe(String table, String sql) {
+        Integer distinct = distinctProbes.get(sql);
+        if (distinct == null) {
+            distinct = distinctProbes.size();
+            distinctProbes.put(sql, distinct);
+            tableProbes.computeIfAbsent(table, key -> new ArrayList<>()).add(distinct);
+        }
+        probes.add(distinct);
+        return probes.size() - 1;
+    }
+
+    /**
+     * @return the number of added probes
+     */
+    public int size() {
+        return probes.size();
+    }
+
+    /**
+     * Runs the probes.
+     *
+     * @return the rows of each probe in probe number order, where each
+     *   row holds the selected column values
+     * @throws Exception if a query fails
+     */
+    public List<List<long[]>> run() throws Exception {
+        List<String> queries = new ArrayList<>();
+        List<String> sqls = new ArrayList<>(distinctProbes.keySet());
+        for (List<Integer> group : tableProbes.values()) {
+            for (int start = 0; start < group.size(); start += MAX_PROBES_PER_QUERY) {
+                List<String> selects = new ArrayList<>();
+                for (Integer distinct : group.subList(start, Math.min(start + MAX_PROBES_PER_QUERY, group.size()))) {
+                    selects.add("SELECT " + distinct + " AS probe, p.* FROM (" + sqls.get(distinct) + ") p");
+                }
+                queries.add(String.join(" UNION ALL ", selects));
+            }
+        }
+        logger.debug("Sweeping " + tableProbes.size() + " tables with " + queries.size() +
+                     " queries for " + probes.size() + " probes...");
+        List<List<long[]>> distinctRows = new ArrayList<>(sqls.size());
+        for (int i = 0; i < sqls.size(); i++) {
+            distinctRows.add(new ArrayList<>());
+        }
+        for (List<ProbeRow> rows : runQueries(queries)) {
+            for (ProbeRow row : rows) {
+                distinctRows.get(row.probe).add(row.values);
+            }
+        }
+        List<List<long[]>> results = new ArrayList<>(probes.size());
+        for (Integer distinct : probes) {
+            results.add(distinctRows.get(distinct));
+        }
+        return results;
+    }
+
+    /**
+     * @return the rows of each query
+     */
+    private List<List<ProbeRow>> runQueries(List<String> queries) throws Exception {
+        List<Callable<List<ProbeRow>>> tasks = new ArrayList<>(queries.size());
+        for (String query : queries) {
+            tasks.add(() -> runQuery(query));
+        }
+        return ConnectionPool.runConcurrently(dba, tasks, MAX_CONCURRENT_QUERIES);
+    }
+
+    private List<ProbeRow> runQuery(String query) throws Exception {
+        List<ProbeRow> rows = new ArrayList<>();
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            StreamingQuery.forEachRow(lease, query, rs -> {
+                long[] values = new long[columns];
+                for (int i = 0; i < columns; i++) {
+                    values[i] = rs.getLong(i + 2);
+                }
+                rows.add(new ProbeRow(rs.getInt(1), values));
+            });
+        }
+        return rows;
+    }
+
+}
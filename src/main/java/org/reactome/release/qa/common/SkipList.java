@@ -6,28 +6,33 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SkipList {
 
-    public List<Long> skipList;
+    private final LongHashSet skipList;
+
+    /** The DB ids in ascending order, built once. */
+    private final List<Long> skipListDbIds;
 
     /**
      * The SkipList class contains functions for reading in an assumed skiplist, and checking its contents.
      * The main assumption is that the skiplist file will be stored in a "resources" folder, which needs to be located
      * in the same directory as the executor, and be in the format "step_name_skip_list.txt".
+     * The file is read once per run by the {@link SkipListRegistry}, which shares the DB ids with every SkipList.
      * @param displayName - String, displayName of class calling SkipList class.
-     * @throws IOException, thrown when file does not exist or if contents of file can't be parsed into an Integer.
+     * @throws IOException, thrown when file does not exist or can't be read.
      */
     public SkipList(String displayName) throws IOException {
         Path skipListFilePath = getSkipListFilePath(displayName);
         if (Files.exists(skipListFilePath)) {
-            skipList = readDbIdsFromSkipListFile(skipListFilePath);
+            skipList = SkipListRegistry.getSkipList(skipListFilePath);
         } else {
             throw new FileNotFoundException("Unable to open " + skipListFilePath.toString() + ", file not found!");
         }
+        skipListDbIds = Collections.unmodifiableList(toList(skipList));
     }
 
     /**
@@ -39,27 +44,16 @@ public class SkipList {
      * @return - Path, the assumed skip list file name.
      */
     private Path getSkipListFilePath(String displayName) {
-        return Paths.get("resources/" + displayName.toLowerCase() + "_skip_list.txt");
+        return SkipListRegistry.getResourceSkipListPath(displayName);
     }
 
     /**
      * Parses file that is formatted as a list of Reactome DbIds.
-     * @return - List<String>, Reactome database ids.
-     * @throws IOException, thrown if value in file can't be parsed as an integer.
+     * @return - List<Long>, Reactome database ids in ascending order.
+     * @throws IOException, thrown if the file can't be read.
      */
     public List<Long> readDbIdsFromSkipListFile(Path skipListFilePath) throws IOException {
-        List<Long> skipListFromFile = new ArrayList<>();
-        for (String dbId : Files.readAllLines((skipListFilePath))) {
-            // Ignore commenting lines
-            if (!dbId.startsWith("#")) {
-                try {
-                    skipListFromFile.add(Long.parseLong(dbId));
-                } catch (Exception e) {
-                    throw new IOException(e);
-                }
-            }
-        }
-        return skipListFromFile;
+        return toList(SkipListRegistry.getSkipList(skipListFilePath));
     }
 
     /**
@@ -71,7 +65,18 @@ public class SkipList {
         return skipList.contains(dbId);
     }
 
+    /**
+     * @return - List<Long>, the unmodifiable Reactome database ids in ascending order.
+     */
     public List<Long> getSkipListDbIds() {
-        return skipList;
+        return skipListDbIds;
+    }
+
+    private List<Long> toList(LongHashSet dbIds) {
+        List<Long> list = new ArrayList<>(dbIds.size());
+        for (long dbId : dbIds.toSortedArray()) {
+            list.add(dbId);
+        }
+        return list;
     }
 }
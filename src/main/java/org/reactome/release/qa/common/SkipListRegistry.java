@@ -0,0 +1,151 @@
+package org.reactome.release.qa.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The run-wide registry of skip lists.
+ *
+ * There are two kinds of skip list file:
+ * <ul>
+ * <li>the <code>resources/<i>display_name</i>_skip_list.txt</code>
+ *     files read by {@link SkipList} and {@link QACheckerHelper#getSkipList(String)}</li>
+ * <li>the <code>QA_SkipList/<i>Display_Name</i>.txt</code> escape lists
+ *     read by {@link AbstractQACheck#isEscaped(org.gk.model.GKInstance)}</li>
+ * </ul>
+ * Each file is read at most once per run into a read-only
+ * {@link LongHashSet} which is shared by every check, whichever thread
+ * it runs on.
+ *
+ * A skip list line holds a DB id, optionally followed by a tab and a
+ * description. Comment lines starting with <code>#</code>, blank lines
+ * and lines which do not start with a DB id are ignored.
+ */
+public class SkipListRegistry {
+
+    private static final Logger logger = Logger.getLogger(SkipListRegistry.class);
+
+    public static final String RESOURCE_DIR = "resources";
+
+    public static final String RESOURCE_SUFFIX = "_skip_list.txt";
+
+    public static final String ESCAPE_DIR = "QA_SkipList";
+
+    /** The {absolute file path: DB ids} map. */
+    private static final Map<Path, LongHashSet> SKIP_LISTS = new ConcurrentHashMap<>();
+
+    /**
+     * Loads every skip list file in the resources and escape list
+     * directories, so the checks only look them up.
+     *
+     * @throws IOException if a directory or file could not be read
+     */
+    public static void preload() throws IOException {
+        preload(Paths.get(RESOURCE_DIR), "*" + RESOURCE_SUFFIX);
+        preload(Paths.get(ESCAPE_DIR), "*.txt");
+        logger.info("Loaded " + SKIP_LISTS.size() + " skip lists.");
+    }
+
+    /**
+     * @param displayName the check display name
+     * @return the path of the check's resources skip list file
+     */
+    public static Path getResourceSkipListPath(String displayName) {
+        return Paths.get(RESOURCE_DIR, displayName.toLowerCase() + RESOURCE_SUFFIX);
+    }
+
+    /**
+     * @param displayName the check display name
+     * @return the path of the check's escape list file
+     */
+    public static Path getEscapeListPath(String displayName) {
+        return Paths.get(ESCAPE_DIR, displayName + ".txt");
+    }
+
+    /**
+     * @param displayName the check display name
+     * @return the DB ids in the check's resources skip list, which are
+     *   empty if there is no such file
+     * @throws IOException if the file could not be read
+     */
+    public static LongHashSet getResourceSkipList(String displayName) throws IOException {
+        return getSkipList(getResourceSkipListPath(displayName));
+    }
+
+    /**
+     * @param displayName the check display name
+     * @return the DB ids in the check's escape list, which are empty if
+     *   there is no such file
+     * @throws IOException if the file could not be read
+     */
+    public static LongHashSet getEscapeList(String displayName) throws IOException {
+        return getSkipList(getEscapeListPath(displayName));
+    }
+
+    /**
+     * @param file the skip list file
+     * @return the read-only DB ids in the file, which are empty if there
+     *   is no such file
+     * @throws IOException if the file could not be read
+     */
+    public static LongHashSet getSkipList(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        LongHashSet dbIds = SKIP_LISTS.get(key);
+        if (dbIds != null) {
+            return dbIds;
+        }
+        try {
+            return SKIP_LISTS.computeIfAbsent(key, path -> {
+                try {
+                    return read(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void preload(Path dir, String glob) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, glob)) {
+            for (Path file : files) {
+                getSkipList(file);
+            }
+        }
+    }
+
+    private static LongHashSet read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new LongHashSet(0).makeReadOnly();
+        }
+        logger.debug("Loading the skip list " + file + "...");
+        LongHashSet dbIds = new LongHashSet();
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith("#")) {
+                continue;
+            }
+            String token = line.split("\t", 2)[0].trim();
+            // Make sure only a number is taken.
+            if (token.matches("\\d{1,18}")) {
+                long dbId = Long.parseLong(token);
+                if (dbId > 0) {
+                    dbIds.add(dbId);
+                }
+            }
+        }
+        return dbIds.makeReadOnly();
+    }
+
+}
@@ -0,0 +1,358 @@
+package org.reactome.release.qa.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.model.ReactomeJavaConstants;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
+
+/**
+ * The run-wide species of every Event and PhysicalEntity.
+ *
+ * Each Species instance is given a small ordinal, and the
+ * <code>species</code> and <code>relatedSpecies</code> values of each
+ * Event and PhysicalEntity are held as bitmasks over the ordinals. The
+ * dictionary is loaded on first use from one read of the Species
+ * instances and one <code>UNION ALL</code> read of the species tables, so
+ * the species questions of the checks, e.g. whether an entity is human
+ * only or whether two events share a species, are bit operations rather
+ * than attribute loads and set constructions.
+ *
+ * A species is human if its display name is <code>Homo sapiens</code>.
+ */
+public class SpeciesDictionary {
+
+    private static final Logger logger = Logger.getLogger(SpeciesDictionary.class);
+
+    private static final String HUMAN = "Homo sapiens";
+
+    private static final int SPECIES = 0;
+
+    private static final int RELATED_SPECIES = 1;
+
+    /** The {database key: dictionary} map. */
+    private static final Map<String, SpeciesDictionary> DICTIONARIES = new ConcurrentHashMap<>();
+
+    private final String databaseKey;
+
+    /** The {species DB id: species ordinal} index. */
+    private LongIntMap speciesOrdinals;
+
+    private long[] speciesDbIds;
+
+    private String[] speciesNames;
+
+    /** The human species bits. */
+    private long[] humanMask;
+
+    /** The number of mask words per instance. */
+    private int words;
+
+    /** The {instance DB id: instance ordinal} index. */
+    private LongIntMap instanceOrdinals;
+
+    /** The species of instance <code>i</code> are the bits of <code>speciesMasks[i*words..(i+1)*words)</code>. */
+    private long[] speciesMasks;
+
+    private long[] relatedSpeciesMasks;
+
+    private volatile boolean isLoaded;
+
+    private SpeciesDictionary(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * Builds a dictionary from the given values rather than a database.
+     *
+     * @param speciesDbIds the Species DB ids
+     * @param speciesNames the Species display names in the same order
+     * @param speciesPairs the (instance, species) DB id pairs
+     * @param relatedSpeciesPairs the (instance, related species) DB id pairs
+     */
+    public SpeciesDictionary(long[] speciesDbIds,
+                             String[] speciesNames,
+                             long[] speciesPairs,
+                             long[] relatedSpeciesPairs) {
+        this("");
+        index(speciesDbIds, speciesNames, Arrays.asList(speciesPairs, relatedSpeciesPairs));
+        isLoaded = true;
+    }
+
+    /**
+     * Returns the loaded dictionary for the given adaptor's database,
+     * loading it with the adaptor if necessary.
+     *
+     * @param dba the database adaptor
+     * @return the dictionary
+     * @throws Exception if the dictionary could not be loaded
+     */
+    public static SpeciesDictionary getDictionary(MySQLAdaptor dba) throws Exception {
+        SpeciesDictionary dictionary =
+                DICTIONARIES.computeIfAbsent(ConnectionPool.getDatabaseKey(dba), SpeciesDictionary::new);
+        dictionary.load(dba);
+        return dictionary;
+    }
+
+    /**
+     * @param instance an instance of any class
+     * @return the dictionary of the instance's database, or null if the
+     *   instance is not a stored Event or PhysicalEntity, whose species
+     *   must then be read from the instance
+     * @throws Exception if the dictionary could not be loaded
+     */
+    public static SpeciesDictionary getDictionary(GKInstance instance) throws Exception {
+        if (instance.getDBID() == null || !(instance.getDbAdaptor() instanceof MySQLAdaptor)) {
+            return null;
+        }
+        SchemaClass cls = instance.getSchemClass();
+        if (!cls.isa(ReactomeJavaConstants.Event) && !cls.isa(ReactomeJavaConstants.PhysicalEntity)) {
+            return null;
+        }
+        return getDictionary((MySQLAdaptor) instance.getDbAdaptor());
+    }
+
+    /**
+     * @return the DB id of the first human species
+     * @throws IllegalStateException if there is no human species
+     */
+    public long getHumanDbId() {
+        for (int ordinal = 0; ordinal < speciesDbIds.length; ordinal++) {
+            if (isSet(humanMask, 0, ordinal)) {
+                return speciesDbIds[ordinal];
+            }
+        }
+        throw new IllegalStateException("Cannot find species " + HUMAN + " in " + databaseKey);
+    }
+
+    /**
+     * @param dbId the Species DB id
+     * @return the display name of the species, or null if there is no such species
+     */
+    public String getSpeciesName(long dbId) {
+        int ordinal = speciesOrdinals.get(dbId, -1);
+        return ordinal < 0 ? null : speciesNames[ordinal];
+    }
+
+    /**
+     * @param dbId the Event or PhysicalEntity DB id
+     * @return the number of distinct species values of the instance
+     */
+    public int getSpeciesCount(long dbId) {
+        int ordinal = instanceOrdinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = ordinal * words; i < (ordinal + 1) * words; i++) {
+            count += Long.bitCount(speciesMasks[i]);
+        }
+        return count;
+    }
+
+    /**
+     * The equivalent of {@link QACheckerHelper#isHumanDatabaseObject(GKInstance)}.
+     *
+     * @param dbId the Event or PhysicalEntity DB id
+     * @return whether the instance has one species, which is human
+     */
+    public boolean isHuman(long dbId) {
+        return getSpeciesCount(dbId) == 1 && intersects(speciesMasks, instanceOrdinals.get(dbId, -1), humanMask, 0);
+    }
+
+    /**
+     * The equivalent of {@link QACheckerHelper#hasOnlyNonHumanSpecies(GKInstance)}.
+     *
+     * @param dbId the Event or PhysicalEntity DB id
+     * @return whether the instance has a species and none of its species is human
+     */
+    public boolean hasOnlyNonHumanSpecies(long dbId) {
+        return getSpeciesCount(dbId) > 0 && !intersects(speciesMasks, instanceOrdinals.get(dbId, -1), humanMask, 0);
+    }
+
+    /**
+     * @param dbId the Event or PhysicalEntity DB id
+     * @param otherDbId the other Event or PhysicalEntity DB id
+     * @return whether a species of either instance is a species or related
+     *   species of the other
+     */
+    public boolean sharesSpecies(long dbId, long otherDbId) {
+        int ordinal = instanceOrdinals.get(dbId, -1);
+        int other = instanceOrdinals.get(otherDbId, -1);
+        if (ordinal < 0 || other < 0) {
+            return false;
+        }
+        return intersects(speciesMasks, ordinal, speciesMasks, other) ||
+               intersects(speciesMasks, ordinal, relatedSpeciesMasks, other) ||
+               intersects(relatedSpeciesMasks, ordinal, speciesMasks, other);
+    }
+
+    /**
+     * The equivalent of {@link QACheckerHelper#getSpeciesAndRelatedSpeciesDbIds(GKInstance)}.
+     *
+     * @param dbId the Event or PhysicalEntity DB id
+     * @return the distinct DB ids of the instance's species and related
+     *   species, in ascending order
+     */
+    public long[] getSpeciesAndRelatedSpeciesDbIds(long dbId) {
+        int ordinal = instanceOrdinals.get(dbId, -1);
+        if (ordinal < 0) {
+            return new long[0];
+        }
+        long[] found = new long[speciesDbIds.length];
+        int count = 0;
+        for (int species = 0; species < speciesDbIds.length; species++) {
+            if (isSet(speciesMasks, ordinal, species) || isSet(relatedSpeciesMasks, ordinal, species)) {
+                found[count++] = speciesDbIds[species];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return the number of species
+     */
+    public int size() {
+        return speciesDbIds.length;
+    }
+
+    private boolean isSet(long[] masks, int ordinal, int species) {
+        return (masks[ordinal * words + (species >>> 6)] & 1L << species) != 0;
+    }
+
+    private boolean intersects(long[] masks, int ordinal, long[] otherMasks, int other) {
+        if (ordinal < 0) {
+            return false;
+        }
+        for (int i = 0; i < words; i++) {
+            if ((masks[ordinal * words + i] & otherMasks[other * words + i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(MySQLAdaptor dba) throws Exception {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+            logger.info("Loading the species of " + databaseKey + "...");
+            long start = System.currentTimeMillis();
+            List<Long> dbIds = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            String speciesSql = "SELECT DB_ID, _displayName FROM DatabaseObject WHERE _class IN (" +
+                    QACheckerHelper.getSubclassNames(ReactomeJavaConstants.Species, dba.fetchSchema()) +
+                    ") ORDER BY DB_ID";
+            List<long[]> attributePairs = Arrays.asList(new long[1024], new long[1024]);
+            int[] counts = new int[2];
+            List<String> selects = new ArrayList<>();
+            selects.addAll(getSelects(dba, ReactomeJavaConstants.species, SPECIES));
+            selects.addAll(getSelects(dba, ReactomeJavaConstants.relatedSpecies, RELATED_SPECIES));
+            try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+                StreamingQuery.forEachRow(lease, speciesSql, rs -> {
+                    dbIds.add(rs.getLong(1));
+                    names.add(rs.getString(2));
+                });
+                if (!selects.isEmpty()) {
+                    StreamingQuery.forEachRow(lease, String.join(" UNION ALL ", selects), rs -> {
+                        int attribute = rs.getInt(3);
+                        int pair = counts[attribute]++;
+                        long[] pairs = attributePairs.get(attribute);
+                        if (2 * pair == pairs.length) {
+                            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                            attributePairs.set(attribute, pairs);
+                        }
+                        pairs[2 * pair] = rs.getLong(1);
+                        pairs[2 * pair + 1] = rs.getLong(2);
+                    });
+                }
+            }
+            for (int attribute = 0; attribute < counts.length; attribute++) {
+                attributePairs.set(attribute, Arrays.copyOf(attributePairs.get(attribute), 2 * counts[attribute]));
+            }
+            index(dbIds.stream().mapToLong(Long::longValue).toArray(), names.toArray(new String[0]), attributePairs);
+            isLoaded = true;
+            logger.info("Loaded " + speciesDbIds.length + " species of " + instanceOrdinals.size() +
+                        " instances in " + (System.currentTimeMillis() - start) / 1000 + " seconds.");
+        }
+    }
+
+    /**
+     * @return the (instance, species, attribute number) query of each
+     *   Event and PhysicalEntity table which holds the attribute
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> getSelects(MySQLAdaptor dba, String attributeName, int attribute) {
+        List<String> selects = new ArrayList<>();
+        for (SchemaClass cls : (Collection<SchemaClass>) dba.getSchema().getClasses()) {
+            if (!cls.isa(ReactomeJavaConstants.Event) && !cls.isa(ReactomeJavaConstants.PhysicalEntity) ||
+                !cls.isValidAttribute(attributeName)) {
+                continue;
+            }
+            for (SchemaAttribute att : (Collection<SchemaAttribute>) cls.getAttributes()) {
+                // Only the defining class has a column for the attribute.
+                if (att.getOrigin() != cls || !att.getName().equals(attributeName)) {
+                    continue;
+                }
+                if (att.isMultiple()) {
+                    selects.add("SELECT DB_ID, " + attributeName + ", " + attribute +
+                                " FROM " + cls.getName() + "_2_" + attributeName);
+                }
+                else {
+                    selects.add("SELECT DB_ID, " + attributeName + ", " + attribute +
+                                " FROM " + cls.getName() +
+                                " WHERE " + attributeName + " IS NOT NULL");
+                }
+            }
+        }
+        return selects;
+    }
+
+    private void index(long[] speciesDbIds, String[] speciesNames, List<long[]> attributePairs) {
+        this.speciesDbIds = speciesDbIds;
+        this.speciesNames = speciesNames;
+        speciesOrdinals = new LongIntMap(speciesDbIds.length);
+        for (int i = 0; i < speciesDbIds.length; i++) {
+            speciesOrdinals.put(speciesDbIds[i], i);
+        }
+        words = Math.max(1, (speciesDbIds.length + 63) >>> 6);
+        humanMask = new long[words];
+        for (int i = 0; i < speciesDbIds.length; i++) {
+            if (HUMAN.equals(speciesNames[i])) {
+                humanMask[i >>> 6] |= 1L << i;
+            }
+        }
+        instanceOrdinals = new LongIntMap();
+        for (long[] pairs : attributePairs) {
+            for (int i = 0; i < pairs.length; i += 2) {
+                instanceOrdinals.putIfAbsent(pairs[i], instanceOrdinals.size());
+            }
+        }
+        speciesMasks = new long[instanceOrdinals.size() * words];
+        relatedSpeciesMasks = new long[instanceOrdinals.size() * words];
+        for (int attribute = 0; attribute < attributePairs.size(); attribute++) {
+            long[] masks = attribute == SPECIES ? speciesMasks : relatedSpeciesMasks;
+            long[] pairs = attributePairs.get(attribute);
+            for (int i = 0; i < pairs.length; i += 2) {
+                int species = speciesOrdinals.get(pairs[i + 1], -1);
+                if (species < 0) {
+                    continue; // A dangling reference.
+                }
+                masks[instanceOrdinals.get(pairs[i], -1) * words + (species >>> 6)] |= 1L << species;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.reactome.release.qa.common;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Runs forward-only, read-only SQL queries which hand each row to a
+ * handler as it arrives, rather than first loading the whole result set
+ * into the heap.
+ *
+ * Connector/J streams the rows of a statement with fetch size
+ * {@link Integer#MIN_VALUE}. While a result set is streamed, no other
+ * statement can be run on the same connection. Rows are therefore only
+ * streamed on a pooled connection, which the adaptor does not use to
+ * load instances. On the adaptor's own connection the query falls back
+ * to the default buffered result set.
+ */
+public class StreamingQuery {
+
+    private static final Logger logger = Logger.getLogger(StreamingQuery.class);
+
+    /** The Connector/J row-by-row streaming fetch size. */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * Handles one result set row.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rs the result set positioned at the current row
+         * @throws Exception
+         */
+        void handle(ResultSet rs) throws Exception;
+    }
+
+    /**
+     * Runs the given query and calls the handler for each row. The
+     * statement and result set are closed before this method returns,
+     * even if the handler throws.
+     *
+     * @param lease the connection to query
+     * @param sql the query
+     * @param handler the row handler
+     * @throws Exception if the query or the handler fails
+     */
+    public static void forEachRow(ConnectionLease lease, String sql, RowHandler handler) throws Exception {
+        try (PreparedStatement ps = prepare(lease, sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                handler.handle(rs);
+            }
+        }
+    }
+
+    /**
+     * Prepares a forward-only, read-only statement which streams its rows
+     * if the leased connection is not shared with the adaptor.
+     *
+     * @param lease the connection to query
+     * @param sql the query
+     * @return the prepared statement, which the caller closes
+     * @throws SQLException
+     */
+    public static PreparedStatement prepare(ConnectionLease lease, String sql) throws SQLException {
+        PreparedStatement ps = lease.getConnection().prepareStatement(sql,
+                                                                      ResultSet.TYPE_FORWARD_ONLY,
+                                                                      ResultSet.CONCUR_READ_ONLY);
+        if (lease.isShared()) {
+            logger.debug("Rows are not streamed on the shared adaptor connection: " + sql);
+        } else {
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+        }
+        return ps;
+    }
+
+}
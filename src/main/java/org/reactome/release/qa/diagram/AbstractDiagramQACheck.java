@@ -1,13 +1,21 @@
 package org.reactome.release.qa.diagram;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.gk.pathwaylayout.DiagramGeneratorFromDB;
 import org.gk.pathwaylayout.PathwayDiagramXMLGenerator;
+import org.gk.render.Renderable;
+import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.diagram.DiagramPipeline.DiagramAnalyzer;
+import org.reactome.release.qa.diagram.DiagramPipeline.DiagramReporter;
 
 public abstract class AbstractDiagramQACheck extends AbstractQACheck {
 
@@ -28,16 +36,104 @@ public abstract class AbstractDiagramQACheck extends AbstractQACheck {
     }
 
     /**
-     * @return all PathwayDiagram instances with pre-loaded representedPathway attribute
+     * The represented pathway attributes which the diagram checks filter on.
+     */
+    protected static final String[] PATHWAY_ATTS = {
+            ReactomeJavaConstants.species,
+            ReactomeJavaConstants.normalPathway
+    };
+
+    /**
+     * @return all PathwayDiagram instances with pre-loaded representedPathway
+     *      attribute, whose pathways have pre-loaded species and normalPathway
      * @throws Exception
      */
     protected Collection<GKInstance> getPathwayDiagrams() throws Exception {
         @SuppressWarnings("unchecked")
         Collection<GKInstance> pathwayDiagrams = dba.fetchInstancesByClass(ReactomeJavaConstants.PathwayDiagram);
         dba.loadInstanceAttributeValues(pathwayDiagrams, new String[]{ReactomeJavaConstants.representedPathway});
+        Set<GKInstance> pathways = new HashSet<GKInstance>();
+        for (GKInstance diagram : pathwayDiagrams) {
+            @SuppressWarnings("unchecked")
+            List<GKInstance> represented = diagram.getAttributeValuesList(ReactomeJavaConstants.representedPathway);
+            pathways.addAll(represented);
+        }
+        if (!pathways.isEmpty()) {
+            dba.loadInstanceAttributeValues(pathways, PATHWAY_ATTS);
+        }
         
         return pathwayDiagrams;
     }
+
+    /**
+     * Fetches the instances drawn in the given diagrams in bulk, so that
+     * a check does not fetch them one component at a time.
+     *
+     * @param diagrams the PathwayDiagram instances
+     * @param filter selects the components whose instances are fetched
+     * @param attributes the attributes to load with the instances
+     * @return the hydrator which holds the drawn instances
+     * @throws Exception
+     */
+    protected InstanceHydrator prefetchDrawnInstances(Collection<GKInstance> diagrams,
+                                                      Predicate<? super Renderable> filter,
+                                                      String... attributes) throws Exception {
+        InstanceHydrator hydrator = new InstanceHydrator(dba, attributes);
+        DiagramRepository repository = DiagramRepository.getRepository(dba);
+        for (GKInstance diagram : diagrams) {
+            addDrawnDbIds(repository.getDiagram(diagram), filter, hydrator);
+        }
+        hydrator.hydrate();
+        return hydrator;
+    }
+
+    /**
+     * Adds the DB ids drawn by the selected components of the given diagram.
+     *
+     * @param pathway the parsed diagram
+     * @param filter selects the components
+     * @param hydrator the hydrator which fetches the instances
+     */
+    static void addDrawnDbIds(RenderablePathway pathway, Predicate<? super Renderable> filter, InstanceHydrator hydrator) {
+        if (pathway == null) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Renderable> components = pathway.getComponents();
+        if (components == null) {
+            return;
+        }
+        for (Renderable component : components) {
+            if (component.getReactomeId() != null && filter.test(component)) {
+                hydrator.add(component.getReactomeId());
+            }
+        }
+    }
+    
+    /**
+     * @param diagram the PathwayDiagram instance
+     * @return the parsed diagram, which is shared by the diagram checks
+     *      of the run and must not be modified
+     * @throws Exception
+     */
+    protected RenderablePathway openDiagram(GKInstance diagram) throws Exception {
+        return DiagramRepository.getRepository(dba).getDiagram(diagram);
+    }
+    
+    /**
+     * Analyzes the given diagrams in parallel with the {@link DiagramPipeline}
+     * and then reports the results on this thread in diagram DB id order.
+     *
+     * @param diagrams the PathwayDiagram instances to check
+     * @param analyzer the diagram analysis, which must not use the database
+     * @param reporter the reporting of each analysis result
+     * @throws Exception
+     */
+    protected <R> void checkPathwayDiagrams(Collection<GKInstance> diagrams,
+                                            DiagramAnalyzer<R> analyzer,
+                                            DiagramReporter<R> reporter) throws Exception {
+        DiagramPipeline.run(DiagramRepository.getRepository(dba), diagrams, analyzer, reporter);
+    }
     
     protected String getPathwayDiagramXML(GKInstance diagram) throws Exception {
         GKInstance pathway = (GKInstance) diagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
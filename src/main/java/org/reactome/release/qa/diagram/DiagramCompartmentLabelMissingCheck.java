@@ -5,11 +5,11 @@ import java.util.Collection;
 import java.util.List;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Renderable;
 import org.gk.render.RenderableCompartment;
 import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.annotations.DiagramQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -24,7 +24,6 @@ import static org.reactome.util.general.CollectionUtils.safeList;
 @DiagramQACheck
 public class DiagramCompartmentLabelMissingCheck extends AbstractDiagramQACheck {
 
-    
     private static final List<String> HEADERS = Arrays.asList(
             "PathwayDiagram_DBID",
             "Pathway_DisplayName",
@@ -33,6 +32,9 @@ public class DiagramCompartmentLabelMissingCheck extends AbstractDiagramQACheck
             "Compartment_DisplayName",
             "MostRecentAuthor");
 
+    /** The instances drawn in the diagrams, which are fetched in bulk. */
+    private InstanceHydrator drawnInstances;
+
     @Override
     public String getDisplayName() {
         return "Diagram_Compartment_Label_Missing";
@@ -42,18 +44,19 @@ public class DiagramCompartmentLabelMissingCheck extends AbstractDiagramQACheck
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
+        drawnInstances = prefetchDrawnInstances(pathwayDiagrams,
+                                                component -> component instanceof RenderableCompartment);
         for (GKInstance pd: pathwayDiagrams) {
-            checkPathwayDiagram(pd, reader, report);
+            checkPathwayDiagram(pd, report);
         }
         report.setColumnHeaders(HEADERS);
 
         return report;
     }
     
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader, QAReport report)
+    private void checkPathwayDiagram(GKInstance diagram, QAReport report)
             throws Exception {
-        RenderablePathway pathway = reader.openDiagram(diagram);
+        RenderablePathway pathway = openDiagram(diagram);
         @SuppressWarnings("unchecked")
         List<Renderable> cmpnts = safeList(pathway.getComponents());
         GKInstance pathwayInst =
@@ -65,7 +68,7 @@ public class DiagramCompartmentLabelMissingCheck extends AbstractDiagramQACheck
                 if (dbId == null) {
                     continue;
                 }
-                GKInstance cmpntInst = dba.fetchInstance(dbId);
+                GKInstance cmpntInst = drawnInstances.get(dbId);
                 if (cmpntInst == null) {
                     // This is a serious issue
                     String mod = QACheckerHelper.getLastModificationAuthor(diagram);
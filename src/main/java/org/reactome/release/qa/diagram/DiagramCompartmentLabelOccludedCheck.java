@@ -1,26 +1,21 @@
 package org.reactome.release.qa.diagram;
 
-import java.awt.FontMetrics;
-import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.geom.Rectangle2D;
-import java.awt.image.BufferedImage;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
-import org.gk.graphEditor.PathwayEditor;
+import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.pathwaylayout.PathwayDiagramGeneratorViaAT;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Renderable;
 import org.gk.render.RenderableCompartment;
 import org.gk.render.RenderablePathway;
 import org.gk.render.RenderableReaction;
 import org.reactome.release.qa.annotations.DiagramQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckProperties;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
@@ -73,6 +68,15 @@ public class DiagramCompartmentLabelOccludedCheck extends AbstractDiagramQACheck
 
     private final static Integer TOLERANCE_TOP = QACheckProperties.getInteger(TOLERANCE_TOP_PROP);
 
+    /**
+     * The distance of the compartment renderer's inner rectangle from the
+     * compartment bounds, inside which it places a label without a stored
+     * text position.
+     */
+    private static final int LABEL_INSET = 10;
+
+    private final static Logger logger = Logger.getLogger(DiagramCompartmentLabelOccludedCheck.class);
+
     private static final List<String> HEADERS = Arrays.asList(
             "PathwayDiagram_DBID",
             "Pathway_DisplayName",
@@ -92,27 +96,46 @@ public class DiagramCompartmentLabelOccludedCheck extends AbstractDiagramQACheck
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
+        // The occlusions are found first, so that the compartment and
+        // overlapping instances are fetched together.
+        InstanceHydrator drawnInstances = new InstanceHydrator(dba);
+        List<Occlusion> occlusions = new ArrayList<Occlusion>();
         for (GKInstance pd: pathwayDiagrams) {
-            checkPathwayDiagram(pd, reader, report);
+            findOcclusions(pd, occlusions, drawnInstances);
+        }
+        drawnInstances.hydrate();
+        for (Occlusion occlusion : occlusions) {
+            reportOcclusion(occlusion, drawnInstances, report);
         }
         report.setColumnHeaders(HEADERS);
 
         return report;
     }
+
+    /**
+     * A diagram compartment node whose label is occluded by another node.
+     */
+    private static class Occlusion {
+        final GKInstance diagram;
+        final Renderable compartment;
+        final Renderable overlapping;
+
+        Occlusion(GKInstance diagram, Renderable compartment, Renderable overlapping) {
+            this.diagram = diagram;
+            this.compartment = compartment;
+            this.overlapping = overlapping;
+        }
+    }
     
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader, QAReport report)
+    private void findOcclusions(GKInstance diagram, List<Occlusion> occlusions, InstanceHydrator drawnInstances)
             throws Exception {
-        PathwayEditor pathwayEditor = new PathwayEditor();
-        RenderablePathway pathway = reader.openDiagram(diagram);
-        pathwayEditor.setRenderable(pathway);
-        PathwayDiagramGeneratorViaAT helper = new PathwayDiagramGeneratorViaAT();
-        BufferedImage img = helper.paintOnImage(pathwayEditor);
-        Graphics g = img.createGraphics();
+        // The labels are measured without painting, so the shared diagram
+        // is not modified.
+        RenderablePathway pathway = openDiagram(diagram);
         @SuppressWarnings("unchecked")
         List<Renderable> componentNodes = safeList(pathway.getComponents());
-        GKInstance pathwayInst =
-                (GKInstance) diagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
+        // The number of labels without a stored text position.
+        int defaultLabelCount = 0;
         // Check for a non-empty, non-occluded label.
         for (Renderable componentNode: componentNodes) {
             if (!(componentNode instanceof RenderableCompartment)) {
@@ -122,57 +145,80 @@ public class DiagramCompartmentLabelOccludedCheck extends AbstractDiagramQACheck
             if (dbId == null) {
                 continue;
             }
-            GKInstance compartmentInst = dba.fetchInstance(dbId);
-            if (isEscaped(compartmentInst)) {
-                continue;
-            }
             if (componentNode.getDisplayName() == null) {
                 // This is covered by another check.
                 continue;
             }
-            Renderable overlappingNode = findTextOcclusion(diagram, g, componentNode, componentNodes);
+            if (componentNode.getTextBounds() == null) {
+                defaultLabelCount++;
+            }
+            Renderable overlappingNode = findTextOcclusion(componentNode, componentNodes);
             if (overlappingNode != null) {
-                String mod = QACheckerHelper.getLastModificationAuthor(diagram);
-                long overlappingDbId = overlappingNode.getReactomeId();
-                GKInstance overlappingInst = dba.fetchInstance(overlappingNode.getReactomeId());
-                String overlappingDisplayNm = overlappingInst.getDisplayName();
-                String componentDisplayNm = compartmentInst.getDisplayName();
-                long compartmentDbId = compartmentInst.getDBID();
-                if (overlappingDbId == compartmentDbId) {
-                    overlappingDisplayNm += " (node id " + overlappingNode.getID() + ")";
-                    componentDisplayNm += " (node id " + componentNode.getID() + ")";
-                }
-                report.addLine(diagram.getDBID().toString(),
-                        pathwayInst.getDisplayName(),
-                        pathwayInst.getDBID().toString(),
-                        Long.toString(compartmentDbId),
-                        componentDisplayNm,
-                        Long.toString(overlappingDbId),
-                        overlappingDisplayNm,
-                        mod);
+                occlusions.add(new Occlusion(diagram, componentNode, overlappingNode));
+                drawnInstances.add(dbId);
+                drawnInstances.add(overlappingNode.getReactomeId());
             }
         }
+        if (defaultLabelCount > 0) {
+            logger.debug("Placed " + defaultLabelCount + " compartment labels at the default position in diagram " +
+                         diagram.getDBID() + ".");
+        }
+    }
+
+    private void reportOcclusion(Occlusion occlusion, InstanceHydrator drawnInstances, QAReport report)
+            throws Exception {
+        GKInstance compartmentInst = drawnInstances.get(occlusion.compartment.getReactomeId());
+        GKInstance overlappingInst = drawnInstances.get(occlusion.overlapping.getReactomeId());
+        if (compartmentInst == null || overlappingInst == null || isEscaped(compartmentInst)) {
+            return;
+        }
+        GKInstance diagram = occlusion.diagram;
+        GKInstance pathwayInst =
+                (GKInstance) diagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
+        String mod = QACheckerHelper.getLastModificationAuthor(diagram);
+        long overlappingDbId = overlappingInst.getDBID();
+        String overlappingDisplayNm = overlappingInst.getDisplayName();
+        String componentDisplayNm = compartmentInst.getDisplayName();
+        long compartmentDbId = compartmentInst.getDBID();
+        if (overlappingDbId == compartmentDbId) {
+            overlappingDisplayNm += " (node id " + occlusion.overlapping.getID() + ")";
+            componentDisplayNm += " (node id " + occlusion.compartment.getID() + ")";
+        }
+        report.addLine(diagram.getDBID().toString(),
+                pathwayInst.getDisplayName(),
+                pathwayInst.getDBID().toString(),
+                Long.toString(compartmentDbId),
+                componentDisplayNm,
+                Long.toString(overlappingDbId),
+                overlappingDisplayNm,
+                mod);
     }
     
     /**
-     * @param diagram 
-     * @param g 
      * @param compartment the diagram compartment to check
      * @param components all of the diagram components
      * @return a component that occludes the compartment label,
      *      or null if none
      * @throws Exception 
      */
-    private Renderable findTextOcclusion(GKInstance diagram, Graphics g, Renderable compartment,
-            List<Renderable> components) throws Exception {
+    private Renderable findTextOcclusion(Renderable compartment, List<Renderable> components) throws Exception {
         String label = compartment.getDisplayName();
-        FontMetrics fm = g.getFontMetrics();
-        Rectangle2D layoutBnds = fm.getStringBounds(label, g);
+        // The label is measured in the font of a fresh image graphics.
+        Rectangle2D layoutBnds = TextMetrics.getStringBounds(label);
+        Rectangle compartmentBnds = compartment.getBounds();
         Rectangle textBnds = compartment.getTextBounds();
         int width = (int)layoutBnds.getWidth();
         int height = (int)layoutBnds.getHeight();
-        Rectangle labelBnds = new Rectangle(textBnds.x, textBnds.y, width, height);
-        Rectangle compartmentBnds = compartment.getBounds();
+        Rectangle labelBnds;
+        if (textBnds == null) {
+            // Without a stored text position, the label is placed as the
+            // renderer places it, inside the compartment's inner rectangle.
+            labelBnds = new Rectangle(compartmentBnds.x + LABEL_INSET, compartmentBnds.y + LABEL_INSET,
+                                      width, height);
+        }
+        else {
+            labelBnds = new Rectangle(textBnds.x, textBnds.y, width, height);
+        }
         if (!compartmentBnds.contains(labelBnds)) {
             // Since the reconsituted speculative label bounds does not fit within
             // the compartment, the label text must be wrapped. Without reconstructing
@@ -5,11 +5,11 @@ import java.util.List;
 
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.DefaultRenderConstants;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.annotations.DiagramQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -24,6 +24,9 @@ import org.reactome.release.qa.common.QAReport;
 @DiagramQACheck
 public class DiagramDiseaseColorCheck extends AbstractDiagramQACheck {
 
+    /** The instances drawn in the diagrams, which are fetched in bulk. */
+    private InstanceHydrator drawnInstances;
+
     public DiagramDiseaseColorCheck() {
     }
 
@@ -31,9 +34,11 @@ public class DiagramDiseaseColorCheck extends AbstractDiagramQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
+        drawnInstances = prefetchDrawnInstances(pathwayDiagrams,
+                                                component -> true,
+                                                ReactomeJavaConstants.disease);
         for (GKInstance diagram : pathwayDiagrams) {
-            checkPathwayDiagram(diagram, reader, report);
+            checkPathwayDiagram(diagram, report);
         }
         report.setColumnHeaders("PathwayDiagram_DBID",
                                 "Pathway_DisplayName",
@@ -44,8 +49,8 @@ public class DiagramDiseaseColorCheck extends AbstractDiagramQACheck {
         return report;
     }
 
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader, QAReport report) throws Exception {
-        RenderablePathway pathway = reader.openDiagram(diagram);
+    private void checkPathwayDiagram(GKInstance diagram, QAReport report) throws Exception {
+        RenderablePathway pathway = openDiagram(diagram);
         List<Renderable> components = pathway.getComponents();
         if (components == null || components.size() == 0)
             return;
@@ -88,7 +93,7 @@ public class DiagramDiseaseColorCheck extends AbstractDiagramQACheck {
         if (component.getReactomeId() == null)
             return true;
 
-        GKInstance instance = dba.fetchInstance(component.getReactomeId());
+        GKInstance instance = drawnInstances.get(component.getReactomeId());
         if (instance == null)
             return true;
 
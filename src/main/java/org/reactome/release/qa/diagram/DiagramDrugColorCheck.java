@@ -6,8 +6,7 @@ import java.util.Collection;
 import java.util.List;
 
 import org.gk.model.GKInstance;
-import org.gk.model.InstanceUtilities;
-import org.gk.persistence.DiagramGKBReader;
+import org.gk.model.ReactomeJavaConstants;
 import org.gk.render.DefaultRenderConstants;
 import org.gk.render.Node;
 import org.gk.render.Renderable;
@@ -17,9 +16,16 @@ import org.gk.render.RenderableEntitySet;
 import org.gk.render.RenderablePathway;
 import org.gk.render.RenderableProteinDrug;
 import org.gk.render.RenderableRNADrug;
+import org.gk.schema.Schema;
 import org.reactome.release.qa.annotations.DiagramQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.ConnectionPool;
+import org.reactome.release.qa.common.EntityCompositionIndex;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.common.LongHashSet;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.StreamingQuery;
 
 /**
  * QA check to flag any oddities in drug coloring.
@@ -27,6 +33,21 @@ import org.reactome.release.qa.common.QAReport;
 @DiagramQACheck
 public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
 
+    private static final List<Class<? extends Node>> CLASSES_TO_CHECK = Arrays.asList(RenderableEntitySet.class,
+                                                                                      RenderableComplex.class,
+                                                                                      RenderableChemicalDrug.class,
+                                                                                      RenderableProteinDrug.class,
+                                                                                      RenderableRNADrug.class);
+
+    /** The instances drawn in the diagrams, which are fetched in bulk. */
+    private InstanceHydrator drawnInstances;
+
+    /** The DB ids of the drugs. */
+    private LongHashSet drugDbIds;
+
+    /** The entities contained in each entity, which are fetched in bulk. */
+    private EntityCompositionIndex composition;
+
     public DiagramDrugColorCheck() {
     }
 
@@ -34,9 +55,12 @@ public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
+        drawnInstances = prefetchDrawnInstances(pathwayDiagrams,
+                                                component -> CLASSES_TO_CHECK.contains(component.getClass()));
+        drugDbIds = loadDrugDbIds();
+        composition = EntityCompositionIndex.getIndex(dba);
         for (GKInstance diagram : pathwayDiagrams) {
-            checkPathwayDiagram(diagram, reader, report);
+            checkPathwayDiagram(diagram, report);
         }
         report.setColumnHeaders("PathwayDiagram_DBID",
                                 "Pathway_DisplayName",
@@ -47,8 +71,8 @@ public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
         return report;
     }
 
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader, QAReport report) throws Exception {
-        RenderablePathway pathway = reader.openDiagram(diagram);
+    private void checkPathwayDiagram(GKInstance diagram, QAReport report) throws Exception {
+        RenderablePathway pathway = openDiagram(diagram);
         String modDate = QACheckerHelper.getLastModificationAuthor(diagram);
         List<Renderable> components = pathway.getComponents();
         if (components == null || components.size() == 0)
@@ -56,13 +80,8 @@ public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
         // For all rendered components.
         for (Renderable component : components) {
             // Check correctness of drug background.
-            List<Class<? extends Node>> classesToCheck = Arrays.asList(RenderableEntitySet.class,
-                                                                       RenderableComplex.class,
-                                                                       RenderableChemicalDrug.class,
-                                                                       RenderableProteinDrug.class,
-                                                                       RenderableRNADrug.class);
             Class<Renderable> cls = (Class<Renderable>) component.getClass();
-            if (classesToCheck.contains(cls) && !hasCorrectColors(component)) {
+            if (CLASSES_TO_CHECK.contains(cls) && !hasCorrectColors(component)) {
                 // Add line to report.
                 report.addLine(diagram.getDBID().toString(),
                                pathway.getDisplayName(),
@@ -85,12 +104,12 @@ public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
      * @throws Exception
      */
     private boolean hasCorrectColors(Renderable component) throws Exception {
-        GKInstance instance = dba.fetchInstance(component.getReactomeId());
+        GKInstance instance = drawnInstances.get(component.getReactomeId());
         if (component.getReactomeId() == null || instance == null)
             return true;
 
         // Drug color check.
-        if (!InstanceUtilities.hasDrug(instance))
+        if (!hasDrug(instance.getDBID()))
             return true;
 
         // Drug background and foreground check.
@@ -107,4 +126,39 @@ public class DiagramDrugColorCheck extends AbstractDiagramQACheck {
         return correctBackground && correctForeground;
     }
 
+    /**
+     * The equivalent of {@link org.gk.model.InstanceUtilities#hasDrug(GKInstance)}
+     * which answers from the drug DB ids and the composition index rather
+     * than loading the contained entities one at a time.
+     *
+     * @param dbId the entity DB id
+     * @return whether the entity is or contains a drug
+     */
+    private boolean hasDrug(long dbId) {
+        if (drugDbIds.contains(dbId))
+            return true;
+        for (long containedDbId : composition.getContainedDbIds(dbId)) {
+            if (drugDbIds.contains(containedDbId))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the DB ids of the drugs, which are empty if the schema
+     *   predates the drug class
+     */
+    private LongHashSet loadDrugDbIds() throws Exception {
+        LongHashSet dbIds = new LongHashSet();
+        Schema schema = dba.getSchema();
+        if (!schema.isValidClass(ReactomeJavaConstants.Drug))
+            return dbIds;
+        String query = "SELECT DB_ID FROM DatabaseObject WHERE _class IN (" +
+                QACheckerHelper.getSubclassNames(ReactomeJavaConstants.Drug, schema) + ")";
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            StreamingQuery.forEachRow(lease, query, rs -> dbIds.add(rs.getLong(1)));
+        }
+        return dbIds;
+    }
+
 }
@@ -1,15 +1,17 @@
 package org.reactome.release.qa.diagram;
 
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Node;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
@@ -34,10 +36,10 @@ public class DiagramDuplicateReactionParticipantsCheck extends AbstractDiagramQA
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
-        for (GKInstance diagram : pathwayDiagrams) {
-            checkPathwayDiagram(diagram, reader, report);
-        }
+        // The participants are checked in parallel and reported in diagram order.
+        checkPathwayDiagrams(pathwayDiagrams,
+                this::findDuplicates,
+                (diagram, duplicates) -> reportDuplicates(diagram, duplicates, report));
         report.setColumnHeaders("PathwayDiagram_DBID",
                 "Pathway_DisplayName",
                 "Pathway_DBID",
@@ -50,35 +52,53 @@ public class DiagramDuplicateReactionParticipantsCheck extends AbstractDiagramQA
         return report;
     }
 
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader,
-            QAReport report) throws Exception {
-        RenderablePathway pathway = reader.openDiagram(diagram);
+    /**
+     * @param pathway the parsed diagram
+     * @return the {reaction, duplicate participants} pairs, or null if
+     *      the diagram has no components
+     */
+    private List<Map.Entry<RenderableReaction, Set<Renderable>>> findDuplicates(RenderablePathway pathway) {
         @SuppressWarnings("unchecked")
         List<Renderable> components = safeList((List<Renderable>) pathway.getComponents());
         if (components.isEmpty()) {
-            logger.info(diagram + " has no components");
+            return null;
         }
+        List<Map.Entry<RenderableReaction, Set<Renderable>>> duplicates = new ArrayList<>();
         for (Renderable component: components) {
             if (component instanceof RenderableReaction) {
                 RenderableReaction reaction = (RenderableReaction) component;
                 List<Node> inputs = reaction.getInputNodes();
-                checkForDuplicates(diagram, reaction, inputs, report);
+                addDuplicates(reaction, inputs, duplicates);
                 List<Node> outputs = reaction.getOutputNodes();
-                checkForDuplicates(diagram, reaction, outputs, report);
+                addDuplicates(reaction, outputs, duplicates);
             }
         }
+        return duplicates;
     }
 
-    private void checkForDuplicates(GKInstance diagram, RenderableReaction reaction,
-            List<Node> nodes, QAReport report) throws Exception {
+    private void addDuplicates(RenderableReaction reaction, List<Node> nodes,
+            List<Map.Entry<RenderableReaction, Set<Renderable>>> duplicates) {
         Set<Renderable> unique = new HashSet<Renderable>();
         Set<Renderable> dups = nodes.stream()
                 .filter(node -> !unique.add(node))
                 .collect(Collectors.toSet());
         if (!dups.isEmpty()) {
+            duplicates.add(new SimpleEntry<>(reaction, dups));
+        }
+    }
+
+    private void reportDuplicates(GKInstance diagram,
+            List<Map.Entry<RenderableReaction, Set<Renderable>>> duplicates,
+            QAReport report) throws Exception {
+        if (duplicates == null) {
+            logger.info(diagram + " has no components");
+            return;
+        }
+        for (Map.Entry<RenderableReaction, Set<Renderable>> entry: duplicates) {
+            RenderableReaction reaction = entry.getKey();
             GKInstance pathway =
                     (GKInstance) diagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
-            for (Renderable dup: dups) {
+            for (Renderable dup: entry.getValue()) {
                 report.addLine(diagram.getDBID().toString(),
                         pathway.getDisplayName(),
                         pathway.getDBID().toString(),
@@ -6,7 +6,6 @@ import java.util.List;
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.annotations.DiagramQACheck;
@@ -31,10 +30,9 @@ public class DiagramEmptyCheck extends AbstractDiagramQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
         for (GKInstance diagram : pathwayDiagrams) {
             if (isHuman(diagram)) {
-                checkPathwayDiagram(diagram, reader, report);
+                checkPathwayDiagram(diagram, report);
             }
         }
         report.setColumnHeaders("PathwayDiagram_DBID",
@@ -44,11 +42,9 @@ public class DiagramEmptyCheck extends AbstractDiagramQACheck {
         return report;
     }
 
-    private void checkPathwayDiagram(GKInstance pathwayDiagram,
-            DiagramGKBReader reader,
-            QAReport report) throws Exception {
+    private void checkPathwayDiagram(GKInstance pathwayDiagram, QAReport report) throws Exception {
 //        logger.info("Checking " + pathwayDiagram.getDisplayName() + "...");
-        RenderablePathway pathway = reader.openDiagram(pathwayDiagram);
+        RenderablePathway pathway = openDiagram(pathwayDiagram);
         @SuppressWarnings("unchecked")
         List<Renderable> components = pathway.getComponents();
         if (components == null || components.size() == 0) {
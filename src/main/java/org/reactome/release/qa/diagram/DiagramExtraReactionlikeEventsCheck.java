@@ -3,18 +3,20 @@ package org.reactome.release.qa.diagram;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.gk.model.GKInstance;
-import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
 import org.gk.render.RenderableReaction;
 import org.reactome.release.qa.annotations.DiagramQACheck;
+import org.reactome.release.qa.common.EventHierarchyIndex;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -52,27 +54,47 @@ public class DiagramExtraReactionlikeEventsCheck extends AbstractDiagramQACheck
         for (GKInstance pd: pathwayDiagrams) {
             diagrammed.add((GKInstance) pd.getAttributeValue(ReactomeJavaConstants.representedPathway));
         }
-        DiagramGKBReader reader = new DiagramGKBReader();
+        // The extra RLEs of every diagram are fetched in bulk before reporting.
+        Map<GKInstance, Set<Long>> extraIds = new LinkedHashMap<GKInstance, Set<Long>>();
+        InstanceHydrator extraRles = new InstanceHydrator(dba);
         for (GKInstance diagram : pathwayDiagrams) {
             // All diagrams will be checked, including diagrams for non-human pathways
-            checkPathwayDiagram(diagram, reader, report);
+            Set<Long> drawnIds = checkPathwayDiagram(diagram);
+            if (!drawnIds.isEmpty()) {
+                extraIds.put(diagram, drawnIds);
+                extraRles.addAll(drawnIds);
+            }
+        }
+        extraRles.hydrate();
+        for (Map.Entry<GKInstance, Set<Long>> entry : extraIds.entrySet()) {
+            reportPathwayDiagram(entry.getKey(), entry.getValue(), extraRles, report);
         }
         report.setColumnHeaders(HEADERS);
         return report;
     }
     
-    private void checkPathwayDiagram(GKInstance diagram, 
-                                     DiagramGKBReader reader, 
-                                     QAReport report) throws Exception {
-        RenderablePathway pathway = reader.openDiagram(diagram);
+    /**
+     * @return the DB ids of the RLEs which are drawn in the diagram
+     *      but should not be
+     */
+    private Set<Long> checkPathwayDiagram(GKInstance diagram) throws Exception {
+        RenderablePathway pathway = openDiagram(diagram);
         List<GKInstance> pathwayInsts = diagram.getAttributeValuesList(ReactomeJavaConstants.representedPathway);
         Set<Long> drawnIds = getRenderableReactionDbIds(pathway);
         checkPathwayDiagram(pathwayInsts, drawnIds);
+        return drawnIds;
+    }
+    
+    private void reportPathwayDiagram(GKInstance diagram,
+                                      Set<Long> drawnIds,
+                                      InstanceHydrator extraRles,
+                                      QAReport report) throws Exception {
+        List<GKInstance> pathwayInsts = diagram.getAttributeValuesList(ReactomeJavaConstants.representedPathway);
         String modDate = QACheckerHelper.getLastModificationAuthor(diagram);
         for (Long dbId: drawnIds) {
             GKInstance pathwayInst = pathwayInsts.get(0);
             System.out.println("Reporting for RLE with dbId of " + dbId);
-            GKInstance rle = dba.fetchInstance(dbId);
+            GKInstance rle = extraRles.get(dbId);
             report.addLine(diagram.getDBID().toString(),
                            pathwayInst.getDisplayName(),
                            pathwayInst.getDBID().toString(),
@@ -84,25 +106,27 @@ public class DiagramExtraReactionlikeEventsCheck extends AbstractDiagramQACheck
     
     private void checkPathwayDiagram(List<GKInstance> pathways,
                                      Set<Long> dbIds) throws Exception {
-        Set<GKInstance> containedEvents = new HashSet<>();
-        for (GKInstance pathway : pathways) {
-            Set<GKInstance> tmp = InstanceUtilities.getContainedEvents(pathway);
-            containedEvents.addAll(tmp);
+        EventHierarchyIndex index = EventHierarchyIndex.getIndex(dba);
+        long[] pathwayDbIds = pathways.stream().mapToLong(GKInstance::getDBID).toArray();
+        Set<Long> containedEvents = new HashSet<>();
+        for (long dbId : index.getContainedEvents(pathwayDbIds).toDbIds()) {
+            containedEvents.add(dbId);
+        }
+        for (long dbId : pathwayDbIds) {
+            containedEvents.add(dbId);
         }
-        containedEvents.addAll(pathways);
         // Check pathways that are not drawn as ProcessNodes. We expect all its reactions will be drawn
-        for (GKInstance event : containedEvents) {
-            if (!event.getSchemClass().isa(ReactomeJavaConstants.Pathway))
+        for (Long event : containedEvents) {
+            if (!index.isPathway(event))
                 continue;
-            if (dbIds.contains(event.getDBID())) {
-                dbIds.remove(event.getDBID()); // Drawn as ProcessNode
+            if (dbIds.contains(event)) {
+                dbIds.remove(event); // Drawn as ProcessNode
             }
             else {
                 // Remove all first level RLEs
-                List<GKInstance> hasEvents = event.getAttributeValuesList(ReactomeJavaConstants.hasEvent);
-                for (GKInstance hasEvent : hasEvents) {
-                    if (hasEvent.getSchemClass().isa(ReactomeJavaConstants.ReactionlikeEvent))
-                        dbIds.remove(hasEvent.getDBID());
+                for (long hasEvent : index.getChildDbIds(event)) {
+                    if (index.isReactionlikeEvent(hasEvent))
+                        dbIds.remove(hasEvent);
                 }
             }
         }
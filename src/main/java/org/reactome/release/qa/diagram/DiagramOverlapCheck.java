@@ -10,7 +10,6 @@ import java.util.stream.Collectors;
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.common.QACheckerHelper;
@@ -50,10 +49,16 @@ public abstract class DiagramOverlapCheck extends AbstractDiagramQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
+        List<GKInstance> checked = new ArrayList<GKInstance>();
         for (GKInstance diagram : pathwayDiagrams) {
-            checkPathwayDiagram(diagram, reader, report);
+            if (isChecked(diagram)) {
+                checked.add(diagram);
+            }
         }
+        // The overlaps are computed in parallel and reported in diagram order.
+        checkPathwayDiagrams(checked,
+                this::findOverlaps,
+                (diagram, overlaps) -> reportOverlaps(diagram, overlaps, report));
         report.setColumnHeaders("PathwayDiagram_DBID",
                 "Pathway_DisplayName",
                 "Pathway_DBID",
@@ -67,8 +72,7 @@ public abstract class DiagramOverlapCheck extends AbstractDiagramQACheck {
 
     abstract protected Rectangle getBounds(Renderable renderable);
 
-    private void checkPathwayDiagram(GKInstance pathwayDiagram, DiagramGKBReader reader, QAReport report)
-            throws Exception {
+    private boolean isChecked(GKInstance pathwayDiagram) throws Exception {
         // Skip disease pathways.
         @SuppressWarnings("unchecked")
         List<GKInstance> pathwayInsts = (List<GKInstance>)
@@ -77,71 +81,80 @@ public abstract class DiagramOverlapCheck extends AbstractDiagramQACheck {
             GKInstance normal =
                     (GKInstance) pathwayInst.getAttributeValue(ReactomeJavaConstants.normalPathway);
             if (normal != null || isEscaped(pathwayDiagram)) {
-                return;
+                return false;
             }
         }
-        // Not a disease pathway; take the first pathway as representative.
-        GKInstance pathwayInst = pathwayInsts.get(0);
         logger.info("Checking " + pathwayDiagram.getDisplayName() + "...");
-        RenderablePathway pathway = reader.openDiagram(pathwayDiagram);
+        return true;
+    }
+
+    /**
+     * @param pathway the parsed diagram
+     * @return the overlapping components, where each group starts with
+     *      a component followed by the later components which overlap it
+     */
+    private List<List<Renderable>> findOverlaps(RenderablePathway pathway) {
         @SuppressWarnings("unchecked")
         List<Renderable> components = safeList(pathway.getComponents());
         List<Renderable> filtered = components.stream()
                 .filter(filter)
                 .collect(Collectors.toList());
+        List<List<Renderable>> groups = new ArrayList<List<Renderable>>();
+        if (filtered.size() < 2) {
+            return groups;
+        }
         
-        // Check for overlaps.
-        List<Renderable> overlaps = new ArrayList<Renderable>();
+        // Each component's bounds are computed once for the overlap index.
+        List<Rectangle> bounds = filtered.stream()
+                .map(this::getBounds)
+                .collect(Collectors.toList());
+        int[][] overlapIndexes = OverlapIndex.findOverlaps(bounds, tolerance);
         for (int i = 0; i < filtered.size() - 1; i++) {
+            if (overlapIndexes[i].length == 0) {
+                continue;
+            }
             Renderable renderable = filtered.get(i);
-            overlaps.clear();
-            for (int j = i + 1; j < filtered.size(); j++) {
+            List<Renderable> overlaps = new ArrayList<Renderable>();
+            overlaps.add(renderable);
+            for (int j : overlapIndexes[i]) {
                 Renderable other = filtered.get(j);
-                if (isOverlapping(renderable, other)) {
-                    overlaps.add(other);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Overlapping: " + renderable.getDisplayName() + " (" + renderable.getID() + ") and " +
+                                 other.getDisplayName() + " (" + other.getID() + ").");
                 }
+                overlaps.add(other);
             }
-            if (!overlaps.isEmpty()) {
-                overlaps.add(0, renderable);
-                String overlapIds = overlaps.stream()
-                        .map(Renderable::getReactomeId)
-                        .map(dbId -> dbId == null ? "unknown" :  dbId.toString())
-                        .collect(Collectors.joining("|"));
-                String overlapDisplayNames = overlaps.stream()
-                        .map(Renderable::getDisplayName)
-                        .collect(Collectors.joining("|"));
-                GKInstance created = (GKInstance) pathwayDiagram.getAttributeValue("created");
-                GKInstance modified = QACheckerHelper.getLastModification(pathwayDiagram);
-                report.addLine(pathwayDiagram.getDBID().toString(),
-                        pathwayInst.getDisplayName(),
-                        pathwayInst.getDBID().toString(),
-                        overlapIds,
-                        overlapDisplayNames,
-                        created.getDisplayName(),
-                        modified.getDisplayName());
-            }
+            groups.add(overlaps);
         }
+        return groups;
     }
 
-    private boolean isOverlapping(Renderable renderable, Renderable other) {
-        logger.debug("isOverlapping: " + renderable.getDisplayName() + " (" + renderable.getID() + ") and " +
-                                         other.getDisplayName() + " (" + other.getID() + ").");
-        Rectangle bounds = getBounds(renderable);
-        Rectangle otherBounds = getBounds(other);
-    
-        if (bounds.intersects(otherBounds)) {
-            if (tolerance == null) {
-                return true;
-            }
-            Rectangle intersection = bounds.intersection(otherBounds);
-            double intArea = intersection.getHeight() * intersection.getWidth();
-            double area = bounds.getHeight() * bounds.getWidth();
-            double otherArea = otherBounds.getHeight() * otherBounds.getWidth();
-            double toleratedArea = Math.min(area, otherArea) * tolerance;
-            return intArea > toleratedArea;
+    private void reportOverlaps(GKInstance pathwayDiagram, List<List<Renderable>> groups, QAReport report)
+            throws Exception {
+        if (groups.isEmpty()) {
+            return;
+        }
+        // Not a disease pathway; take the first pathway as representative.
+        GKInstance pathwayInst =
+                (GKInstance) pathwayDiagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
+        for (List<Renderable> overlaps : groups) {
+            String overlapIds = overlaps.stream()
+                    .map(Renderable::getReactomeId)
+                    .map(dbId -> dbId == null ? "unknown" :  dbId.toString())
+                    .collect(Collectors.joining("|"));
+            String overlapDisplayNames = overlaps.stream()
+                    .map(Renderable::getDisplayName)
+                    .collect(Collectors.joining("|"));
+            GKInstance created = (GKInstance) pathwayDiagram.getAttributeValue("created");
+            GKInstance modified = QACheckerHelper.getLastModification(pathwayDiagram);
+            report.addLine(pathwayDiagram.getDBID().toString(),
+                    pathwayInst.getDisplayName(),
+                    pathwayInst.getDBID().toString(),
+                    overlapIds,
+                    overlapDisplayNames,
+                    created.getDisplayName(),
+                    modified.getDisplayName());
         }
-        
-        return false;
     }
 
 }
\ No newline at end of file
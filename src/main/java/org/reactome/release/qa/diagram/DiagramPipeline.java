@@ -0,0 +1,154 @@
+package org.reactome.release.qa.diagram;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+
+import org.gk.model.GKInstance;
+import org.gk.persistence.DiagramGKBReader;
+import org.gk.render.RenderablePathway;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.StreamingQuery;
+
+/**
+ * Parses and checks pathway diagrams in parallel.
+ *
+ * The diagrams are independent of one another, so the work is spread
+ * over a work-stealing pool with one worker per core:
+ * <ol>
+ * <li>{@link #parse(ConnectionLease, String)} streams the stored XML
+ *     rows on the calling thread and parses each row on the pool.</li>
+ * <li>{@link #run(DiagramRepository, Collection, DiagramAnalyzer, DiagramReporter)}
+ *     analyzes the parsed diagrams on the pool and then hands the
+ *     results to the reporter on the calling thread in diagram DB id
+ *     order, so the report does not depend on the scheduling.</li>
+ * </ol>
+ * Only the analysis runs on the pool. It sees the parsed diagram alone,
+ * since neither the adaptor nor its instances are thread-safe. Everything
+ * which needs the database is done by the reporter.
+ */
+public class DiagramPipeline {
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /** Bounds the XML held in memory while it waits to be parsed. */
+    private static final int MAX_PENDING_PARSES = 4 * PARALLELISM;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    private static final ThreadLocal<DiagramGKBReader> READER = ThreadLocal.withInitial(DiagramGKBReader::new);
+
+    /**
+     * Computes a check result from a parsed diagram. The analyzer runs on
+     * a pool thread, so it must not use the database and must not modify
+     * the diagram, which is shared.
+     *
+     * @param <R> the result type
+     */
+    @FunctionalInterface
+    public interface DiagramAnalyzer<R> {
+        /**
+         * @param pathway the parsed diagram
+         * @return the result, or null if there is nothing to report
+         * @throws Exception
+         */
+        R analyze(RenderablePathway pathway) throws Exception;
+    }
+
+    /**
+     * Reports an analyzer result on the thread which runs the check.
+     *
+     * @param <R> the result type
+     */
+    @FunctionalInterface
+    public interface DiagramReporter<R> {
+        /**
+         * @param diagram the <code>PathwayDiagram</code> instance
+         * @param result the analyzer result, which can be null
+         * @throws Exception
+         */
+        void report(GKInstance diagram, R result) throws Exception;
+    }
+
+    /**
+     * Analyzes the given diagrams in parallel and reports the results in
+     * diagram DB id order.
+     *
+     * @param repository the repository of the parsed diagrams
+     * @param diagrams the <code>PathwayDiagram</code> instances to check
+     * @param analyzer the parallel diagram analysis
+     * @param reporter the sequential reporting of each analysis result
+     * @throws Exception if the analyzer or the reporter throws
+     */
+    public static <R> void run(DiagramRepository repository,
+                               Collection<GKInstance> diagrams,
+                               DiagramAnalyzer<R> analyzer,
+                               DiagramReporter<R> reporter) throws Exception {
+        List<GKInstance> sorted = new ArrayList<>(diagrams);
+        sorted.sort(Comparator.comparing(GKInstance::getDBID));
+        // The diagrams are looked up first, since the lookup may need the database.
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(sorted.size());
+        for (GKInstance diagram : sorted) {
+            RenderablePathway pathway = repository.getDiagram(diagram);
+            tasks.add(POOL.submit(() -> analyzer.analyze(pathway)));
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            reporter.report(sorted.get(i), join(tasks.get(i)));
+        }
+    }
+
+    /**
+     * Streams the given diagram XML query and parses the rows in parallel.
+     *
+     * @param lease the connection to query
+     * @param sql the query, which selects the diagram DB id and stored XML
+     * @return the {diagram DB id: parsed diagram} map
+     * @throws Exception if the query or a parse fails
+     */
+    static Map<Long, RenderablePathway> parse(ConnectionLease lease, String sql) throws Exception {
+        Map<Long, RenderablePathway> parsed = new ConcurrentHashMap<>();
+        Semaphore pending = new Semaphore(MAX_PENDING_PARSES);
+        List<ForkJoinTask<RenderablePathway>> tasks = new ArrayList<>();
+        StreamingQuery.forEachRow(lease, sql, rs -> {
+            Long dbId = rs.getLong(1);
+            String xml = rs.getString(2);
+            if (xml.isEmpty()) {
+                return;
+            }
+            pending.acquire();
+            tasks.add(POOL.submit(() -> {
+                try {
+                    RenderablePathway pathway = READER.get().openDiagram(xml);
+                    pathway.setReactomeDiagramId(dbId);
+                    return parsed.put(dbId, pathway);
+                } finally {
+                    pending.release();
+                }
+            }));
+        });
+        for (ForkJoinTask<RenderablePathway> task : tasks) {
+            join(task);
+        }
+        return parsed;
+    }
+
+    private static <R> R join(ForkJoinTask<R> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.render.ReactionType;
 import org.gk.render.Renderable;
 import org.gk.render.RenderablePathway;
@@ -58,10 +57,10 @@ public class DiagramReactionBranchCheck extends AbstractDiagramQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
         Collection<GKInstance> pathwayDiagrams = getPathwayDiagrams();
-        DiagramGKBReader reader = new DiagramGKBReader();
-        for (GKInstance diagram : pathwayDiagrams) {
-            checkPathwayDiagram(diagram, reader, report);
-        }
+        // The reactions are checked in parallel and reported in diagram order.
+        checkPathwayDiagrams(pathwayDiagrams,
+                this::findOverlappingReactions,
+                (diagram, rxns) -> reportOverlappingReactions(diagram, rxns, report));
         report.setColumnHeaders("PathwayDiagram_DBID",
                 "Pathway_DisplayName",
                 "Pathway_DBID",
@@ -73,33 +72,43 @@ public class DiagramReactionBranchCheck extends AbstractDiagramQACheck {
         return report;
     }
 
-    private void checkPathwayDiagram(GKInstance pathwayDiagram, DiagramGKBReader reader, QAReport report)
-            throws Exception {
-        logger.debug("Checking " + pathwayDiagram.getDisplayName() + "...");
-        RenderablePathway pathway = reader.openDiagram(pathwayDiagram);
+    /**
+     * @param pathway the parsed diagram
+     * @return the reactions with a participant overlapping a hub, or
+     *      null if the diagram has no components
+     */
+    private List<RenderableReaction> findOverlappingReactions(RenderablePathway pathway) {
         @SuppressWarnings("unchecked")
         List<Renderable> components = pathway.getComponents();
-        if (components != null) {
-            List<RenderableReaction> rxns = components.stream()
-                    .filter(cmpnt -> cmpnt instanceof RenderableReaction)
-                    .map(renderable -> (RenderableReaction) renderable)
-                    .collect(Collectors.toList());
-            GKInstance pathwayInst = (GKInstance)
-                    pathwayDiagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
-            GKInstance created = (GKInstance) pathwayDiagram.getAttributeValue("created");
-            GKInstance modified = QACheckerHelper.getLastModification(pathwayDiagram);
-            for (RenderableReaction rxn : rxns) {
-                // Report the overlaps.
-                if (isOverlapping(rxn)) {
-                    report.addLine(pathwayDiagram.getDBID().toString(),
-                            pathwayInst.getDisplayName(),
-                            pathwayInst.getDBID().toString(),
-                            rxn.getReactomeId().toString(),
-                            rxn.getDisplayName(),
-                            created.getDisplayName(),
-                            modified.getDisplayName());
-                }
-            }
+        if (components == null) {
+            return null;
+        }
+        return components.stream()
+                .filter(cmpnt -> cmpnt instanceof RenderableReaction)
+                .map(renderable -> (RenderableReaction) renderable)
+                .filter(this::isOverlapping)
+                .collect(Collectors.toList());
+    }
+
+    private void reportOverlappingReactions(GKInstance pathwayDiagram, List<RenderableReaction> rxns, QAReport report)
+            throws Exception {
+        if (rxns == null || rxns.isEmpty()) {
+            return;
+        }
+        logger.debug("Reporting " + pathwayDiagram.getDisplayName() + "...");
+        GKInstance pathwayInst = (GKInstance)
+                pathwayDiagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
+        GKInstance created = (GKInstance) pathwayDiagram.getAttributeValue("created");
+        GKInstance modified = QACheckerHelper.getLastModification(pathwayDiagram);
+        // Report the overlaps.
+        for (RenderableReaction rxn : rxns) {
+            report.addLine(pathwayDiagram.getDBID().toString(),
+                    pathwayInst.getDisplayName(),
+                    pathwayInst.getDBID().toString(),
+                    rxn.getReactomeId().toString(),
+                    rxn.getDisplayName(),
+                    created.getDisplayName(),
+                    modified.getDisplayName());
         }
     }
 
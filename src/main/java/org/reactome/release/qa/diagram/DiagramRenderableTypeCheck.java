@@ -1,12 +1,12 @@
 package org.reactome.release.qa.diagram;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
-import org.gk.persistence.DiagramGKBReader;
 import org.gk.property.SearchDBTypeHelper;
 import org.gk.render.Node;
 import org.gk.render.ProcessNode;
@@ -15,6 +15,7 @@ import org.gk.render.RenderableCompartment;
 import org.gk.render.RenderablePathway;
 import org.reactome.release.qa.annotations.DiagramQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -29,6 +30,9 @@ import org.reactome.release.qa.common.QAReport;
 public class DiagramRenderableTypeCheck extends AbstractQACheck {
 
     private final static Logger logger = Logger.getLogger(DiagramRenderableTypeCheck.class);
+
+    /** The instances drawn in the diagrams, which are fetched in bulk. */
+    private InstanceHydrator drawnInstances;
     
     public DiagramRenderableTypeCheck() {
     }
@@ -39,13 +43,23 @@ public class DiagramRenderableTypeCheck extends AbstractQACheck {
         @SuppressWarnings("unchecked")
         Collection<GKInstance> pathwayDiagrams = dba.fetchInstancesByClass(ReactomeJavaConstants.PathwayDiagram);
         dba.loadInstanceAttributeValues(pathwayDiagrams, new String[]{ReactomeJavaConstants.representedPathway});
-        DiagramGKBReader reader = new DiagramGKBReader();
-        SearchDBTypeHelper typeHelper = new SearchDBTypeHelper();
+        List<GKInstance> checked = new ArrayList<GKInstance>();
         for (GKInstance diagram : pathwayDiagrams) {
             if (!isEscaped(diagram) && isSomePathwayHuman(diagram)) {
-                checkPathwayDiagram(diagram, reader, typeHelper, report);
+                checked.add(diagram);
             }
         }
+        // Fetch the drawn entities in bulk rather than one node at a time.
+        DiagramRepository repository = DiagramRepository.getRepository(dba);
+        drawnInstances = new InstanceHydrator(dba);
+        for (GKInstance diagram : checked) {
+            AbstractDiagramQACheck.addDrawnDbIds(repository.getDiagram(diagram), Node.class::isInstance, drawnInstances);
+        }
+        drawnInstances.hydrate();
+        SearchDBTypeHelper typeHelper = new SearchDBTypeHelper();
+        for (GKInstance diagram : checked) {
+            checkPathwayDiagram(diagram, typeHelper, report);
+        }
         report.setColumnHeaders("PathwayDiagram_DBID",
                 "Pathway_DisplayName",
                 "Pathway_DBID",
@@ -80,15 +94,14 @@ public class DiagramRenderableTypeCheck extends AbstractQACheck {
         return false;
     }
     
-    private void checkPathwayDiagram(GKInstance diagram, DiagramGKBReader reader,
-            SearchDBTypeHelper typeHelper, QAReport report) throws Exception {
+    private void checkPathwayDiagram(GKInstance diagram, SearchDBTypeHelper typeHelper, QAReport report) throws Exception {
         logger.debug("Checking " + diagram.getDisplayName() + "...");
         if (isEscaped(diagram)) {
             logger.info("Pathway diagram is on the skip list: " + diagram.getDisplayName());
             return;
         }
         GKInstance pathwayInst = (GKInstance) diagram.getAttributeValue(ReactomeJavaConstants.representedPathway);
-        RenderablePathway pathway = reader.openDiagram(diagram);
+        RenderablePathway pathway = DiagramRepository.getRepository(dba).getDiagram(diagram);
         @SuppressWarnings("unchecked")
         List<Renderable> components = pathway.getComponents();
         if (components == null || components.size() == 0)
@@ -99,7 +112,7 @@ public class DiagramRenderableTypeCheck extends AbstractQACheck {
             Long dbId = r.getReactomeId();
             if (dbId == null)
                 continue;
-            GKInstance dbInst = dba.fetchInstance(dbId);
+            GKInstance dbInst = drawnInstances.get(dbId);
             if (dbInst == null) {
                 // TODO - when could this occur? Should there be a skip list?
                 logger.warn("Diagram references DB id not found in database: " + dbId);
@@ -0,0 +1,131 @@
+package org.reactome.release.qa.diagram;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.persistence.DiagramGKBReader;
+import org.gk.persistence.MySQLAdaptor;
+import org.gk.render.RenderablePathway;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.ConnectionPool;
+
+/**
+ * The run-wide store of parsed pathway diagrams.
+ *
+ * The stored XML of every <code>PathwayDiagram</code> is streamed and
+ * parsed once by the {@link DiagramPipeline}, when a diagram check first
+ * asks for a diagram, and the parsed {@link RenderablePathway} models
+ * are then shared by every diagram check of the run. The models are
+ * keyed by the
+ * <code>PathwayDiagram</code> DB id, so each check still works with the
+ * <code>PathwayDiagram</code> instances of its own adaptor.
+ *
+ * The shared models are read-only once they are parsed, and the
+ * diagram checks may read them concurrently, e.g. in the
+ * {@link DiagramPipeline}. A check must not call a renderable setter,
+ * change a component or connection list, or change the
+ * <code>Rectangle</code> or <code>Point</code> returned by e.g.
+ * <code>getBounds()</code>, <code>getTextBounds()</code> or
+ * <code>getPosition()</code> in place, but copies it into a new
+ * <code>Rectangle</code> to adjust it. A check which renders a diagram,
+ * and thereby recomputes its bounds, opens its own copy with a
+ * {@link DiagramGKBReader} instead.
+ */
+public class DiagramRepository {
+
+    private static final Logger logger = Logger.getLogger(DiagramRepository.class);
+
+    private static final String DIAGRAM_SQL =
+            "SELECT DB_ID, storedATXML FROM PathwayDiagram WHERE storedATXML IS NOT NULL";
+
+    /** The {database key: repository} map. */
+    private static final Map<String, DiagramRepository> REPOSITORIES = new ConcurrentHashMap<>();
+
+    /**
+     * Visits one pathway diagram. Several visitors can be applied to
+     * each diagram in a single pass with
+     * {@link DiagramRepository#forEach(Collection, DiagramVisitor...)}.
+     */
+    @FunctionalInterface
+    public interface DiagramVisitor {
+        /**
+         * @param diagram the <code>PathwayDiagram</code> instance
+         * @param pathway the shared parsed diagram, which must not be modified
+         * @throws Exception
+         */
+        void visit(GKInstance diagram, RenderablePathway pathway) throws Exception;
+    }
+
+    private final String databaseKey;
+
+    /** The {PathwayDiagram DB id: parsed diagram} map. */
+    private Map<Long, RenderablePathway> diagrams;
+
+    private DiagramRepository(String databaseKey) {
+        this.databaseKey = databaseKey;
+    }
+
+    /**
+     * @param dba the database adaptor
+     * @return the repository for the adaptor's database
+     */
+    public static DiagramRepository getRepository(MySQLAdaptor dba) {
+        return REPOSITORIES.computeIfAbsent(ConnectionPool.getDatabaseKey(dba), DiagramRepository::new);
+    }
+
+    /**
+     * Returns the parsed diagram, loading the repository with the
+     * diagram's adaptor if necessary.
+     *
+     * @param diagram the <code>PathwayDiagram</code> instance
+     * @return the shared parsed diagram
+     * @throws Exception
+     */
+    public RenderablePathway getDiagram(GKInstance diagram) throws Exception {
+        load((MySQLAdaptor) diagram.getDbAdaptor());
+        RenderablePathway pathway = diagrams.get(diagram.getDBID());
+        if (pathway == null) {
+            // Not stored when the repository was loaded: open it
+            // the same way as the reader does on its own.
+            pathway = new DiagramGKBReader().openDiagram(diagram);
+        }
+        return pathway;
+    }
+
+    /**
+     * Applies each of the given visitors to each of the given diagrams.
+     * Each diagram is looked up once for all of the visitors.
+     *
+     * @param diagrams the <code>PathwayDiagram</code> instances
+     * @param visitors the diagram visitors
+     * @throws Exception if a visitor throws
+     */
+    public void forEach(Collection<GKInstance> diagrams, DiagramVisitor... visitors) throws Exception {
+        for (GKInstance diagram : diagrams) {
+            RenderablePathway pathway = getDiagram(diagram);
+            for (DiagramVisitor visitor : visitors) {
+                visitor.visit(diagram, pathway);
+            }
+        }
+    }
+
+    private synchronized void load(MySQLAdaptor dba) throws Exception {
+        if (diagrams != null) {
+            return;
+        }
+        logger.info("Loading the pathway diagrams of " + databaseKey + "...");
+        long start = System.currentTimeMillis();
+        Map<Long, RenderablePathway> loaded;
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            // The rows are streamed here and parsed in parallel.
+            loaded = DiagramPipeline.parse(lease, DIAGRAM_SQL);
+        }
+        diagrams = loaded;
+        logger.info("Loaded " + diagrams.size() + " pathway diagrams in " +
+                    (System.currentTimeMillis() - start) / 1000 + " seconds.");
+    }
+
+}
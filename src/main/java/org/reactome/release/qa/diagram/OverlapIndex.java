@@ -0,0 +1,115 @@
+package org.reactome.release.qa.diagram;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the overlapping pairs of a set of rectangles by sweep and prune.
+ *
+ * The rectangles are swept in order of their left edge, keeping the
+ * rectangles whose horizontal extent still reaches the sweep position.
+ * Only those rectangles are candidates for an overlap, and a candidate
+ * pair is only tested with {@link #isOverlapping(Rectangle, Rectangle, Double)}
+ * if the vertical extents intersect as well. The result is the same as
+ * testing every pair, but sparse diagrams need far fewer tests.
+ */
+public class OverlapIndex {
+
+    private OverlapIndex() {
+    }
+
+    /**
+     * Finds the overlapping rectangles.
+     *
+     * @param bounds the rectangles
+     * @param tolerance the fraction of the smaller rectangle's area which
+     *      two rectangles may share without overlapping, or null if any
+     *      intersection is an overlap
+     * @return the array whose element <code>i</code> holds the ascending
+     *      indexes <code>j &gt; i</code> of the rectangles which overlap
+     *      rectangle <code>i</code>
+     */
+    public static int[][] findOverlaps(List<Rectangle> bounds, Double tolerance) {
+        int size = bounds.size();
+        List<List<Integer>> found = new ArrayList<List<Integer>>(size);
+        List<Integer> swept = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            found.add(null);
+            Rectangle rect = bounds.get(i);
+            // An empty rectangle does not intersect anything.
+            if (rect.width > 0 && rect.height > 0) {
+                swept.add(i);
+            }
+        }
+        swept.sort(Comparator.comparingInt(i -> bounds.get(i).x));
+        // The rectangles whose right edge is beyond the sweep position.
+        List<Integer> active = new ArrayList<Integer>();
+        for (Integer i : swept) {
+            Rectangle rect = bounds.get(i);
+            active.removeIf(j -> right(bounds.get(j)) <= rect.x);
+            for (Integer j : active) {
+                Rectangle other = bounds.get(j);
+                if (rect.y < bottom(other) && other.y < bottom(rect)) {
+                    int first = Math.min(i, j);
+                    int second = Math.max(i, j);
+                    if (isOverlapping(bounds.get(first), bounds.get(second), tolerance)) {
+                        if (found.get(first) == null) {
+                            found.set(first, new ArrayList<Integer>());
+                        }
+                        found.get(first).add(second);
+                    }
+                }
+            }
+            active.add(i);
+        }
+        int[][] overlaps = new int[size][];
+        for (int i = 0; i < size; i++) {
+            List<Integer> others = found.get(i);
+            overlaps[i] = others == null ? new int[0] : others.stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(overlaps[i]);
+        }
+        return overlaps;
+    }
+
+    /**
+     * @param bounds the rectangle
+     * @param otherBounds the other rectangle
+     * @param tolerance the fraction of the smaller rectangle's area which
+     *      the rectangles may share without overlapping, or null if any
+     *      intersection is an overlap
+     * @return whether the rectangles overlap
+     */
+    public static boolean isOverlapping(Rectangle bounds, Rectangle otherBounds, Double tolerance) {
+        if (bounds.intersects(otherBounds)) {
+            if (tolerance == null) {
+                return true;
+            }
+            Rectangle intersection = bounds.intersection(otherBounds);
+            double intArea = intersection.getHeight() * intersection.getWidth();
+            double area = bounds.getHeight() * bounds.getWidth();
+            double otherArea = otherBounds.getHeight() * otherBounds.getWidth();
+            double toleratedArea = Math.min(area, otherArea) * tolerance;
+            return intArea > toleratedArea;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the right edge, which cannot overflow
+     */
+    private static long right(Rectangle rect) {
+        return (long) rect.x + rect.width;
+    }
+
+    /**
+     * @return the bottom edge, which cannot overflow
+     */
+    private static long bottom(Rectangle rect) {
+        return (long) rect.y + rect.height;
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.reactome.release.qa.diagram;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.Rectangle2D;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures diagram text without painting anything.
+ *
+ * The measurements are those of {@link java.awt.FontMetrics#getStringBounds(String, java.awt.Graphics)}
+ * for a fresh image <code>Graphics</code>, i.e. the default font with an
+ * identity transform and neither anti-aliasing nor fractional metrics.
+ * They are computed from the font alone, so no AWT graphics state is
+ * shared and the methods can be called from any thread. Each string is
+ * measured once per font.
+ */
+public class TextMetrics {
+
+    /** The font of a fresh image <code>Graphics</code>. */
+    public static final Font DEFAULT_FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+    /** The render context of a fresh image <code>Graphics</code>. */
+    private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, false, false);
+
+    /** The {font: {text: bounds}} cache. */
+    private static final Map<Font, Map<String, Rectangle2D>> BOUNDS = new ConcurrentHashMap<>();
+
+    private TextMetrics() {
+    }
+
+    /**
+     * @param text the text
+     * @return the logical bounds of the text in the default font
+     */
+    public static Rectangle2D getStringBounds(String text) {
+        return getStringBounds(DEFAULT_FONT, text);
+    }
+
+    /**
+     * @param font the font
+     * @param text the text
+     * @return the logical bounds of the text in the given font
+     */
+    public static Rectangle2D getStringBounds(Font font, String text) {
+        Rectangle2D bounds = BOUNDS.computeIfAbsent(font, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(text, key -> font.getStringBounds(key, RENDER_CONTEXT));
+        // The cached bounds are mutable, so hand out a copy.
+        return (Rectangle2D) bounds.clone();
+    }
+
+}
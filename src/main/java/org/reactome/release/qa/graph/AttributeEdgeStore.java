@@ -0,0 +1,234 @@
+package org.reactome.release.qa.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.gk.schema.SchemaAttribute;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.common.StreamingQuery;
+
+/**
+ * The instance-valued attribute edges of a database, read once per
+ * attribute.
+ *
+ * An edge is a (referrer DB id, value DB id) row of an attribute's table,
+ * packed into a single <code>long</code>. DB ids are unsigned 32-bit
+ * integers in the schema, so the packed edges of an attribute sort in
+ * (referrer, value) order and a whole attribute is one sorted primitive
+ * array. Repeated values are kept, so the edges have the multiplicity of
+ * the rows.
+ *
+ * The store is not thread-safe.
+ */
+public class AttributeEdgeStore {
+
+    private static final Logger logger = Logger.getLogger(AttributeEdgeStore.class);
+
+    private static final long MAX_DB_ID = 0xFFFFFFFFL;
+
+    private final ConnectionLease lease;
+
+    /** The {attribute: sorted packed edges} cache. */
+    private final Map<SchemaAttribute, long[]> edges = new HashMap<>();
+
+    /** The {attribute: sorted packed reversed edges} cache. */
+    private final Map<SchemaAttribute, long[]> reversedEdges = new HashMap<>();
+
+    /**
+     * @param lease the connection which reads the attribute tables
+     */
+    public AttributeEdgeStore(ConnectionLease lease) {
+        this.lease = lease;
+    }
+
+    /**
+     * @param source the referrer DB id
+     * @param target the value DB id
+     * @return the packed edge, which sorts by source and then target
+     */
+    public static long pack(long source, long target) {
+        if (source < 0 || source > MAX_DB_ID || target < 0 || target > MAX_DB_ID) {
+            throw new IllegalArgumentException("DB id out of range: " + source + " -> " + target);
+        }
+        // Flipping the sign bit makes the signed order the unsigned order.
+        return ((source << 32) | target) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * @param edge the packed edge
+     * @return the referrer DB id
+     */
+    public static long source(long edge) {
+        return (edge ^ Long.MIN_VALUE) >>> 32;
+    }
+
+    /**
+     * @param edge the packed edge
+     * @return the value DB id
+     */
+    public static long target(long edge) {
+        return (edge ^ Long.MIN_VALUE) & MAX_DB_ID;
+    }
+
+    /**
+     * Returns the edges of the given attribute, reading the attribute's
+     * table on first use.
+     *
+     * @param attribute an instance-valued attribute
+     * @return the sorted packed edges, which must not be modified
+     * @throws Exception if the table could not be read
+     */
+    public long[] getEdges(SchemaAttribute attribute) throws Exception {
+        long[] attributeEdges = edges.get(attribute);
+        if (attributeEdges == null) {
+            attributeEdges = load(attribute);
+            edges.put(attribute, attributeEdges);
+        }
+        return attributeEdges;
+    }
+
+    /**
+     * Returns the edges of the given attribute with the referrer and value
+     * swapped, reversing the attribute's edges on first use.
+     *
+     * @param attribute an instance-valued attribute
+     * @return the sorted packed reversed edges, which must not be modified
+     * @throws Exception if the table could not be read
+     */
+    public long[] getReversedEdges(SchemaAttribute attribute) throws Exception {
+        long[] attributeEdges = reversedEdges.get(attribute);
+        if (attributeEdges == null) {
+            attributeEdges = reverse(getEdges(attribute));
+            reversedEdges.put(attribute, attributeEdges);
+        }
+        return attributeEdges;
+    }
+
+    /**
+     * Finds the edges of the first attribute which are reversed by an edge
+     * of the second attribute, as {@link #findReciprocalEdges(long[], long[])}
+     * does, with each attribute's edges read and reversed once per store.
+     *
+     * @param attribute the first attribute
+     * @param otherAttribute the second attribute
+     * @return the sorted packed edges of the first attribute which are reversed
+     *   by an edge of the second attribute
+     * @throws Exception if a table could not be read
+     */
+    public long[] findReciprocalEdges(SchemaAttribute attribute, SchemaAttribute otherAttribute) throws Exception {
+        return intersect(getEdges(attribute), getReversedEdges(otherAttribute));
+    }
+
+    /**
+     * Finds the edges which are reversed by another edge, as the rows of
+     * <code>SELECT a.DB_ID, a.att1 FROM table1 a, table2 b WHERE a.DB_ID =
+     * b.att2 AND b.DB_ID = a.att1</code>. The sorted edge arrays are merged
+     * in one pass, and an edge which occurs <i>m</i> times with a reverse
+     * edge which occurs <i>n</i> times is found <i>m &times; n</i> times,
+     * like the join rows.
+     *
+     * @param edges the sorted packed edges of the first attribute
+     * @param otherEdges the sorted packed edges of the second attribute
+     * @return the sorted packed edges of the first attribute which are reversed
+     *   by an edge of the second attribute
+     */
+    public static long[] findReciprocalEdges(long[] edges, long[] otherEdges) {
+        return intersect(edges, reverse(otherEdges));
+    }
+
+    /**
+     * @param edges the sorted packed edges
+     * @return the sorted packed edges with the referrer and value swapped
+     */
+    public static long[] reverse(long[] edges) {
+        long[] reversed = new long[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            reversed[i] = pack(target(edges[i]), source(edges[i]));
+        }
+        Arrays.sort(reversed);
+        return reversed;
+    }
+
+    /**
+     * @return the edges which are in both sorted arrays, where an edge which
+     *   occurs <i>m</i> and <i>n</i> times occurs <i>m &times; n</i> times
+     */
+    private static long[] intersect(long[] edges, long[] reversed) {
+        long[] found = new long[16];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < edges.length && j < reversed.length) {
+            if (edges[i] < reversed[j]) {
+                i++;
+            }
+            else if (edges[i] > reversed[j]) {
+                j++;
+            }
+            else {
+                long edge = edges[i];
+                int m = 0;
+                while (i < edges.length && edges[i] == edge) {
+                    i++;
+                    m++;
+                }
+                int n = 0;
+                while (j < reversed.length && reversed[j] == edge) {
+                    j++;
+                    n++;
+                }
+                int matches = m * n;
+                if (count + matches > found.length) {
+                    found = Arrays.copyOf(found, Math.max(found.length * 2, count + matches));
+                }
+                Arrays.fill(found, count, count + matches, edge);
+                count += matches;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @param edges the sorted packed edges
+     * @param dbIds the DB ids to remove
+     * @return the sorted packed edges whose referrer and value are both
+     *   not in the given DB ids, which are the given edges if none is removed
+     */
+    public static long[] removeEdges(long[] edges, LongHashSet dbIds) {
+        if (dbIds.isEmpty()) {
+            return edges;
+        }
+        long[] kept = new long[edges.length];
+        int count = 0;
+        for (long edge : edges) {
+            if (!dbIds.contains(source(edge)) && !dbIds.contains(target(edge))) {
+                kept[count++] = edge;
+            }
+        }
+        return count == edges.length ? edges : Arrays.copyOf(kept, count);
+    }
+
+    private long[] load(SchemaAttribute attribute) throws Exception {
+        String name = attribute.getName();
+        String table = attribute.isMultiple() ?
+                attribute.getOrigin().getName() + "_2_" + name :
+                attribute.getOrigin().getName();
+        String sql = "SELECT DB_ID, " + name + " FROM " + table + " WHERE " + name + " IS NOT NULL";
+        long[][] loaded = {new long[1024]};
+        int[] count = {0};
+        StreamingQuery.forEachRow(lease, sql, rs -> {
+            if (count[0] == loaded[0].length) {
+                loaded[0] = Arrays.copyOf(loaded[0], count[0] * 2);
+            }
+            loaded[0][count[0]++] = pack(rs.getLong(1), rs.getLong(2));
+        });
+        long[] attributeEdges = Arrays.copyOf(loaded[0], count[0]);
+        Arrays.sort(attributeEdges);
+        logger.debug("Loaded " + count[0] + " " + table + "." + name + " edges.");
+        return attributeEdges;
+    }
+
+}
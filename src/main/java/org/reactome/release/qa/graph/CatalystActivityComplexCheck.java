@@ -1,16 +1,17 @@
 package org.reactome.release.qa.graph;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.StreamingQuery;
 
 @GraphQACheck
 /**
@@ -41,20 +42,21 @@ public class CatalystActivityComplexCheck extends AbstractQACheck {
                      "WHERE a.DB_ID = b.DB_ID AND a." + ReactomeJavaConstants.physicalEntity + 
                      " = b." + ReactomeJavaConstants.activeUnit + " AND a." + ReactomeJavaConstants.physicalEntity + 
                      "_class = 'Complex'";
-        Connection conn = dba.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            Long dbId = rs.getLong(1);
-            GKInstance catAct = dba.fetchInstance(dbId);
+        List<Long> dbIds = new ArrayList<>();
+        try (ConnectionLease lease = acquireConnection()) {
+            StreamingQuery.forEachRow(lease, sql, rs -> dbIds.add(rs.getLong(1)));
+        }
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        hydrator.addAll(dbIds);
+        hydrator.hydrate();
+        for (Long dbId : dbIds) {
+            GKInstance catAct = hydrator.get(dbId);
             if (!isEscaped(catAct)) {
                 report.addLine(catAct.getDBID().toString(), 
                         catAct.getDisplayName(), 
                         QACheckerHelper.getLastModificationAuthor(catAct));
             }
         }
-        rs.close();
-        ps.close();
         
         report.setColumnHeaders(HEADERS);
 
@@ -1,8 +1,6 @@
 package org.reactome.release.qa.graph;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -11,8 +9,10 @@ import org.gk.schema.SchemaAttribute;
 import org.gk.schema.SchemaClass;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaSweep;
 
 @GraphQACheck
 public class DatabaseObjectSelfLoopCheck extends AbstractQACheck {
@@ -34,6 +34,9 @@ public class DatabaseObjectSelfLoopCheck extends AbstractQACheck {
         // Build the report. Check each attribute which can take an instance
         // of its defining class as a value.
         QAReport report = new QAReport();
+        // The queries are swept table by table rather than run one by one.
+        SchemaSweep sweep = new SchemaSweep(dba, 1);
+        List<String> probeAttributes = new ArrayList<>();
         for (SchemaClass cls: classes) {
             Collection<SchemaAttribute> attributes = cls.getAttributes();
             for (SchemaAttribute att: attributes) {
@@ -46,23 +49,29 @@ public class DatabaseObjectSelfLoopCheck extends AbstractQACheck {
                                     cls.getName() + "_2_" + attName : cls.getName();
                             String sql = "SELECT DB_ID from " + table +
                                     " WHERE DB_ID = " + attName;
-                            Connection conn = dba.getConnection();
-                            PreparedStatement ps = conn.prepareStatement(sql);
-                            ResultSet rs = ps.executeQuery();
-                            while (rs.next()) {
-                                Long dbId = rs.getLong(1);
-                                GKInstance instance = dba.fetchInstance(dbId);
-                                if (!isEscaped(instance)) {
-                                    addReportLine(report, instance, attName);
-                                }
-                            }
-                            rs.close();
-                            ps.close();
+                            sweep.addProbe(table, sql);
+                            probeAttributes.add(attName);
                         }
                     }
                 }
             }
         }
+        List<List<long[]>> probeRows = sweep.run();
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        for (List<long[]> rows : probeRows) {
+            for (long[] row : rows) {
+                hydrator.add(row[0]);
+            }
+        }
+        hydrator.hydrate();
+        for (int i = 0; i < probeRows.size(); i++) {
+            for (long[] row : probeRows.get(i)) {
+                GKInstance instance = hydrator.get(row[0]);
+                if (!isEscaped(instance)) {
+                    addReportLine(report, instance, probeAttributes.get(i));
+                }
+            }
+        }
         report.setColumnHeaders(HEADERS);
 
         return report;
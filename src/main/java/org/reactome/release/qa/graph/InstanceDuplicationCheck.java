@@ -5,25 +5,33 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
-import org.gk.model.InstanceUtilities;
 import org.gk.schema.GKSchemaClass;
+import org.gk.schema.Schema;
 import org.gk.schema.SchemaAttribute;
+import org.gk.schema.SchemaClass;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.ConnectionPool;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 import org.reactome.release.qa.common.SkipList;
+import org.reactome.release.qa.common.StreamingQuery;
 
 /**
  * This class is used to check if two or more instances in the same class are duplicated.
@@ -31,6 +39,11 @@ import org.reactome.release.qa.common.SkipList;
  * in the schema, and is different from the implementation from graph QA check in some
  * cases (e.g. EntitySet duplication).
  * 
+ * The defining attribute values of each instance are fingerprinted from
+ * bulk attribute table reads by {@link InstanceFingerprints}, with the
+ * configured classes read concurrently, and only the instances which
+ * share a fingerprint are fetched and compared.
+ * 
  * Note: a skip list is supported but not recommended for this check.
  * 
  * @author wug
@@ -39,6 +52,26 @@ import org.reactome.release.qa.common.SkipList;
 public class InstanceDuplicationCheck extends AbstractQACheck {
 
         private static Logger logger = Logger.getLogger(InstanceDuplicationCheck.class);
+
+    /** The maximum number of classes fingerprinted at once. */
+    private static final int MAX_CONCURRENT_CLASSES = 4;
+
+    /** The growable (DB id, value) rows of an attribute. */
+    private static class ValueRows {
+        long[] dbIds = new long[64];
+        long[] values = new long[64];
+        int size;
+
+        void add(long dbId, long value) {
+            if (size == dbIds.length) {
+                dbIds = Arrays.copyOf(dbIds, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            dbIds[size] = dbId;
+            values[size++] = value;
+        }
+    }
+
         private SkipList skipList;
         public InstanceDuplicationCheck() {
     }
@@ -57,9 +90,11 @@ public class InstanceDuplicationCheck extends AbstractQACheck {
         List<String> classes = loadConfiguration();
         if (classes == null || classes.size() == 0)
             return report; // Nothing to be checked
-        for (String cls : classes) {
-            logger.info("Check " + cls + "...");
-            executeQACheck(cls, report);
+        Schema schema = dba.fetchSchema();
+        List<List<long[]>> candidates = findCandidates(classes, schema);
+        for (int i = 0; i < classes.size(); i++) {
+            logger.info("Check " + classes.get(i) + "...");
+            executeQACheck(classes.get(i), candidates.get(i), report);
         }
         report.setColumnHeaders("Class",
                                 "Duplicated_DBIDs",
@@ -68,95 +103,186 @@ public class InstanceDuplicationCheck extends AbstractQACheck {
         
         return report;
     }
-    
+
+    /**
+     * Fingerprints the classes concurrently on pooled connections, or one
+     * after another on the adaptor's connection if there is no pool.
+     *
+     * @return the candidate duplicate DB id groups of each class
+     */
+    private List<List<long[]>> findCandidates(List<String> classes, Schema schema) throws Exception {
+        List<Callable<List<long[]>>> tasks = new ArrayList<>(classes.size());
+        for (String cls : classes) {
+            tasks.add(() -> findCandidates(cls, schema));
+        }
+        return ConnectionPool.runConcurrently(dba, tasks, MAX_CONCURRENT_CLASSES);
+    }
+
+    /**
+     * Fingerprints the defining attribute values of the instances of the
+     * given class and its subclasses. Only SQL is run here, since the
+     * adaptor and its instances are not thread-safe.
+     *
+     * @return the groups of DB ids with the same fingerprint
+     */
+    private List<long[]> findCandidates(String clsName, Schema schema) throws Exception {
+        // The {concrete class: DB ids} of the instances.
+        Map<String, ValueRows> classToDbIds = new TreeMap<>();
+        try (ConnectionLease lease = ConnectionPool.acquire(dba)) {
+            String query = "SELECT DB_ID, _class FROM DatabaseObject" +
+                    " WHERE _class IN (" + QACheckerHelper.getSubclassNames(clsName, schema) + ")";
+            StreamingQuery.forEachRow(lease, query, rs -> {
+                classToDbIds.computeIfAbsent(rs.getString(2), key -> new ValueRows()).add(rs.getLong(1), 0L);
+            });
+            int total = classToDbIds.values().stream().mapToInt(rows -> rows.size).sum();
+            long[] dbIds = new long[total];
+            int count = 0;
+            for (ValueRows rows : classToDbIds.values()) {
+                System.arraycopy(rows.dbIds, 0, dbIds, count, rows.size);
+                count += rows.size;
+            }
+            InstanceFingerprints fingerprints = new InstanceFingerprints(dbIds);
+            for (String instClsName : classToDbIds.keySet()) {
+                // Since the check may be run against subclass, which may have different
+                // defined attributes as the super class, the defined attributes are those
+                // of each instance's class
+                GKSchemaClass instCls = (GKSchemaClass) schema.getClassByName(instClsName);
+                long[] instDbIds = Arrays.copyOf(classToDbIds.get(instClsName).dbIds,
+                                                 classToDbIds.get(instClsName).size);
+                for (SchemaAttribute att : getSortedDefiningAttributes(instCls)) {
+                    ValueRows rows = fetchValueRows(lease, instClsName, att);
+                    fingerprints.addAttribute(att.getName(), instDbIds, rows.dbIds, rows.values, rows.size);
+                }
+            }
+            return fingerprints.findCollisions();
+        }
+    }
+
+    /**
+     * @return the (DB id, value) rows of the given attribute of the
+     *   instances of the given class, where an instance value is its DB id
+     *   and a primitive value is hashed
+     */
+    private ValueRows fetchValueRows(ConnectionLease lease,
+                                     String clsName,
+                                     SchemaAttribute att) throws Exception {
+        // att may be defined in the superclass, so the table is that of its origin
+        String attName = att.getName();
+        String query;
+        if (att.isMultiple()) {
+            query = "SELECT t.DB_ID, t." + attName + " FROM " + att.getOrigin().getName() + "_2_" + attName + " t," +
+                    " DatabaseObject d WHERE d.DB_ID = t.DB_ID AND d._class = '" + clsName + "'";
+        }
+        else {
+            query = "SELECT t.DB_ID, t." + attName + " FROM " + att.getOrigin().getName() + " t," +
+                    " DatabaseObject d WHERE d.DB_ID = t.DB_ID AND d._class = '" + clsName + "'" +
+                    " AND t." + attName + " IS NOT NULL";
+        }
+        ValueRows rows = new ValueRows();
+        boolean isInstance = att.isInstanceTypeAttribute();
+        StreamingQuery.forEachRow(lease, query, rs -> {
+            String value = rs.getString(2);
+            if (value != null) {
+                rows.add(rs.getLong(1), isInstance ? rs.getLong(2) : InstanceFingerprints.hashValue(value));
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Confirms the candidate groups with the actual attribute values and
+     * reports the duplicates.
+     */
     @SuppressWarnings("unchecked")
-    private void executeQACheck(String clsName, QAReport report) throws Exception {
-        GKSchemaClass cls = (GKSchemaClass) dba.fetchSchema().getClassByName(clsName);
+    private void executeQACheck(String clsName, List<long[]> candidates, QAReport report) throws Exception {
+        if (candidates.isEmpty())
+            return;
         // There are three types of defined attributes. In this check, NONE is not considered
         // ANY is treated as ALL. The following statement returns both ALL and ANY.
         // In most of ANY cases, there are only one value (all ANY is used for name in a variety
         // of places). 
         // Note: The following check may miss some duplications if multiple values
         // existing in ANY slot!
-        Collection<SchemaAttribute> definedAttributes = cls.getDefiningAttributes();
-        // Key instances by a string of defined attribute values to simple check
-        Collection<GKInstance> instances = dba.fetchInstancesByClass(cls);
-        dba.loadInstanceAttributeValues(instances, definedAttributes);
-        Map<String, Set<GKInstance>> keyToInsts = new HashMap<>();
-        StringBuilder builder = new StringBuilder();
-        for (GKInstance instance : instances) {
-            if (isEscaped(instance)) {
-                continue;
-            }
-            if (!skipList.containsInstanceDbId(instance.getDBID())) {
-                builder.setLength(0);
-                // Since the check may be run against subclass, which may have different
-                // defined attributes as the super class, we need to get the defined attributes
-                // directly from instance
-                GKSchemaClass instCls = (GKSchemaClass) instance.getSchemClass();
-                Collection<SchemaAttribute> instDefinedAttributes = instCls.getDefiningAttributes();
-
-                List<SchemaAttribute> sorted = instDefinedAttributes.stream()
-                        .sorted((att1, att2) -> att1.getName().compareTo(att2.getName()))
-                        .collect(Collectors.toList());
-                for (SchemaAttribute att : sorted) {
-                    // att may be defined in the superclass and should not be used for query
-                    List<?> values = instance.getAttributeValuesList(att.getName());
-                    generateKeyFromValues(values, att, builder);
-                    builder.append("||");
-                }
-                keyToInsts.compute(builder.toString(), (key, set) -> {
-                    if (set == null)
-                        set = new HashSet<>();
-                    set.add(instance);
-                    return set;
-                });
+        SchemaClass cls = dba.getSchema().getClassByName(clsName);
+        Set<String> attNames = new TreeSet<>(Arrays.asList(InstanceHydrator.EDIT_ATTRIBUTES));
+        for (SchemaClass subclass : (Collection<SchemaClass>) dba.getSchema().getClasses()) {
+            if (subclass.isa(cls)) {
+                for (SchemaAttribute att : (Collection<SchemaAttribute>) ((GKSchemaClass) subclass).getDefiningAttributes())
+                    attNames.add(att.getName());
             }
         }
-        // Check duplication
-        for (Set<GKInstance> duplicates : keyToInsts.values()) {
-            Collection<GKInstance> unescapedDups = new ArrayList<GKInstance>();
-            for (GKInstance duplicate: duplicates) {
-                if (!isEscaped(duplicate)) {
-                    unescapedDups.add(duplicate);
-                }
+        InstanceHydrator hydrator = new InstanceHydrator(dba, attNames.toArray(new String[0]));
+        for (long[] group : candidates) {
+            for (long dbId : group)
+                hydrator.add(dbId);
+        }
+        Map<Long, GKInstance> instances = hydrator.hydrate();
+        for (long[] group : candidates) {
+            // A fingerprint collision is confirmed by the exact key.
+            Map<String, List<GKInstance>> keyToInsts = new LinkedHashMap<>();
+            for (long dbId : group) {
+                GKInstance instance = instances.get(dbId);
+                if (instance == null || isEscaped(instance) || skipList.containsInstanceDbId(dbId))
+                    continue;
+                keyToInsts.computeIfAbsent(generateKey(instance), key -> new ArrayList<>()).add(instance);
+            }
+            for (List<GKInstance> duplicates : keyToInsts.values()) {
+                if (duplicates.size() < 2)
+                    continue;
+                // The group is sorted by db id.
+                String dbIds = duplicates.stream()
+                        .map(inst -> inst.getDBID() + "")
+                        .collect(Collectors.joining("|"));
+                String names = duplicates.stream()
+                        .map(inst -> inst.getDisplayName())
+                        .collect(Collectors.joining("|"));
+                String authors = duplicates.stream()
+                        .map(inst -> QACheckerHelper.getLastModificationAuthor(inst))
+                        .collect(Collectors.joining("|"));
+                report.addLine(clsName, dbIds, names, authors);
             }
-            if (unescapedDups.size() < 2)
-                continue;
-            // Sort dups by db id.
-            List<GKInstance> sortedDups = unescapedDups.stream()
-                    .sorted((inst1, inst2) -> inst1.getDBID().compareTo(inst2.getDBID()))
-                    .collect(Collectors.toList());
-            // Create report
-            String dbIds = sortedDups.stream()
-                    .map(inst -> inst.getDBID() + "")
-                    .collect(Collectors.joining("|"));
-            String names = sortedDups.stream()
-                    .map(inst -> inst.getDisplayName())
-                    .collect(Collectors.joining("|"));
-            String authors = sortedDups.stream()
-                    .map(inst -> QACheckerHelper.getLastModificationAuthor(inst))
-                    .collect(Collectors.joining("|"));
-            report.addLine(clsName, dbIds, names, authors);
         }
     }
-    
+
+    /**
+     * @return the key of the defining attribute values of the instance,
+     *   where the values of each attribute are sorted
+     */
+    private String generateKey(GKInstance instance) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (SchemaAttribute att : getSortedDefiningAttributes((GKSchemaClass) instance.getSchemClass())) {
+            builder.append(att.getName()).append("=");
+            generateKeyFromValues(instance.getAttributeValuesList(att.getName()), att, builder);
+            builder.append("||");
+        }
+        return builder.toString();
+    }
+
     private void generateKeyFromValues(List<?> values,
                                        SchemaAttribute att,
                                        StringBuilder builder) {
         if (att.isInstanceTypeAttribute()) {
-            // Copy to avoid override the instance
-            List<?> copy = new ArrayList<>(values);
-            InstanceUtilities.sortInstances(copy);
-            copy.forEach(inst -> builder.append(((GKInstance)inst).getDBID()).append("|"));
+            values.stream()
+                  .map(inst -> ((GKInstance)inst).getDBID())
+                  .sorted()
+                  .forEach(dbId -> builder.append(dbId).append("|"));
         }
         else {
-            List<String> copy = new ArrayList<>();
-            values.forEach(o -> copy.add(o.toString()));
-            copy.stream().sorted().forEach(s -> builder.append(copy).append("|"));
+            values.stream()
+                  .map(Object::toString)
+                  .sorted()
+                  .forEach(s -> builder.append(s).append("|"));
         }
     }
-    
+
+    @SuppressWarnings("unchecked")
+    private List<SchemaAttribute> getSortedDefiningAttributes(GKSchemaClass cls) {
+        Collection<SchemaAttribute> definedAttributes = cls.getDefiningAttributes();
+        return definedAttributes.stream()
+                .sorted((att1, att2) -> att1.getName().compareTo(att2.getName()))
+                .collect(Collectors.toList());
+    }
+
     private List<String> loadConfiguration() throws IOException {
         File file = getConfigurationFile();
         if (file == null)
@@ -0,0 +1,181 @@
+package org.reactome.release.qa.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.common.LongIntMap;
+
+/**
+ * The 128-bit fingerprints of the defining attribute values of a set of
+ * instances, which find the candidate duplicates without building a key
+ * object per instance.
+ *
+ * The attributes are added one at a time as (DB id, value) rows, where
+ * a value is a DB id or a {@link #hashValue(String)} hash. The values of
+ * each instance are sorted, so the fingerprint does not depend on the
+ * value order, and folded into two independent 64-bit hashes together
+ * with the attribute name and the value count. Only the instances whose
+ * fingerprints collide are materialised as groups. A collision is a
+ * candidate: the caller confirms it with the actual values.
+ */
+public class InstanceFingerprints {
+
+    private final long[] dbIds;
+
+    private final LongIntMap ordinals;
+
+    private final long[] high;
+
+    private final long[] low;
+
+    /**
+     * @param dbIds the instance DB ids
+     */
+    public InstanceFingerprints(long[] dbIds) {
+        this.dbIds = dbIds.clone();
+        ordinals = new LongIntMap(dbIds.length);
+        for (int i = 0; i < dbIds.length; i++) {
+            ordinals.put(dbIds[i], i);
+        }
+        high = new long[dbIds.length];
+        low = new long[dbIds.length];
+    }
+
+    /**
+     * @param value a primitive attribute value
+     * @return the 64-bit hash of the value
+     */
+    public static long hashValue(String value) {
+        // FNV-1a, finished with a mix for the low bits.
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Folds one defining attribute into the fingerprints of the given
+     * instances. The attributes of an instance must be added in the same
+     * order, e.g. name order, for every instance.
+     *
+     * @param name the attribute name
+     * @param instanceDbIds the instances which define the attribute,
+     *   including those without a value
+     * @param rowDbIds the instance DB id of each value row
+     * @param rowValues the value of each row
+     * @param rowCount the number of rows
+     */
+    public void addAttribute(String name,
+                             long[] instanceDbIds,
+                             long[] rowDbIds,
+                             long[] rowValues,
+                             int rowCount) {
+        // Group the values by instance with a counting sort.
+        int[] start = new int[dbIds.length + 1];
+        for (int i = 0; i < rowCount; i++) {
+            int ordinal = ordinals.get(rowDbIds[i], -1);
+            if (ordinal >= 0) {
+                start[ordinal + 1]++;
+            }
+        }
+        for (int i = 0; i < dbIds.length; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] next = Arrays.copyOf(start, dbIds.length);
+        long[] values = new long[start[dbIds.length]];
+        for (int i = 0; i < rowCount; i++) {
+            int ordinal = ordinals.get(rowDbIds[i], -1);
+            if (ordinal >= 0) {
+                values[next[ordinal]++] = rowValues[i];
+            }
+        }
+        long nameHash = hashValue(name);
+        for (long dbId : instanceDbIds) {
+            int ordinal = ordinals.get(dbId, -1);
+            if (ordinal < 0) {
+                continue;
+            }
+            Arrays.sort(values, start[ordinal], start[ordinal + 1]);
+            fold(ordinal, nameHash);
+            fold(ordinal, start[ordinal + 1] - start[ordinal]);
+            for (int i = start[ordinal]; i < start[ordinal + 1]; i++) {
+                fold(ordinal, values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the DB ids of each group of two or more instances with the
+     *   same fingerprint, sorted within a group and ordered by the first
+     *   DB id of the group
+     */
+    public List<long[]> findCollisions() {
+        // Only the instances whose high hash collides are compared in full.
+        long[] sortedHigh = high.clone();
+        Arrays.sort(sortedHigh);
+        LongHashSet collided = new LongHashSet();
+        for (int i = 1; i < sortedHigh.length; i++) {
+            if (sortedHigh[i] == sortedHigh[i - 1]) {
+                // Masked, since the set only holds positive values.
+                collided.add(toKey(sortedHigh[i]));
+            }
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < dbIds.length; i++) {
+            if (collided.contains(toKey(high[i]))) {
+                candidates.add(i);
+            }
+        }
+        candidates.sort(Comparator.<Integer>comparingLong(i -> high[i])
+                                  .thenComparingLong(i -> low[i])
+                                  .thenComparingLong(i -> dbIds[i]));
+        List<long[]> groups = new ArrayList<>();
+        int first = 0;
+        for (int i = 1; i <= candidates.size(); i++) {
+            if (i == candidates.size() || !isSameFingerprint(candidates.get(first), candidates.get(i))) {
+                if (i - first > 1) {
+                    groups.add(candidates.subList(first, i).stream().mapToLong(c -> dbIds[c]).toArray());
+                }
+                first = i;
+            }
+        }
+        groups.sort(Comparator.comparingLong(group -> group[0]));
+        return groups;
+    }
+
+    private boolean isSameFingerprint(int ordinal, int other) {
+        return high[ordinal] == high[other] && low[ordinal] == low[other];
+    }
+
+    private void fold(int ordinal, long value) {
+        high[ordinal] = mix(high[ordinal] * 0x9E3779B97F4A7C15L + value);
+        low[ordinal] = mix((low[ordinal] ^ value) * 0xC2B2AE3D27D4EB4FL + 0x165667B19E3779F9L);
+    }
+
+    /**
+     * @return the positive set key of a hash
+     */
+    private static long toKey(long hash) {
+        // A hash of Long.MIN_VALUE or zero shares a key with another hash,
+        // which only adds a candidate.
+        return (hash & Long.MAX_VALUE) | 1L;
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -2,7 +2,6 @@ package org.reactome.release.qa.graph;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -15,6 +14,8 @@ import org.jdom.Element;
 import org.jdom.input.SAXBuilder;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.common.MissingAttributeRules;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -23,7 +24,8 @@ import org.reactome.release.qa.common.QAReport;
  * at least one attribute has a non-null value. For example, a ReactionlikeEvent instance
  * should have a value in inferredFrom, literatureReference, and its Summation's
  * literartureReference. The check is configured by the corresponding <code>.txt</code>
- * file in the resources folder.
+ * file in the resources folder. The configurations are compiled into
+ * <code>NOT EXISTS</code> queries by {@link MissingAttributeRules}.
  * 
  * @author wug
  */
@@ -42,66 +44,37 @@ public class MultipleAttributesCrossClassesMissingCheck extends AbstractQACheck
             return report; // Nothing to be checked
         // Will be sorted based on cls names
         Collections.sort(configurations, (c1, c2) -> c1.clsName.compareTo(c2.clsName));        
+        // The referred attributes are followed on the server, so only the
+        // violating instances are fetched
+        MissingAttributeRules rules = new MissingAttributeRules(dba);
         for (CheckConfiguration config : configurations) {
-            logger.info("Check " + config.clsName + " for " + config.toString() + "...");
-            executeQACheck(config, report);
+            rules.addRule(new MissingAttributeRules.Rule(config.clsName, config.attributes, config.referToAttributes));
         }
-        report.setColumnHeaders("DBID",
-                "DisplayName",
-                "Class",
-                "Attributes",
-                "MostRecentAuthor");
-        
-        return report;
-    }
-    
-    @SuppressWarnings("unchecked")
-    private void executeQACheck(CheckConfiguration config, QAReport report) throws Exception {
-        Collection<GKInstance> instances = dba.fetchInstancesByClass(config.clsName);
-        for (String attName : config.attributes)
-            dba.loadInstanceAttributeValues(instances, new String[]{attName});
-        boolean isGood = false;
-        for (GKInstance instance : instances) {
-            if (isEscaped(instance)) {
-                continue;
-            }
-            isGood = false;
-            for (String attName : config.attributes) {
-                Object value = instance.getAttributeValue(attName);
-                if (value != null) {
-                    isGood = true;
-                    break;
-                }
-            }
-            if (isGood)
-                continue; // Check next
-            // Need to check refer attributes
-            for (String refer : config.referToAttributes.keySet()) {
-                // It should be instance
-                List<GKInstance> values = instance.getAttributeValuesList(refer);
-                if (values == null || values.size() == 0) {
+        List<List<Long>> violations = rules.findViolations();
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        violations.forEach(hydrator::addAll);
+        for (int i = 0; i < configurations.size(); i++) {
+            CheckConfiguration config = configurations.get(i);
+            logger.info("Check " + config.clsName + " for " + config.toString() + "...");
+            for (Long dbId : violations.get(i)) {
+                GKInstance instance = hydrator.get(dbId);
+                if (instance == null || isEscaped(instance)) {
                     continue;
                 }
-                for (GKInstance value : values) {
-                    for (String refAtt : config.referToAttributes.get(refer)) {
-                        Object refAttValue = value.getAttributeValue(refAtt);
-                        if (refAttValue != null) {
-                            isGood = true;
-                            break;
-                        }
-                    }
-                }
-                // This is a less stringent check: as long as there is a value in a referred instance, it is fine.
-                if (isGood) 
-                    break;
-            }
-            if (!isGood)
                 report.addLine(instance.getDBID() + "",
                                instance.getDisplayName(),
                                instance.getSchemClass().getName(),
                                config.toString(),
                                QACheckerHelper.getLastModificationAuthor(instance));
+            }
         }
+        report.setColumnHeaders("DBID",
+                "DisplayName",
+                "Class",
+                "Attributes",
+                "MostRecentAuthor");
+        
+        return report;
     }
     
     @SuppressWarnings("unchecked")
@@ -4,7 +4,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +14,8 @@ import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.common.MissingAttributeRules;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -33,10 +34,17 @@ public class MultipleAttributesMissingCheck extends AbstractQACheck {
             return report; // Nothing to be checked
         // Will be sorted based on cls names
         List<String> clsList = clsToAttributes.keySet().stream().sorted().collect(Collectors.toList());
+        // The rules of all classes are evaluated on the server before any instance is fetched
+        MissingAttributeRules rules = new MissingAttributeRules(dba);
         for (String cls : clsList) {
-            logger.info("Checking " + cls + "...");
-            List<String> attributes = clsToAttributes.get(cls);
-            executeQACheck(cls, attributes, report);
+            rules.addRule(new MissingAttributeRules.Rule(cls, clsToAttributes.get(cls)));
+        }
+        List<List<Long>> violations = rules.findViolations();
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        violations.forEach(hydrator::addAll);
+        for (int i = 0; i < clsList.size(); i++) {
+            logger.info("Checking " + clsList.get(i) + "...");
+            addReportLines(violations.get(i), String.join(",", clsToAttributes.get(clsList.get(i))), hydrator, report);
         }
         
         report.setColumnHeaders("DBID",
@@ -48,32 +56,29 @@ public class MultipleAttributesMissingCheck extends AbstractQACheck {
         return report;
     }
     
-    private void executeQACheck(String clsName, List<String> attNames, QAReport report) throws Exception {
-        Collection<GKInstance> instances = QACheckerHelper.getInstancesWithNullAttribute(dba,
-                                                                                         clsName,
-                                                                                         attNames.get(0),
-                                                                                         null);
-        for (GKInstance instance: instances) {
-            if (isEscaped(instance)) {
+    /**
+     * Reports the instances with the given DB ids which are not escaped.
+     * 
+     * @param dbIds the DB ids of the instances missing the attributes
+     * @param attributes the attribute column value
+     * @param hydrator the hydrator to which the DB ids were added
+     * @param report the report to add to
+     * @throws Exception
+     */
+    protected void addReportLines(List<Long> dbIds,
+                                  String attributes,
+                                  InstanceHydrator hydrator,
+                                  QAReport report) throws Exception {
+        for (Long dbId : dbIds) {
+            GKInstance instance = hydrator.get(dbId);
+            if (instance == null || isEscaped(instance)) {
                 continue;
             }
-            boolean isMissing = true;
-            for (int i = 1; i < attNames.size(); i++) {
-                String attName = attNames.get(i);
-                if (instance.getSchemClass().isValidAttribute(attName)) {
-                    if (instance.getAttributeValue(attName) != null) {
-                        isMissing = false;
-                        break;
-                    }
-                }
-            }
-            if (isMissing) {
-                report.addLine(instance.getDBID() + "",
-                               instance.getDisplayName(),
-                               instance.getSchemClass().getName(),
-                               String.join(",", attNames),
-                               QACheckerHelper.getLastModificationAuthor(instance));
-            }
+            report.addLine(instance.getDBID() + "",
+                           instance.getDisplayName(),
+                           instance.getSchemClass().getName(),
+                           attributes,
+                           QACheckerHelper.getLastModificationAuthor(instance));
         }
     }
     
@@ -0,0 +1,182 @@
+package org.reactome.release.qa.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.gk.model.GKInstance;
+import org.gk.schema.GKSchema;
+import org.gk.schema.SchemaAttribute;
+import org.reactome.release.qa.annotations.GraphQACheck;
+import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.common.QACheckerHelper;
+import org.reactome.release.qa.common.QAReport;
+
+/**
+ * This QA check reports circular references of any length through the
+ * attributes listed in the configuration file, e.g. a Complex which is
+ * a component of one of its own components. One-hop circular references
+ * are also reported by {@link OneHopCircularReferenceCheck} and
+ * self-references by {@link DatabaseObjectSelfLoopCheck}, which are not
+ * reported here.
+ * 
+ * A shortest cycle is reported for each group of instances which all
+ * reach each other through the attributes, with one line per reference
+ * on the cycle. The group may contain further cycles, which are resolved
+ * by breaking the reported one. An escaped instance is left out of the
+ * graph, so that the cycles through it are not reported but the other
+ * cycles of its group still are.
+ */
+@GraphQACheck
+@SuppressWarnings("unchecked")
+public class MultipleHopCircularReferenceCheck extends AbstractQACheck {
+    private final static Logger logger = Logger.getLogger(MultipleHopCircularReferenceCheck.class);
+
+    public MultipleHopCircularReferenceCheck() {
+    }
+
+    @Override
+    public QAReport executeQACheck() throws Exception {
+        QAReport report = new QAReport();
+        List<SchemaAttribute> attributes = getCheckedAttributes();
+        if (attributes.isEmpty())
+            return report; // Nothing to be checked
+        List<long[]> attributeEdges = new ArrayList<>(attributes.size());
+        try (ConnectionLease lease = acquireConnection()) {
+            AttributeEdgeStore store = new AttributeEdgeStore(lease);
+            for (SchemaAttribute attribute : attributes) {
+                attributeEdges.add(store.getEdges(attribute));
+            }
+        }
+        LongHashSet escaped = getEscapedInstanceDbIds(attributeEdges);
+        if (!escaped.isEmpty()) {
+            for (int i = 0; i < attributeEdges.size(); i++) {
+                attributeEdges.set(i, AttributeEdgeStore.removeEdges(attributeEdges.get(i), escaped));
+            }
+        }
+        ReferenceGraph graph = new ReferenceGraph(attributeEdges);
+        List<ReferenceGraph.Cycle> cycles = graph.findCycles();
+        logger.info("Found " + cycles.size() + " cycles among " + graph.size() + " instances.");
+
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        for (ReferenceGraph.Cycle cycle : cycles) {
+            for (long dbId : cycle.getDbIds()) {
+                hydrator.add(dbId);
+            }
+        }
+        hydrator.hydrate();
+        for (ReferenceGraph.Cycle cycle : cycles) {
+            addReportLines(cycle, attributes, hydrator, report);
+        }
+
+        report.setColumnHeaders("Cycle_DBID",
+                "Cycle_Length",
+                "Component_Size",
+                "DBID",
+                "DisplayName",
+                "Class",
+                "Attribute",
+                "Referred_DBID",
+                "MostRecentAuthor");
+
+        return report;
+    }
+
+    private void addReportLines(ReferenceGraph.Cycle cycle,
+                                List<SchemaAttribute> attributes,
+                                InstanceHydrator hydrator,
+                                QAReport report) throws Exception {
+        long[] dbIds = cycle.getDbIds();
+        List<GKInstance> instances = new ArrayList<>(dbIds.length);
+        for (long dbId : dbIds) {
+            GKInstance instance = hydrator.get(dbId);
+            if (instance == null) {
+                return;
+            }
+            instances.add(instance);
+        }
+        for (int i = 0; i < dbIds.length; i++) {
+            GKInstance instance = instances.get(i);
+            report.addLine(dbIds[0] + "",
+                           dbIds.length + "",
+                           cycle.getComponentSize() + "",
+                           dbIds[i] + "",
+                           instance.getDisplayName(),
+                           instance.getSchemClass().getName(),
+                           attributes.get(cycle.getAttributes()[i]).getName(),
+                           dbIds[(i + 1) % dbIds.length] + "",
+                           QACheckerHelper.getLastModificationAuthor(instance));
+        }
+    }
+
+    /**
+     * @param attributeEdges the sorted packed edges of each attribute
+     * @return the DB ids of the escaped instances which have an edge
+     */
+    private LongHashSet getEscapedInstanceDbIds(List<long[]> attributeEdges) throws Exception {
+        LongHashSet escaped = new LongHashSet();
+        LongHashSet escapeList = getEscapedDbIds();
+        if (escapeList.isEmpty()) {
+            return escaped;
+        }
+        // Only the listed instances are fetched, to apply the cut-off date.
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        for (long[] edges : attributeEdges) {
+            for (long edge : edges) {
+                if (escapeList.contains(AttributeEdgeStore.source(edge))) {
+                    hydrator.add(AttributeEdgeStore.source(edge));
+                }
+                if (escapeList.contains(AttributeEdgeStore.target(edge))) {
+                    hydrator.add(AttributeEdgeStore.target(edge));
+                }
+            }
+        }
+        for (GKInstance instance : hydrator.hydrate().values()) {
+            if (isEscaped(instance)) {
+                escaped.add(instance.getDBID());
+            }
+        }
+        return escaped;
+    }
+
+    /**
+     * @return the instance-valued attributes with a configured name, in
+     *   name and then defining class order
+     */
+    private List<SchemaAttribute> getCheckedAttributes() throws IOException {
+        Set<String> names = loadAttributeNames();
+        Set<SchemaAttribute> original = ((GKSchema) dba.getSchema()).getOriginalAttributes();
+        List<SchemaAttribute> attributes = original.stream()
+                .filter(att -> att.isInstanceTypeAttribute())
+                .filter(att -> names.contains(att.getName()))
+                .collect(Collectors.toList());
+        Collections.sort(attributes, Comparator.comparing((SchemaAttribute att) -> att.getName())
+                                               .thenComparing(att -> att.getOrigin().getName()));
+        return attributes;
+    }
+
+    private Set<String> loadAttributeNames() throws IOException {
+        File file = getConfigurationFile();
+        if (file == null)
+            return Collections.emptySet();
+        try (Stream<String> stream = Files.lines(Paths.get(file.getAbsolutePath()))) {
+            return stream.filter(line -> !line.startsWith("#"))
+                         .map(line -> line.trim())
+                         .filter(line -> line.length() > 0)
+                         .collect(Collectors.toSet());
+        }
+    }
+
+}
@@ -4,9 +4,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,6 +21,8 @@ import org.gk.schema.SchemaAttribute;
 import org.gk.schema.SchemaClass;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
 
@@ -54,6 +53,7 @@ public class OneHopCircularReferenceCheck extends AbstractQACheck {
         List<SchemaAttribute> attributeList = new ArrayList<>(attributes);
         Collections.sort(attributeList, (att1, att2) -> att1.getName().compareTo(att2.getName()));
         Set<String[]> escapedAttributes = loadEscapedAttributes();
+        List<SchemaAttribute[]> pairs = new ArrayList<>();
         for (int i = 0; i < attributeList.size(); i++) {
             SchemaAttribute att1 = attributeList.get(i);
             if (!att1.isInstanceTypeAttribute())
@@ -66,9 +66,10 @@ public class OneHopCircularReferenceCheck extends AbstractQACheck {
                     continue;
                 if (!isCompatible(att1, att2))
                     continue; // These two attributes should be able to use the same type of instance at least.
-                check(att1, att2, report);
+                pairs.add(new SchemaAttribute[] {att1, att2});
             }
         }
+        check(pairs, report);
         
         report.setColumnHeaders("DBID_1",
                 "DisplayName_1",
@@ -116,41 +117,56 @@ public class OneHopCircularReferenceCheck extends AbstractQACheck {
     }
     
     // The following code is modified from Fred's implementation: T027.
-    private void check(SchemaAttribute att1, SchemaAttribute att2, QAReport report) throws Exception {
-        logger.info("Check " + att1.getName() + " and " + att2.getName() + "...");
-        String table1 = QACheckerHelper.getAttributeTableName(att1.getOrigin().getName(), att1.getName(), dba);
-        String table2 = QACheckerHelper.getAttributeTableName(att2.getOrigin().getName(), att2.getName(), dba);
-        String sql = "SELECT a.DB_ID, a." + att1.getName() +
-                " FROM " + table1 + " a, " + table2 + " b" +
-                " WHERE a.DB_ID = b." + att2.getName() +
-                " AND b.DB_ID = a." + att1.getName();
-        Connection conn = dba.getConnection();
-        PreparedStatement ps = conn.prepareStatement(sql);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            Long dbId = rs.getLong(1);
-            GKInstance instance = dba.fetchInstance(dbId);
-            if (isEscaped(instance)) {
-                continue;
+    // Each attribute table is read and reversed once and the reciprocal
+    // references of each attribute pair are found by merging the sorted
+    // edges in memory, rather than by a self-join query per pair.
+    private void check(List<SchemaAttribute[]> pairs, QAReport report) throws Exception {
+        List<long[]> pairEdges = new ArrayList<>(pairs.size());
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        try (ConnectionLease lease = acquireConnection()) {
+            AttributeEdgeStore store = new AttributeEdgeStore(lease);
+            for (SchemaAttribute[] pair : pairs) {
+                logger.info("Check " + pair[0].getName() + " and " + pair[1].getName() + "...");
+                long[] edges = store.findReciprocalEdges(pair[0], pair[1]);
+                for (long edge : edges) {
+                    hydrator.add(AttributeEdgeStore.source(edge));
+                    hydrator.add(AttributeEdgeStore.target(edge));
+                }
+                pairEdges.add(edges);
             }
-            Long otherDbId = rs.getLong(2);
-            GKInstance other = dba.fetchInstance(otherDbId);
-            if (isEscaped(other)) {
-                continue;
+        }
+        hydrator.hydrate();
+        for (int i = 0; i < pairs.size(); i++) {
+            for (long edge : pairEdges.get(i)) {
+                report(pairs.get(i)[0], pairs.get(i)[1], edge, hydrator, report);
             }
-            report.addLine(dbId + "",
-                           instance.getDisplayName(),
-                           instance.getSchemClass().getName(),
-                           att1.getName(),
-                           QACheckerHelper.getLastModificationAuthor(instance),
-                           other.getDBID() + "",
-                           other.getDisplayName(),
-                           other.getSchemClass().getName(),
-                           att2.getName(),
-                           QACheckerHelper.getLastModificationAuthor(other));
         }
-        rs.close();
-        ps.close();
+    }
+
+    private void report(SchemaAttribute att1,
+                        SchemaAttribute att2,
+                        long edge,
+                        InstanceHydrator hydrator,
+                        QAReport report) throws Exception {
+        Long dbId = AttributeEdgeStore.source(edge);
+        GKInstance instance = hydrator.get(dbId);
+        if (isEscaped(instance)) {
+            return;
+        }
+        GKInstance other = hydrator.get(AttributeEdgeStore.target(edge));
+        if (isEscaped(other)) {
+            return;
+        }
+        report.addLine(dbId + "",
+                       instance.getDisplayName(),
+                       instance.getSchemClass().getName(),
+                       att1.getName(),
+                       QACheckerHelper.getLastModificationAuthor(instance),
+                       other.getDBID() + "",
+                       other.getDisplayName(),
+                       other.getSchemClass().getName(),
+                       att2.getName(),
+                       QACheckerHelper.getLastModificationAuthor(other));
     }
 
     private Set<String[]> loadEscapedAttributes() throws IOException {
@@ -10,45 +10,55 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.FusedScanCheck;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.ReferrerIndex;
+import org.reactome.release.qa.common.SchemaClassScan;
 
 @GraphQACheck
-public class OrphanEventsCheck extends AbstractQACheck {
+public class OrphanEventsCheck extends AbstractQACheck implements FusedScanCheck {
 
     private static final List<String> HEADERS = Arrays.asList(
             "DBID", "DisplayName", "SchemaClass", "MostRecentAuthor");
 
+    private QAReport report;
+
     @Override
-    @SuppressWarnings("unchecked")
     public QAReport executeQACheck() throws Exception {
-        QAReport report = new QAReport();
+        return SchemaClassScan.execute(this, dba);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void registerRules(SchemaClassScan scan) throws Exception {
+        report = new QAReport();
+        report.setColumnHeaders(HEADERS);
         
         //The top-level events.
         Set<GKInstance> tlps = getTopLevelPathways();
-        // Get the human events.
+        // The human events.
         GKInstance human = QACheckerHelper.getHuman(dba);
-        Collection<GKInstance> events = dba.fetchInstanceByAttribute(ReactomeJavaConstants.Event,
-                        ReactomeJavaConstants.species,
-                        "=",
-                        human);
-        String[] loadAtts = { ReactomeJavaConstants.hasEvent }; 
-        dba.loadInstanceReverseAttributeValues(events, loadAtts);
+        ReferrerIndex referrers = ReferrerIndex.getIndex(dba, ReactomeJavaConstants.hasEvent);
         // Check for events which are not referenced by another event.
-        for (GKInstance event: events) {
+        scan.addRule(ReactomeJavaConstants.Event, event -> {
+            List<GKInstance> species = event.getAttributeValuesList(ReactomeJavaConstants.species);
+            if (species.stream().noneMatch(value -> value.getDBID().equals(human.getDBID())))
+                return;
             if (isEscaped(event)) {
-                continue;
+                return;
             }
             // A chimeric is used for inference, which doesn't need to be in the hierachy.
             if (QACheckerHelper.isChimeric(event))
-                continue;
-            Collection<GKInstance> referers = event.getReferers(ReactomeJavaConstants.hasEvent);
-            if ((referers == null || referers.isEmpty()) && !tlps.contains(event)) {
+                return;
+            if (!referrers.hasReferrers(event.getDBID()) && !tlps.contains(event)) {
                 addReportLine(report, event);
             }
-        }
-        report.setColumnHeaders(HEADERS);
+        }, ReactomeJavaConstants.species, ReactomeJavaConstants.isChimeric);
+    }
 
+    @Override
+    public QAReport getScanReport() {
         return report;
     }
     
@@ -1,6 +1,5 @@
 package org.reactome.release.qa.graph;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
@@ -14,6 +13,7 @@ import org.gk.schema.GKSchemaAttribute;
 import org.gk.schema.GKSchemaClass;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
 import org.reactome.release.qa.common.JavaConstants;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
@@ -53,36 +53,35 @@ public class PhysicalEntitiesCompartmentCheck extends AbstractQACheck {
                             " FROM " + e2c +
                             " GROUP BY DB_ID" +
                             " HAVING COUNT(" + ReactomeJavaConstants.compartment + ") > 1";
-                    Connection conn = dba.getConnection();
-                    try(PreparedStatement ps = conn.prepareStatement(sql))
+                    List<Long> dbIds = new ArrayList<>();
+                    try (ConnectionLease lease = acquireConnection();
+                         PreparedStatement ps = lease.getConnection().prepareStatement(sql);
+                         ResultSet rs = ps.executeQuery())
                     {
-                        ResultSet rs = ps.executeQuery();
-                        List<Long> dbIds = new ArrayList<>();
                         while (rs.next()) {
                             dbIds.add(rs.getLong(1));
                         }
+                    }
+                    Collection<GKInstance> entities =
+                            dba.fetchInstances(ReactomeJavaConstants.PhysicalEntity, dbIds);
+                    dba.loadInstanceAttributeValues(entities, LOAD_ATTS);
 
-                        Collection<GKInstance> entities =
-                                dba.fetchInstances(ReactomeJavaConstants.PhysicalEntity, dbIds);
-                        dba.loadInstanceAttributeValues(entities, LOAD_ATTS);
-
-                        for (GKInstance entity: entities) {
-                            if (isEscaped(entity)) {
-                                continue;
-                            }
-                            // Only report complexes.
-                            if (!entity.getSchemClass().isa(ReactomeJavaConstants.Complex)) {
-                                continue;
-                            }
-                            GKInstance entityOnOtherCell = null;
-                            if (entity.getSchemClass().isValidAttribute(JavaConstants.entityOnOtherCell))
-                                entityOnOtherCell = (GKInstance) entity.getAttributeValue(JavaConstants.entityOnOtherCell);
-                            if (entityOnOtherCell == null) {
-                                report.addLine(entity.getDBID().toString(),
-                                               entity.getDisplayName(),
-                                               entity.getSchemClass().getName(),
-                                               QACheckerHelper.getLastModificationAuthor(entity));
-                            }
+                    for (GKInstance entity: entities) {
+                        if (isEscaped(entity)) {
+                            continue;
+                        }
+                        // Only report complexes.
+                        if (!entity.getSchemClass().isa(ReactomeJavaConstants.Complex)) {
+                            continue;
+                        }
+                        GKInstance entityOnOtherCell = null;
+                        if (entity.getSchemClass().isValidAttribute(JavaConstants.entityOnOtherCell))
+                            entityOnOtherCell = (GKInstance) entity.getAttributeValue(JavaConstants.entityOnOtherCell);
+                        if (entityOnOtherCell == null) {
+                            report.addLine(entity.getDBID().toString(),
+                                           entity.getDisplayName(),
+                                           entity.getSchemClass().getName(),
+                                           QACheckerHelper.getLastModificationAuthor(entity));
                         }
                     }
                 }
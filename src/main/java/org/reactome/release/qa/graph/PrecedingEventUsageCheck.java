@@ -1,8 +1,5 @@
 package org.reactome.release.qa.graph;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -15,8 +12,11 @@ import org.gk.model.InstanceUtilities;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.ConnectionLease;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.StreamingQuery;
 
 @GraphQACheck
 @SuppressWarnings("unchecked")
@@ -32,6 +32,16 @@ public class PrecedingEventUsageCheck extends AbstractQACheck {
             "   AND ri.input = ro.output" + 
             " )"; 
 
+    /** The attributes used to compare the two events, loaded in bulk. */
+    private static final String[] LOAD_ATTS = {
+            ReactomeJavaConstants.created,
+            ReactomeJavaConstants.modified,
+            ReactomeJavaConstants.input,
+            ReactomeJavaConstants.output,
+            ReactomeJavaConstants.catalystActivity,
+            ReactomeJavaConstants.regulatedBy
+    };
+
     private static final List<String> HEADERS = Arrays.asList(
             "DBID", "DisplayName", "Class", "precedingDBID", "precedingDisplayName", "precedingClass", "MostRecentAuthor");
 
@@ -44,17 +54,31 @@ public class PrecedingEventUsageCheck extends AbstractQACheck {
     public QAReport executeQACheck() throws Exception {
         QAReport report = new QAReport();
 
-        Connection conn = dba.getConnection();
-        PreparedStatement ps = conn.prepareStatement(SQL);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            Long dbId = rs.getLong(1);
-            GKInstance following = dba.fetchInstance(dbId);
-            if (isEscaped(following)) {
+        // The (event, preceding event) DB id pairs.
+        long[][] pairs = {new long[1024]};
+        int[] count = {0};
+        try (ConnectionLease lease = acquireConnection()) {
+            StreamingQuery.forEachRow(lease, SQL, rs -> {
+                int pair = count[0]++;
+                if (2 * pair == pairs[0].length) {
+                    pairs[0] = Arrays.copyOf(pairs[0], pairs[0].length * 2);
+                }
+                pairs[0][2 * pair] = rs.getLong(1);
+                pairs[0][2 * pair + 1] = rs.getLong(2);
+            });
+        }
+        InstanceHydrator hydrator = new InstanceHydrator(dba, LOAD_ATTS);
+        for (int i = 0; i < 2 * count[0]; i++) {
+            hydrator.add(pairs[0][i]);
+        }
+        hydrator.hydrate();
+        for (int pair = 0; pair < count[0]; pair++) {
+            GKInstance following = hydrator.get(pairs[0][2 * pair]);
+            if (following == null || isEscaped(following)) {
                 continue;
             }
-            Long precedingDbId = rs.getLong(2);
-            GKInstance preceding = dba.fetchInstance(precedingDbId);
+            long precedingDbId = pairs[0][2 * pair + 1];
+            GKInstance preceding = hydrator.get(precedingDbId);
             if (preceding == null) {
                 logger.error(precedingDbId + " for " + following + " doesn't exist in the DB!");
                 continue;
@@ -64,8 +88,6 @@ public class PrecedingEventUsageCheck extends AbstractQACheck {
                 addReportLine(report, following, preceding);
             }
         }
-        rs.close();
-        ps.close();
         
         report.setColumnHeaders(HEADERS);
 
@@ -0,0 +1,302 @@
+package org.reactome.release.qa.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.reactome.release.qa.common.LongIntMap;
+
+/**
+ * The instance reference graph of a set of attributes.
+ *
+ * Each referring or referred instance is a vertex with a dense ordinal
+ * in DB id order, and the references are held as a compressed sparse row
+ * adjacency over the ordinals with the attribute of each reference.
+ * The cycles are found with an iterative Tarjan pass over the strongly
+ * connected components, which visits each vertex and reference once,
+ * so a full release database takes seconds rather than a query per
+ * attribute combination.
+ */
+public class ReferenceGraph {
+
+    /**
+     * A cycle of references in a strongly connected component.
+     */
+    public static class Cycle {
+
+        private final long[] dbIds;
+
+        private final int[] attributes;
+
+        private final int componentSize;
+
+        private Cycle(long[] dbIds, int[] attributes, int componentSize) {
+            this.dbIds = dbIds;
+            this.attributes = attributes;
+            this.componentSize = componentSize;
+        }
+
+        /**
+         * @return the DB ids of the instances on the cycle, starting with
+         *   the lowest DB id of the component, where each instance refers
+         *   to the next and the last refers to the first
+         */
+        public long[] getDbIds() {
+            return dbIds;
+        }
+
+        /**
+         * @return the attribute ordinal of each reference, i.e. element
+         *   <code>i</code> is the attribute with which instance
+         *   <code>i</code> refers to the next instance
+         */
+        public int[] getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * @return the number of instances in the strongly connected
+         *   component, which has further cycles if it is larger than
+         *   the cycle
+         */
+        public int getComponentSize() {
+            return componentSize;
+        }
+
+    }
+
+    private final long[] dbIds;
+
+    /** The references of vertex <code>i</code> are <code>targets[start[i]..start[i+1])</code>. */
+    private final int[] start;
+
+    private final int[] targets;
+
+    private final int[] attributes;
+
+    /**
+     * @param attributeEdges the sorted packed {@link AttributeEdgeStore}
+     *   edges of each attribute, where the list index is the attribute
+     *   ordinal
+     */
+    public ReferenceGraph(List<long[]> attributeEdges) {
+        int edgeCount = 0;
+        for (long[] edges : attributeEdges) {
+            edgeCount += edges.length;
+        }
+        long[] vertices = new long[2 * edgeCount];
+        int count = 0;
+        for (long[] edges : attributeEdges) {
+            for (long edge : edges) {
+                vertices[count++] = AttributeEdgeStore.source(edge);
+                vertices[count++] = AttributeEdgeStore.target(edge);
+            }
+        }
+        Arrays.sort(vertices);
+        int size = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            if (i == 0 || vertices[i] != vertices[i - 1]) {
+                vertices[size++] = vertices[i];
+            }
+        }
+        dbIds = Arrays.copyOf(vertices, size);
+        LongIntMap ordinals = new LongIntMap(size);
+        for (int i = 0; i < size; i++) {
+            ordinals.put(dbIds[i], i);
+        }
+        start = new int[size + 1];
+        for (long[] edges : attributeEdges) {
+            for (long edge : edges) {
+                start[ordinals.get(AttributeEdgeStore.source(edge), -1) + 1]++;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] next = Arrays.copyOf(start, size);
+        targets = new int[edgeCount];
+        attributes = new int[edgeCount];
+        for (int attribute = 0; attribute < attributeEdges.size(); attribute++) {
+            for (long edge : attributeEdges.get(attribute)) {
+                int reference = next[ordinals.get(AttributeEdgeStore.source(edge), -1)]++;
+                targets[reference] = ordinals.get(AttributeEdgeStore.target(edge), -1);
+                attributes[reference] = attribute;
+            }
+        }
+    }
+
+    /**
+     * @return the number of instances in the graph
+     */
+    public int size() {
+        return dbIds.length;
+    }
+
+    /**
+     * Finds one shortest cycle in each strongly connected component of
+     * more than one instance. The cycle of a component passes through
+     * the component's lowest DB id. A self-reference is not a cycle here.
+     *
+     * @return the cycles in order of their lowest DB id
+     */
+    public List<Cycle> findCycles() {
+        int[] components = findComponents();
+        // The {component: size} counts and lowest vertex, which comes first.
+        int[] sizes = new int[dbIds.length];
+        int[] lowest = new int[dbIds.length];
+        Arrays.fill(lowest, -1);
+        for (int v = 0; v < dbIds.length; v++) {
+            int component = components[v];
+            if (sizes[component]++ == 0) {
+                lowest[component] = v;
+            }
+        }
+        List<Integer> roots = new ArrayList<>();
+        for (int component = 0; component < dbIds.length; component++) {
+            if (sizes[component] > 1) {
+                roots.add(lowest[component]);
+            }
+        }
+        roots.sort(null);
+        int[] parents = new int[dbIds.length];
+        int[] parentAttributes = new int[dbIds.length];
+        int[] visits = new int[dbIds.length];
+        int[] queue = new int[dbIds.length];
+        List<Cycle> cycles = new ArrayList<>(roots.size());
+        for (int i = 0; i < roots.size(); i++) {
+            int root = roots.get(i);
+            cycles.add(findShortestCycle(root, components, sizes[components[root]],
+                                         i + 1, visits, parents, parentAttributes, queue));
+        }
+        return cycles;
+    }
+
+    /**
+     * Searches breadth first from the root within its component until a
+     * reference back to the root is found.
+     *
+     * @param visit the mark of a vertex visited by this search
+     */
+    private Cycle findShortestCycle(int root,
+                                    int[] components,
+                                    int componentSize,
+                                    int visit,
+                                    int[] visits,
+                                    int[] parents,
+                                    int[] parentAttributes,
+                                    int[] queue) {
+        int component = components[root];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        visits[root] = visit;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = start[v]; i < start[v + 1]; i++) {
+                int w = targets[i];
+                if (w == root) {
+                    if (v == root) {
+                        continue; // A self-reference.
+                    }
+                    return toCycle(root, v, attributes[i], parents, parentAttributes, componentSize);
+                }
+                if (components[w] == component && visits[w] != visit) {
+                    visits[w] = visit;
+                    parents[w] = v;
+                    parentAttributes[w] = attributes[i];
+                    queue[tail++] = w;
+                }
+            }
+        }
+        // Every vertex of a component of more than one vertex is on a cycle.
+        throw new IllegalStateException("No cycle through " + dbIds[root]);
+    }
+
+    private Cycle toCycle(int root,
+                         int last,
+                         int lastAttribute,
+                         int[] parents,
+                         int[] parentAttributes,
+                         int componentSize) {
+        int length = 1;
+        for (int v = last; v != root; v = parents[v]) {
+            length++;
+        }
+        long[] cycleDbIds = new long[length];
+        int[] cycleAttributes = new int[length];
+        cycleAttributes[length - 1] = lastAttribute;
+        int position = length - 1;
+        for (int v = last; v != root; v = parents[v]) {
+            cycleDbIds[position] = dbIds[v];
+            cycleAttributes[position - 1] = parentAttributes[v];
+            position--;
+        }
+        cycleDbIds[0] = dbIds[root];
+        return new Cycle(cycleDbIds, cycleAttributes, componentSize);
+    }
+
+    /**
+     * Tarjan's algorithm with an explicit call stack, so that deep
+     * reference chains cannot overflow the thread stack.
+     *
+     * @return the component number of each vertex
+     */
+    private int[] findComponents() {
+        int size = dbIds.length;
+        int[] index = new int[size];
+        Arrays.fill(index, -1);
+        int[] low = new int[size];
+        boolean[] isOnStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        int[] callPositions = new int[size];
+        int[] components = new int[size];
+        int stackSize = 0;
+        int callSize = 0;
+        int counter = 0;
+        int componentCount = 0;
+        for (int s = 0; s < size; s++) {
+            if (index[s] >= 0) {
+                continue;
+            }
+            index[s] = low[s] = counter++;
+            stack[stackSize++] = s;
+            isOnStack[s] = true;
+            callStack[callSize] = s;
+            callPositions[callSize++] = start[s];
+            while (callSize > 0) {
+                int v = callStack[callSize - 1];
+                if (callPositions[callSize - 1] < start[v + 1]) {
+                    int w = targets[callPositions[callSize - 1]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        isOnStack[w] = true;
+                        callStack[callSize] = w;
+                        callPositions[callSize++] = start[w];
+                    }
+                    else if (isOnStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                callSize--;
+                if (callSize > 0) {
+                    int u = callStack[callSize - 1];
+                    low[u] = Math.min(low[u], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        isOnStack[w] = false;
+                        components[w] = componentCount;
+                    } while (w != v);
+                    componentCount++;
+                }
+            }
+        }
+        return components;
+    }
+
+}
@@ -1,13 +1,17 @@
 package org.reactome.release.qa.graph;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
 import org.gk.model.GKInstance;
+import org.reactome.release.qa.common.FusedSweepCheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaSweep;
 
 /**
  * This is the abstract class for attribute cardinality checks.
@@ -19,7 +23,7 @@ import org.reactome.release.qa.common.QAReport;
  * 
  * @author Fred Loney <loneyf@ohsu.edu>
  */
-abstract public class SingleAttributeCardinalityCheck extends SingleAttributeMissingCheck {
+abstract public class SingleAttributeCardinalityCheck extends SingleAttributeMissingCheck implements FusedSweepCheck {
 
     private static final Logger logger = Logger.getLogger(SingleAttributeCardinalityCheck.class);
 
@@ -39,6 +43,11 @@ abstract public class SingleAttributeCardinalityCheck extends SingleAttributeMis
     private String comparison;
 
     private boolean isDuplicateCheck;
+
+    /** The (class, attribute) of each registered probe. */
+    private List<String[]> checked;
+
+    private List<Integer> probes;
     
     /**
      * @param comparison the count comparison SQL clause, e.g. <code>= 1</code>
@@ -74,36 +83,100 @@ abstract public class SingleAttributeCardinalityCheck extends SingleAttributeMis
         return isEscaped(inst);
     }
 
+    /**
+     * Runs the cardinality queries of every configured class and attribute
+     * together in one {@link SchemaSweep}, which sends the queries of a
+     * table in one round trip on parallel connections. The class membership
+     * is filtered in SQL with a join to <code>DatabaseObject._class</code>.
+     * When several cardinality checks are run, the runner adds their queries
+     * to one shared sweep instead.
+     */
+    @Override
+    public QAReport executeQACheck() throws Exception {
+        return SchemaSweep.execute(this, dba);
+    }
+
+    @Override
+    public void registerProbes(SchemaSweep sweep) throws Exception {
+        checked = new ArrayList<>();
+        probes = new ArrayList<>();
+        Map<String, List<String>> clsToAttributes = loadConfiguration();
+        if (clsToAttributes == null || clsToAttributes.size() == 0)
+            return; // Nothing to be checked
+        // Will be sorted based on cls names
+        List<String> clsList = clsToAttributes.keySet().stream().sorted().collect(Collectors.toList());
+        for (String cls : clsList) {
+            for (String att : clsToAttributes.get(cls)) {
+                Integer probe = addProbe(cls, att, sweep);
+                if (probe != null) {
+                    checked.add(new String[] {cls, att});
+                    probes.add(probe);
+                }
+            }
+        }
+    }
+
     @Override
-    protected void executeQACheck(String clsName, String attName, QAReport report) throws Exception {
+    public QAReport getSweepReport(List<List<long[]>> probeRows) throws Exception {
+        QAReport report = new QAReport();
+        if (checked.isEmpty())
+            return report;
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        for (Integer probe : probes) {
+            for (long[] row : probeRows.get(probe)) {
+                hydrator.add(row[0]);
+                if (isDuplicateCheck)
+                    hydrator.add(row[1]);
+            }
+        }
+        hydrator.hydrate();
+        for (int i = 0; i < checked.size(); i++) {
+            addReportLines(checked.get(i)[0], checked.get(i)[1], probeRows.get(probes.get(i)), hydrator, report);
+        }
+
+        report.setColumnHeaders(getColumnHeaders());
+
+        return report;
+    }
+
+    /**
+     * Adds the cardinality query of the given class and attribute to the sweep.
+     * @return the probe number, or null if the attribute cannot be checked
+     */
+    private Integer addProbe(String clsName, String attName, SchemaSweep sweep) throws Exception {
         // For quick performance, we will use SQL query directly
         String tableName = QACheckerHelper.getAttributeTableName(clsName, attName, dba);
         if (!tableName.contains("_2_")) {
             logger.error("SingleAttributeCardinalityCheck should be used for" +
                     " multiple-valued attributes only. " + 
                     clsName + "." + attName + " is single-valued.");
-            return;
+            return null;
         }
-        String atts = isDuplicateCheck ? "DB_ID, " + attName : "DB_ID";
-        String query = "SELECT " + atts + " FROM " + tableName +
-                " GROUP BY " + atts + " HAVING COUNT(*) " + comparison;
-        Connection conn = dba.getConnection();
-        PreparedStatement ps = conn.prepareStatement(query);
-        ResultSet rs = ps.executeQuery();
-        while (rs.next()) {
-            Long dbId = rs.getLong(1);
-            GKInstance instance = dba.fetchInstance(dbId);
-            // Since the attribute may be defined in a superclass, the above SQL query may pick out
-            // instances in another class (e.g. an CandidateSet for DefinedSet checking). Therefore
-            // the following check.
-            if (!instance.getSchemClass().isa(clsName))
-                continue;
+        // Since the attribute may be defined in a superclass, the table may hold
+        // instances in another class (e.g. an CandidateSet for DefinedSet checking).
+        // Therefore the join to the class of each instance.
+        String groupBy = isDuplicateCheck ? "t.DB_ID, t." + attName : "t.DB_ID";
+        // Every probe selects two columns, so that the probes of all the
+        // cardinality checks can share one sweep.
+        String atts = isDuplicateCheck ? groupBy : "t.DB_ID, 0";
+        String query = "SELECT " + atts + " FROM " + tableName + " t, DatabaseObject d" +
+                " WHERE d.DB_ID = t.DB_ID AND d._class IN (" + QACheckerHelper.getSubclassNames(clsName, dba.getSchema()) + ")" +
+                " GROUP BY " + groupBy + " HAVING COUNT(*) " + comparison;
+        return sweep.addProbe(tableName, query);
+    }
+
+    private void addReportLines(String clsName,
+                                String attName,
+                                List<long[]> rows,
+                                InstanceHydrator hydrator,
+                                QAReport report) throws Exception {
+        for (long[] row : rows) {
+            GKInstance instance = hydrator.get(row[0]);
             // Escape the special case
             if (isEscaped(instance, attName))
                 continue;
             if (isDuplicateCheck) {
-                Long dupDbId = rs.getLong(2);
-                GKInstance duplicate = dba.fetchInstance(dupDbId);
+                GKInstance duplicate = hydrator.get(row[1]);
                 if (!isEscaped(duplicate)) {
                     addDuplicateReportLine(report, instance, clsName, attName, duplicate);
                 }
@@ -111,8 +184,6 @@ abstract public class SingleAttributeCardinalityCheck extends SingleAttributeMis
                 addReportLine(report, instance, clsName, attName);
             }
         }
-        rs.close();
-        ps.close();
     }
     
     @Override
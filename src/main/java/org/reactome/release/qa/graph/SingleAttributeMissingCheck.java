@@ -1,13 +1,14 @@
 package org.reactome.release.qa.graph;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.gk.model.GKInstance;
 import org.reactome.release.qa.annotations.GraphQACheck;
-import org.reactome.release.qa.common.QACheckerHelper;
+import org.reactome.release.qa.common.InstanceHydrator;
+import org.reactome.release.qa.common.MissingAttributeRules;
 import org.reactome.release.qa.common.QAReport;
 
 /**
@@ -41,11 +42,21 @@ public class SingleAttributeMissingCheck extends MultipleAttributesMissingCheck
             return report; // Nothing to be checked
         // Will be sorted based on cls names
         List<String> clsList = clsToAttributes.keySet().stream().sorted().collect(Collectors.toList());
+        // One rule per attribute, which are batched into one query per class
+        MissingAttributeRules rules = new MissingAttributeRules(dba);
+        List<String> attNames = new ArrayList<>();
         for (String cls : clsList) {
             List<String> attributes = clsToAttributes.get(cls);
-            for (String att : attributes)
-                executeQACheck(cls, att, report);
+            for (String att : attributes) {
+                rules.addRule(new MissingAttributeRules.Rule(cls, Collections.singletonList(att)));
+                attNames.add(att);
+            }
         }
+        List<List<Long>> violations = rules.findViolations();
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        violations.forEach(hydrator::addAll);
+        for (int i = 0; i < attNames.size(); i++)
+            addReportLines(violations.get(i), attNames.get(i), hydrator, report);
         
         report.setColumnHeaders(getColumnHeaders());
         
@@ -64,23 +75,6 @@ public class SingleAttributeMissingCheck extends MultipleAttributesMissingCheck
         return DEF_COL_HDRS;
     }
     
-    protected void executeQACheck(String clsName, String attName, QAReport report) throws Exception {
-        Collection<GKInstance> instances = QACheckerHelper.getInstancesWithNullAttribute(dba,
-                                                                                   clsName,
-                                                                                   attName,
-                                                                                   null);
-        for (GKInstance instance : instances) {
-            if (isEscaped(instance)) {
-                continue;
-            }
-            report.addLine(instance.getDBID() + "",
-                           instance.getDisplayName(),
-                           instance.getSchemClass().getName(),
-                           attName,
-                           QACheckerHelper.getLastModificationAuthor(instance));
-        }
-    }
-
     @Override
     public String getDisplayName() {
         return "Attribute_Value_Missing";
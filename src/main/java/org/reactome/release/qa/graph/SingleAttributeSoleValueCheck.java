@@ -1,10 +1,13 @@
 package org.reactome.release.qa.graph;
 
+import java.io.IOException;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.GraphQACheck;
+import org.reactome.release.qa.common.SchemaSweep;
 import org.reactome.release.qa.common.SkipList;
 
 /**
@@ -28,24 +31,31 @@ public class SingleAttributeSoleValueCheck extends SingleAttributeCardinalityChe
 
     private static final Logger logger = LogManager.getLogger();
     private SkipList skipList;
+
     /**
-     * Escapes <code>Pathway.hasEvent</code> check non-disease instances.
+     * Also reads the skip list, once per run rather than for every instance.
      */
     @Override
-    protected boolean isEscaped(GKInstance inst, String attName) throws Exception {
-
+    public void registerProbes(SchemaSweep sweep) throws Exception {
+        super.registerProbes(sweep);
         try {
             skipList = new SkipList(this.getDisplayName());
-        } catch (Exception e) {
+        } catch (IOException e) {
+            skipList = null;
             logger.error(e.getMessage());
-            e.printStackTrace();
         }
+    }
 
+    /**
+     * Escapes <code>Pathway.hasEvent</code> check non-disease instances.
+     */
+    @Override
+    protected boolean isEscaped(GKInstance inst, String attName) throws Exception {
         if (super.isEscaped(inst, attName)) {
             return true;
         }
         // Check if instance DbId is in skipList.
-        if (skipList.containsInstanceDbId(inst.getDBID())) {
+        if (skipList != null && skipList.containsInstanceDbId(inst.getDBID())) {
             return true;
         }
 
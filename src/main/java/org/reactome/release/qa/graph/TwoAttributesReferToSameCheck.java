@@ -3,9 +3,6 @@ package org.reactome.release.qa.graph;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -16,8 +13,10 @@ import org.gk.model.GKInstance;
 import org.gk.schema.SchemaClass;
 import org.reactome.release.qa.annotations.GraphQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckerHelper;
 import org.reactome.release.qa.common.QAReport;
+import org.reactome.release.qa.common.SchemaSweep;
 import org.reactome.release.qa.common.SkipList;
 
 /**
@@ -48,9 +47,25 @@ public class TwoAttributesReferToSameCheck extends AbstractQACheck {
             return report; // Nothing to be checked
         // Will be sorted based on cls names
         Collections.sort(configurations, (c1, c2) -> c1.clsName.compareTo(c2.clsName));        
+        // The queries are swept table by table rather than run one by one.
+        SchemaSweep sweep = new SchemaSweep(dba, 2);
+        List<CheckConfiguration> checked = new ArrayList<>();
         for (CheckConfiguration config : configurations) {
             logger.info("Check " + config.clsName + " for " + config.toString() + "...");
-            executeQACheck(config, report);
+            if (addProbe(config, sweep))
+                checked.add(config);
+        }
+        List<List<long[]>> probeRows = sweep.run();
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        for (List<long[]> rows : probeRows) {
+            for (long[] row : rows) {
+                hydrator.add(row[0]);
+                hydrator.add(row[1]);
+            }
+        }
+        hydrator.hydrate();
+        for (int i = 0; i < checked.size(); i++) {
+            addReportLines(checked.get(i), probeRows.get(i), hydrator, report);
         }
         report.setColumnHeaders("DBID",
                 "DisplayName",
@@ -63,16 +78,20 @@ public class TwoAttributesReferToSameCheck extends AbstractQACheck {
         return report;
     }
     
-    protected void executeQACheck(CheckConfiguration config, QAReport report) throws Exception {
+    /**
+     * Adds the query of the given configuration to the sweep.
+     * @return true if the configuration can be checked
+     */
+    protected boolean addProbe(CheckConfiguration config, SchemaSweep sweep) throws Exception {
         // Make sure only instance type can be checked here
         SchemaClass cls = dba.fetchSchema().getClassByName(config.clsName);
         if (!cls.getAttribute(config.attName1).isInstanceTypeAttribute()) {
             logger.error("Only instance type attribute can be checked. " + config.clsName + "." + config.attName1 + " is not!");
-            return;
+            return false;
         }
         if (!cls.getAttribute(config.attName2).isInstanceTypeAttribute()) {
             logger.error("Only instance type attribute can be checked. " + config.clsName + "." + config.attName2 + " is not!");
-            return;
+            return false;
         }
         // Build an SQL query for the check
         String table1 = QACheckerHelper.getAttributeTableName(config.clsName, config.attName1, dba);
@@ -91,18 +110,22 @@ public class TwoAttributesReferToSameCheck extends AbstractQACheck {
                     config.attName1 + " IS NOT NULL";
         }
 //        System.out.println("SQL query: " + query);
-        Connection connection = dba.getConnection();
-        PreparedStatement stat = connection.prepareStatement(query);
-        ResultSet result = stat.executeQuery();
-        while (result.next()) {
-            long dbId = result.getLong(1);
-            GKInstance inst = dba.fetchInstance(dbId);
+        sweep.addProbe(table1, query);
+        return true;
+    }
+
+    private void addReportLines(CheckConfiguration config,
+                                List<long[]> rows,
+                                InstanceHydrator hydrator,
+                                QAReport report) throws Exception {
+        for (long[] row : rows) {
+            GKInstance inst = hydrator.get(row[0]);
             if (isEscaped(inst)) {
                 continue;
             }
             if (!skipList.containsInstanceDbId(inst.getDBID())) {
-                long valueId = result.getLong(2);
-                GKInstance value = dba.fetchInstance(valueId);
+                long valueId = row[1];
+                GKInstance value = hydrator.get(valueId);
                 if (value == null)
                     throw new IllegalStateException("Instance cannot be found for " + valueId + ".");
                 report.addLine(inst.getDBID() + "",
@@ -114,8 +137,6 @@ public class TwoAttributesReferToSameCheck extends AbstractQACheck {
                         QACheckerHelper.getLastModificationAuthor(inst));
             }
         }
-        result.close();
-        stat.close();
     }
 
     @Override
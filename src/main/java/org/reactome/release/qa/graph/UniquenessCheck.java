@@ -5,11 +5,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -18,6 +16,8 @@ import org.gk.model.GKInstance;
 import org.gk.model.ReactomeJavaConstants;
 import org.reactome.release.qa.annotations.SliceQACheck;
 import org.reactome.release.qa.common.AbstractQACheck;
+import org.reactome.release.qa.common.DuplicateValueQuery;
+import org.reactome.release.qa.common.InstanceHydrator;
 import org.reactome.release.qa.common.QACheckUtilities;
 import org.reactome.release.qa.common.QAReport;
 
@@ -57,27 +57,26 @@ public class UniquenessCheck extends AbstractQACheck {
     }
     
     private void executeQACheck(String clsName, String attName, QAReport report) throws Exception {
-        @SuppressWarnings("unchecked")
-        Collection<GKInstance> instances = dba.fetchInstancesByClass(clsName);
-        dba.loadInstanceAttributeValues(instances, new String[] { attName });
-        Map<Object, List<GKInstance>> valueToInstances =
-                new HashMap<Object, List<GKInstance>>(instances.size());
-        // First pass: group by value.
-        for (GKInstance instance: instances) {
-            if (isEscaped(instance)) {
-                continue;
-            }
-            Object value = instance.getAttributeValue(attName);
-            List<GKInstance> valInsts = valueToInstances.get(value);
-            if (valInsts == null) {
-                valInsts = new ArrayList<GKInstance>(1);
-                valueToInstances.put(value, valInsts);
+        // First pass: find the duplicated values on the server.
+        Map<String, List<Long>> valueToDbIds = DuplicateValueQuery.findDuplicateValues(dba, clsName, attName);
+        if (valueToDbIds.isEmpty())
+            return;
+        InstanceHydrator hydrator = new InstanceHydrator(dba, InstanceHydrator.EDIT_ATTRIBUTES);
+        valueToDbIds.values().forEach(hydrator::addAll);
+        Map<Long, GKInstance> dbIdToInstance = hydrator.hydrate();
+        List<List<GKInstance>> valueGroups = new ArrayList<List<GKInstance>>(valueToDbIds.size());
+        for (List<Long> dbIds: valueToDbIds.values()) {
+            List<GKInstance> valInsts = new ArrayList<GKInstance>(dbIds.size());
+            for (Long dbId: dbIds) {
+                GKInstance instance = dbIdToInstance.get(dbId);
+                if (instance != null && !isEscaped(instance)) {
+                    valInsts.add(instance);
+                }
             }
-            valInsts.add(instance);
+            valueGroups.add(valInsts);
         }
         // Second pass: report duplicates.
-        for (Entry<Object, List<GKInstance>> valInstsEntry: valueToInstances.entrySet()) {
-            List<GKInstance> valInsts = valInstsEntry.getValue();
+        for (List<GKInstance> valInsts: valueGroups) {
             if (valInsts.size() > 1) {
                 GKInstance latest = null;
                 String latestModDateValue = null;
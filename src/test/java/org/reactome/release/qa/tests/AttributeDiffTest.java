@@ -0,0 +1,124 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.AttributeDiff;
+import org.reactome.release.qa.common.AttributeDiff.Change;
+import org.reactome.release.qa.common.AttributeDiff.Delta;
+import org.reactome.release.qa.common.AttributeDiff.Row;
+import org.reactome.release.qa.common.AttributeDiff.RowSource;
+
+public class AttributeDiffTest {
+
+    private static final List<String> ATTRIBUTES = Arrays.asList("hasEvent", "name");
+
+    @Test
+    public void testAddedAndRemoved() throws Exception {
+        // 1 is only prior, 2 is the same in both, 3 is only current.
+        List<Delta> deltas = merge(
+                rows(new Row(2, "Pathway", -1, null),
+                     new Row(2, null, 0, "20"),
+                     new Row(3, "Reaction", -1, null),
+                     new Row(3, null, 1, "glucose")),
+                rows(new Row(1, "Pathway", -1, null),
+                     new Row(1, null, 0, "10"),
+                     new Row(2, "Pathway", -1, null),
+                     new Row(2, null, 0, "20")));
+        assertEquals(2, deltas.size());
+        Delta removed = deltas.get(0);
+        assertEquals(1, removed.getDbId());
+        assertEquals(Change.REMOVED, removed.getChange());
+        assertNull(removed.getCurrentClassName());
+        assertEquals("Pathway", removed.getPriorClassName());
+        assertEquals(Collections.emptyList(), removed.getCurrentDbIds("hasEvent"));
+        assertEquals(Arrays.asList(10L), removed.getPriorDbIds("hasEvent"));
+        Delta added = deltas.get(1);
+        assertEquals(3, added.getDbId());
+        assertEquals(Change.ADDED, added.getChange());
+        assertEquals("Reaction", added.getCurrentClassName());
+        assertNull(added.getPriorClassName());
+        assertEquals(Arrays.asList("glucose"), added.getCurrentValues("name"));
+        assertEquals(Collections.emptyList(), added.getPriorValues("name"));
+    }
+
+    @Test
+    public void testClassChange() throws Exception {
+        List<Delta> deltas = merge(
+                rows(new Row(5, "BlackBoxEvent", -1, null),
+                     new Row(5, null, 1, "event")),
+                rows(new Row(5, "Reaction", -1, null),
+                     new Row(5, null, 1, "event")));
+        assertEquals(1, deltas.size());
+        assertEquals(Change.CHANGED, deltas.get(0).getChange());
+        assertTrue(deltas.get(0).isClassChanged());
+        assertEquals("BlackBoxEvent", deltas.get(0).getCurrentClassName());
+        assertEquals("Reaction", deltas.get(0).getPriorClassName());
+    }
+
+    @Test
+    public void testRankOrder() throws Exception {
+        // 1 has the same values in a different rank order, 2 the same values in the same order.
+        List<Delta> deltas = merge(
+                rows(new Row(1, "Pathway", -1, null),
+                     new Row(1, null, 0, "10"),
+                     new Row(1, null, 0, "20"),
+                     new Row(2, "Pathway", -1, null),
+                     new Row(2, null, 0, "30"),
+                     new Row(2, null, 0, "40")),
+                rows(new Row(1, "Pathway", -1, null),
+                     new Row(1, null, 0, "20"),
+                     new Row(1, null, 0, "10"),
+                     new Row(2, "Pathway", -1, null),
+                     new Row(2, null, 0, "30"),
+                     new Row(2, null, 0, "40")));
+        assertEquals(1, deltas.size());
+        Delta changed = deltas.get(0);
+        assertEquals(1, changed.getDbId());
+        assertEquals(Change.CHANGED, changed.getChange());
+        assertFalse(changed.isClassChanged());
+        assertEquals(Arrays.asList(10L, 20L), changed.getCurrentDbIds("hasEvent"));
+        assertEquals(Arrays.asList(20L, 10L), changed.getPriorDbIds("hasEvent"));
+    }
+
+    @Test
+    public void testMultipleAgainstSingleValue() throws Exception {
+        // The attribute is multi-valued in the current database and single-valued in the prior.
+        // 1 has a second value, 2 has the one value in both.
+        List<Delta> deltas = merge(
+                rows(new Row(1, "Complex", -1, null),
+                     new Row(1, null, 1, "A"),
+                     new Row(1, null, 1, "B"),
+                     new Row(2, "Complex", -1, null),
+                     new Row(2, null, 1, "C")),
+                rows(new Row(1, "Complex", -1, null),
+                     new Row(1, null, 1, "A"),
+                     new Row(2, "Complex", -1, null),
+                     new Row(2, null, 1, "C")));
+        assertEquals(1, deltas.size());
+        assertEquals(1, deltas.get(0).getDbId());
+        assertEquals(Arrays.asList("A", "B"), deltas.get(0).getCurrentValues("name"));
+        assertEquals(Arrays.asList("A"), deltas.get(0).getPriorValues("name"));
+    }
+
+    private List<Delta> merge(RowSource current, RowSource prior) throws Exception {
+        List<Delta> deltas = new ArrayList<>();
+        AttributeDiff.merge(ATTRIBUTES, current, prior, deltas::add);
+        return deltas;
+    }
+
+    private RowSource rows(Row... rows) {
+        Iterator<Row> iterator = Arrays.asList(rows).iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.graph.AttributeEdgeStore;
+
+public class AttributeEdgeStoreTest {
+
+    @Test
+    public void testPack() {
+        long[][] pairs = {{1, 2}, {0xFFFFFFFFL, 1}, {1, 0xFFFFFFFFL}, {0x80000000L, 0x7FFFFFFFL}};
+        for (long[] pair : pairs) {
+            long edge = AttributeEdgeStore.pack(pair[0], pair[1]);
+            assertEquals(pair[0], AttributeEdgeStore.source(edge));
+            assertEquals(pair[1], AttributeEdgeStore.target(edge));
+        }
+        // The packed edges sort by source and then target.
+        long[] sorted = {
+                AttributeEdgeStore.pack(1, 2),
+                AttributeEdgeStore.pack(1, 0xFFFFFFFFL),
+                AttributeEdgeStore.pack(0x80000000L, 0x7FFFFFFFL),
+                AttributeEdgeStore.pack(0xFFFFFFFFL, 1)
+        };
+        long[] edges = sorted.clone();
+        Arrays.sort(edges);
+        assertArrayEquals(sorted, edges);
+    }
+
+    @Test
+    public void testFindReciprocalEdges() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            long[] edges = randomEdges(random);
+            long[] otherEdges = random.nextBoolean() ? edges : randomEdges(random);
+            assertArrayEquals(joinReciprocalEdges(edges, otherEdges),
+                              AttributeEdgeStore.findReciprocalEdges(edges, otherEdges));
+        }
+    }
+
+    @Test
+    public void testSelfReferenceIsReciprocal() {
+        long[] edges = {AttributeEdgeStore.pack(5, 5)};
+        assertArrayEquals(edges, AttributeEdgeStore.findReciprocalEdges(edges, edges));
+    }
+
+    @Test
+    public void testReverse() {
+        long[] edges = {AttributeEdgeStore.pack(1, 3), AttributeEdgeStore.pack(2, 1), AttributeEdgeStore.pack(2, 1)};
+        assertArrayEquals(new long[] {
+                AttributeEdgeStore.pack(1, 2),
+                AttributeEdgeStore.pack(1, 2),
+                AttributeEdgeStore.pack(3, 1)
+        }, AttributeEdgeStore.reverse(edges));
+    }
+
+    @Test
+    public void testRemoveEdges() {
+        long[] edges = {
+                AttributeEdgeStore.pack(1, 2),
+                AttributeEdgeStore.pack(1, 3),
+                AttributeEdgeStore.pack(2, 3),
+                AttributeEdgeStore.pack(3, 1)
+        };
+        assertArrayEquals(new long[] {AttributeEdgeStore.pack(1, 3), AttributeEdgeStore.pack(3, 1)},
+                          AttributeEdgeStore.removeEdges(edges, LongHashSet.of(Arrays.asList(2L))));
+        assertSame(edges, AttributeEdgeStore.removeEdges(edges, LongHashSet.of(Arrays.asList(4L))));
+    }
+
+    private long[] randomEdges(Random random) {
+        long[] edges = new long[random.nextInt(300)];
+        for (int i = 0; i < edges.length; i++) {
+            // Few DB ids, so there are reciprocal and repeated edges.
+            edges[i] = AttributeEdgeStore.pack(1 + random.nextInt(20), 1 + random.nextInt(20));
+        }
+        Arrays.sort(edges);
+        return edges;
+    }
+
+    /**
+     * @return the rows of the nested loop join, in edge order
+     */
+    private long[] joinReciprocalEdges(long[] edges, long[] otherEdges) {
+        List<Long> found = new ArrayList<Long>();
+        for (long edge : edges) {
+            for (long other : otherEdges) {
+                if (AttributeEdgeStore.source(edge) == AttributeEdgeStore.target(other) &&
+                    AttributeEdgeStore.target(edge) == AttributeEdgeStore.source(other)) {
+                    found.add(edge);
+                }
+            }
+        }
+        return found.stream().mapToLong(Long::longValue).toArray();
+    }
+
+}
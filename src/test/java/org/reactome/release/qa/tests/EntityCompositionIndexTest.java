@@ -0,0 +1,111 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.EntityCompositionIndex;
+
+public class EntityCompositionIndexTest {
+
+    private static final long[] NONE = new long[0];
+
+    @Test
+    public void testSharedComplex() {
+        // Complex 1 has components 2 and 3, set 4 has members 1 and 3,
+        // polymer 5 repeats 4 and candidate set 6 has candidate 2.
+        EntityCompositionIndex index = new EntityCompositionIndex(Arrays.asList(
+                new long[] {1, 2, 1, 3},
+                new long[] {4, 1, 4, 3},
+                new long[] {6, 2},
+                new long[] {5, 4}),
+                new long[] {2, 100, 3, 101, 3, 100, 1, 102},
+                new long[] {3});
+        assertArrayEquals(new long[] {2, 3}, index.getContainedDbIds(1));
+        assertArrayEquals(new long[] {1, 2, 3}, index.getContainedDbIds(4));
+        assertArrayEquals(new long[] {1, 2, 3, 4}, index.getContainedDbIds(5));
+        assertArrayEquals(new long[] {2, 3}, index.getContainedLeafDbIds(5));
+        assertArrayEquals(NONE, index.getContainedDbIds(2));
+        assertArrayEquals(NONE, index.getContainedDbIds(99));
+        assertArrayEquals(new long[] {100, 101}, index.getContainedSpeciesDbIds(1));
+        assertArrayEquals(new long[] {100, 101, 102}, index.getContainedSpeciesDbIds(5));
+        assertArrayEquals(new long[] {100}, index.getContainedSpeciesDbIds(6));
+        assertTrue(index.containsChimeric(1));
+        assertTrue(index.containsChimeric(4));
+        // Only hasComponent and hasMember make a container chimeric.
+        assertFalse(index.containsChimeric(5));
+        assertFalse(index.containsChimeric(3));
+        assertTrue(index.isChimeric(3));
+        assertFalse(index.isChimeric(1));
+    }
+
+    @Test
+    public void testCycleInAnyOrder() {
+        // 1, 2 and 3 are a cycle which contains the chimeric 4, 5 contains 1
+        // and 3 has species 100. Each entity of the cycle contains the whole cycle.
+        long[][] orders = {{1, 2, 3, 4, 5}, {3, 2, 1, 5, 4}, {5, 2, 4, 3, 1}, {4, 3, 5, 1, 2}};
+        for (long[] order : orders) {
+            EntityCompositionIndex index = new EntityCompositionIndex(Arrays.asList(
+                    new long[] {1, 2, 2, 3, 3, 4},
+                    new long[] {3, 1, 5, 1},
+                    NONE,
+                    NONE),
+                    new long[] {3, 100},
+                    new long[] {4});
+            for (long dbId : order) {
+                String message = "Entity " + dbId + " of order " + Arrays.toString(order);
+                if (dbId == 4) {
+                    assertArrayEquals(message, NONE, index.getContainedDbIds(dbId));
+                    assertArrayEquals(message, NONE, index.getContainedSpeciesDbIds(dbId));
+                    assertFalse(message, index.containsChimeric(dbId));
+                    continue;
+                }
+                assertArrayEquals(message, new long[] {1, 2, 3, 4}, index.getContainedDbIds(dbId));
+                assertArrayEquals(message, new long[] {4}, index.getContainedLeafDbIds(dbId));
+                assertArrayEquals(message, new long[] {100}, index.getContainedSpeciesDbIds(dbId));
+                assertTrue(message, index.containsChimeric(dbId));
+            }
+            assertEquals(5, index.size());
+        }
+    }
+
+    @Test
+    public void testChimericCycleInAnyOrder() {
+        // 1 and 2 are members of each other, and 2 has the chimeric component 3.
+        for (long first : new long[] {1, 2}) {
+            EntityCompositionIndex index = new EntityCompositionIndex(Arrays.asList(
+                    new long[] {2, 3},
+                    new long[] {1, 2, 2, 1},
+                    NONE,
+                    NONE),
+                    NONE,
+                    new long[] {3});
+            assertTrue(index.containsChimeric(first));
+            assertTrue(index.containsChimeric(3 - first));
+            assertArrayEquals(new long[] {1, 2, 3}, index.getContainedDbIds(3 - first));
+            assertArrayEquals(new long[] {1, 2, 3}, index.getContainedDbIds(first));
+        }
+    }
+
+    @Test
+    public void testDeepChain() {
+        int length = 200000;
+        long[] pairs = new long[2 * length];
+        for (int i = 0; i < length; i++) {
+            pairs[2 * i] = i + 1;
+            pairs[2 * i + 1] = i + 2;
+        }
+        EntityCompositionIndex index = new EntityCompositionIndex(Arrays.asList(NONE, pairs, NONE, NONE),
+                                                                  new long[] {length + 1, 9},
+                                                                  new long[] {length + 1});
+        assertTrue(index.containsChimeric(1));
+        // The closures of a chain grow with its length, so only its end is resolved.
+        assertArrayEquals(new long[] {9}, index.getContainedSpeciesDbIds(length - 100));
+        assertArrayEquals(new long[] {length + 1}, index.getContainedLeafDbIds(length));
+    }
+
+}
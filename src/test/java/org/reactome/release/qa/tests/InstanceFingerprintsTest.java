@@ -0,0 +1,54 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.reactome.release.qa.graph.InstanceFingerprints;
+
+public class InstanceFingerprintsTest {
+
+    @Test
+    public void testValueOrderDoesNotMatter() {
+        InstanceFingerprints fingerprints = new InstanceFingerprints(new long[] {3, 1, 2});
+        // 1 and 3 have the same values in a different row order, 2 has one value less.
+        fingerprints.addAttribute("hasMember", new long[] {1, 2, 3},
+                                  new long[] {3, 1, 2, 1, 3}, new long[] {7, 8, 8, 7, 8}, 5);
+        fingerprints.addAttribute("name", new long[] {1, 2, 3},
+                                  new long[] {1, 2, 3}, new long[] {name("A"), name("A"), name("A")}, 3);
+        List<long[]> collisions = fingerprints.findCollisions();
+        assertEquals(1, collisions.size());
+        assertArrayEquals(new long[] {1, 3}, collisions.get(0));
+    }
+
+    @Test
+    public void testAttributesAreDistinguished() {
+        InstanceFingerprints fingerprints = new InstanceFingerprints(new long[] {1, 2, 3, 4});
+        // The same value in another attribute, or moved to the next attribute, differs.
+        fingerprints.addAttribute("a", new long[] {1, 2}, new long[] {1}, new long[] {5}, 1);
+        fingerprints.addAttribute("b", new long[] {1, 2}, new long[] {2}, new long[] {5}, 1);
+        fingerprints.addAttribute("a", new long[] {3, 4}, new long[] {3, 3}, new long[] {5, 5}, 2);
+        fingerprints.addAttribute("b", new long[] {3, 4}, new long[] {}, new long[] {}, 0);
+        assertTrue(fingerprints.findCollisions().isEmpty());
+    }
+
+    @Test
+    public void testGroupsAreOrderedByFirstDbId() {
+        long[] dbIds = {10, 20, 30, 40, 50, 60};
+        InstanceFingerprints fingerprints = new InstanceFingerprints(dbIds);
+        fingerprints.addAttribute("identifier", dbIds,
+                                  dbIds, new long[] {name("Y"), name("X"), name("Y"), name("X"), name("Z"), name("X")}, 6);
+        List<long[]> collisions = fingerprints.findCollisions();
+        assertEquals(2, collisions.size());
+        assertArrayEquals(new long[] {10, 30}, collisions.get(0));
+        assertArrayEquals(new long[] {20, 40, 60}, collisions.get(1));
+    }
+
+    private long name(String value) {
+        return InstanceFingerprints.hashValue(value);
+    }
+
+}
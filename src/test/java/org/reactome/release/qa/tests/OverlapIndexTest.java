@@ -0,0 +1,62 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.reactome.release.qa.diagram.OverlapIndex;
+
+public class OverlapIndexTest {
+
+    @Test
+    public void testFindOverlapsWithoutTolerance() {
+        checkAgainstAllPairs(null);
+    }
+
+    @Test
+    public void testFindOverlapsWithTolerance() {
+        checkAgainstAllPairs(0.25);
+    }
+
+    @Test
+    public void testEdgesDoNotOverlap() {
+        List<Rectangle> bounds = new ArrayList<Rectangle>();
+        bounds.add(new Rectangle(0, 0, 10, 10));
+        bounds.add(new Rectangle(10, 0, 10, 10));
+        bounds.add(new Rectangle(0, 10, 10, 10));
+        bounds.add(new Rectangle(5, 5, 0, 10));
+        int[][] overlaps = OverlapIndex.findOverlaps(bounds, null);
+        for (int[] others : overlaps) {
+            assertArrayEquals(new int[0], others);
+        }
+    }
+
+    private void checkAgainstAllPairs(Double tolerance) {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 50; trial++) {
+            List<Rectangle> bounds = new ArrayList<Rectangle>();
+            int size = random.nextInt(200);
+            for (int i = 0; i < size; i++) {
+                bounds.add(new Rectangle(random.nextInt(1000) - 100,
+                                         random.nextInt(1000) - 100,
+                                         random.nextInt(80),
+                                         random.nextInt(80)));
+            }
+            int[][] overlaps = OverlapIndex.findOverlaps(bounds, tolerance);
+            for (int i = 0; i < size; i++) {
+                List<Integer> expected = new ArrayList<Integer>();
+                for (int j = i + 1; j < size; j++) {
+                    if (OverlapIndex.isOverlapping(bounds.get(i), bounds.get(j), tolerance)) {
+                        expected.add(j);
+                    }
+                }
+                assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), overlaps[i]);
+            }
+        }
+    }
+
+}
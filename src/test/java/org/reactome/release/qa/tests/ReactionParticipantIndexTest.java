@@ -0,0 +1,88 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.EntityCompositionIndex;
+import org.reactome.release.qa.common.ReactionParticipantIndex;
+
+public class ReactionParticipantIndexTest {
+
+    private static final long[] NONE = new long[0];
+
+    @Test
+    public void testParticipants() {
+        // Complex 1 has components 2 and 3, and set 4 has member 5.
+        EntityCompositionIndex composition = new EntityCompositionIndex(Arrays.asList(
+                new long[] {1, 2, 1, 3},
+                new long[] {4, 5},
+                NONE,
+                NONE),
+                NONE,
+                NONE);
+        // Reactions 10 and 11 share the complex 1. Reaction 10 has 3 as an
+        // input and a catalyst active unit, and 11 has the active unit 4.
+        // The pairs of the reactions are interleaved, as the union rows are.
+        ReactionParticipantIndex index = new ReactionParticipantIndex(new long[] {
+                10, 1,
+                11, 6,
+                10, 3,
+                11, 1,
+                10, 3,
+                11, 4,
+                12, 2},
+                composition);
+        assertEquals(3, index.size());
+        assertArrayEquals(new long[] {1, 2, 3}, index.getParticipantDbIds(10));
+        assertArrayEquals(new long[] {1, 2, 3, 4, 5, 6}, index.getParticipantDbIds(11));
+        assertArrayEquals(new long[] {2}, index.getParticipantDbIds(12));
+        assertArrayEquals(NONE, index.getParticipantDbIds(13));
+    }
+
+    @Test
+    public void testManyReactions() {
+        // Complex 1 has components 2 and 3, so every reaction with 1 also has 2 and 3.
+        EntityCompositionIndex composition = new EntityCompositionIndex(Arrays.asList(
+                new long[] {1, 2, 1, 3}, NONE, NONE, NONE), NONE, NONE);
+        Random random = new Random(42);
+        int reactionCount = 100;
+        List<Set<Long>> expected = new ArrayList<Set<Long>>();
+        for (int i = 0; i < reactionCount; i++) {
+            expected.add(new TreeSet<Long>());
+        }
+        long[] pairs = new long[2000];
+        for (int i = 0; i < pairs.length; i += 2) {
+            int reaction = random.nextInt(reactionCount);
+            long participant = 1 + random.nextInt(50);
+            pairs[i] = 1000 + reaction;
+            pairs[i + 1] = participant;
+            expected.get(reaction).add(participant);
+            if (participant == 1) {
+                expected.get(reaction).addAll(Arrays.asList(2L, 3L));
+            }
+        }
+        ReactionParticipantIndex index = new ReactionParticipantIndex(pairs, composition);
+        for (int i = 0; i < reactionCount; i++) {
+            long[] participants = expected.get(i).stream().mapToLong(Long::longValue).toArray();
+            assertArrayEquals(participants, index.getParticipantDbIds(1000 + i));
+        }
+    }
+
+    @Test
+    public void testNoParticipants() {
+        EntityCompositionIndex composition = new EntityCompositionIndex(
+                Arrays.asList(NONE, NONE, NONE, NONE), NONE, NONE);
+        ReactionParticipantIndex index = new ReactionParticipantIndex(NONE, composition);
+        assertEquals(0, index.size());
+        assertArrayEquals(NONE, index.getParticipantDbIds(10));
+    }
+
+}
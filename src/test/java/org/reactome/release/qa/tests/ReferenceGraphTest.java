@@ -0,0 +1,150 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.graph.AttributeEdgeStore;
+import org.reactome.release.qa.graph.ReferenceGraph;
+
+public class ReferenceGraphTest {
+
+    @Test
+    public void testCycleAcrossAttributes() {
+        // 30 -a-> 10 -b-> 20 -a-> 30, and 20 -b-> 40 which is not on the cycle.
+        ReferenceGraph graph = new ReferenceGraph(Arrays.asList(
+                edges(30, 10, 20, 30),
+                edges(10, 20, 20, 40)));
+        List<ReferenceGraph.Cycle> cycles = graph.findCycles();
+        assertEquals(1, cycles.size());
+        assertArrayEquals(new long[] {10, 20, 30}, cycles.get(0).getDbIds());
+        assertArrayEquals(new int[] {1, 0, 0}, cycles.get(0).getAttributes());
+        assertEquals(3, cycles.get(0).getComponentSize());
+    }
+
+    @Test
+    public void testEscapedInstanceKeepsOtherCycles() {
+        // 1 -> 2 -> 1 is the shortest cycle, 1 -> 3 -> 4 -> 1 is another one in the same group.
+        long[] edges = edges(1, 2, 1, 3, 2, 1, 3, 4, 4, 1);
+        LongHashSet escaped = LongHashSet.of(Arrays.asList(2L));
+        ReferenceGraph graph = new ReferenceGraph(Arrays.asList(AttributeEdgeStore.removeEdges(edges, escaped)));
+        List<ReferenceGraph.Cycle> cycles = graph.findCycles();
+        assertEquals(1, cycles.size());
+        assertArrayEquals(new long[] {1, 3, 4}, cycles.get(0).getDbIds());
+    }
+
+    @Test
+    public void testSelfReferenceAndChainHaveNoCycle() {
+        ReferenceGraph graph = new ReferenceGraph(Arrays.asList(edges(1, 1, 1, 2, 2, 3)));
+        assertTrue(graph.findCycles().isEmpty());
+    }
+
+    @Test
+    public void testDeepChain() {
+        int length = 200000;
+        long[] pairs = new long[2 * length];
+        for (int i = 0; i < length; i++) {
+            pairs[2 * i] = i + 1;
+            pairs[2 * i + 1] = i + 2;
+        }
+        // Close the chain into one long cycle.
+        pairs[2 * length - 1] = 1;
+        List<ReferenceGraph.Cycle> cycles = new ReferenceGraph(Arrays.asList(edges(pairs))).findCycles();
+        assertEquals(1, cycles.size());
+        assertEquals(length, cycles.get(0).getDbIds().length);
+    }
+
+    @Test
+    public void testRandomGraphs() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 100; trial++) {
+            int size = 1 + random.nextInt(30);
+            List<long[]> attributeEdges = new ArrayList<long[]>();
+            for (int attribute = 0; attribute < 3; attribute++) {
+                long[] pairs = new long[2 * random.nextInt(2 * size)];
+                for (int i = 0; i < pairs.length; i++) {
+                    pairs[i] = 1 + random.nextInt(size);
+                }
+                attributeEdges.add(edges(pairs));
+            }
+            checkCycles(attributeEdges, size);
+        }
+    }
+
+    /**
+     * Checks the cycles against the transitive closure.
+     */
+    private void checkCycles(List<long[]> attributeEdges, int size) {
+        boolean[][] reaches = new boolean[size + 1][size + 1];
+        Set<Long> edges = new HashSet<Long>();
+        for (int attribute = 0; attribute < attributeEdges.size(); attribute++) {
+            for (long edge : attributeEdges.get(attribute)) {
+                int source = (int) AttributeEdgeStore.source(edge);
+                int target = (int) AttributeEdgeStore.target(edge);
+                reaches[source][target] = true;
+                edges.add(edge * 4 + attribute);
+            }
+        }
+        for (int k = 1; k <= size; k++)
+            for (int i = 1; i <= size; i++)
+                for (int j = 1; j <= size; j++)
+                    reaches[i][j] |= reaches[i][k] && reaches[k][j];
+        // The lowest DB id of each component of more than one instance.
+        List<Long> roots = new ArrayList<Long>();
+        for (int i = 1; i <= size; i++) {
+            boolean isRoot = false;
+            boolean isLowest = true;
+            for (int j = 1; j <= size; j++) {
+                if (j != i && reaches[i][j] && reaches[j][i]) {
+                    isRoot = true;
+                    isLowest &= j > i;
+                }
+            }
+            if (isRoot && isLowest) {
+                roots.add((long) i);
+            }
+        }
+        List<ReferenceGraph.Cycle> cycles = new ReferenceGraph(attributeEdges).findCycles();
+        assertEquals(roots.size(), cycles.size());
+        for (int c = 0; c < cycles.size(); c++) {
+            long[] dbIds = cycles.get(c).getDbIds();
+            int[] attributes = cycles.get(c).getAttributes();
+            assertEquals((long) roots.get(c), dbIds[0]);
+            assertEquals(dbIds.length, new HashSet<Long>(toList(dbIds)).size());
+            for (int i = 0; i < dbIds.length; i++) {
+                long edge = AttributeEdgeStore.pack(dbIds[i], dbIds[(i + 1) % dbIds.length]);
+                assertTrue(edges.contains(edge * 4 + attributes[i]));
+            }
+        }
+    }
+
+    private List<Long> toList(long[] values) {
+        List<Long> list = new ArrayList<Long>();
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * @return the sorted packed edges of the (source, target) pairs
+     */
+    private long[] edges(long... pairs) {
+        long[] edges = new long[pairs.length / 2];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = AttributeEdgeStore.pack(pairs[2 * i], pairs[2 * i + 1]);
+        }
+        Arrays.sort(edges);
+        return edges;
+    }
+
+}
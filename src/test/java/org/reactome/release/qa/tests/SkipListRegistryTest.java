@@ -0,0 +1,55 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.LongHashSet;
+import org.reactome.release.qa.common.SkipListRegistry;
+
+public class SkipListRegistryTest {
+
+    @Test
+    public void testRead() throws Exception {
+        Path file = Files.createTempFile("test", "_skip_list.txt");
+        try {
+            Files.write(file, Arrays.asList("# A comment", "3\tThe third", "", "1", "Not an id", "2 "));
+            LongHashSet dbIds = SkipListRegistry.getSkipList(file);
+            assertArrayEquals(new long[] {1, 2, 3}, dbIds.toSortedArray());
+            assertReadOnly(dbIds);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMissingFile() throws Exception {
+        Path dir = Files.createTempDirectory("test");
+        try {
+            LongHashSet first = SkipListRegistry.getSkipList(dir.resolve("first_skip_list.txt"));
+            LongHashSet second = SkipListRegistry.getSkipList(dir.resolve("second_skip_list.txt"));
+            assertTrue(first.isEmpty());
+            assertNotSame(first, second);
+            assertReadOnly(first);
+            assertTrue(second.isEmpty());
+        } finally {
+            Files.delete(dir);
+        }
+    }
+
+    private void assertReadOnly(LongHashSet dbIds) {
+        try {
+            dbIds.add(4);
+            fail("A shared skip list was modified");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.reactome.release.qa.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.reactome.release.qa.common.SpeciesDictionary;
+
+public class SpeciesDictionaryTest {
+
+    private static final long HUMAN = 48887;
+
+    private static final long MOUSE = 48892;
+
+    private static final long VIRUS = 9681683;
+
+    @Test
+    public void testHumanAndNonHuman() {
+        // 1 is human, 2 is human and mouse, 3 is mouse, 4 is human related to the virus.
+        SpeciesDictionary dictionary = new SpeciesDictionary(
+                new long[] {HUMAN, MOUSE, VIRUS},
+                new String[] {"Homo sapiens", "Mus musculus", "SARS-CoV-2"},
+                new long[] {1, HUMAN, 2, HUMAN, 2, MOUSE, 3, MOUSE, 4, HUMAN},
+                new long[] {4, VIRUS});
+        assertEquals(HUMAN, dictionary.getHumanDbId());
+        assertEquals(3, dictionary.size());
+        assertTrue(dictionary.isHuman(1));
+        assertFalse(dictionary.isHuman(2));
+        assertFalse(dictionary.isHuman(3));
+        assertFalse(dictionary.isHuman(5));
+        assertFalse(dictionary.hasOnlyNonHumanSpecies(1));
+        assertFalse(dictionary.hasOnlyNonHumanSpecies(2));
+        assertTrue(dictionary.hasOnlyNonHumanSpecies(3));
+        assertFalse(dictionary.hasOnlyNonHumanSpecies(5));
+        assertEquals(2, dictionary.getSpeciesCount(2));
+        assertEquals(0, dictionary.getSpeciesCount(5));
+        assertArrayEquals(new long[] {HUMAN, VIRUS}, dictionary.getSpeciesAndRelatedSpeciesDbIds(4));
+        assertEquals("Mus musculus", dictionary.getSpeciesName(MOUSE));
+    }
+
+    @Test
+    public void testSharesSpecies() {
+        // 1 is human, 2 is mouse related to human, 3 is mouse and 4 is the virus.
+        SpeciesDictionary dictionary = new SpeciesDictionary(
+                new long[] {HUMAN, MOUSE, VIRUS},
+                new String[] {"Homo sapiens", "Mus musculus", "SARS-CoV-2"},
+                new long[] {1, HUMAN, 2, MOUSE, 3, MOUSE, 4, VIRUS},
+                new long[] {2, HUMAN});
+        assertTrue(dictionary.sharesSpecies(1, 2));
+        assertTrue(dictionary.sharesSpecies(2, 1));
+        assertTrue(dictionary.sharesSpecies(2, 3));
+        assertFalse(dictionary.sharesSpecies(1, 3));
+        assertFalse(dictionary.sharesSpecies(3, 4));
+        assertFalse(dictionary.sharesSpecies(1, 5));
+    }
+
+    @Test
+    public void testManySpecies() {
+        // More species than one mask word holds.
+        int count = 200;
+        long[] speciesDbIds = new long[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            speciesDbIds[i] = 1000 + i;
+            names[i] = "Species " + i;
+        }
+        names[150] = "Homo sapiens";
+        SpeciesDictionary dictionary = new SpeciesDictionary(speciesDbIds,
+                                                             names,
+                                                             new long[] {1, 1150, 2, 1199, 3, 1000},
+                                                             new long[] {3, 1199});
+        assertEquals(1150, dictionary.getHumanDbId());
+        assertTrue(dictionary.isHuman(1));
+        assertTrue(dictionary.hasOnlyNonHumanSpecies(2));
+        assertTrue(dictionary.sharesSpecies(2, 3));
+        assertFalse(dictionary.sharesSpecies(1, 2));
+    }
+
+}